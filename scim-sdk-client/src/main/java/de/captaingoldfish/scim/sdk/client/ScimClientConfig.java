@@ -10,6 +10,7 @@ import javax.net.ssl.HostnameVerifier;
 
 import de.captaingoldfish.scim.sdk.client.http.BasicAuth;
 import de.captaingoldfish.scim.sdk.client.http.ConfigManipulator;
+import de.captaingoldfish.scim.sdk.client.http.ConnectionPoolConfig;
 import de.captaingoldfish.scim.sdk.client.http.ProxyHelper;
 import de.captaingoldfish.scim.sdk.client.keys.KeyStoreWrapper;
 import lombok.Builder;
@@ -84,6 +85,11 @@ public class ScimClientConfig
    */
   private ConfigManipulator configManipulator;
 
+  /**
+   * an optional connection pool configuration. If not present a new connection is opened for each request
+   */
+  private ConnectionPoolConfig connectionPool;
+
   @Builder
   public ScimClientConfig(Integer requestTimeout,
                           Integer socketTimeout,
@@ -95,7 +101,8 @@ public class ScimClientConfig
                           Map<String, String> httpHeaders,
                           Map<String, String[]> httpMultiHeaders,
                           BasicAuth basicAuth,
-                          ConfigManipulator configManipulator)
+                          ConfigManipulator configManipulator,
+                          ConnectionPoolConfig connectionPool)
   {
     this.requestTimeout = requestTimeout == null ? DEFAULT_TIMEOUT : requestTimeout;
     this.socketTimeout = socketTimeout == null ? DEFAULT_TIMEOUT : socketTimeout;
@@ -107,6 +114,7 @@ public class ScimClientConfig
     setHeaders(httpHeaders, httpMultiHeaders);
     this.basicAuth = basicAuth;
     this.configManipulator = configManipulator;
+    this.connectionPool = connectionPool;
   }
 
   /**
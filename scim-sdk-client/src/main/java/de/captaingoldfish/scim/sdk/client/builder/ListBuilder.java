@@ -9,7 +9,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.client.methods.HttpGet;
@@ -29,7 +28,6 @@ import de.captaingoldfish.scim.sdk.common.request.SearchRequest;
 import de.captaingoldfish.scim.sdk.common.resources.ResourceNode;
 import de.captaingoldfish.scim.sdk.common.resources.base.ScimObjectNode;
 import de.captaingoldfish.scim.sdk.common.response.ListResponse;
-import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
 import lombok.AccessLevel;
 import lombok.Getter;
 
@@ -438,8 +436,8 @@ public class ListBuilder<T extends ResourceNode>
     }
 
     /**
-     * translates the response body into a list response and parses then all json nodes within the resource into
-     * objects of the given resource node type
+     * translates the response body into a list response whose listed resources are converted into objects of
+     * the given resource node type at the moment they are accessed
      *
      * @param responseType the type of the node which might be of type
      *          {@link de.captaingoldfish.scim.sdk.common.resources.User},
@@ -449,16 +447,7 @@ public class ListBuilder<T extends ResourceNode>
     @Override
     public <R extends ScimObjectNode> R getResource(Class<R> responseType)
     {
-      ListResponse<ScimObjectNode> listResponse = JsonHelper.readJsonDocument(getResponseBody(), ListResponse.class);
-      List<T> typedResources = listResponse.getListedResources().parallelStream().map(scimObjectNode -> {
-        return JsonHelper.readJsonDocument(scimObjectNode.toString(), responseEntityType);
-      }).collect(Collectors.toList());
-      ListResponse typedListResponse = new ListResponse<>(responseEntityType);
-      typedListResponse.setItemsPerPage(listResponse.getItemsPerPage());
-      typedListResponse.setStartIndex(listResponse.getStartIndex());
-      typedListResponse.setTotalResults(listResponse.getTotalResults());
-      typedListResponse.setListedResources(typedResources);
-      return (R)typedListResponse;
+      return (R)new ListResponse<>(getResponseBody(), responseEntityType);
     }
   }
 
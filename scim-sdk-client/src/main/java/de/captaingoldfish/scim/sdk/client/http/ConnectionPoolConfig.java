@@ -0,0 +1,87 @@
+package de.captaingoldfish.scim.sdk.client.http;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * the configuration of the connection pool of the {@link ScimHttpClient}. If this configuration is present the
+ * connections to the server are kept alive and reused for subsequent requests instead of opening a new
+ * connection with a new TLS handshake for each request<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+@Getter
+@Setter
+public class ConnectionPoolConfig
+{
+
+  /**
+   * the default maximum number of connections within the pool
+   */
+  public static final int DEFAULT_MAX_TOTAL = 20;
+
+  /**
+   * the default maximum number of connections per route
+   */
+  public static final int DEFAULT_MAX_PER_ROUTE = 10;
+
+  /**
+   * the default time in seconds after which idle connections are closed
+   */
+  public static final int DEFAULT_MAX_IDLE_TIME = 60;
+
+  /**
+   * the default time in milliseconds after which idle connections are checked before they are reused
+   */
+  public static final int DEFAULT_VALIDATE_AFTER_INACTIVITY = 2000;
+
+  /**
+   * the maximum number of connections within the pool
+   */
+  private int maxTotal;
+
+  /**
+   * the maximum number of connections per route. Since a client usually talks to a single scim server this is
+   * the number of requests that can be sent in parallel
+   */
+  private int maxPerRoute;
+
+  /**
+   * the time in seconds after which idle connections are closed by a background thread. Idle connections are
+   * not evicted if this value is not greater than 0
+   */
+  private int maxIdleTime;
+
+  /**
+   * the time in milliseconds after which an idle connection is checked for staleness before it is leased to a
+   * request. The check is disabled if this value is not greater than 0
+   */
+  private int validateAfterInactivity;
+
+  /**
+   * if connections that were authenticated with a client certificate may be reused by subsequent requests. The
+   * apache http client binds such connections to the TLS principal and does not hand them out to requests that
+   * do not carry the same principal in their context which means that they would never be reused by this
+   * client
+   */
+  private boolean reuseAuthenticatedConnections;
+
+  @Builder
+  public ConnectionPoolConfig(Integer maxTotal,
+                              Integer maxPerRoute,
+                              Integer maxIdleTime,
+                              Integer validateAfterInactivity,
+                              Boolean reuseAuthenticatedConnections)
+  {
+    this.maxTotal = maxTotal == null ? DEFAULT_MAX_TOTAL : maxTotal;
+    this.maxPerRoute = maxPerRoute == null ? DEFAULT_MAX_PER_ROUTE : maxPerRoute;
+    this.maxIdleTime = maxIdleTime == null ? DEFAULT_MAX_IDLE_TIME : maxIdleTime;
+    this.validateAfterInactivity = validateAfterInactivity == null ? DEFAULT_VALIDATE_AFTER_INACTIVITY
+      : validateAfterInactivity;
+    this.reuseAuthenticatedConnections = reuseAuthenticatedConnections == null || reuseAuthenticatedConnections;
+  }
+}
@@ -8,7 +8,10 @@ import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLHandshakeException;
 
@@ -17,9 +20,17 @@ import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
 import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.ssl.SSLContexts;
 
 import de.captaingoldfish.scim.sdk.client.ScimClientConfig;
 import de.captaingoldfish.scim.sdk.client.exceptions.ConnectTimeoutRuntimeException;
@@ -41,6 +52,7 @@ import lombok.extern.slf4j.Slf4j;
  * <ol>
  *   <li>proxy authentication for a configured proxy (see {@link ProxyHelper})</li>
  *   <li>a pre-configured {@link SSLContext}. Depends on the specific declarated bean provided by the developer</li>
+ *   <li>an optional connection pool that keeps the connections alive (see {@link ConnectionPoolConfig})</li>
  * </ol>
  */
 // @formatter:on
@@ -66,6 +78,11 @@ public class ScimHttpClient implements Closeable
    */
   private CloseableHttpClient httpClient;
 
+  /**
+   * the connection pool of the {@link #httpClient} if a {@link ConnectionPoolConfig} is present
+   */
+  private PoolingHttpClientConnectionManager connectionManager;
+
   public ScimHttpClient(ScimClientConfig scimClientConfig)
   {
     this.scimClientConfig = scimClientConfig;
@@ -108,17 +125,25 @@ public class ScimHttpClient implements Closeable
       credentialsProvider = scimClientConfig.getProxy().getProxyCredentials();
     }
     clientBuilder.setDefaultCredentialsProvider(credentialsProvider);
+    SSLContext sslContext = null;
     if (scimClientConfig.getClientAuth() != null || scimClientConfig.getTruststore() != null)
     {
-      clientBuilder.setSSLContext(SSLContextHelper.getSslContext(scimClientConfig.getClientAuth(),
-                                                                 scimClientConfig.getTruststore()));
+      sslContext = SSLContextHelper.getSslContext(scimClientConfig.getClientAuth(), scimClientConfig.getTruststore());
+      clientBuilder.setSSLContext(sslContext);
     }
-
-    clientBuilder.setConnectionReuseStrategy((response, context) -> false);
     if (scimClientConfig.getHostnameVerifier() != null)
     {
       clientBuilder.setSSLHostnameVerifier(scimClientConfig.getHostnameVerifier());
     }
+    ConnectionPoolConfig connectionPoolConfig = scimClientConfig.getConnectionPool();
+    if (connectionPoolConfig == null)
+    {
+      clientBuilder.setConnectionReuseStrategy((response, context) -> false);
+    }
+    else
+    {
+      configureConnectionPool(clientBuilder, connectionPoolConfig, sslContext);
+    }
     clientBuilder.setDefaultRequestConfig(getRequestConfig());
     if (scimClientConfig.getConfigManipulator() != null)
     {
@@ -128,6 +153,56 @@ public class ScimHttpClient implements Closeable
     return httpClient;
   }
 
+  /**
+   * adds a connection pool to the http client that keeps the connections to the server alive
+   *
+   * @param clientBuilder the builder of the http client
+   * @param connectionPoolConfig the configuration of the pool
+   * @param sslContext the ssl context for https connections or null if the default context should be used
+   */
+  private void configureConnectionPool(HttpClientBuilder clientBuilder,
+                                       ConnectionPoolConfig connectionPoolConfig,
+                                       SSLContext sslContext)
+  {
+    // the socket factories of the builder are ignored if a connection manager is set so they are created here
+    HostnameVerifier hostnameVerifier = Optional.ofNullable(scimClientConfig.getHostnameVerifier())
+                                                .orElseGet(SSLConnectionSocketFactory::getDefaultHostnameVerifier);
+    SSLContext socketSslContext = sslContext == null ? SSLContexts.createDefault() : sslContext;
+    SSLConnectionSocketFactory sslSocketFactory = new SSLConnectionSocketFactory(socketSslContext, hostnameVerifier);
+    Registry<ConnectionSocketFactory> socketFactoryRegistry;
+    socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory> create()
+                                           .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                                           .register("https", sslSocketFactory)
+                                           .build();
+    connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+    connectionManager.setMaxTotal(connectionPoolConfig.getMaxTotal());
+    connectionManager.setDefaultMaxPerRoute(connectionPoolConfig.getMaxPerRoute());
+    connectionManager.setValidateAfterInactivity(connectionPoolConfig.getValidateAfterInactivity());
+    clientBuilder.setConnectionManager(connectionManager);
+    if (connectionPoolConfig.getMaxIdleTime() > 0)
+    {
+      clientBuilder.evictExpiredConnections();
+      clientBuilder.evictIdleConnections(connectionPoolConfig.getMaxIdleTime(), TimeUnit.SECONDS);
+    }
+    if (connectionPoolConfig.isReuseAuthenticatedConnections())
+    {
+      clientBuilder.disableConnectionState();
+    }
+    log.debug("using connection pool with max total '{}' and max per route '{}'",
+              connectionPoolConfig.getMaxTotal(),
+              connectionPoolConfig.getMaxPerRoute());
+  }
+
+  /**
+   * the statistics of the connection pool e.g. the number of leased and available connections
+   *
+   * @return the statistics or an empty if no connection pool is used or the http client was not created yet
+   */
+  public Optional<PoolStats> getConnectionPoolStats()
+  {
+    return Optional.ofNullable(connectionManager).map(PoolingHttpClientConnectionManager::getTotalStats);
+  }
+
   /**
    * will configure the apache http-client
    *
@@ -241,5 +316,6 @@ public class ScimHttpClient implements Closeable
       log.error(e.getMessage(), e);
     }
     httpClient = null;
+    connectionManager = null;
   }
 }
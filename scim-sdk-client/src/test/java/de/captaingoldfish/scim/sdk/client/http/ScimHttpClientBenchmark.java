@@ -0,0 +1,173 @@
+package de.captaingoldfish.scim.sdk.client.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.client.methods.HttpGet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+
+import de.captaingoldfish.scim.sdk.client.ScimClientConfig;
+import de.captaingoldfish.scim.sdk.client.keys.KeyStoreSupporter;
+import de.captaingoldfish.scim.sdk.client.keys.KeyStoreWrapper;
+import de.captaingoldfish.scim.sdk.client.setup.HttpServerMockup;
+
+
+/**
+ * measures the requests per second of the {@link ScimHttpClient} against a local stand-in server with and
+ * without a connection pool. This benchmark is not executed during the build. Run it with the main method from
+ * the test classpath<br>
+ * <br>
+ * author Pascal Knueppel <br>
+ * created at: 17.10.2026 <br>
+ * <br>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScimHttpClientBenchmark
+{
+
+  /**
+   * the password of the test keystore
+   */
+  private static final String KEYSTORE_MASTER_PASSWORD = "123456";
+
+  /**
+   * a small scim response that is returned by the stand-in server
+   */
+  private static final String RESPONSE_BODY = "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"],"
+                                              + "\"id\":\"123456\",\"userName\":\"goldfish\"}";
+
+  /**
+   * the protocol of the stand-in server
+   */
+  @Param({"http", "https"})
+  private String protocol;
+
+  /**
+   * if the client should use a connection pool
+   */
+  @Param({"false", "true"})
+  private boolean pooled;
+
+  /**
+   * the local stand-in server
+   */
+  private HttpServer server;
+
+  /**
+   * the threads that handle the requests of the stand-in server
+   */
+  private ExecutorService serverExecutor;
+
+  /**
+   * the client under test
+   */
+  private ScimHttpClient scimHttpClient;
+
+  /**
+   * the url of the stand-in server
+   */
+  private String requestUrl;
+
+  public static void main(String[] args) throws RunnerException
+  {
+    new Runner(new OptionsBuilder().include(ScimHttpClientBenchmark.class.getSimpleName()).build()).run();
+  }
+
+  /**
+   * starts the stand-in server and creates the client
+   */
+  @Setup
+  public void startServer() throws IOException
+  {
+    KeyStore keyStore = KeyStoreSupporter.readKeyStore(getClass().getResourceAsStream("/test-keys/test.jks"),
+                                                       KeyStoreSupporter.KeyStoreType.JKS,
+                                                       KEYSTORE_MASTER_PASSWORD);
+    KeyStoreWrapper keyStoreWrapper = new KeyStoreWrapper(keyStore, KEYSTORE_MASTER_PASSWORD);
+    // without this the jdk server delays the body of responses on kept alive connections by the delayed ack
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+    int port = HttpServerMockup.getFreeLocalPort();
+    if ("https".equals(protocol))
+    {
+      SSLContext sslContext = SSLContextHelper.getSslContext(keyStoreWrapper, keyStoreWrapper);
+      HttpsServer httpsServer = HttpsServer.create(new InetSocketAddress(port), 0);
+      httpsServer.setHttpsConfigurator(new HttpsConfigurator(sslContext));
+      server = httpsServer;
+    }
+    else
+    {
+      server = HttpServer.create(new InetSocketAddress(port), 0);
+    }
+    byte[] responseBody = RESPONSE_BODY.getBytes(StandardCharsets.UTF_8);
+    server.createContext("/", httpExchange -> {
+      httpExchange.getResponseHeaders().add("Content-Type", "application/scim+json");
+      httpExchange.sendResponseHeaders(200, responseBody.length);
+      try (OutputStream outputStream = httpExchange.getResponseBody())
+      {
+        outputStream.write(responseBody);
+      }
+    });
+    serverExecutor = Executors.newFixedThreadPool(4);
+    server.setExecutor(serverExecutor);
+    server.start();
+    requestUrl = protocol + "://localhost:" + port + "/scim/v2/Users/123456";
+
+    ScimClientConfig scimClientConfig = ScimClientConfig.builder()
+                                                        .truststore(keyStoreWrapper)
+                                                        .hostnameVerifier((s, sslSession) -> true)
+                                                        .connectionPool(pooled ? ConnectionPoolConfig.builder().build()
+                                                          : null)
+                                                        .build();
+    scimHttpClient = new ScimHttpClient(scimClientConfig);
+  }
+
+  /**
+   * closes the client and stops the stand-in server
+   */
+  @TearDown
+  public void stopServer()
+  {
+    scimHttpClient.close();
+    server.stop(0);
+    serverExecutor.shutdownNow();
+  }
+
+  /**
+   * sends a single get request to the stand-in server
+   */
+  @Benchmark
+  public HttpResponse sendRequest()
+  {
+    return scimHttpClient.sendRequest(new HttpGet(requestUrl));
+  }
+}
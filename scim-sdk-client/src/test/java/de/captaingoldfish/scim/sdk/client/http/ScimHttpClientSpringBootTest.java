@@ -317,4 +317,31 @@ public class ScimHttpClientSpringBootTest extends AbstractSpringBootWebTest
     Assertions.assertEquals(PROXY_PORT, requestConfig.getProxy().getPort());
   }
 
+  /**
+   * verifies that a pooled client reuses connections that were authenticated with a client certificate only if
+   * this is allowed within the connection pool configuration
+   */
+  @ParameterizedTest
+  @CsvSource({"true,1", "false,3"})
+  public void testConnectionPoolWithClientAuthentication(boolean reuseAuthenticatedConnections,
+                                                         int expectedConnections)
+  {
+    ConnectionPoolConfig connectionPoolConfig = ConnectionPoolConfig.builder().build();
+    connectionPoolConfig.setReuseAuthenticatedConnections(reuseAuthenticatedConnections);
+    ScimClientConfig clientConfig = ScimClientConfig.builder()
+                                                    .clientAuth(tlsClientAuthenticationKeystore)
+                                                    .truststore(tlsTruststore)
+                                                    .hostnameVerifier((s, sslSession) -> true)
+                                                    .connectionPool(connectionPoolConfig)
+                                                    .build();
+    try (ScimHttpClient httpClient = new ScimHttpClient(clientConfig))
+    {
+      for ( int i = 0 ; i < 3 ; i++ )
+      {
+        HttpResponse response = httpClient.sendRequest(new HttpGet(getRequestUrl(TestController.GET_ENDPOINT_PATH)));
+        Assertions.assertEquals(TestController.HELLO_WORLD_RESPONSE_VALUE, response.getResponseBody());
+      }
+      Assertions.assertEquals(expectedConnections, httpClient.getConnectionPoolStats().get().getAvailable());
+    }
+  }
 }
@@ -0,0 +1,60 @@
+package de.captaingoldfish.scim.sdk.client.http;
+
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.pool.PoolStats;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.captaingoldfish.scim.sdk.client.ScimClientConfig;
+import de.captaingoldfish.scim.sdk.client.setup.HttpServerMockup;
+import de.captaingoldfish.scim.sdk.common.constants.EndpointPaths;
+import de.captaingoldfish.scim.sdk.common.constants.HttpStatus;
+
+
+/**
+ * author Pascal Knueppel <br>
+ * created at: 17.10.2026 <br>
+ * <br>
+ */
+public class ScimHttpClientTest extends HttpServerMockup
+{
+
+  /**
+   * verifies that a pooled client reuses a single connection for sequential requests
+   */
+  @Test
+  public void testConnectionsAreReusedWithConnectionPool()
+  {
+    ScimClientConfig scimClientConfig = ScimClientConfig.builder()
+                                                        .connectionPool(ConnectionPoolConfig.builder().build())
+                                                        .build();
+    try (ScimHttpClient scimHttpClient = new ScimHttpClient(scimClientConfig))
+    {
+      for ( int i = 0 ; i < 5 ; i++ )
+      {
+        HttpResponse response = scimHttpClient.sendRequest(new HttpGet(getServerUrl()
+                                                                       + EndpointPaths.SERVICE_PROVIDER_CONFIG));
+        Assertions.assertEquals(HttpStatus.OK, response.getHttpStatusCode());
+      }
+      PoolStats poolStats = scimHttpClient.getConnectionPoolStats().get();
+      Assertions.assertEquals(0, poolStats.getLeased());
+      Assertions.assertEquals(1, poolStats.getAvailable());
+      Assertions.assertEquals(ConnectionPoolConfig.DEFAULT_MAX_TOTAL, poolStats.getMax());
+    }
+  }
+
+  /**
+   * verifies that no connection pool is used if it was not configured
+   */
+  @Test
+  public void testNoConnectionPoolByDefault()
+  {
+    try (ScimHttpClient scimHttpClient = new ScimHttpClient(new ScimClientConfig()))
+    {
+      HttpResponse response = scimHttpClient.sendRequest(new HttpGet(getServerUrl()
+                                                                     + EndpointPaths.SERVICE_PROVIDER_CONFIG));
+      Assertions.assertEquals(HttpStatus.OK, response.getHttpStatusCode());
+      Assertions.assertFalse(scimHttpClient.getConnectionPoolStats().isPresent());
+    }
+  }
+}
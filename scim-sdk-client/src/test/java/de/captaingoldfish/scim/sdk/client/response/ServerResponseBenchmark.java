@@ -0,0 +1,117 @@
+package de.captaingoldfish.scim.sdk.client.response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.captaingoldfish.scim.sdk.client.http.HttpResponse;
+import de.captaingoldfish.scim.sdk.common.constants.HttpHeader;
+import de.captaingoldfish.scim.sdk.common.constants.HttpStatus;
+import de.captaingoldfish.scim.sdk.common.resources.User;
+import de.captaingoldfish.scim.sdk.common.resources.complex.Name;
+import de.captaingoldfish.scim.sdk.common.response.ListResponse;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
+
+
+/**
+ * compares the json handling of a {@link ServerResponse} that checks and reads a list response with a new
+ * {@link ObjectMapper} per call against the shared mapper of the {@link JsonHelper}. This benchmark is not
+ * executed during the build. Run it with the main method from the test classpath<br>
+ * <br>
+ * author Pascal Knueppel <br>
+ * created at: 17.10.2026 <br>
+ * <br>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServerResponseBenchmark
+{
+
+  /**
+   * the number of users within the list response
+   */
+  private static final int NUMBER_OF_LISTED_USERS = 50;
+
+  /**
+   * the response of the server that is checked and read
+   */
+  private HttpResponse httpResponse;
+
+  public static void main(String[] args) throws RunnerException
+  {
+    new Runner(new OptionsBuilder().include(ServerResponseBenchmark.class.getSimpleName()).build()).run();
+  }
+
+  /**
+   * creates the list response that is returned by the server
+   */
+  @Setup
+  public void createResponse()
+  {
+    List<JsonNode> users = new ArrayList<>();
+    for ( int i = 0 ; i < NUMBER_OF_LISTED_USERS ; i++ )
+    {
+      users.add(User.builder()
+                    .id(String.valueOf(i))
+                    .userName("goldfish-" + i)
+                    .name(Name.builder().givenName("captain").familyName("goldfish").build())
+                    .build());
+    }
+    ListResponse<User> listResponse = new ListResponse<>(users, (long)users.size(), users.size(), 1L);
+    httpResponse = HttpResponse.builder()
+                               .httpStatusCode(HttpStatus.OK)
+                               .responseBody(listResponse.toString())
+                               .responseHeaders(Collections.singletonMap(HttpHeader.CONTENT_TYPE_HEADER,
+                                                                         HttpHeader.SCIM_CONTENT_TYPE))
+                               .build();
+  }
+
+  /**
+   * the previous approach that checks and reads the response body with a new mapper for each step
+   */
+  @Benchmark
+  public ListResponse readResponseWithNewObjectMapper() throws IOException
+  {
+    String responseBody = httpResponse.getResponseBody();
+    try (JsonParser parser = new ObjectMapper().getFactory().createParser(responseBody))
+    {
+      while (parser.nextToken() != null)
+      {}
+    }
+    JsonNode document = new ObjectMapper().readTree(responseBody);
+    return JsonHelper.copyResourceToObject(document, ListResponse.class);
+  }
+
+  /**
+   * checks and reads the response body with the shared mapper
+   */
+  @Benchmark
+  public ListResponse readResponseWithSharedObjectMapper()
+  {
+    return new ServerResponse<>(httpResponse, true, ListResponse.class, response -> true).getResource();
+  }
+}
@@ -156,6 +156,29 @@ public final class AttributeNames
      */
     public static final String ETAG_ENABLED = "enabled";
 
+    /**
+     * the hash algorithm that is used to generate the version of a resource if ETags are generated
+     * automatically. Default is SHA-1.
+     */
+    public static final String ETAG_HASH_ALGORITHM = "hashAlgorithm";
+
+    /**
+     * a complex type configuration that allows to skip the schema validation of resources returned by the
+     * resource handler
+     */
+    public static final String TRUSTED_RESPONSE = "trustedResponse";
+
+    /**
+     * a boolean if set to true the resources returned by the resource handler on get and list requests are not
+     * validated. Default is false.
+     */
+    public static final String TRUSTED_RESPONSE_ENABLED = "enabled";
+
+    /**
+     * if set to a value N greater than 0 every N-th trusted response is still fully validated
+     */
+    public static final String VALIDATION_SAMPLE_RATE = "validationSampleRate";
+
     /**
      * used in resource type definitions to tell us if access to a specific endpoint requires authentication or
      * not
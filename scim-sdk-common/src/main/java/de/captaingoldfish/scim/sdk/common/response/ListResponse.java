@@ -2,7 +2,11 @@ package de.captaingoldfish.scim.sdk.common.response;
 
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -11,8 +15,11 @@ import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import de.captaingoldfish.scim.sdk.common.constants.AttributeNames;
 import de.captaingoldfish.scim.sdk.common.constants.HttpStatus;
 import de.captaingoldfish.scim.sdk.common.constants.SchemaUris;
+import de.captaingoldfish.scim.sdk.common.exceptions.InternalServerException;
 import de.captaingoldfish.scim.sdk.common.resources.base.ScimObjectNode;
 import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
+import lombok.AccessLevel;
+import lombok.Getter;
 
 
 /**
@@ -27,6 +34,7 @@ public class ListResponse<T extends ScimObjectNode> extends ScimResponse
   /**
    * the generic type of this class
    */
+  @Getter(AccessLevel.PROTECTED)
   private final Class<T> type;
 
   public ListResponse()
@@ -45,6 +53,19 @@ public class ListResponse<T extends ScimObjectNode> extends ScimResponse
     this.type = getGenericType();
   }
 
+  /**
+   * parses the given list response whose listed resources are converted into the given type at the moment they
+   * are accessed
+   *
+   * @param resourceJsonRepresentation the json representation of the list response
+   * @param type the type of the listed resources
+   */
+  public ListResponse(String resourceJsonRepresentation, Class<T> type)
+  {
+    super(JsonHelper.readJsonDocument(resourceJsonRepresentation));
+    this.type = type;
+  }
+
   public ListResponse(List<JsonNode> listedResources, Long totalResults, Integer itemsPerPage, Long startIndex)
   {
     super(null);
@@ -56,6 +77,20 @@ public class ListResponse<T extends ScimObjectNode> extends ScimResponse
     this.type = getGenericType();
   }
 
+  /**
+   * creates a list response that contains only the surrounding attributes of a list response. This is used by
+   * subclasses that are writing the listed resources by themselves
+   */
+  protected ListResponse(Class<T> type, Long totalResults, Integer itemsPerPage, Long startIndex)
+  {
+    super(null);
+    setSchemasAttribute();
+    setTotalResults(totalResults);
+    setItemsPerPage(itemsPerPage);
+    setStartIndex(startIndex);
+    this.type = type;
+  }
+
   /**
    * tries to get the generic type of this response class
    */
@@ -136,7 +171,30 @@ public class ListResponse<T extends ScimObjectNode> extends ScimResponse
    */
   public List<T> getListedResources()
   {
-    return getArrayAttribute(AttributeNames.RFC7643.RESOURCES, type);
+    return new ArrayList<>(getListedResourcesView());
+  }
+
+  /**
+   * a read-only view on the listed resources. A resource is converted into the type of this list response only
+   * at the moment it is accessed and the converted resource replaces its json representation within this
+   * response so that each resource is converted at most once. Iterating over the view converts one resource at
+   * a time which is preferable over {@link #getListedResources()} if only a few resources are needed or if the
+   * resources are processed one after another
+   */
+  public List<T> getListedResourcesView()
+  {
+    JsonNode resources = get(AttributeNames.RFC7643.RESOURCES);
+    if (resources == null)
+    {
+      return Collections.emptyList();
+    }
+    if (!resources.isArray())
+    {
+      throw new InternalServerException("tried to extract a multi valued complex node from document with attribute "
+                                        + "name '" + AttributeNames.RFC7643.RESOURCES + "' but type is of: "
+                                        + resources.getNodeType(), null, null);
+    }
+    return new ListedResourcesView((ArrayNode)resources);
   }
 
   /**
@@ -155,4 +213,56 @@ public class ListResponse<T extends ScimObjectNode> extends ScimResponse
   {
     return HttpStatus.OK;
   }
+
+  /**
+   * converts the listed resources into the type of this list response on access
+   */
+  private class ListedResourcesView extends AbstractList<T> implements RandomAccess
+  {
+
+    /**
+     * the json representations of the listed resources that are replaced by their converted resources
+     */
+    private final ArrayNode resources;
+
+    public ListedResourcesView(ArrayNode resources)
+    {
+      this.resources = resources;
+    }
+
+    /**
+     * converts the resource at the given index if it was not converted yet
+     */
+    @Override
+    public T get(int index)
+    {
+      JsonNode resource = resources.get(index);
+      if (resource == null)
+      {
+        throw new IndexOutOfBoundsException("index: " + index + ", size: " + resources.size());
+      }
+      if (type.isInstance(resource))
+      {
+        return type.cast(resource);
+      }
+      if (!resource.isObject())
+      {
+        throw new InternalServerException("tried to extract a complex node from document with attribute name '"
+                                          + AttributeNames.RFC7643.RESOURCES + "' but type is of: "
+                                          + resource.getNodeType(), null, null);
+      }
+      T convertedResource = JsonHelper.copyResourceToObject(resource, type);
+      resources.set(index, convertedResource);
+      return convertedResource;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size()
+    {
+      return resources.size();
+    }
+  }
 }
@@ -1,15 +1,19 @@
 package de.captaingoldfish.scim.sdk.common.response;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
 
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
 import de.captaingoldfish.scim.sdk.common.constants.HttpHeader;
 import de.captaingoldfish.scim.sdk.common.resources.AbstractSchemasHolder;
 import de.captaingoldfish.scim.sdk.common.resources.complex.Meta;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -62,16 +66,62 @@ public abstract class ScimResponse extends AbstractSchemasHolder
    * @return a jax-rs response containing the response body and the http headers
    */
   public Response buildResponse()
+  {
+    return buildResponse(getResponseEntity());
+  }
+
+  /**
+   * builds a response object whose entity writes the utf-8 encoded json representation of this response
+   * directly into the output stream of the container. In contrast to {@link #buildResponse()} the response is
+   * never turned into a string
+   *
+   * @return a jax-rs response containing the streamed response body and the http headers
+   */
+  public Response buildStreamingResponse()
+  {
+    return buildResponse((StreamingOutput)this::writeTo);
+  }
+
+  /**
+   * builds a response object with the given entity
+   *
+   * @param entity the entity that is set if this response has a body
+   * @return a jax-rs response containing the given entity and the http headers
+   */
+  private Response buildResponse(Object entity)
   {
     Response.ResponseBuilder responseBuilder = Response.status(getHttpStatus());
     httpHeaders.forEach(responseBuilder::header);
     if (this.size() != 0)
     {
-      responseBuilder.entity(toString());
+      responseBuilder.entity(entity);
     }
     return responseBuilder.build();
   }
 
+  /**
+   * the entity that is set into the response built by {@link #buildResponse()}. Responses that are able to
+   * write themselves directly into the output stream may override this method and return a
+   * {@link javax.ws.rs.core.StreamingOutput}
+   *
+   * @return the json representation of this response
+   */
+  protected Object getResponseEntity()
+  {
+    return toString();
+  }
+
+  /**
+   * writes the utf-8 encoded json representation of this response directly into the given output stream
+   * without creating an intermediate string. The output stream is not closed by this method
+   *
+   * @param outputStream the stream to write the response into e.g. the output stream of a servlet response
+   */
+  public void writeTo(OutputStream outputStream) throws IOException
+  {
+    JsonHelper.writeValue(outputStream, this);
+  }
+
   /**
    * the http status code of the response
    */
@@ -0,0 +1,201 @@
+package de.captaingoldfish.scim.sdk.common.schemas;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import de.captaingoldfish.scim.sdk.common.constants.AttributeNames;
+import de.captaingoldfish.scim.sdk.common.constants.enums.Mutability;
+import de.captaingoldfish.scim.sdk.common.constants.enums.ReferenceTypes;
+import de.captaingoldfish.scim.sdk.common.constants.enums.Returned;
+import de.captaingoldfish.scim.sdk.common.constants.enums.Type;
+import de.captaingoldfish.scim.sdk.common.constants.enums.Uniqueness;
+import lombok.Getter;
+
+
+/**
+ * an immutable snapshot of the meta information of a {@link SchemaAttribute} that is needed for validating
+ * documents. The getters of {@link SchemaAttribute} read their values from the underlying json representation
+ * on each call so the validation plan is compiled once per schema and reused for all documents that are
+ * validated against this schema.<br>
+ * The custom validation attributes like "minLength" or "pattern" are not part of the plan because they may be
+ * changed on the {@link SchemaAttribute} at any time<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+@Getter
+public final class AttributeValidationPlan
+{
+
+  /**
+   * the attribute definition from which this plan was compiled
+   */
+  private final SchemaAttribute schemaAttribute;
+
+  /**
+   * @see SchemaAttribute#getName()
+   */
+  private final String name;
+
+  /**
+   * @see SchemaAttribute#getScimNodeName()
+   */
+  private final String scimNodeName;
+
+  /**
+   * the parts of the {@link #scimNodeName} separated at the dots
+   */
+  private final String[] scimNodeNameParts;
+
+  /**
+   * @see SchemaAttribute#getFullResourceName()
+   */
+  private final String fullResourceName;
+
+  /**
+   * @see SchemaAttribute#getResourceUri()
+   */
+  private final String resourceUri;
+
+  /**
+   * @see SchemaAttribute#getType()
+   */
+  private final Type type;
+
+  /**
+   * @see SchemaAttribute#getMutability()
+   */
+  private final Mutability mutability;
+
+  /**
+   * @see SchemaAttribute#getReturned()
+   */
+  private final Returned returned;
+
+  /**
+   * @see SchemaAttribute#getUniqueness()
+   */
+  private final Uniqueness uniqueness;
+
+  /**
+   * @see SchemaAttribute#isMultiValued()
+   */
+  private final boolean multiValued;
+
+  /**
+   * @see SchemaAttribute#isRequired()
+   */
+  private final boolean required;
+
+  /**
+   * @see SchemaAttribute#isCaseExact()
+   */
+  private final boolean caseExact;
+
+  /**
+   * @see SchemaAttribute#getCanonicalValues()
+   */
+  private final List<String> canonicalValues;
+
+  /**
+   * the {@link #canonicalValues} in lowercase for case insensitive comparisons
+   */
+  private final Set<String> lowerCaseCanonicalValues;
+
+  /**
+   * @see SchemaAttribute#getReferenceTypes()
+   */
+  private final List<ReferenceTypes> referenceTypes;
+
+  /**
+   * true if this attribute is a resource reference within a complex attribute that does also define a "value"
+   * and a "type" attribute. The reference value can then be built from the values of these attributes
+   */
+  private final boolean resolvableResourceReference;
+
+  /**
+   * the plans of the sub attributes if this attribute is a complex attribute
+   */
+  private final List<AttributeValidationPlan> subAttributePlans;
+
+  public AttributeValidationPlan(SchemaAttribute schemaAttribute)
+  {
+    this.schemaAttribute = schemaAttribute;
+    this.name = schemaAttribute.getName();
+    this.scimNodeName = schemaAttribute.getScimNodeName();
+    this.scimNodeNameParts = scimNodeName.split("\\.");
+    this.fullResourceName = schemaAttribute.getFullResourceName();
+    this.resourceUri = schemaAttribute.getResourceUri();
+    this.type = schemaAttribute.getType();
+    this.mutability = schemaAttribute.getMutability();
+    this.returned = schemaAttribute.getReturned();
+    this.uniqueness = schemaAttribute.getUniqueness();
+    this.multiValued = schemaAttribute.isMultiValued();
+    this.required = schemaAttribute.isRequired();
+    this.caseExact = schemaAttribute.isCaseExact();
+    this.canonicalValues = Collections.unmodifiableList(schemaAttribute.getCanonicalValues());
+    Set<String> lowerCaseValues = new HashSet<>();
+    canonicalValues.forEach(value -> lowerCaseValues.add(value.toLowerCase(Locale.ROOT)));
+    this.lowerCaseCanonicalValues = Collections.unmodifiableSet(lowerCaseValues);
+    this.referenceTypes = Collections.unmodifiableList(schemaAttribute.getReferenceTypes());
+    this.resolvableResourceReference = referenceTypes.contains(ReferenceTypes.RESOURCE)
+                                       && hasValueAndTypeSiblings(schemaAttribute.getParent());
+    List<AttributeValidationPlan> subPlans = new ArrayList<>();
+    for ( SchemaAttribute subAttribute : schemaAttribute.getSubAttributes() )
+    {
+      subPlans.add(new AttributeValidationPlan(subAttribute));
+    }
+    this.subAttributePlans = Collections.unmodifiableList(subPlans);
+  }
+
+  /**
+   * compiles the plans for the given attribute definitions
+   *
+   * @param schemaAttributes the attribute definitions of a schema
+   * @return the immutable list of plans in the order of the given attribute definitions
+   */
+  public static List<AttributeValidationPlan> compile(List<SchemaAttribute> schemaAttributes)
+  {
+    List<AttributeValidationPlan> plans = new ArrayList<>(schemaAttributes.size());
+    for ( SchemaAttribute schemaAttribute : schemaAttributes )
+    {
+      plans.add(new AttributeValidationPlan(schemaAttribute));
+    }
+    return Collections.unmodifiableList(plans);
+  }
+
+  /**
+   * checks if the given value matches one of the canonical values ignoring the case
+   *
+   * @param value the value to check
+   * @return true if the value is one of the canonical values, false else
+   */
+  public boolean isCanonicalValue(String value)
+  {
+    return value != null && lowerCaseCanonicalValues.contains(value.toLowerCase(Locale.ROOT));
+  }
+
+  /**
+   * checks if the given parent attribute defines the sub attributes "value" and "type"
+   */
+  private static boolean hasValueAndTypeSiblings(SchemaAttribute parent)
+  {
+    if (parent == null)
+    {
+      return false;
+    }
+    boolean hasValue = false;
+    boolean hasType = false;
+    for ( SchemaAttribute subAttribute : parent.getSubAttributes() )
+    {
+      hasValue = hasValue || AttributeNames.RFC7643.VALUE.equals(subAttribute.getName());
+      hasType = hasType || AttributeNames.RFC7643.TYPE.equals(subAttribute.getName());
+    }
+    return hasValue && hasType;
+  }
+}
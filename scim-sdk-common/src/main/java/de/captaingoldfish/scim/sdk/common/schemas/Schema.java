@@ -9,6 +9,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -55,6 +56,18 @@ public class Schema extends ResourceNode
    */
   private List<SchemaAttribute> bulkIdCandidates = new ArrayList<>();
 
+  /**
+   * the validation plans of the attributes of this schema. The plans are compiled on first access and are
+   * discarded if the attributes of this schema are changed
+   */
+  private volatile List<AttributeValidationPlan> validationPlan;
+
+  /**
+   * counts the changes of the attribute definitions of this schema so that indices that were built from the
+   * attributes of this schema are able to detect that they are outdated
+   */
+  private final AtomicLong attributeVersion = new AtomicLong();
+
   public Schema(JsonNode jsonNode, String namePrefix)
   {
     setSchemas(JsonHelper.getSimpleAttributeArray(jsonNode, AttributeNames.RFC7643.SCHEMAS)
@@ -171,6 +184,33 @@ public class Schema extends ResourceNode
   private void setAttributes(List<SchemaAttribute> attributes)
   {
     setAttribute(AttributeNames.RFC7643.ATTRIBUTES, attributes);
+    validationPlan = null;
+    attributeVersion.incrementAndGet();
+  }
+
+  /**
+   * @return a value that is changed whenever an attribute definition is added to or removed from this schema
+   */
+  public long getAttributeVersion()
+  {
+    return attributeVersion.get();
+  }
+
+  /**
+   * gets the validation plans of the attributes of this schema. The plans are compiled once and reused until
+   * the attributes of this schema are changed
+   *
+   * @return the immutable validation plans in the order of {@link #getAttributes()}
+   */
+  public List<AttributeValidationPlan> getValidationPlan()
+  {
+    List<AttributeValidationPlan> plan = validationPlan;
+    if (plan == null)
+    {
+      plan = AttributeValidationPlan.compile(getAttributes());
+      validationPlan = plan;
+    }
+    return plan;
   }
 
   /**
@@ -242,6 +282,7 @@ public class Schema extends ResourceNode
                                        + scimNodeName + "'", null, null, null);
     }
     attributeRegister.put(scimNodeName, schemaAttribute);
+    attributeVersion.incrementAndGet();
   }
 
 }
@@ -4,21 +4,23 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.Reader;
-import java.io.StringReader;
+import java.io.OutputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.apache.commons.lang3.StringUtils;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.TextNode;
@@ -27,6 +29,7 @@ import de.captaingoldfish.scim.sdk.common.constants.ScimType;
 import de.captaingoldfish.scim.sdk.common.exceptions.IncompatibleAttributeException;
 import de.captaingoldfish.scim.sdk.common.exceptions.InternalServerException;
 import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -41,6 +44,80 @@ import lombok.extern.slf4j.Slf4j;
 public final class JsonHelper
 {
 
+  /**
+   * the shared mapper and the readers and writers that are derived from it. Creating an {@link ObjectMapper} is
+   * expensive and prevents jackson from reusing its symbol tables and buffers so all documents are parsed and
+   * serialized with this shared instance
+   */
+  private static volatile JsonMappers jsonMappers = new JsonMappers(new ObjectMapper());
+
+  /**
+   * the shared mapper that is used to parse and serialize json documents. The returned instance must not be
+   * modified. Use {@link #configureObjectMapper(Consumer)} to change its configuration
+   */
+  public static ObjectMapper getObjectMapper()
+  {
+    return jsonMappers.getObjectMapper();
+  }
+
+  /**
+   * changes the configuration of the shared mapper e.g. to register additional jackson modules. The
+   * configuration is applied to a copy of the current mapper that replaces the current mapper afterwards. This
+   * method should be called once on application startup
+   *
+   * @param configurer modifies the configuration of the mapper
+   */
+  public static synchronized void configureObjectMapper(Consumer<ObjectMapper> configurer)
+  {
+    ObjectMapper objectMapper = jsonMappers.getObjectMapper().copy();
+    configurer.accept(objectMapper);
+    jsonMappers = new JsonMappers(objectMapper);
+  }
+
+  /**
+   * creates a parser from the shared mapper that reads the given json document
+   *
+   * @param jsonDocument the json document to read
+   * @return a parser that is able to read json trees
+   */
+  public static JsonParser createParser(String jsonDocument) throws IOException
+  {
+    return getObjectMapper().getFactory().createParser(jsonDocument);
+  }
+
+  /**
+   * creates a parser from the shared mapper that reads the given json document
+   *
+   * @param jsonDocument the encoded json document to read. The encoding is detected by jackson
+   * @return a parser that is able to read json trees
+   */
+  public static JsonParser createParser(byte[] jsonDocument) throws IOException
+  {
+    return getObjectMapper().getFactory().createParser(jsonDocument);
+  }
+
+  /**
+   * creates a parser from the shared mapper that reads the given json document
+   *
+   * @param inputStream the json document to read
+   * @return a parser that is able to read json trees
+   */
+  public static JsonParser createParser(InputStream inputStream) throws IOException
+  {
+    return getObjectMapper().getFactory().createParser(inputStream);
+  }
+
+  /**
+   * writes the given object as json into the given output stream without closing the stream
+   *
+   * @param outputStream the stream to write into
+   * @param value the object to write
+   */
+  public static void writeValue(OutputStream outputStream, Object value) throws IOException
+  {
+    jsonMappers.getStreamWriter().writeValue(outputStream, value);
+  }
+
   /**
    * will read a json document from the classpath
    *
@@ -52,7 +129,7 @@ public final class JsonHelper
     log.trace("trying to read classpath resource from: {}", classPathLocation);
     try (InputStream inputStream = JsonHelper.class.getResourceAsStream(classPathLocation))
     {
-      return new ObjectMapper().readTree(inputStream);
+      return getObjectMapper().readTree(inputStream);
     }
     catch (IOException e)
     {
@@ -71,7 +148,7 @@ public final class JsonHelper
     log.trace("trying to read classpath resource from: {}", classPathLocation);
     try (InputStream inputStream = JsonHelper.class.getResourceAsStream(classPathLocation))
     {
-      JsonNode jsonNode = new ObjectMapper().readTree(inputStream);
+      JsonNode jsonNode = getObjectMapper().readTree(inputStream);
       return copyResourceToObject(jsonNode, type);
     }
     catch (IOException e)
@@ -91,7 +168,7 @@ public final class JsonHelper
     log.trace("trying to read classpath resource from: {}", file.getAbsolutePath());
     try (InputStream inputStream = new FileInputStream(file))
     {
-      JsonNode jsonNode = new ObjectMapper().readTree(inputStream);
+      JsonNode jsonNode = getObjectMapper().readTree(inputStream);
       return copyResourceToObject(jsonNode, type);
     }
     catch (IOException e)
@@ -111,7 +188,7 @@ public final class JsonHelper
     log.trace("trying to read classpath resource from: {}", file.getAbsolutePath());
     try (InputStream inputStream = new FileInputStream(file))
     {
-      return new ObjectMapper().readTree(inputStream);
+      return getObjectMapper().readTree(inputStream);
     }
     catch (IOException e)
     {
@@ -132,9 +209,9 @@ public final class JsonHelper
       return null;
     }
     log.trace("trying to read json document: {}", jsonDocument);
-    try (Reader reader = new StringReader(jsonDocument))
+    try
     {
-      return new ObjectMapper().readTree(reader);
+      return getObjectMapper().readTree(jsonDocument);
     }
     catch (IOException e)
     {
@@ -143,6 +220,41 @@ public final class JsonHelper
     }
   }
 
+  /**
+   * will read a json document from the given bytes without decoding them into a string first
+   *
+   * @param jsonDocument the encoded json document. The encoding is detected by jackson
+   * @return the parsed json document or null if the document is empty
+   */
+  public static JsonNode readJsonDocument(byte[] jsonDocument)
+  {
+    if (jsonDocument == null || jsonDocument.length == 0)
+    {
+      return null;
+    }
+    try
+    {
+      JsonNode jsonNode = getObjectMapper().readTree(jsonDocument);
+      return jsonNode == null || jsonNode.isMissingNode() ? null : jsonNode;
+    }
+    catch (IOException e)
+    {
+      throw new de.captaingoldfish.scim.sdk.common.exceptions.IOException("Invalid content, the document could not be parsed",
+                                                                          e, null, null);
+    }
+  }
+
+  /**
+   * will read a json document from the given bytes without decoding them into a string first
+   *
+   * @param jsonDocument the encoded json document. The encoding is detected by jackson
+   * @return the parsed json document
+   */
+  public static <T extends ObjectNode> T readJsonDocument(byte[] jsonDocument, Class<T> type)
+  {
+    return copyResourceToObject(readJsonDocument(jsonDocument), type);
+  }
+
   /**
    * will read a json document from the given string
    *
@@ -152,9 +264,9 @@ public final class JsonHelper
   public static <T extends ObjectNode> T readJsonDocument(String jsonDocument, Class<T> type)
   {
     log.trace("trying to read json document: {}", jsonDocument);
-    try (Reader reader = new StringReader(jsonDocument))
+    try
     {
-      JsonNode jsonNode = new ObjectMapper().readTree(reader);
+      JsonNode jsonNode = getObjectMapper().readTree(jsonDocument);
       return copyResourceToObject(jsonNode, type);
     }
     catch (IOException e)
@@ -526,7 +638,7 @@ public final class JsonHelper
     }
     try
     {
-      final JsonParser parser = new ObjectMapper().getFactory().createParser(json);
+      final JsonParser parser = createParser(json);
       while (parser.nextToken() != null)
       {}
       return true;
@@ -548,7 +660,7 @@ public final class JsonHelper
   {
     try
     {
-      return new ObjectMapper().writeValueAsString(jsonNode);
+      return jsonMappers.getWriter().writeValueAsString(jsonNode);
     }
     catch (JsonProcessingException e)
     {
@@ -563,7 +675,7 @@ public final class JsonHelper
   {
     try
     {
-      return new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(jsonNode);
+      return jsonMappers.getPrettyWriter().writeValueAsString(jsonNode);
     }
     catch (JsonProcessingException e)
     {
@@ -578,4 +690,40 @@ public final class JsonHelper
   {
     return jsonNode.size() == 0;
   }
+
+  /**
+   * the shared mapper together with the readers and writers that are derived from it
+   */
+  @Getter
+  private static final class JsonMappers
+  {
+
+    /**
+     * the shared mapper
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * writes compact json strings
+     */
+    private final ObjectWriter writer;
+
+    /**
+     * writes indented json strings
+     */
+    private final ObjectWriter prettyWriter;
+
+    /**
+     * writes into output streams without closing them
+     */
+    private final ObjectWriter streamWriter;
+
+    public JsonMappers(ObjectMapper objectMapper)
+    {
+      this.objectMapper = objectMapper;
+      this.writer = objectMapper.writer();
+      this.prettyWriter = objectMapper.writerWithDefaultPrettyPrinter();
+      this.streamWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+  }
 }
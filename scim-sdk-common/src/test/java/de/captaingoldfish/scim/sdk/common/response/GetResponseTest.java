@@ -1,9 +1,15 @@
 package de.captaingoldfish.scim.sdk.common.response;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -50,4 +56,24 @@ public class GetResponseTest
     Assertions.assertEquals(userResource, JsonHelper.readJsonDocument((String)response.getEntity()));
     Assertions.assertEquals(HttpStatus.OK, getResponse.getHttpStatus());
   }
+
+  /**
+   * verifies that the streaming response writes the utf-8 encoded response into the output stream of the
+   * container
+   */
+  @Test
+  public void testBuildStreamingResponse() throws IOException
+  {
+    JsonNode userResource = User.builder().id(UUID.randomUUID().toString()).userName("grüner_fisch").build();
+    final String location = "https://localhost/scim/v2/Users/123456789";
+    GetResponse getResponse = new GetResponse(userResource, location, null);
+
+    Response response = getResponse.buildStreamingResponse();
+    Assertions.assertEquals(location, response.getHeaders().get(HttpHeader.LOCATION_HEADER).get(0));
+    MatcherAssert.assertThat(response.getEntity(), Matchers.instanceOf(StreamingOutput.class));
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    ((StreamingOutput)response.getEntity()).write(outputStream);
+    Assertions.assertEquals(userResource, JsonHelper.readJsonDocument(outputStream.toByteArray()));
+    Assertions.assertEquals(getResponse.toString(), new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+  }
 }
@@ -1,6 +1,7 @@
 package de.captaingoldfish.scim.sdk.common.response;
 
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 import javax.ws.rs.core.Response;
@@ -15,6 +16,7 @@ import de.captaingoldfish.scim.sdk.common.constants.AttributeNames;
 import de.captaingoldfish.scim.sdk.common.constants.HttpHeader;
 import de.captaingoldfish.scim.sdk.common.constants.HttpStatus;
 import de.captaingoldfish.scim.sdk.common.constants.SchemaUris;
+import de.captaingoldfish.scim.sdk.common.resources.User;
 import de.captaingoldfish.scim.sdk.common.utils.FileReferences;
 import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
 import lombok.extern.slf4j.Slf4j;
@@ -88,4 +90,43 @@ public class ListResponseTest implements FileReferences
 
     // TODO
   }
+
+  /**
+   * verifies that the view converts the listed resources only when they are accessed and that converted
+   * resources are cached within the list response
+   */
+  @Test
+  public void testListedResourcesViewConvertsOnAccess()
+  {
+    List<JsonNode> resourceNodes = Arrays.asList(JsonHelper.loadJsonDocument(FileReferences.USER_RESOURCE),
+                                                 JsonHelper.loadJsonDocument(FileReferences.USER_RESOURCE),
+                                                 JsonHelper.loadJsonDocument(FileReferences.USER_RESOURCE));
+    ListResponse<User> parsedResponse = new ListResponse<>(new ListResponse<>(resourceNodes, 3L, 3, 1L).toString(),
+                                                           User.class);
+    ArrayNode resources = (ArrayNode)parsedResponse.get(AttributeNames.RFC7643.RESOURCES);
+
+    List<User> view = parsedResponse.getListedResourcesView();
+    Assertions.assertEquals(3, view.size());
+    for ( JsonNode resource : resources )
+    {
+      Assertions.assertFalse(resource instanceof User);
+    }
+
+    User user = view.get(1);
+    Assertions.assertSame(user, resources.get(1));
+    Assertions.assertSame(user, view.get(1));
+    Assertions.assertFalse(resources.get(0) instanceof User);
+    Assertions.assertFalse(resources.get(2) instanceof User);
+
+    Iterator<User> iterator = view.iterator();
+    Assertions.assertEquals(resourceNodes.get(0), iterator.next());
+    Assertions.assertTrue(resources.get(0) instanceof User);
+    Assertions.assertFalse(resources.get(2) instanceof User);
+    Assertions.assertThrows(UnsupportedOperationException.class, () -> view.add(user));
+
+    List<User> listedResources = parsedResponse.getListedResources();
+    Assertions.assertEquals(3, listedResources.size());
+    Assertions.assertSame(user, listedResources.get(1));
+    Assertions.assertEquals(parsedResponse.toString(), new ListResponse<>(resourceNodes, 3L, 3, 1L).toString());
+  }
 }
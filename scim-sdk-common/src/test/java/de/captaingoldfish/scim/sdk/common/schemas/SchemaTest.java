@@ -13,7 +13,9 @@ import org.junit.jupiter.api.TestFactory;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
+import de.captaingoldfish.scim.sdk.common.constants.ClassPathReferences;
 import de.captaingoldfish.scim.sdk.common.constants.HttpStatus;
+import de.captaingoldfish.scim.sdk.common.constants.enums.Type;
 import de.captaingoldfish.scim.sdk.common.exceptions.InvalidSchemaException;
 import de.captaingoldfish.scim.sdk.common.utils.FileReferences;
 import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
@@ -196,6 +198,69 @@ public class SchemaTest implements FileReferences
     return dynamicTests;
   }
 
+  /**
+   * verifies that the validation plan is compiled with the values of the attribute definitions and that it is
+   * compiled again after the attributes of the schema were changed
+   */
+  @Test
+  public void testValidationPlan()
+  {
+    Schema schema = new Schema(JsonHelper.loadJsonDocument(ClassPathReferences.GROUP_SCHEMA_JSON));
+    List<AttributeValidationPlan> validationPlan = schema.getValidationPlan();
+    Assertions.assertSame(validationPlan, schema.getValidationPlan());
+    Assertions.assertEquals(schema.getAttributes().size(), validationPlan.size());
+
+    AttributeValidationPlan members = validationPlan.stream()
+                                                    .filter(plan -> plan.getName().equals("members"))
+                                                    .findAny()
+                                                    .get();
+    SchemaAttribute membersAttribute = schema.getSchemaAttribute("members");
+    Assertions.assertSame(membersAttribute, members.getSchemaAttribute());
+    Assertions.assertEquals(Type.COMPLEX, members.getType());
+    Assertions.assertEquals(membersAttribute.getMutability(), members.getMutability());
+    Assertions.assertEquals(membersAttribute.getReturned(), members.getReturned());
+    Assertions.assertTrue(members.isMultiValued());
+    Assertions.assertEquals(membersAttribute.getSubAttributes().size(), members.getSubAttributePlans().size());
+
+    AttributeValidationPlan type = members.getSubAttributePlans()
+                                          .stream()
+                                          .filter(plan -> plan.getName().equals("type"))
+                                          .findAny()
+                                          .get();
+    Assertions.assertArrayEquals(new String[]{"members", "type"}, type.getScimNodeNameParts());
+    Assertions.assertTrue(type.getCanonicalValues().isEmpty());
+
+    AttributeValidationPlan reference = members.getSubAttributePlans()
+                                               .stream()
+                                               .filter(plan -> plan.getName().equals("$ref"))
+                                               .findAny()
+                                               .get();
+    Assertions.assertTrue(reference.isResolvableResourceReference());
+
+    schema.removeAttribute(membersAttribute);
+    Assertions.assertNotSame(validationPlan, schema.getValidationPlan());
+    Assertions.assertEquals(validationPlan.size() - 1, schema.getValidationPlan().size());
+  }
+
+  /**
+   * verifies that canonical values are compared case insensitive within the validation plan
+   */
+  @Test
+  public void testValidationPlanCanonicalValues()
+  {
+    Schema schema = new Schema(JsonHelper.loadJsonDocument(ClassPathReferences.BULK_REQUEST_SCHEMA));
+    AttributeValidationPlan method = schema.getValidationPlan()
+                                           .stream()
+                                           .flatMap(plan -> plan.getSubAttributePlans().stream())
+                                           .filter(plan -> plan.getName().equals("method"))
+                                           .findAny()
+                                           .get();
+    Assertions.assertTrue(method.isCanonicalValue("POST"));
+    Assertions.assertTrue(method.isCanonicalValue("patch"));
+    Assertions.assertFalse(method.isCanonicalValue("GET"));
+    Assertions.assertFalse(method.isCanonicalValue(null));
+  }
+
   /**
    * @return a test that calls a setter method and expects an {@link InvalidSchemaException} with an internal
    *         server error status and the given error message
@@ -0,0 +1,104 @@
+package de.captaingoldfish.scim.sdk.common.utils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.captaingoldfish.scim.sdk.common.constants.ClassPathReferences;
+
+
+/**
+ * compares reading and writing json documents with a new {@link ObjectMapper} per call against the shared
+ * mapper of the {@link JsonHelper}. This benchmark is not executed during the build. Run it with the main
+ * method from the test classpath<br>
+ * <br>
+ * author Pascal Knueppel <br>
+ * created at: 17.10.2026 <br>
+ * <br>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonHelperBenchmark
+{
+
+  /**
+   * the document that is read and written
+   */
+  private String jsonDocument;
+
+  /**
+   * the parsed document that is written
+   */
+  private JsonNode jsonNode;
+
+  public static void main(String[] args) throws RunnerException
+  {
+    new Runner(new OptionsBuilder().include(JsonHelperBenchmark.class.getSimpleName()).build()).run();
+  }
+
+  /**
+   * loads the user schema as the document to read and write
+   */
+  @Setup
+  public void loadDocument()
+  {
+    jsonNode = JsonHelper.loadJsonDocument(ClassPathReferences.USER_SCHEMA_JSON);
+    jsonDocument = jsonNode.toString();
+  }
+
+  /**
+   * the previous approach that creates a new mapper for each document
+   */
+  @Benchmark
+  public JsonNode readWithNewObjectMapper() throws IOException
+  {
+    return new ObjectMapper().readTree(jsonDocument);
+  }
+
+  /**
+   * reads the document with the shared mapper
+   */
+  @Benchmark
+  public JsonNode readWithSharedObjectMapper()
+  {
+    return JsonHelper.readJsonDocument(jsonDocument);
+  }
+
+  /**
+   * the previous approach that creates a new mapper for each document
+   */
+  @Benchmark
+  public String writeWithNewObjectMapper() throws IOException
+  {
+    return new ObjectMapper().writeValueAsString(jsonNode);
+  }
+
+  /**
+   * writes the document with the shared writer
+   */
+  @Benchmark
+  public String writeWithSharedObjectMapper()
+  {
+    return JsonHelper.toJsonString(jsonNode);
+  }
+}
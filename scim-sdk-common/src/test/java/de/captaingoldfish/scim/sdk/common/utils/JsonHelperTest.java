@@ -1,10 +1,12 @@
 package de.captaingoldfish.scim.sdk.common.utils;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.io.IOUtils;
 import org.hamcrest.MatcherAssert;
@@ -13,6 +15,8 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import de.captaingoldfish.scim.sdk.common.constants.ClassPathReferences;
@@ -213,4 +217,71 @@ public class JsonHelperTest
     String value = valueOptional.get();
     Assertions.assertEquals("world", value);
   }
+
+  /**
+   * verifies that the documents are read and written with the same shared mapper
+   */
+  @Test
+  public void testSharedObjectMapperIsReused()
+  {
+    Assertions.assertSame(JsonHelper.getObjectMapper(), JsonHelper.getObjectMapper());
+    String jsonDocument = "{\"hello\":\"world\"}";
+    Assertions.assertEquals(jsonDocument, JsonHelper.toJsonString(JsonHelper.readJsonDocument(jsonDocument)));
+  }
+
+  /**
+   * verifies that a configuration of the shared mapper is used when documents are written
+   */
+  @Test
+  public void testConfigureObjectMapper()
+  {
+    ObjectMapper originalMapper = JsonHelper.getObjectMapper();
+    JsonNode jsonNode = JsonHelper.readJsonDocument("{\"hello\": \"world\"}");
+    try
+    {
+      JsonHelper.configureObjectMapper(objectMapper -> objectMapper.enable(SerializationFeature.INDENT_OUTPUT));
+      Assertions.assertNotSame(originalMapper, JsonHelper.getObjectMapper());
+      Assertions.assertFalse(originalMapper.isEnabled(SerializationFeature.INDENT_OUTPUT));
+      MatcherAssert.assertThat(JsonHelper.toJsonString(jsonNode), Matchers.containsString("\n"));
+    }
+    finally
+    {
+      JsonHelper.configureObjectMapper(objectMapper -> objectMapper.disable(SerializationFeature.INDENT_OUTPUT));
+    }
+    Assertions.assertEquals("{\"hello\":\"world\"}", JsonHelper.toJsonString(jsonNode));
+  }
+
+  /**
+   * verifies that writing a value into an output stream does not close the stream
+   */
+  @Test
+  public void testWriteValueDoesNotCloseStream() throws IOException
+  {
+    AtomicBoolean closed = new AtomicBoolean(false);
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream()
+    {
+
+      @Override
+      public void close()
+      {
+        closed.set(true);
+      }
+    };
+    JsonHelper.writeValue(outputStream, JsonHelper.readJsonDocument("{\"hello\": \"world\"}"));
+    Assertions.assertFalse(closed.get());
+    Assertions.assertEquals("{\"hello\":\"world\"}", new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+  }
+
+  /**
+   * verifies that a json document is read from its encoded bytes
+   */
+  @Test
+  public void testReadJsonDocumentFromBytes()
+  {
+    String jsonDocument = "{\"hello\": \"grüne welt\"}";
+    byte[] encodedDocument = jsonDocument.getBytes(StandardCharsets.UTF_8);
+    Assertions.assertEquals(JsonHelper.readJsonDocument(jsonDocument), JsonHelper.readJsonDocument(encodedDocument));
+    Assertions.assertNull(JsonHelper.readJsonDocument(new byte[0]));
+    Assertions.assertNull(JsonHelper.readJsonDocument(" \n".getBytes(StandardCharsets.UTF_8)));
+  }
 }
@@ -0,0 +1,168 @@
+package de.captaingoldfish.scim.sdk.server.sql;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import de.captaingoldfish.scim.sdk.common.schemas.SchemaAttribute;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/**
+ * maps the attributes of a resource type to the tables and columns of a relational database. Simple
+ * attributes of the resource are mapped to columns of the main table. Multivalued attributes are stored in
+ * their own tables that reference the main table by a foreign key. The sub-attributes of a multivalued complex
+ * attribute like "emails.type" are mapped to columns of this table. The values of a multivalued simple
+ * attribute are mapped to a column that has the name of the attribute itself.<br>
+ * <br>
+ * Attribute names may be given as short scim node name like "name.givenName" or as fully qualified name like
+ * "urn:ietf:params:scim:schemas:extension:enterprise:2.0:User:costCenter". The fully qualified name takes
+ * precedence if both are mapped<br>
+ *
+ * <pre>
+ * SqlColumnMapping mapping = new SqlColumnMapping("users", "u", "id").addColumn("userName", "user_name")
+ *                                                                      .addMultiValuedTable("emails",
+ *                                                                                           "user_emails",
+ *                                                                                           "user_id")
+ *                                                                      .addColumn("emails.value", "value")
+ *                                                                      .addColumn("emails.type", "type");
+ * </pre>
+ *
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+@Getter
+public class SqlColumnMapping
+{
+
+  /**
+   * the name of the main table that holds the resources
+   */
+  private final String tableName;
+
+  /**
+   * the alias of the main table that is used in the generated sql
+   */
+  private final String tableAlias;
+
+  /**
+   * the primary key column of the main table that is referenced by the tables of multivalued attributes
+   */
+  private final String idColumn;
+
+  /**
+   * the mapped columns by their attribute names
+   */
+  private final Map<String, Column> columns = new HashMap<>();
+
+  /**
+   * the tables of the multivalued attributes by their attribute names
+   */
+  private final Map<String, MultiValuedTable> multiValuedTables = new HashMap<>();
+
+  public SqlColumnMapping(String tableName, String tableAlias, String idColumn)
+  {
+    this.tableName = tableName;
+    this.tableAlias = tableAlias;
+    this.idColumn = idColumn;
+  }
+
+  /**
+   * maps the given attribute to a column
+   *
+   * @param attributeName the name of the attribute e.g. "userName" or "emails.value"
+   * @param columnName the name of the column
+   */
+  public SqlColumnMapping addColumn(String attributeName, String columnName)
+  {
+    return addColumn(attributeName, columnName, false);
+  }
+
+  /**
+   * maps the given attribute to a column
+   *
+   * @param attributeName the name of the attribute e.g. "userName" or "emails.value"
+   * @param columnName the name of the column
+   * @param caseInsensitiveColumn true if the database already compares the values of this column case
+   *          insensitive e.g. because of its collation. In this case no LOWER function is applied on the column
+   *          for attributes that are not case exact so that a plain index on the column can be used
+   */
+  public SqlColumnMapping addColumn(String attributeName, String columnName, boolean caseInsensitiveColumn)
+  {
+    columns.put(attributeName, new Column(columnName, caseInsensitiveColumn));
+    return this;
+  }
+
+  /**
+   * maps a multivalued attribute to its own table
+   *
+   * @param attributeName the name of the multivalued attribute e.g. "emails"
+   * @param tableName the name of the table that holds the values of the attribute
+   * @param foreignKeyColumn the column of the table that references the {@link #getIdColumn()} of the main
+   *          table
+   */
+  public SqlColumnMapping addMultiValuedTable(String attributeName, String tableName, String foreignKeyColumn)
+  {
+    multiValuedTables.put(attributeName, new MultiValuedTable(tableName, foreignKeyColumn));
+    return this;
+  }
+
+  /**
+   * @return the column of the given attribute if mapped
+   */
+  public Optional<Column> getColumn(SchemaAttribute schemaAttribute)
+  {
+    return Optional.ofNullable(Optional.ofNullable(columns.get(schemaAttribute.getFullResourceName()))
+                                       .orElseGet(() -> columns.get(schemaAttribute.getScimNodeName())));
+  }
+
+  /**
+   * @return the table of the given multivalued attribute if mapped
+   */
+  public Optional<MultiValuedTable> getMultiValuedTable(SchemaAttribute schemaAttribute)
+  {
+    return Optional.ofNullable(Optional.ofNullable(multiValuedTables.get(schemaAttribute.getFullResourceName()))
+                                       .orElseGet(() -> multiValuedTables.get(schemaAttribute.getScimNodeName())));
+  }
+
+  /**
+   * a mapped column
+   */
+  @Getter
+  @AllArgsConstructor
+  public static class Column
+  {
+
+    /**
+     * the name of the column
+     */
+    private final String columnName;
+
+    /**
+     * if the database already compares the values of this column case insensitive
+     */
+    private final boolean caseInsensitiveColumn;
+  }
+
+  /**
+   * the table of a multivalued attribute
+   */
+  @Getter
+  @AllArgsConstructor
+  public static class MultiValuedTable
+  {
+
+    /**
+     * the name of the table
+     */
+    private final String tableName;
+
+    /**
+     * the column that references the id column of the main table
+     */
+    private final String foreignKeyColumn;
+  }
+}
@@ -0,0 +1,524 @@
+package de.captaingoldfish.scim.sdk.server.sql;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import de.captaingoldfish.scim.sdk.common.constants.enums.Comparator;
+import de.captaingoldfish.scim.sdk.common.constants.enums.SortOrder;
+import de.captaingoldfish.scim.sdk.common.constants.enums.Type;
+import de.captaingoldfish.scim.sdk.common.schemas.SchemaAttribute;
+import de.captaingoldfish.scim.sdk.server.filter.AndExpressionNode;
+import de.captaingoldfish.scim.sdk.server.filter.AttributeExpressionLeaf;
+import de.captaingoldfish.scim.sdk.server.filter.AttributePathRoot;
+import de.captaingoldfish.scim.sdk.server.filter.FilterNode;
+import de.captaingoldfish.scim.sdk.server.filter.NotExpressionNode;
+import de.captaingoldfish.scim.sdk.server.filter.OrExpressionNode;
+import de.captaingoldfish.scim.sdk.server.query.QueryPlan;
+import lombok.Getter;
+
+
+/**
+ * translates parsed {@link FilterNode} trees into parameterized SQL predicates based on a
+ * {@link SqlColumnMapping}. This is a reference implementation for resource handlers that store their
+ * resources in a relational database and want to let the database do the filtering, sorting and paging
+ * instead of loading all resources into memory.<br>
+ * <br>
+ * The translation follows the evaluation rules of the SDK so that a resource matches the SQL predicate exactly
+ * if it would match the in-memory evaluation of the same filter. Expressions that cannot be expressed exactly
+ * are not translated: e.g. comparisons on unmapped attributes, "sw", "ew" and "co" on numbers and dateTimes or
+ * comparisons on sub-attributes of multivalued attributes that would also match resources without any value.
+ * Since {@link #translate(QueryPlan)} does only mark the successfully translated top level conjuncts as
+ * handled, all remaining conjuncts are still evaluated by the SDK.<br>
+ * <br>
+ * To keep the generated SQL index friendly the "sw" operator is translated into a prefix LIKE expression and
+ * multivalued attributes are queried with correlated EXISTS subqueries instead of joins so that the main
+ * table rows are never duplicated. Comparisons on attributes that are not case exact apply the LOWER function
+ * on the column which requires a functional index unless the column was mapped as case insensitive column<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+public class SqlFilterTranslator
+{
+
+  /**
+   * the escape character that is used within LIKE expressions
+   */
+  private static final char LIKE_ESCAPE_CHARACTER = '\\';
+
+  /**
+   * the mapping of the attributes to tables and columns
+   */
+  @Getter
+  private final SqlColumnMapping columnMapping;
+
+  public SqlFilterTranslator(SqlColumnMapping columnMapping)
+  {
+    this.columnMapping = columnMapping;
+  }
+
+  /**
+   * translates the given filter expression
+   *
+   * @param filterNode the filter expression to translate
+   * @return the translated predicate or an empty if any part of the expression cannot be translated
+   */
+  public Optional<SqlPredicate> translate(FilterNode filterNode)
+  {
+    return Optional.ofNullable(new Translation().translateNode(filterNode));
+  }
+
+  /**
+   * translates the given query plan into a SQL query. Each top level conjunct of the filter that could be
+   * translated is marked as handled within the query plan. The same is true for the sorting if the sort
+   * attribute is mapped to a column of the main table. The paging is only translated if the query plan allows
+   * it
+   *
+   * @param queryPlan the query plan of the current list request
+   * @return the SQL query that returns the matching resources
+   */
+  public SqlQuery translate(QueryPlan queryPlan)
+  {
+    Translation translation = new Translation();
+    List<String> conditions = new ArrayList<>();
+    List<Object> parameters = new ArrayList<>();
+    for ( FilterNode conjunct : queryPlan.getConjuncts() )
+    {
+      SqlPredicate sqlPredicate = translation.translateNode(conjunct);
+      if (sqlPredicate != null)
+      {
+        conditions.add(sqlPredicate.getSql());
+        parameters.addAll(sqlPredicate.getParameters());
+        queryPlan.markHandled(conjunct);
+      }
+    }
+    String whereClause = conditions.isEmpty() ? null : String.join(" AND ", conditions);
+
+    String idColumn = columnMapping.getTableAlias() + "." + columnMapping.getIdColumn();
+    String orderByClause = null;
+    if (queryPlan.getSortBy() != null)
+    {
+      orderByClause = translateSorting(queryPlan.getSortBy(), queryPlan.getSortOrder());
+      if (orderByClause != null)
+      {
+        queryPlan.markSortingHandled();
+      }
+    }
+
+    Long offset = null;
+    Integer limit = null;
+    if (queryPlan.isPagingAllowed())
+    {
+      offset = queryPlan.getStartIndex() - 1;
+      limit = queryPlan.getCount();
+      // the id makes the order of the rows deterministic so that the pages do not overlap
+      orderByClause = orderByClause == null ? idColumn : orderByClause + ", " + idColumn;
+      queryPlan.markPagingHandled();
+    }
+    String fromClause = columnMapping.getTableName() + " " + columnMapping.getTableAlias();
+    return new SqlQuery(fromClause, whereClause, parameters, orderByClause, offset, limit);
+  }
+
+  /**
+   * translates the sorting into an ORDER BY expression. Resources without a value are always sorted to the end
+   * of the result just like the SDK does it
+   *
+   * @return the ORDER BY expression or null if the attribute is not mapped to a column of the main table
+   */
+  private String translateSorting(SchemaAttribute sortBy, SortOrder sortOrder)
+  {
+    SchemaAttribute parent = sortBy.getParent();
+    if (sortBy.isMultiValued() || (parent != null && parent.isMultiValued())
+        || Type.COMPLEX.equals(sortBy.getType()) || Type.ANY.equals(sortBy.getType()))
+    {
+      return null;
+    }
+    Optional<SqlColumnMapping.Column> column = columnMapping.getColumn(sortBy);
+    if (!column.isPresent())
+    {
+      return null;
+    }
+    String columnExpression = getColumnExpression(columnMapping.getTableAlias(), column.get(), sortBy);
+    boolean descending = SortOrder.DESCENDING.equals(sortOrder);
+    return columnExpression + (descending ? " DESC" : " ASC") + " NULLS LAST";
+  }
+
+  /**
+   * @return the column expression that is used in comparisons. If the attribute is not case exact the column
+   *         is compared in lower case unless the database does this already for the column
+   */
+  private static String getColumnExpression(String alias, SqlColumnMapping.Column column, SchemaAttribute attribute)
+  {
+    String qualifiedColumn = alias + "." + column.getColumnName();
+    return isLowerCaseComparison(column, attribute) ? "LOWER(" + qualifiedColumn + ")" : qualifiedColumn;
+  }
+
+  /**
+   * @return true if the values of the column must be converted to lower case for comparisons
+   */
+  private static boolean isLowerCaseComparison(SqlColumnMapping.Column column, SchemaAttribute attribute)
+  {
+    boolean isString = Type.STRING.equals(attribute.getType()) || Type.REFERENCE.equals(attribute.getType());
+    return isString && !attribute.isCaseExact() && !column.isCaseInsensitiveColumn();
+  }
+
+  /**
+   * escapes the wildcards of a LIKE expression
+   */
+  private static String escapeLike(String value)
+  {
+    StringBuilder escaped = new StringBuilder(value.length());
+    for ( char c : value.toCharArray() )
+    {
+      if (c == LIKE_ESCAPE_CHARACTER || c == '%' || c == '_')
+      {
+        escaped.append(LIKE_ESCAPE_CHARACTER);
+      }
+      escaped.append(c);
+    }
+    return escaped.toString();
+  }
+
+  /**
+   * tells us if the translated comparison of the given leaf would also match a missing value. Such a
+   * comparison cannot be translated into an EXISTS subquery because a resource without any row in the table of
+   * the multivalued attribute would not be found by the subquery but is matched by the SDK
+   */
+  private static boolean isMatchingMissingValue(AttributeExpressionLeaf leaf)
+  {
+    Comparator comparator = leaf.getComparator();
+    switch (leaf.getType())
+    {
+      case BOOLEAN:
+        boolean value = leaf.getBooleanValue().orElse(false);
+        return !leaf.isMultiValued() && (Comparator.EQ.equals(comparator) != value);
+      case INTEGER:
+      case DECIMAL:
+        return leaf.isNull() ? Comparator.EQ.equals(comparator) : Comparator.NE.equals(comparator);
+      case DATE_TIME:
+        return leaf.isNull();
+      default:
+        if (leaf.isNull())
+        {
+          return Comparator.EQ.equals(comparator);
+        }
+        return Arrays.asList(Comparator.NE, Comparator.LT, Comparator.LE).contains(comparator);
+    }
+  }
+
+  /**
+   * holds the state of a single translation
+   */
+  private class Translation
+  {
+
+    /**
+     * the number of EXISTS subqueries that have been created so far. Used to give each subquery its own alias
+     */
+    private int subQueryCounter;
+
+    /**
+     * translates the given node and all of its children
+     *
+     * @return the translated node or null if the node cannot be translated
+     */
+    private SqlPredicate translateNode(FilterNode filterNode)
+    {
+      if (filterNode instanceof AndExpressionNode)
+      {
+        AndExpressionNode andExpressionNode = (AndExpressionNode)filterNode;
+        return combine(translateNode(andExpressionNode.getLeftNode()),
+                       "AND",
+                       translateNode(andExpressionNode.getRightNode()));
+      }
+      else if (filterNode instanceof OrExpressionNode)
+      {
+        OrExpressionNode orExpressionNode = (OrExpressionNode)filterNode;
+        return combine(translateNode(orExpressionNode.getLeftNode()),
+                       "OR",
+                       translateNode(orExpressionNode.getRightNode()));
+      }
+      else if (filterNode instanceof NotExpressionNode)
+      {
+        SqlPredicate operand = translateNode(((NotExpressionNode)filterNode).getRightNode());
+        if (operand == null)
+        {
+          return null;
+        }
+        // a comparison with a NULL column is unknown in SQL and so is its negation. The SDK treats a comparison
+        // with a missing value as false and its negation as true so the unknown result is turned into false
+        // before it is negated
+        return new SqlPredicate("CASE WHEN " + operand.getSql() + " THEN 1 ELSE 0 END = 0",
+                                operand.getParameters());
+      }
+      else if (filterNode instanceof AttributeExpressionLeaf)
+      {
+        return translateLeaf((AttributeExpressionLeaf)filterNode);
+      }
+      else if (filterNode instanceof AttributePathRoot && ((AttributePathRoot)filterNode).getChild() != null)
+      {
+        // the SDK evaluates each expression of a value path on its own so the child is translated the same way
+        return translateNode(((AttributePathRoot)filterNode).getChild());
+      }
+      return null;
+    }
+
+    /**
+     * combines two translated operands with the given operator
+     *
+     * @return the combined predicate or null if one of the operands could not be translated
+     */
+    private SqlPredicate combine(SqlPredicate left, String operator, SqlPredicate right)
+    {
+      if (left == null || right == null)
+      {
+        return null;
+      }
+      List<Object> parameters = new ArrayList<>(left.getParameters());
+      parameters.addAll(right.getParameters());
+      return new SqlPredicate("(" + left.getSql() + " " + operator + " " + right.getSql() + ")", parameters);
+    }
+
+    /**
+     * translates a single comparison. Comparisons on the values of multivalued attributes are wrapped into a
+     * correlated EXISTS subquery on the table of the multivalued attribute
+     *
+     * @return the translated comparison or null if the comparison cannot be translated
+     */
+    private SqlPredicate translateLeaf(AttributeExpressionLeaf leaf)
+    {
+      SchemaAttribute schemaAttribute = leaf.getSchemaAttribute();
+      Optional<SqlColumnMapping.Column> column = columnMapping.getColumn(schemaAttribute);
+      if (!column.isPresent())
+      {
+        return null;
+      }
+      SchemaAttribute parent = schemaAttribute.getParent();
+      SchemaAttribute multiValuedAttribute = parent != null && parent.isMultiValued() ? parent
+        : schemaAttribute.isMultiValued() ? schemaAttribute : null;
+      if (multiValuedAttribute == null)
+      {
+        String columnExpression = getColumnExpression(columnMapping.getTableAlias(), column.get(), schemaAttribute);
+        return translateComparison(leaf, column.get(), columnExpression);
+      }
+
+      Optional<SqlColumnMapping.MultiValuedTable> table = columnMapping.getMultiValuedTable(multiValuedAttribute);
+      if (!table.isPresent() || isMatchingMissingValue(leaf))
+      {
+        return null;
+      }
+      String alias = "t" + (++subQueryCounter);
+      String columnExpression = getColumnExpression(alias, column.get(), schemaAttribute);
+      SqlPredicate comparison = translateComparison(leaf, column.get(), columnExpression);
+      if (comparison == null)
+      {
+        return null;
+      }
+      String sql = "EXISTS (SELECT 1 FROM " + table.get().getTableName() + " " + alias + " WHERE " + alias + "."
+                   + table.get().getForeignKeyColumn() + " = " + columnMapping.getTableAlias() + "."
+                   + columnMapping.getIdColumn() + " AND " + comparison.getSql() + ")";
+      return new SqlPredicate(sql, comparison.getParameters());
+    }
+
+    /**
+     * translates the comparison of the leaf based on the type of its attribute
+     */
+    private SqlPredicate translateComparison(AttributeExpressionLeaf leaf,
+                                             SqlColumnMapping.Column column,
+                                             String columnExpression)
+    {
+      switch (leaf.getType())
+      {
+        case STRING:
+        case REFERENCE:
+          return translateStringComparison(leaf,
+                                           columnExpression,
+                                           isLowerCaseComparison(column, leaf.getSchemaAttribute()));
+        case BOOLEAN:
+          return translateBooleanComparison(leaf, columnExpression);
+        case INTEGER:
+        case DECIMAL:
+          return translateNumberComparison(leaf, columnExpression);
+        case DATE_TIME:
+          return translateDateTimeComparison(leaf, columnExpression);
+        default:
+          return null;
+      }
+    }
+
+    /**
+     * translates a string comparison
+     *
+     * @param lowerCase if the column expression is compared in lower case so the value must be converted too
+     */
+    private SqlPredicate translateStringComparison(AttributeExpressionLeaf leaf,
+                                                   String columnExpression,
+                                                   boolean lowerCase)
+    {
+      Comparator comparator = leaf.getComparator();
+      if (Comparator.PR.equals(comparator))
+      {
+        return new SqlPredicate(columnExpression + " IS NOT NULL", Collections.emptyList());
+      }
+      if (leaf.isNull())
+      {
+        return translateNullComparison(comparator, columnExpression);
+      }
+      String value = lowerCase ? leaf.getValue().toLowerCase(Locale.ROOT) : leaf.getValue();
+      switch (comparator)
+      {
+        case EQ:
+          return new SqlPredicate(columnExpression + " = ?", Collections.singletonList(value));
+        case NE:
+          return new SqlPredicate("(" + columnExpression + " IS NULL OR " + columnExpression + " <> ?)",
+                                  Collections.singletonList(value));
+        case SW:
+          return like(columnExpression, escapeLike(value) + "%");
+        case EW:
+          return like(columnExpression, "%" + escapeLike(value));
+        case CO:
+          return like(columnExpression, "%" + escapeLike(value) + "%");
+        case GT:
+          return new SqlPredicate(columnExpression + " > ?", Collections.singletonList(value));
+        case GE:
+          return new SqlPredicate(columnExpression + " >= ?", Collections.singletonList(value));
+        // the SDK sorts missing strings before any other value
+        case LT:
+          return new SqlPredicate("(" + columnExpression + " IS NULL OR " + columnExpression + " < ?)",
+                                  Collections.singletonList(value));
+        case LE:
+          return new SqlPredicate("(" + columnExpression + " IS NULL OR " + columnExpression + " <= ?)",
+                                  Collections.singletonList(value));
+        default:
+          return null;
+      }
+    }
+
+    /**
+     * creates a LIKE expression with the given pattern
+     */
+    private SqlPredicate like(String columnExpression, String pattern)
+    {
+      return new SqlPredicate(columnExpression + " LIKE ? ESCAPE '" + LIKE_ESCAPE_CHARACTER + "'",
+                              Collections.singletonList(pattern));
+    }
+
+    /**
+     * translates a comparison with the null literal
+     */
+    private SqlPredicate translateNullComparison(Comparator comparator, String columnExpression)
+    {
+      switch (comparator)
+      {
+        case EQ:
+          return new SqlPredicate(columnExpression + " IS NULL", Collections.emptyList());
+        case NE:
+          return new SqlPredicate(columnExpression + " IS NOT NULL", Collections.emptyList());
+        default:
+          return null;
+      }
+    }
+
+    /**
+     * translates a boolean comparison. A missing simple boolean is treated as false by the SDK
+     */
+    private SqlPredicate translateBooleanComparison(AttributeExpressionLeaf leaf, String columnExpression)
+    {
+      Comparator comparator = leaf.getComparator();
+      if (leaf.isNull() || !Comparator.EQ.equals(comparator) && !Comparator.NE.equals(comparator))
+      {
+        return null;
+      }
+      boolean value = leaf.getBooleanValue().orElse(false);
+      if (leaf.isMultiValued())
+      {
+        String operator = Comparator.EQ.equals(comparator) ? " = ?" : " <> ?";
+        return new SqlPredicate(columnExpression + operator, Collections.singletonList(value));
+      }
+      boolean expectedValue = Comparator.EQ.equals(comparator) == value;
+      if (expectedValue)
+      {
+        return new SqlPredicate(columnExpression + " = ?", Collections.singletonList(true));
+      }
+      return new SqlPredicate("(" + columnExpression + " IS NULL OR " + columnExpression + " = ?)",
+                              Collections.singletonList(false));
+    }
+
+    /**
+     * translates a number comparison. The string operators "sw", "ew" and "co" are not translated because they
+     * depend on the string representation of the number in the SDK
+     */
+    private SqlPredicate translateNumberComparison(AttributeExpressionLeaf leaf, String columnExpression)
+    {
+      Comparator comparator = leaf.getComparator();
+      if (Comparator.PR.equals(comparator))
+      {
+        return new SqlPredicate(columnExpression + " IS NOT NULL", Collections.emptyList());
+      }
+      if (leaf.isNull())
+      {
+        return translateNullComparison(comparator, columnExpression);
+      }
+      List<Object> parameters = Collections.singletonList(leaf.getNumberValue().get());
+      if (Comparator.NE.equals(comparator))
+      {
+        return new SqlPredicate("(" + columnExpression + " IS NULL OR " + columnExpression + " <> ?)", parameters);
+      }
+      String operator = getComparisonOperator(comparator);
+      return operator == null ? null : new SqlPredicate(columnExpression + operator, parameters);
+    }
+
+    /**
+     * translates a dateTime comparison. The string operators "sw", "ew" and "co" are not translated because the
+     * values are expected to be stored as timestamps
+     */
+    private SqlPredicate translateDateTimeComparison(AttributeExpressionLeaf leaf, String columnExpression)
+    {
+      Comparator comparator = leaf.getComparator();
+      if (Comparator.PR.equals(comparator))
+      {
+        return new SqlPredicate(columnExpression + " IS NOT NULL", Collections.emptyList());
+      }
+      if (leaf.isNull())
+      {
+        return Comparator.EQ.equals(comparator) ? translateNullComparison(comparator, columnExpression) : null;
+      }
+      String operator = Comparator.NE.equals(comparator) ? " <> ?" : getComparisonOperator(comparator);
+      if (operator == null || !leaf.getDateTime().isPresent())
+      {
+        return null;
+      }
+      return new SqlPredicate(columnExpression + operator,
+                              Collections.singletonList(Timestamp.from(leaf.getDateTime().get())));
+    }
+
+    /**
+     * @return the SQL operator for the given comparator or null if the comparator is not an equality or
+     *         ordering comparison
+     */
+    private String getComparisonOperator(Comparator comparator)
+    {
+      switch (comparator)
+      {
+        case EQ:
+          return " = ?";
+        case GT:
+          return " > ?";
+        case GE:
+          return " >= ?";
+        case LT:
+          return " < ?";
+        case LE:
+          return " <= ?";
+        default:
+          return null;
+      }
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package de.captaingoldfish.scim.sdk.server.sql;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/**
+ * a translated part of a filter expression that can be used within a SQL WHERE clause. The values of the
+ * filter expression are never written into the SQL string but are held as parameters for a
+ * {@link java.sql.PreparedStatement} in the order of their placeholders<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+@Getter
+@AllArgsConstructor
+public class SqlPredicate
+{
+
+  /**
+   * the SQL condition with a "?" placeholder for each parameter
+   */
+  private final String sql;
+
+  /**
+   * the parameters of the condition in the order of their placeholders
+   */
+  private final List<Object> parameters;
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return sql + " " + parameters;
+  }
+}
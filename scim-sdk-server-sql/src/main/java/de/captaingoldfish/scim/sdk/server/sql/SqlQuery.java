@@ -0,0 +1,115 @@
+package de.captaingoldfish.scim.sdk.server.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/**
+ * the parts of a SQL query that were translated from a {@link de.captaingoldfish.scim.sdk.server.query.QueryPlan}.
+ * The query can be executed as select statement that returns the requested page and as count statement that
+ * returns the total number of matching resources<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+@Getter
+@AllArgsConstructor
+public class SqlQuery
+{
+
+  /**
+   * the main table with its alias e.g. "users u"
+   */
+  private final String fromClause;
+
+  /**
+   * the translated conjuncts of the filter or null if no conjunct could be translated
+   */
+  private final String whereClause;
+
+  /**
+   * the parameters of the where clause in the order of their placeholders
+   */
+  private final List<Object> parameters;
+
+  /**
+   * the translated sorting or null if the sorting is done by the SDK
+   */
+  private final String orderByClause;
+
+  /**
+   * the number of rows to skip or null if the paging must be done by the SDK
+   */
+  private final Long offset;
+
+  /**
+   * the maximum number of rows to return or null if the paging must be done by the SDK
+   */
+  private final Integer limit;
+
+  /**
+   * @return true if the query applies the paging of the request
+   */
+  public boolean isPaged()
+  {
+    return offset != null;
+  }
+
+  /**
+   * creates the select statement that returns the matching rows of the main table
+   *
+   * @param selectList the columns to select e.g. "u.*"
+   * @return the select statement that must be used with the parameters of {@link #getSelectParameters()}
+   */
+  public String toSelectStatement(String selectList)
+  {
+    StringBuilder sql = new StringBuilder("SELECT ").append(selectList).append(" FROM ").append(fromClause);
+    if (whereClause != null)
+    {
+      sql.append(" WHERE ").append(whereClause);
+    }
+    if (orderByClause != null)
+    {
+      sql.append(" ORDER BY ").append(orderByClause);
+    }
+    if (isPaged())
+    {
+      sql.append(" OFFSET ? ROWS FETCH NEXT ? ROWS ONLY");
+    }
+    return sql.toString();
+  }
+
+  /**
+   * @return the parameters for the statement of {@link #toSelectStatement(String)}
+   */
+  public List<Object> getSelectParameters()
+  {
+    List<Object> selectParameters = new ArrayList<>(parameters);
+    if (isPaged())
+    {
+      selectParameters.add(offset);
+      selectParameters.add(limit);
+    }
+    return selectParameters;
+  }
+
+  /**
+   * creates the statement that counts all matching rows which is the value for the totalResults attribute of
+   * the list response if the paging is done by the database
+   *
+   * @return the count statement that must be used with the parameters of {@link #getParameters()}
+   */
+  public String toCountStatement()
+  {
+    StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM ").append(fromClause);
+    if (whereClause != null)
+    {
+      sql.append(" WHERE ").append(whereClause);
+    }
+    return sql.toString();
+  }
+}
@@ -0,0 +1,371 @@
+package de.captaingoldfish.scim.sdk.server.sql;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import de.captaingoldfish.scim.sdk.common.constants.ClassPathReferences;
+import de.captaingoldfish.scim.sdk.common.constants.enums.SortOrder;
+import de.captaingoldfish.scim.sdk.common.resources.EnterpriseUser;
+import de.captaingoldfish.scim.sdk.common.resources.ResourceNode;
+import de.captaingoldfish.scim.sdk.common.resources.User;
+import de.captaingoldfish.scim.sdk.common.resources.complex.Meta;
+import de.captaingoldfish.scim.sdk.common.resources.multicomplex.Email;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
+import de.captaingoldfish.scim.sdk.server.filter.FilterNode;
+import de.captaingoldfish.scim.sdk.server.filter.resources.FilterPredicateCompiler;
+import de.captaingoldfish.scim.sdk.server.query.QueryPlan;
+import de.captaingoldfish.scim.sdk.server.schemas.ResourceType;
+import de.captaingoldfish.scim.sdk.server.schemas.ResourceTypeFactory;
+import de.captaingoldfish.scim.sdk.server.utils.RequestUtils;
+
+
+/**
+ * author Pascal Knueppel <br>
+ * created at: 17.10.2026 <br>
+ * <br>
+ */
+public class SqlFilterTranslatorTest
+{
+
+  /**
+   * the users that are stored in the database
+   */
+  private static final List<User> USERS = Arrays.asList(User.builder()
+                                                            .id("1")
+                                                            .userName("chuck")
+                                                            .nickName("Chuck")
+                                                            .active(true)
+                                                            .meta(getMeta("2020-01-01T00:00:00Z"))
+                                                            .emails(Arrays.asList(Email.builder()
+                                                                                       .type("work")
+                                                                                       .value("chuck@norris.com")
+                                                                                       .primary(true)
+                                                                                       .build()))
+                                                            .enterpriseUser(EnterpriseUser.builder()
+                                                                                          .costCenter("4711")
+                                                                                          .build())
+                                                            .build(),
+                                                        User.builder()
+                                                            .id("2")
+                                                            .userName("bruce")
+                                                            .active(false)
+                                                            .meta(getMeta("2021-05-05T00:00:00Z"))
+                                                            .emails(Arrays.asList(Email.builder()
+                                                                                       .type("home")
+                                                                                       .value("bruce@lee.com")
+                                                                                       .build(),
+                                                                                  Email.builder()
+                                                                                       .type("work")
+                                                                                       .value("bruce@work.com")
+                                                                                       .build()))
+                                                            .build(),
+                                                        User.builder()
+                                                            .id("3")
+                                                            .userName("Arnold_S")
+                                                            .nickName("arnie")
+                                                            .build(),
+                                                        User.builder()
+                                                            .id("4")
+                                                            .userName("50%off")
+                                                            .nickName("Sale")
+                                                            .active(true)
+                                                            .meta(getMeta("2022-03-03T00:00:00Z"))
+                                                            .emails(Arrays.asList(Email.builder()
+                                                                                       .type("other")
+                                                                                       .value("sale@shop.com")
+                                                                                       .build()))
+                                                            .build());
+
+  /**
+   * creates the meta attribute of a test user
+   */
+  private static Meta getMeta(String lastModified)
+  {
+    return Meta.builder().lastModified(Instant.parse(lastModified)).build();
+  }
+
+  /**
+   * the user resource type
+   */
+  private ResourceType userResourceType;
+
+  /**
+   * the translator under test
+   */
+  private SqlFilterTranslator sqlFilterTranslator;
+
+  /**
+   * the connection to the in-memory database
+   */
+  private Connection connection;
+
+  /**
+   * initializes the resource type and fills the database with the {@link #USERS}
+   */
+  @BeforeEach
+  public void initialize() throws SQLException
+  {
+    ResourceTypeFactory resourceTypeFactory = new ResourceTypeFactory();
+    JsonNode userResourceTypeJson = JsonHelper.loadJsonDocument(ClassPathReferences.USER_RESOURCE_TYPE_JSON);
+    JsonNode userSchema = JsonHelper.loadJsonDocument(ClassPathReferences.USER_SCHEMA_JSON);
+    JsonNode enterpriseUser = JsonHelper.loadJsonDocument(ClassPathReferences.ENTERPRISE_USER_SCHEMA_JSON);
+    this.userResourceType = resourceTypeFactory.registerResourceType(null,
+                                                                     userResourceTypeJson,
+                                                                     userSchema,
+                                                                     enterpriseUser);
+    SqlColumnMapping columnMapping = new SqlColumnMapping("users", "u", "id").addColumn("userName", "user_name")
+                                                                             .addColumn("nickName", "nick_name")
+                                                                             .addColumn("active", "active")
+                                                                             .addColumn("meta.lastModified",
+                                                                                        "last_modified")
+                                                                             .addColumn("urn:ietf:params:scim:schemas:"
+                                                                                        + "extension:enterprise:2.0:"
+                                                                                        + "User:costCenter",
+                                                                                        "cost_center")
+                                                                             .addMultiValuedTable("emails",
+                                                                                                  "user_emails",
+                                                                                                  "user_id")
+                                                                             .addColumn("emails.value", "email_value")
+                                                                             .addColumn("emails.type", "email_type")
+                                                                             .addColumn("emails.primary",
+                                                                                        "email_primary");
+    this.sqlFilterTranslator = new SqlFilterTranslator(columnMapping);
+
+    this.connection = DriverManager.getConnection("jdbc:h2:mem:");
+    try (Statement statement = connection.createStatement())
+    {
+      statement.execute("CREATE TABLE users (id VARCHAR(36) PRIMARY KEY, user_name VARCHAR(255), "
+                        + "nick_name VARCHAR(255), active BOOLEAN, last_modified TIMESTAMP, "
+                        + "cost_center VARCHAR(255))");
+      statement.execute("CREATE TABLE user_emails (user_id VARCHAR(36) REFERENCES users(id), "
+                        + "email_value VARCHAR(255), email_type VARCHAR(255), email_primary BOOLEAN)");
+    }
+    for ( User user : USERS )
+    {
+      insertUser(user);
+    }
+  }
+
+  /**
+   * closes the in-memory database
+   */
+  @AfterEach
+  public void closeConnection() throws SQLException
+  {
+    connection.close();
+  }
+
+  /**
+   * stores the given user in the database
+   */
+  private void insertUser(User user) throws SQLException
+  {
+    try (PreparedStatement statement = connection.prepareStatement("INSERT INTO users VALUES (?, ?, ?, ?, ?, ?)"))
+    {
+      statement.setString(1, user.getId().get());
+      statement.setString(2, user.getUserName().orElse(null));
+      statement.setString(3, user.getNickName().orElse(null));
+      statement.setObject(4, user.isActive().orElse(null));
+      statement.setTimestamp(5, user.getMeta().flatMap(Meta::getLastModified).map(Timestamp::from).orElse(null));
+      statement.setString(6, user.getEnterpriseUser().flatMap(EnterpriseUser::getCostCenter).orElse(null));
+      statement.execute();
+    }
+    for ( Email email : user.getEmails() )
+    {
+      try (PreparedStatement statement = connection.prepareStatement("INSERT INTO user_emails VALUES (?, ?, ?, ?)"))
+      {
+        statement.setString(1, user.getId().get());
+        statement.setString(2, email.getValue().orElse(null));
+        statement.setString(3, email.getType().orElse(null));
+        statement.setBoolean(4, email.isPrimary());
+        statement.execute();
+      }
+    }
+  }
+
+  /**
+   * executes the select statement of the given query and returns the ids of the found users
+   */
+  private List<String> executeQuery(SqlQuery sqlQuery) throws SQLException
+  {
+    try (PreparedStatement statement = connection.prepareStatement(sqlQuery.toSelectStatement("u.id")))
+    {
+      List<Object> parameters = sqlQuery.getSelectParameters();
+      for ( int i = 0 ; i < parameters.size() ; i++ )
+      {
+        statement.setObject(i + 1, parameters.get(i));
+      }
+      List<String> ids = new ArrayList<>();
+      try (ResultSet resultSet = statement.executeQuery())
+      {
+        while (resultSet.next())
+        {
+          ids.add(resultSet.getString(1));
+        }
+      }
+      return ids;
+    }
+  }
+
+  /**
+   * creates a query plan for the given filter
+   */
+  private QueryPlan getQueryPlan(String filter)
+  {
+    return QueryPlan.builder()
+                    .resourceType(userResourceType)
+                    .startIndex(1)
+                    .count(10)
+                    .filter(RequestUtils.parseFilter(userResourceType, filter))
+                    .build();
+  }
+
+  /**
+   * verifies that the translated filters find the same users as the in-memory evaluation of the SDK
+   */
+  @ParameterizedTest
+  @CsvSource(delimiter = ';',
+             value = {"userName eq \"CHUCK\";1", "userName ne \"chuck\";2,3,4", "userName sw \"b\";2",
+                      "userName ew \"OFF\";4", "userName co \"r\";2,3", "userName gt \"bruce\";1",
+                      "userName sw \"50%\";4", "userName co \"_\";3", "nickName pr;1,3,4", "nickName eq null;2",
+                      "nickName lt \"b\";2,3", "active eq true;1,4", "active eq false;2,3", "active ne true;2,3",
+                      "emails.type eq \"work\";1,2", "emails[type eq \"home\"];2",
+                      "emails[value ew \"@norris.com\" or value sw \"sale\"];1,4", "emails.primary eq true;1",
+                      "not (emails.value pr);3", "meta.lastModified gt \"2021-01-01T00:00:00Z\";2,4",
+                      "meta.lastModified le \"2021-05-05T00:00:00Z\";1,2",
+                      "urn:ietf:params:scim:schemas:extension:enterprise:2.0:User:costCenter eq \"4711\";1",
+                      "userName sw \"b\" or (active eq true and not (nickName eq \"sale\"));1,2"})
+  public void testTranslatedFilterMatchesSdkEvaluation(String filter, String expectedIds) throws SQLException
+  {
+    QueryPlan queryPlan = getQueryPlan(filter);
+    SqlQuery sqlQuery = sqlFilterTranslator.translate(queryPlan);
+    Assertions.assertTrue(queryPlan.isFilterHandled(), sqlQuery.getWhereClause());
+    Assertions.assertEquals(Arrays.asList(expectedIds.split(",")), executeQuery(sqlQuery));
+  }
+
+  /**
+   * verifies that conjuncts that cannot be translated exactly are left to the SDK and that the paging is then
+   * not done by the database
+   */
+  @Test
+  public void testUntranslatableConjunctRemainsResidual() throws SQLException
+  {
+    QueryPlan queryPlan = getQueryPlan("userName sw \"b\" and emails.value ne \"bruce@lee.com\" and title pr");
+    SqlQuery sqlQuery = sqlFilterTranslator.translate(queryPlan);
+    Assertions.assertEquals(2, queryPlan.getResidualFilters().size());
+    Assertions.assertSame(queryPlan.getConjuncts().get(1), queryPlan.getResidualFilters().get(0));
+    Assertions.assertSame(queryPlan.getConjuncts().get(2), queryPlan.getResidualFilters().get(1));
+    Assertions.assertFalse(sqlQuery.isPaged());
+    Assertions.assertFalse(queryPlan.isPagingHandled());
+    Assertions.assertEquals(Collections.singletonList("2"), executeQuery(sqlQuery));
+  }
+
+  /**
+   * verifies that a filter expression is not translated at all if any of its parts cannot be translated
+   */
+  @Test
+  public void testTranslatePartiallyUnmappedFilter()
+  {
+    FilterNode filterNode = RequestUtils.parseFilter(userResourceType, "userName eq \"chuck\" or title pr");
+    Assertions.assertFalse(sqlFilterTranslator.translate(filterNode).isPresent());
+  }
+
+  /**
+   * verifies that the sorting and the paging are done by the database if the filter was translated completely
+   */
+  @Test
+  public void testSortingAndPaging() throws SQLException
+  {
+    QueryPlan queryPlan = QueryPlan.builder()
+                                   .resourceType(userResourceType)
+                                   .startIndex(2)
+                                   .count(2)
+                                   .filter(RequestUtils.parseFilter(userResourceType, "userName pr"))
+                                   .sortBy(RequestUtils.getSchemaAttributeByAttributeName(userResourceType,
+                                                                                          "nickName"))
+                                   .sortOrder(SortOrder.DESCENDING)
+                                   .build();
+    SqlQuery sqlQuery = sqlFilterTranslator.translate(queryPlan);
+    Assertions.assertTrue(queryPlan.isSortingHandled());
+    Assertions.assertTrue(sqlQuery.isPaged());
+    Assertions.assertTrue(queryPlan.isPagingHandled());
+    // the nickNames in descending order are: Sale, Chuck, arnie, null
+    Assertions.assertEquals(Arrays.asList("1", "3"), executeQuery(sqlQuery));
+
+    try (PreparedStatement statement = connection.prepareStatement(sqlQuery.toCountStatement()))
+    {
+      try (ResultSet resultSet = statement.executeQuery())
+      {
+        resultSet.next();
+        Assertions.assertEquals(USERS.size(), resultSet.getInt(1));
+      }
+    }
+  }
+
+  /**
+   * verifies that negated comparisons also find the users whose column is NULL. SQL evaluates a comparison
+   * with NULL as unknown and so its negation whereas the SDK treats the comparison with a missing value as false
+   * and its negation as true
+   */
+  @ParameterizedTest
+  @CsvSource(delimiter = ';',
+             value = {"not (nickName eq \"chuck\");2,3,4", "not (nickName gt \"b\");2,3",
+                      "not (active eq true);2,3", "not (nickName le \"b\");1,4",
+                      "not (urn:ietf:params:scim:schemas:extension:enterprise:2.0:User:costCenter eq \"4711\");2,3,4",
+                      "not (nickName sw \"c\" and userName pr);2,3,4", "not (not (nickName eq \"chuck\"));1",
+                      "userName pr and not (nickName ew \"e\" or nickName eq \"chuck\");2"})
+  public void testNegatedComparisonWithNullColumn(String filter, String expectedIds) throws SQLException
+  {
+    List<String> expected = Arrays.asList(expectedIds.split(","));
+    Predicate<ResourceNode> predicate = FilterPredicateCompiler.compile(RequestUtils.parseFilter(userResourceType,
+                                                                                                 filter));
+    Assertions.assertEquals(expected,
+                            USERS.stream()
+                                 .filter(predicate)
+                                 .map(user -> user.getId().get())
+                                 .collect(Collectors.toList()));
+
+    QueryPlan queryPlan = getQueryPlan(filter);
+    SqlQuery sqlQuery = sqlFilterTranslator.translate(queryPlan);
+    Assertions.assertTrue(queryPlan.isFilterHandled(), sqlQuery.getWhereClause());
+    Assertions.assertEquals(expected, executeQuery(sqlQuery));
+  }
+
+  /**
+   * verifies that the test data gives the same results with the in-memory evaluation of the SDK so that the
+   * expected values of {@link #testTranslatedFilterMatchesSdkEvaluation(String, String)} are correct
+   */
+  @ParameterizedTest
+  @CsvSource(delimiter = ';',
+             value = {"userName ne \"chuck\";2,3,4", "nickName lt \"b\";2,3", "active eq false;2,3",
+                      "emails[value ew \"@norris.com\" or value sw \"sale\"];1,4", "not (emails.value pr);3",
+                      "urn:ietf:params:scim:schemas:extension:enterprise:2.0:User:costCenter eq \"4711\";1"})
+  public void testSdkEvaluationOfTestData(String filter, String expectedIds)
+  {
+    Predicate<ResourceNode> predicate = FilterPredicateCompiler.compile(RequestUtils.parseFilter(userResourceType,
+                                                                                                 filter));
+    List<String> ids = USERS.stream().filter(predicate).map(user -> user.getId().get()).collect(Collectors.toList());
+    Assertions.assertEquals(Arrays.asList(expectedIds.split(",")), ids);
+  }
+}
@@ -0,0 +1,333 @@
+package de.captaingoldfish.scim.sdk.server.endpoints;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import de.captaingoldfish.scim.sdk.common.constants.AttributeNames;
+import de.captaingoldfish.scim.sdk.common.exceptions.ScimException;
+import de.captaingoldfish.scim.sdk.common.request.BulkRequestOperation;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
+
+
+/**
+ * the dependencies between the operations of a bulk request. An operation depends on another operation if it
+ * references the bulkId of the other operation within its resource path or its data. The references are
+ * collected from all string values of the data which is a superset of the references that are resolved later
+ * for the bulkId candidates of the resource types. So an operation does never become ready before all
+ * operations that it might reference have been executed. An operation does also depend on the previous
+ * operation of the request that targets the same resource path so that several operations on the same
+ * resource are executed in the order of the request.<br>
+ * <br>
+ * The operations are identified by their index within the bulk request. Operations that are part of a
+ * circular reference or depend on such an operation do never become ready. Circular references are detected by
+ * computing the strongly connected components of the graph once so that no bookkeeping is needed while the
+ * operations are executed. The order of the operations on the same resource is not considered for circular
+ * references<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+class BulkDependencyGraph
+{
+
+  /**
+   * the prefix of a bulkId reference
+   */
+  private static final String BULK_ID_PREFIX = AttributeNames.RFC7643.BULK_ID + ":";
+
+  /**
+   * the indices of the operations that depend on the operation with the index of the list
+   */
+  private final List<List<Integer>> dependents = new ArrayList<>();
+
+  /**
+   * the number of operations that must be finished before the operation with the index of the array becomes
+   * ready
+   */
+  private final int[] unfinishedPredecessors;
+
+  /**
+   * maps the bulkIds to the index of the operation that declares the bulkId
+   */
+  private final Map<String, Integer> operationIndexByBulkId = new HashMap<>();
+
+  /**
+   * the strongly connected component of the operation with the index of the array. Two operations that are
+   * within the same component do reference each other directly or indirectly
+   */
+  private final int[] componentIds;
+
+  public BulkDependencyGraph(List<BulkRequestOperation> operations)
+  {
+    this.unfinishedPredecessors = new int[operations.size()];
+    for ( int i = 0 ; i < operations.size() ; i++ )
+    {
+      dependents.add(new ArrayList<>());
+      String bulkId = operations.get(i).getBulkId().orElse(null);
+      if (StringUtils.isNotBlank(bulkId))
+      {
+        operationIndexByBulkId.putIfAbsent(bulkId, i);
+      }
+    }
+    List<Set<Integer>> predecessors = new ArrayList<>();
+    for ( int i = 0 ; i < operations.size() ; i++ )
+    {
+      Set<Integer> operationPredecessors = new LinkedHashSet<>();
+      for ( String referencedBulkId : getReferencedBulkIds(operations.get(i)) )
+      {
+        Integer predecessor = operationIndexByBulkId.get(referencedBulkId);
+        if (predecessor != null)
+        {
+          operationPredecessors.add(predecessor);
+        }
+      }
+      for ( Integer predecessor : operationPredecessors )
+      {
+        dependents.get(predecessor).add(i);
+      }
+      predecessors.add(operationPredecessors);
+    }
+    this.componentIds = findStronglyConnectedComponents();
+
+    // the index of the last operation that targets the resource path
+    Map<String, Integer> lastOperationIndexByResourcePath = new HashMap<>();
+    for ( int i = 0 ; i < operations.size() ; i++ )
+    {
+      String resourcePath = getResourcePath(operations.get(i));
+      if (resourcePath != null)
+      {
+        Integer previousOperation = lastOperationIndexByResourcePath.put(resourcePath, i);
+        if (previousOperation != null && predecessors.get(i).add(previousOperation))
+        {
+          dependents.get(previousOperation).add(i);
+        }
+      }
+      unfinishedPredecessors[i] = predecessors.get(i).size();
+    }
+  }
+
+  /**
+   * @return the indices of all operations that do not depend on any other operation in ascending order
+   */
+  public List<Integer> getReadyOperations()
+  {
+    List<Integer> readyOperations = new ArrayList<>();
+    for ( int i = 0 ; i < unfinishedPredecessors.length ; i++ )
+    {
+      if (unfinishedPredecessors[i] == 0)
+      {
+        readyOperations.add(i);
+      }
+    }
+    return readyOperations;
+  }
+
+  /**
+   * marks the given operation as finished
+   *
+   * @param operationIndex the index of the finished operation
+   * @return the indices of the operations that became ready because all of their predecessors are finished
+   */
+  public List<Integer> finish(int operationIndex)
+  {
+    List<Integer> readyOperations = new ArrayList<>();
+    for ( Integer dependent : dependents.get(operationIndex) )
+    {
+      unfinishedPredecessors[dependent]--;
+      if (unfinishedPredecessors[dependent] == 0)
+      {
+        readyOperations.add(dependent);
+      }
+    }
+    return readyOperations;
+  }
+
+  /**
+   * checks if the operation with the given bulkId and the operation with the referenced bulkId do reference
+   * each other directly or indirectly
+   *
+   * @param bulkId the bulkId of the referencing operation
+   * @param referencedBulkId the bulkId that is referenced by the operation
+   * @return true if both operations are part of the same circular reference, false else
+   */
+  public boolean isCircularReference(String bulkId, String referencedBulkId)
+  {
+    Integer operationIndex = operationIndexByBulkId.get(bulkId);
+    Integer referencedOperationIndex = operationIndexByBulkId.get(referencedBulkId);
+    if (operationIndex == null || referencedOperationIndex == null)
+    {
+      return false;
+    }
+    return componentIds[operationIndex] == componentIds[referencedOperationIndex];
+  }
+
+  /**
+   * finds the strongly connected components of the graph with an iterative version of tarjans algorithm that
+   * visits each operation and each reference only once
+   *
+   * @return the component ids of the operations
+   */
+  private int[] findStronglyConnectedComponents()
+  {
+    final int numberOfOperations = dependents.size();
+    int[] components = new int[numberOfOperations];
+    int[] discoveryIndices = new int[numberOfOperations];
+    int[] lowLinks = new int[numberOfOperations];
+    int[] nextEdges = new int[numberOfOperations];
+    boolean[] onStack = new boolean[numberOfOperations];
+    Arrays.fill(discoveryIndices, -1);
+    Deque<Integer> componentStack = new ArrayDeque<>();
+    Deque<Integer> callStack = new ArrayDeque<>();
+    int discoveryIndex = 0;
+    int componentCount = 0;
+    for ( int start = 0 ; start < numberOfOperations ; start++ )
+    {
+      if (discoveryIndices[start] != -1)
+      {
+        continue;
+      }
+      discoveryIndices[start] = lowLinks[start] = discoveryIndex++;
+      componentStack.push(start);
+      onStack[start] = true;
+      callStack.push(start);
+      while (!callStack.isEmpty())
+      {
+        int operation = callStack.peek();
+        List<Integer> edges = dependents.get(operation);
+        if (nextEdges[operation] < edges.size())
+        {
+          int next = edges.get(nextEdges[operation]++);
+          if (discoveryIndices[next] == -1)
+          {
+            discoveryIndices[next] = lowLinks[next] = discoveryIndex++;
+            componentStack.push(next);
+            onStack[next] = true;
+            callStack.push(next);
+          }
+          else if (onStack[next])
+          {
+            lowLinks[operation] = Math.min(lowLinks[operation], discoveryIndices[next]);
+          }
+          continue;
+        }
+        callStack.pop();
+        if (!callStack.isEmpty())
+        {
+          int parent = callStack.peek();
+          lowLinks[parent] = Math.min(lowLinks[parent], lowLinks[operation]);
+        }
+        if (lowLinks[operation] == discoveryIndices[operation])
+        {
+          int member;
+          do
+          {
+            member = componentStack.pop();
+            onStack[member] = false;
+            components[member] = componentCount;
+          }
+          while (member != operation);
+          componentCount++;
+        }
+      }
+    }
+    return components;
+  }
+
+  /**
+   * @param operation the operation whose target resource should be determined
+   * @return the path of the resource in the form "endpoint/id" or null if the operation does not target a
+   *         single resource as it is the case for a create operation
+   */
+  private static String getResourcePath(BulkRequestOperation operation)
+  {
+    String resourcePath = StringUtils.strip(operation.getPath(), "/");
+    return StringUtils.contains(resourcePath, "/") ? resourcePath : null;
+  }
+
+  /**
+   * collects the bulkIds that are referenced by the given operation
+   *
+   * @param operation the operation that might contain bulkId references
+   * @return the referenced bulkIds
+   */
+  private static Set<String> getReferencedBulkIds(BulkRequestOperation operation)
+  {
+    Set<String> referencedBulkIds = new HashSet<>();
+    addReference(StringUtils.substringAfterLast(operation.getPath(), "/"), referencedBulkIds);
+    addReferences(operation.getData().orElse(null), referencedBulkIds);
+    return referencedBulkIds;
+  }
+
+  /**
+   * adds the bulkId references of the given json document
+   */
+  private static void addReferences(String jsonDocument, Set<String> referencedBulkIds)
+  {
+    if (StringUtils.isBlank(jsonDocument))
+    {
+      return;
+    }
+    try
+    {
+      addReferences(JsonHelper.readJsonDocument(jsonDocument), referencedBulkIds);
+    }
+    catch (ScimException ex)
+    {
+      // the invalid data is reported when the operation is executed
+    }
+  }
+
+  /**
+   * adds the bulkId references of all string values of the given node. The values of patch operations are
+   * stored as string representations of json documents so string values that are not a bulkId reference
+   * themselves but contain one are parsed and searched as well
+   */
+  private static void addReferences(JsonNode jsonNode, Set<String> referencedBulkIds)
+  {
+    if (jsonNode == null)
+    {
+      return;
+    }
+    if (jsonNode.isTextual())
+    {
+      String value = jsonNode.textValue();
+      if (StringUtils.startsWithIgnoreCase(value, BULK_ID_PREFIX))
+      {
+        addReference(value, referencedBulkIds);
+      }
+      else if (StringUtils.containsIgnoreCase(value, BULK_ID_PREFIX))
+      {
+        addReferences(value, referencedBulkIds);
+      }
+      return;
+    }
+    for ( JsonNode child : jsonNode )
+    {
+      addReferences(child, referencedBulkIds);
+    }
+  }
+
+  /**
+   * adds the referenced bulkId if the given value is a bulkId reference
+   */
+  private static void addReference(String value, Set<String> referencedBulkIds)
+  {
+    if (StringUtils.startsWithIgnoreCase(value, BULK_ID_PREFIX))
+    {
+      referencedBulkIds.add(value.substring(BULK_ID_PREFIX.length()));
+    }
+  }
+}
@@ -1,15 +1,22 @@
 package de.captaingoldfish.scim.sdk.server.endpoints;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.UUID;
+import java.util.Queue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -28,9 +35,9 @@ import de.captaingoldfish.scim.sdk.common.constants.ScimType;
 import de.captaingoldfish.scim.sdk.common.constants.enums.HttpMethod;
 import de.captaingoldfish.scim.sdk.common.exceptions.BadRequestException;
 import de.captaingoldfish.scim.sdk.common.exceptions.ConflictException;
+import de.captaingoldfish.scim.sdk.common.exceptions.InternalServerException;
 import de.captaingoldfish.scim.sdk.common.exceptions.NotImplementedException;
 import de.captaingoldfish.scim.sdk.common.exceptions.ScimException;
-import de.captaingoldfish.scim.sdk.common.request.BulkRequest;
 import de.captaingoldfish.scim.sdk.common.request.BulkRequestOperation;
 import de.captaingoldfish.scim.sdk.common.request.PatchOpRequest;
 import de.captaingoldfish.scim.sdk.common.request.PatchRequestOperation;
@@ -49,7 +56,6 @@ import de.captaingoldfish.scim.sdk.server.filter.AttributePathRoot;
 import de.captaingoldfish.scim.sdk.server.schemas.ResourceType;
 import de.captaingoldfish.scim.sdk.server.schemas.ResourceTypeFactory;
 import de.captaingoldfish.scim.sdk.server.schemas.SchemaFactory;
-import de.captaingoldfish.scim.sdk.server.schemas.SchemaValidator;
 import de.captaingoldfish.scim.sdk.server.utils.RequestUtils;
 import de.captaingoldfish.scim.sdk.server.utils.UriInfos;
 import lombok.Getter;
@@ -92,23 +98,42 @@ class BulkEndpoint
   /**
    * this map is used to map the ids of newly created resources to bulkIds
    */
-  private final Map<String, String> resolvedBulkIds = new HashMap<>();
+  private final Map<String, String> resolvedBulkIds = new ConcurrentHashMap<>();
 
   /**
-   * this map is used to detect circular references by storing bulkId references within it
+   * the bulkId dependencies of the operations of the currently handled bulk request. It is used to execute the
+   * operations in the order of their dependencies and to detect circular references
    */
-  private final Map<String, Set<String>> circularReferenceDetectorMap = new HashMap<>();
+  private BulkDependencyGraph dependencyGraph;
 
   private final Map<String, String> originalHttpHeaders;
 
   private final Map<String, String> originalQueryParams;
 
+  /**
+   * the executor that is used to execute independent bulk operations in parallel. If null all operations are
+   * executed sequentially on the calling thread
+   */
+  private final Executor bulkExecutor;
+
   public BulkEndpoint(ResourceEndpoint resourceEndpoint,
                       ServiceProvider serviceProvider,
                       ResourceTypeFactory resourceTypeFactory,
                       Map<String, String> originalHttpHeaders,
                       Map<String, String> originalQueryParams,
                       Consumer<ResourceType> doBeforeExecution)
+  {
+    this(resourceEndpoint, serviceProvider, resourceTypeFactory, originalHttpHeaders, originalQueryParams,
+         doBeforeExecution, null);
+  }
+
+  public BulkEndpoint(ResourceEndpoint resourceEndpoint,
+                      ServiceProvider serviceProvider,
+                      ResourceTypeFactory resourceTypeFactory,
+                      Map<String, String> originalHttpHeaders,
+                      Map<String, String> originalQueryParams,
+                      Consumer<ResourceType> doBeforeExecution,
+                      Executor bulkExecutor)
   {
     this.resourceEndpoint = resourceEndpoint;
     this.serviceProvider = serviceProvider;
@@ -116,6 +141,7 @@ class BulkEndpoint
     this.originalHttpHeaders = originalHttpHeaders;
     this.originalQueryParams = originalQueryParams;
     this.doBeforeExecution = doBeforeExecution;
+    this.bulkExecutor = bulkExecutor;
   }
 
   /**
@@ -128,16 +154,69 @@ class BulkEndpoint
    */
   public BulkResponse bulk(String baseUri, String requestBody, Authorization authorization)
   {
-    BulkRequest bulkRequest = parseAndValidateBulkRequest(requestBody);
-    List<BulkRequestOperation> operations = bulkRequest.getBulkRequestOperations();
+    return bulk(baseUri,
+                requestBody == null ? null : requestBody.getBytes(StandardCharsets.UTF_8),
+                authorization);
+  }
+
+  /**
+   * resolves a bulk request
+   *
+   * @param requestBody the utf-8 encoded bulk request body
+   * @param authorization should return the roles of an user and may contain arbitrary data needed in the
+   *          handler implementation
+   * @return the response of the bulk request
+   */
+  public BulkResponse bulk(String baseUri, byte[] requestBody, Authorization authorization)
+  {
+    BulkConfig bulkConfig = getBulkConfig();
+    byte[] payload = requestBody == null ? new byte[0] : requestBody;
+    if (bulkConfig.getMaxPayloadSize() < payload.length)
+    {
+      throw new BadRequestException("request body too large with '" + payload.length + "'-bytes maximum payload "
+                                    + "size is '" + bulkConfig.getMaxPayloadSize() + "'", null,
+                                    ScimType.Custom.TOO_LARGE);
+    }
+    return bulk(baseUri, new ByteArrayInputStream(payload), authorization);
+  }
+
+  /**
+   * resolves a bulk request that is read incrementally from the given payload
+   *
+   * @param requestBody the utf-8 encoded bulk request body
+   * @param authorization should return the roles of an user and may contain arbitrary data needed in the
+   *          handler implementation
+   * @return the response of the bulk request
+   */
+  public BulkResponse bulk(String baseUri, InputStream requestBody, Authorization authorization)
+  {
+    List<BulkRequestOperation> operations = new ArrayList<>();
+    final int failOnErrors;
+    try (BulkRequestReader bulkRequestReader = new BulkRequestReader(getBulkRequestSchema(), getBulkConfig(),
+                                                                     requestBody))
+    {
+      // the complete payload is read and validated before any operation is executed so that a request that
+      // violates the limits of the bulk config or that is not parseable is rejected as a whole
+      BulkRequestOperation operation;
+      while ((operation = bulkRequestReader.nextOperation()) != null)
+      {
+        operations.add(operation);
+      }
+      failOnErrors = RequestUtils.getEffectiveFailOnErrors(bulkRequestReader.finish());
+    }
     List<BulkResponseOperation> responseOperations = new ArrayList<>();
-    final int failOnErrors = RequestUtils.getEffectiveFailOnErrors(bulkRequest);
     int httpStatus = handleBulkOperationList(baseUri, operations, responseOperations, failOnErrors, authorization);
     return BulkResponse.builder().httpStatus(httpStatus).bulkResponseOperation(responseOperations).build();
   }
 
   /**
-   * handles a list of bulk request operations and will verify that the failOnErrors value is not exceeded
+   * handles a list of bulk request operations and will verify that the failOnErrors value is not exceeded. The
+   * operations are executed in the order of their bulkId dependencies. An operation is executed as soon as all
+   * operations that it references are finished and operations that do not depend on each other are executed in
+   * parallel if a {@link #bulkExecutor} is present. Operations that are part of a circular reference or that
+   * depend on such an operation are executed afterwards in the order of the request which will create the
+   * appropriate error responses. So each operation is executed at most once. If the operations are executed in
+   * parallel the responses are returned in the order of the request
    *
    * @param baseUri the base uri of all SCIM endpoints
    * @param operations the list of request operations
@@ -154,69 +233,184 @@ class BulkEndpoint
                                       int failOnErrors,
                                       Authorization authorization)
   {
+    dependencyGraph = new BulkDependencyGraph(operations);
+    Queue<Integer> readyOperations = new ArrayDeque<>(dependencyGraph.getReadyOperations());
+    boolean[] finishedOperations = new boolean[operations.size()];
+    // the responses of the parallel execution by the index of their request operations
+    BulkResponseOperation[] operationResponses = new BulkResponseOperation[operations.size()];
     int errorCounter = 0;
-    // this is a security switch in case a bad crafted bulk request will end in an infinite loop this switch is
-    // used to break the infinite loop
-    long maxIterations = serviceProvider.getBulkConfig().getMaxOperations() * 2L;
-    int iterations = 0;
-    while (!operations.isEmpty())
+    if (bulkExecutor == null)
     {
-      if (iterations >= maxIterations)
-      {
-        break;
-      }
-      iterations++;
-      BulkRequestOperation operation = operations.get(0);
-      if (errorCounter >= failOnErrors)
-      {
-        // The service provider stops processing the bulk operation and immediately returns a response to the client
-        break;
-      }
-      try
+      while (!readyOperations.isEmpty() && errorCounter < failOnErrors)
       {
-        validateOperation(operation);
+        int operationIndex = readyOperations.poll();
+        BulkResponseOperation responseOperation = handleReadyBulkOperation(baseUri,
+                                                                           operations.get(operationIndex),
+                                                                           authorization);
+        errorCounter += addResponseOperation(responseOperation, responseOperations);
+        finishedOperations[operationIndex] = true;
+        readyOperations.addAll(dependencyGraph.finish(operationIndex));
       }
-      catch (BadRequestException ex)
+    }
+    else
+    {
+      errorCounter = handleBulkOperationsInParallel(baseUri,
+                                                    operations,
+                                                    readyOperations,
+                                                    finishedOperations,
+                                                    operationResponses,
+                                                    failOnErrors,
+                                                    authorization);
+    }
+
+    for ( int i = 0 ; i < operations.size() && errorCounter < failOnErrors ; i++ )
+    {
+      if (!finishedOperations[i])
       {
-        errorCounter++;
-        BulkResponseOperation.BulkResponseOperationBuilder responseBuilder = BulkResponseOperation.builder();
-        responseOperations.add(responseBuilder.status(ex.getStatus()).response(new ErrorResponse(ex)).build());
-        operations.remove(0);
-        continue;
+        // the operation is part of a circular reference or references such an operation
+        BulkResponseOperation responseOperation = handleReadyBulkOperation(baseUri, operations.get(i), authorization);
+        if (bulkExecutor == null)
+        {
+          errorCounter += addResponseOperation(responseOperation, responseOperations);
+        }
+        else
+        {
+          operationResponses[i] = responseOperation;
+          errorCounter += responseOperation.getResponse().isPresent() ? 1 : 0;
+        }
       }
-      BulkResponseOperation bulkResponseOperation = handleSingleBulkOperation(baseUri, operation, authorization);
-      if (bulkResponseOperation == null)
+    }
+    for ( BulkResponseOperation responseOperation : operationResponses )
+    {
+      if (responseOperation != null)
       {
-        // mark this operation as already handled once
-        String operationIdentifier = UUID.randomUUID().toString();
-        operation.setUniqueIdentifier(operationIdentifier);
-        // the bulk operation references another operation that was not resolved yet so we move the operation for
-        // another run to the end of the line
-        operations.remove(0);
-        operations.add(operation);
-        continue;
+        responseOperations.add(responseOperation);
       }
-      else
+    }
+    if (errorCounter >= failOnErrors)
+    {
+      // The service returns an appropriate response status code if too many errors occurred
+      return HttpStatus.PRECONDITION_FAILED;
+    }
+    return HttpStatus.OK;
+  }
+
+  /**
+   * executes the ready operations on the {@link #bulkExecutor} and schedules the operations that depend on them
+   * as soon as they are finished. No further operations are scheduled once the failOnErrors value is reached.
+   * The operations that are still running at this point are awaited and their responses are returned and
+   * counted as well because their changes have already been applied
+   *
+   * @param baseUri the base uri of all SCIM endpoints
+   * @param operations the list of request operations
+   * @param readyOperations the indices of the operations that can be executed immediately
+   * @param finishedOperations gets the information which operations have been executed
+   * @param operationResponses gets the responses of the executed operations at the index of their request
+   *          operations
+   * @param failOnErrors the failOnErrors value that must not be exceeded
+   * @param authorization should return the roles of an user and may contain arbitrary data needed in the
+   *          handler implementation
+   * @return the number of errors within the responses of the executed operations
+   */
+  private int handleBulkOperationsInParallel(String baseUri,
+                                             List<BulkRequestOperation> operations,
+                                             Queue<Integer> readyOperations,
+                                             boolean[] finishedOperations,
+                                             BulkResponseOperation[] operationResponses,
+                                             int failOnErrors,
+                                             Authorization authorization)
+  {
+    CompletionService<Integer> completionService = new ExecutorCompletionService<>(bulkExecutor);
+    int errorCounter = 0;
+    int runningOperations = 0;
+    do
+    {
+      while (!readyOperations.isEmpty() && errorCounter < failOnErrors)
       {
-        operations.remove(0);
+        int operationIndex = readyOperations.poll();
+        completionService.submit(() -> {
+          operationResponses[operationIndex] = handleReadyBulkOperation(baseUri,
+                                                                        operations.get(operationIndex),
+                                                                        authorization);
+          return operationIndex;
+        });
+        runningOperations++;
       }
-      if (bulkResponseOperation.getResponse().isPresent())
+      if (runningOperations == 0)
       {
-        errorCounter++;
+        break;
       }
-      responseOperations.add(bulkResponseOperation);
+      int operationIndex = takeFinishedOperation(completionService);
+      runningOperations--;
+      finishedOperations[operationIndex] = true;
+      errorCounter += operationResponses[operationIndex].getResponse().isPresent() ? 1 : 0;
+      readyOperations.addAll(dependencyGraph.finish(operationIndex));
+    }
+    while (true);
+    return errorCounter;
+  }
+
+  /**
+   * executes a single bulk operation whose referenced operations have all been finished or will never finish.
+   * Therefore bulkId references that cannot be resolved anymore will result in an error response
+   *
+   * @param baseUri the base uri of all SCIM endpoints
+   * @param operation the operation that should be handled
+   * @param authorization should return the roles of an user and may contain arbitrary data needed in the
+   *          handler implementation
+   * @return the response for the single bulk request
+   */
+  private BulkResponseOperation handleReadyBulkOperation(String baseUri,
+                                                         BulkRequestOperation operation,
+                                                         Authorization authorization)
+  {
+    try
+    {
+      validateOperation(operation);
     }
-    int httpStatus = HttpStatus.OK;
-    if (errorCounter >= failOnErrors)
+    catch (BadRequestException ex)
     {
-      // The service returns an appropriate response status code if too many errors occurred
-      httpStatus = HttpStatus.PRECONDITION_FAILED;
+      return BulkResponseOperation.builder().status(ex.getStatus()).response(new ErrorResponse(ex)).build();
+    }
+    return handleSingleBulkOperation(baseUri, operation, authorization);
+  }
+
+  /**
+   * adds the given response to the response operations
+   *
+   * @return 1 if the response is an error response, 0 else
+   */
+  private int addResponseOperation(BulkResponseOperation responseOperation,
+                                   List<BulkResponseOperation> responseOperations)
+  {
+    responseOperations.add(responseOperation);
+    return responseOperation.getResponse().isPresent() ? 1 : 0;
+  }
+
+  /**
+   * waits for the next bulk operation that was executed by the {@link #bulkExecutor}
+   *
+   * @return the index of the finished operation
+   */
+  private int takeFinishedOperation(CompletionService<Integer> completionService)
+  {
+    try
+    {
+      return completionService.take().get();
     }
-    else if (iterations >= maxIterations)
+    catch (InterruptedException ex)
     {
-      httpStatus = HttpStatus.INTERNAL_SERVER_ERROR;
+      Thread.currentThread().interrupt();
+      throw new InternalServerException("the bulk request was interrupted", ex);
+    }
+    catch (ExecutionException ex)
+    {
+      if (ex.getCause() instanceof RuntimeException)
+      {
+        throw (RuntimeException)ex.getCause();
+      }
+      throw new InternalServerException(ex.getCause().getMessage(), ex.getCause());
     }
-    return httpStatus;
   }
 
   /**
@@ -249,13 +443,8 @@ class BulkEndpoint
                                                                                               .location(location);
     try
     {
-      if (!resolveBulkIds(operation, operationUriInfo.getResourceType())
-          || !resolveBulkIdInResourceId(operation, operationUriInfo))
-      {
-        // will cause this operation to be moved to the end of the request operations list. This happens if the
-        // operation contains a bulkId-reference that has not been resolved yet
-        return null;
-      }
+      resolveBulkIds(operation, operationUriInfo.getResourceType());
+      resolveBulkIdInResourceId(operation, operationUriInfo);
     }
     catch (ScimException ex)
     {
@@ -313,9 +502,9 @@ class BulkEndpoint
    * resolves a bulkId within the resourceUri or throws an exception if not present
    *
    * @param operationUriInfo the operation-uri-info that may contain a bulkId-reference within the resource uri
-   * @return false if a bulkId-reference exists that could not be resolved, true else
+   * @throws BadRequestException if the bulkId-reference could not be resolved
    */
-  private boolean resolveBulkIdInResourceId(BulkRequestOperation operation, UriInfos operationUriInfo)
+  private void resolveBulkIdInResourceId(BulkRequestOperation operation, UriInfos operationUriInfo)
   {
     switch (operationUriInfo.getHttpMethod())
     {
@@ -335,13 +524,9 @@ class BulkEndpoint
           String resolvedId = resolvedBulkIds.get(bulkId);
           if (StringUtils.isBlank(resolvedId))
           {
-            if (StringUtils.isNotBlank(operation.getUniqueIdentifier()))
-            {
-              throw new BadRequestException("the operation could not be resolved because the following bulkId-"
-                                            + "reference could not be resolved" + " '" + resourceId + "'", null,
-                                            ScimType.RFC7644.INVALID_VALUE);
-            }
-            return false;
+            throw new BadRequestException("the operation could not be resolved because the following bulkId-"
+                                          + "reference could not be resolved" + " '" + resourceId + "'", null,
+                                          ScimType.RFC7644.INVALID_VALUE);
           }
           else
           {
@@ -352,19 +537,18 @@ class BulkEndpoint
       default:
         // do nothing
     }
-    return true;
   }
 
   /**
-   * this method checks if bulkId references have been used within the bulk request operation and will try to
-   * resolve them if possible
+   * this method checks if bulkId references have been used within the bulk request operation and will resolve
+   * them. This method is called after all referenced operations have been executed so the references can be
+   * resolved or will never be resolved
    *
    * @param operation the request operation that may contain bulkId references
    * @param resourceType the resource type of the current resource to check
-   * @return true if the bulkId was successfully resolved or no bulkIds have been present, false if a bulkId
-   *         reference was found but could not be resolved
+   * @throws BadRequestException if a bulkId reference was found that could not be resolved
    */
-  private boolean resolveBulkIds(BulkRequestOperation operation, ResourceType resourceType)
+  private void resolveBulkIds(BulkRequestOperation operation, ResourceType resourceType)
   {
     List<JsonNode> bulkIdNodes;
     String resourceData = operation.getData().orElse(null);
@@ -374,7 +558,7 @@ class BulkEndpoint
     {
       if (StringUtils.isBlank(resourceData))
       {
-        return true;
+        return;
       }
       resource = JsonHelper.readJsonDocument(resourceData, ScimObjectNode.class);
       bulkIdNodes = getBulkIdNodes(resource, resourceType);
@@ -390,23 +574,15 @@ class BulkEndpoint
       resource = patchOpRequest;
     }
     operation.setData(resource == null ? null : resource.toString());
-    if (bulkIdNodes.isEmpty())
+    if (!bulkIdNodes.isEmpty())
     {
-      return true;
-    }
-    else
-    {
-      if (StringUtils.isNotBlank(operation.getUniqueIdentifier()))
-      {
-        throw new BadRequestException("the operation could not be resolved because the following bulkId-"
-                                      + "references could not be resolved" + " '"
-                                      + bulkIdNodes.stream()
-                                                   .map(jsonNode -> jsonNode.get(AttributeNames.RFC7643.VALUE)
-                                                                            .textValue())
-                                                   .collect(Collectors.joining(", "))
-                                      + "'", null, ScimType.RFC7644.INVALID_VALUE);
-      }
-      return false;
+      throw new BadRequestException("the operation could not be resolved because the following bulkId-"
+                                    + "references could not be resolved" + " '"
+                                    + bulkIdNodes.stream()
+                                                 .map(jsonNode -> jsonNode.get(AttributeNames.RFC7643.VALUE)
+                                                                          .textValue())
+                                                 .collect(Collectors.joining(", "))
+                                    + "'", null, ScimType.RFC7644.INVALID_VALUE);
     }
   }
 
@@ -622,10 +798,7 @@ class BulkEndpoint
         throw new BadRequestException("the bulkId '" + bulkId + "' is a self-reference. Self-references will not be "
                                       + "resolved", null, ScimType.RFC7644.INVALID_VALUE);
       }
-      Set<String> mainBulkIdSet = circularReferenceDetectorMap.computeIfAbsent(bulkId, k -> new HashSet<>());
-      mainBulkIdSet.add(bulkReference);
-      Set<String> subBulkIdSet = circularReferenceDetectorMap.computeIfAbsent(bulkReference, k -> new HashSet<>());
-      if (subBulkIdSet.contains(bulkId))
+      if (dependencyGraph.isCircularReference(bulkId, bulkReference))
       {
         throw new ConflictException("the bulkIds '" + bulkId + "' and '" + bulkReference + "' do form a circular "
                                     + "reference that cannot be resolved.");
@@ -775,42 +948,28 @@ class BulkEndpoint
   }
 
   /**
-   * tries to parse the bulk request and validates it eventually
+   * gets the bulk configuration of the service provider
    *
-   * @param requestBody the request body that shall represent the bulk request
-   * @return the parsed bulk request
+   * @return the bulk configuration
+   * @throws NotImplementedException if bulk is not supported by the service provider
    */
-  private BulkRequest parseAndValidateBulkRequest(String requestBody)
+  private BulkConfig getBulkConfig()
   {
     BulkConfig bulkConfig = getServiceProvider().getBulkConfig();
     if (!bulkConfig.isSupported())
     {
       throw new NotImplementedException("bulk is not supported by this service provider");
     }
-    try
-    {
-      JsonNode jsonNode = JsonHelper.readJsonDocument(requestBody);
-      SchemaFactory schemaFactory = getResourceTypeFactory().getSchemaFactory();
-      Schema bulkRequestSchema = schemaFactory.getMetaSchema(SchemaUris.BULK_REQUEST_URI);
-      JsonNode validatedRequest = SchemaValidator.validateSchemaDocumentForRequest(bulkRequestSchema, jsonNode);
-      BulkRequest bulkRequest = JsonHelper.copyResourceToObject(validatedRequest, BulkRequest.class);
-      if (bulkConfig.getMaxOperations() < bulkRequest.getBulkRequestOperations().size())
-      {
-        throw new BadRequestException("too many operations maximum number of operations is '"
-                                      + bulkConfig.getMaxOperations() + "'", null, ScimType.RFC7644.TOO_MANY);
-      }
-      if (bulkConfig.getMaxPayloadSize() < requestBody.getBytes().length)
-      {
-        throw new BadRequestException("request body too large with '" + requestBody.getBytes().length
-                                      + "'-bytes maximum payload size is '" + bulkConfig.getMaxPayloadSize() + "'",
-                                      null, ScimType.Custom.TOO_LARGE);
-      }
-      return bulkRequest;
-    }
-    catch (ScimException ex)
-    {
-      throw new BadRequestException(ex.getMessage(), ex, ScimType.Custom.UNPARSEABLE_REQUEST);
-    }
+    return bulkConfig;
+  }
+
+  /**
+   * @return the meta schema that describes bulk requests
+   */
+  private Schema getBulkRequestSchema()
+  {
+    SchemaFactory schemaFactory = getResourceTypeFactory().getSchemaFactory();
+    return schemaFactory.getMetaSchema(SchemaUris.BULK_REQUEST_URI);
   }
 
   /**
@@ -0,0 +1,321 @@
+package de.captaingoldfish.scim.sdk.server.endpoints;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import de.captaingoldfish.scim.sdk.common.constants.AttributeNames;
+import de.captaingoldfish.scim.sdk.common.constants.SchemaUris;
+import de.captaingoldfish.scim.sdk.common.constants.ScimType;
+import de.captaingoldfish.scim.sdk.common.exceptions.BadRequestException;
+import de.captaingoldfish.scim.sdk.common.exceptions.ScimException;
+import de.captaingoldfish.scim.sdk.common.request.BulkRequest;
+import de.captaingoldfish.scim.sdk.common.request.BulkRequestOperation;
+import de.captaingoldfish.scim.sdk.common.resources.complex.BulkConfig;
+import de.captaingoldfish.scim.sdk.common.schemas.Schema;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
+import de.captaingoldfish.scim.sdk.server.schemas.SchemaValidator;
+
+
+/**
+ * reads a bulk request incrementally from its payload. The operations are read and validated one after another
+ * so that the complete request document is never held as a single json tree. The limits of the
+ * {@link BulkConfig} are enforced while reading which means that a request with too many operations or a too
+ * large payload is rejected as soon as the limit is exceeded without reading the rest of the payload.<br>
+ * <br>
+ * All attributes of the request except the operations are collected and validated together with the first
+ * operation when {@link #finish()} is called<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+class BulkRequestReader implements AutoCloseable
+{
+
+  /**
+   * the meta schema of bulk requests
+   */
+  private final Schema bulkRequestSchema;
+
+  /**
+   * the maximum number of operations that are accepted
+   */
+  private final long maxOperations;
+
+  /**
+   * the parser that reads the payload
+   */
+  private final JsonParser parser;
+
+  /**
+   * the attributes of the bulk request that were read so far without the operations
+   */
+  private final ObjectNode bulkRequestHeader = new ObjectNode(JsonNodeFactory.instance);
+
+  /**
+   * the first operation of the request that is needed to validate the request header because the operations
+   * attribute is required
+   */
+  private JsonNode firstOperation;
+
+  /**
+   * the number of operations that were read so far
+   */
+  private int numberOfOperations;
+
+  /**
+   * true if the parser is currently positioned within the operations array
+   */
+  private boolean inOperations;
+
+  /**
+   * true if the first token of the document was read
+   */
+  private boolean startOfDocument;
+
+  /**
+   * true if the complete document was read
+   */
+  private boolean endOfDocument;
+
+  public BulkRequestReader(Schema bulkRequestSchema, BulkConfig bulkConfig, InputStream payload)
+  {
+    this.bulkRequestSchema = bulkRequestSchema;
+    this.maxOperations = bulkConfig.getMaxOperations();
+    try
+    {
+      this.parser = JsonHelper.createParser(new PayloadLimitInputStream(payload, bulkConfig.getMaxPayloadSize()));
+    }
+    catch (IOException ex)
+    {
+      throw new BadRequestException(ex.getMessage(), ex, ScimType.Custom.UNPARSEABLE_REQUEST);
+    }
+  }
+
+  /**
+   * reads the next operation of the bulk request
+   *
+   * @return the next validated operation or null if the complete document was read
+   */
+  public BulkRequestOperation nextOperation()
+  {
+    try
+    {
+      while (!endOfDocument)
+      {
+        JsonToken token = parser.nextToken();
+        if (inOperations)
+        {
+          if (token == JsonToken.END_ARRAY)
+          {
+            inOperations = false;
+            continue;
+          }
+          return readOperation();
+        }
+        if (!startOfDocument)
+        {
+          startOfDocument = true;
+          if (token != JsonToken.START_OBJECT)
+          {
+            readNonObjectDocument(token);
+          }
+          continue;
+        }
+        if (token != JsonToken.FIELD_NAME)
+        {
+          endOfDocument = true;
+          continue;
+        }
+        String fieldName = parser.getCurrentName();
+        token = parser.nextToken();
+        if (AttributeNames.RFC7643.OPERATIONS.equals(fieldName) && token == JsonToken.START_ARRAY)
+        {
+          inOperations = true;
+          continue;
+        }
+        bulkRequestHeader.set(fieldName, parser.readValueAsTree());
+      }
+      return null;
+    }
+    catch (IOException ex)
+    {
+      throw new BadRequestException("Invalid content, the document could not be parsed", ex,
+                                    ScimType.Custom.UNPARSEABLE_REQUEST);
+    }
+  }
+
+  /**
+   * validates the attributes of the bulk request. Must be called after {@link #nextOperation()} returned null
+   * because the attributes behind the operations are otherwise not read
+   *
+   * @return the validated bulk request without its operations
+   */
+  public BulkRequest finish()
+  {
+    ObjectNode bulkRequestDocument = bulkRequestHeader.deepCopy();
+    if (firstOperation != null && !bulkRequestDocument.has(AttributeNames.RFC7643.OPERATIONS))
+    {
+      bulkRequestDocument.set(AttributeNames.RFC7643.OPERATIONS,
+                              new ArrayNode(JsonNodeFactory.instance).add(firstOperation));
+    }
+    BulkRequest bulkRequest = JsonHelper.copyResourceToObject(validate(bulkRequestDocument), BulkRequest.class);
+    bulkRequest.remove(AttributeNames.RFC7643.OPERATIONS);
+    return bulkRequest;
+  }
+
+  /**
+   * reads the operation at the current position of the parser and validates it against the bulk request schema
+   */
+  private BulkRequestOperation readOperation() throws IOException
+  {
+    JsonNode operation = parser.readValueAsTree();
+    numberOfOperations++;
+    if (maxOperations < numberOfOperations)
+    {
+      throw new BadRequestException("too many operations maximum number of operations is '" + maxOperations + "'",
+                                    null, ScimType.RFC7644.TOO_MANY);
+    }
+    if (firstOperation == null)
+    {
+      firstOperation = operation;
+    }
+    ObjectNode operationDocument = new ObjectNode(JsonNodeFactory.instance);
+    operationDocument.set(AttributeNames.RFC7643.SCHEMAS,
+                          new ArrayNode(JsonNodeFactory.instance).add(new TextNode(SchemaUris.BULK_REQUEST_URI)));
+    operationDocument.set(AttributeNames.RFC7643.OPERATIONS, new ArrayNode(JsonNodeFactory.instance).add(operation));
+    JsonNode validatedOperation = validate(operationDocument).get(AttributeNames.RFC7643.OPERATIONS).get(0);
+    return JsonHelper.copyResourceToObject(validatedOperation, BulkRequestOperation.class);
+  }
+
+  /**
+   * reads a document that is not a json object. Such a document is not a valid bulk request and the complete
+   * document is passed to the schema validation to get the appropriate error message
+   */
+  private void readNonObjectDocument(JsonToken token) throws IOException
+  {
+    if (token == null)
+    {
+      throw new BadRequestException("Invalid content, the document could not be parsed", null,
+                                    ScimType.Custom.UNPARSEABLE_REQUEST);
+    }
+    validate(parser.readValueAsTree());
+  }
+
+  /**
+   * validates the given document against the bulk request schema
+   */
+  private JsonNode validate(JsonNode document)
+  {
+    try
+    {
+      return SchemaValidator.validateSchemaDocumentForRequest(bulkRequestSchema, document);
+    }
+    catch (ScimException ex)
+    {
+      throw new BadRequestException(ex.getMessage(), ex, ScimType.Custom.UNPARSEABLE_REQUEST);
+    }
+  }
+
+  /**
+   * closes the parser and the underlying payload stream
+   */
+  @Override
+  public void close()
+  {
+    try
+    {
+      parser.close();
+    }
+    catch (IOException ex)
+    {
+      throw new BadRequestException(ex.getMessage(), ex, ScimType.Custom.UNPARSEABLE_REQUEST);
+    }
+  }
+
+  /**
+   * counts the bytes that are read from the payload and aborts the reading as soon as the maximum payload size
+   * is exceeded
+   */
+  private static class PayloadLimitInputStream extends FilterInputStream
+  {
+
+    /**
+     * the maximum number of bytes that may be read
+     */
+    private final long maxPayloadSize;
+
+    /**
+     * the number of bytes that were read so far
+     */
+    private long readBytes;
+
+    public PayloadLimitInputStream(InputStream inputStream, long maxPayloadSize)
+    {
+      super(inputStream);
+      this.maxPayloadSize = maxPayloadSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read() throws IOException
+    {
+      int value = super.read();
+      if (value != -1)
+      {
+        countReadBytes(1);
+      }
+      return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException
+    {
+      int numberOfBytes = super.read(buffer, offset, length);
+      if (numberOfBytes > 0)
+      {
+        countReadBytes(numberOfBytes);
+      }
+      return numberOfBytes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long skip(long numberOfBytes) throws IOException
+    {
+      long skippedBytes = super.skip(numberOfBytes);
+      countReadBytes(skippedBytes);
+      return skippedBytes;
+    }
+
+    /**
+     * adds the given number of bytes to the read bytes and checks that the maximum payload size is not exceeded
+     */
+    private void countReadBytes(long numberOfBytes)
+    {
+      readBytes += numberOfBytes;
+      if (maxPayloadSize < readBytes)
+      {
+        throw new BadRequestException("request body too large with more than '" + maxPayloadSize + "'-bytes "
+                                      + "maximum payload size is '" + maxPayloadSize + "'", null,
+                                      ScimType.Custom.TOO_LARGE);
+      }
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package de.captaingoldfish.scim.sdk.server.endpoints;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import de.captaingoldfish.scim.sdk.common.constants.ScimType;
+import de.captaingoldfish.scim.sdk.common.constants.enums.HttpMethod;
+import de.captaingoldfish.scim.sdk.common.exceptions.BadRequestException;
+import de.captaingoldfish.scim.sdk.common.response.BulkResponse;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
+import de.captaingoldfish.scim.sdk.server.endpoints.authorize.Authorization;
+import de.captaingoldfish.scim.sdk.server.schemas.RequestDocumentReader;
+import de.captaingoldfish.scim.sdk.server.schemas.ResourceType;
+
+
+/**
+ * the body of a request as it was handed to the {@link ResourceEndpoint}. The body is either a string or the
+ * encoded bytes of the request that are read by jackson without decoding them into a string. A body that was
+ * given as input stream is only read completely if the endpoint cannot read it incrementally<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+final class RequestBody
+{
+
+  /**
+   * the body if it was given as string
+   */
+  private final String text;
+
+  /**
+   * the encoded body if it was given as bytes or after the input stream was read
+   */
+  private byte[] bytes;
+
+  /**
+   * the encoded body if it was given as input stream and was not read yet
+   */
+  private InputStream inputStream;
+
+  private RequestBody(String text, byte[] bytes, InputStream inputStream)
+  {
+    this.text = text;
+    this.bytes = bytes;
+    this.inputStream = inputStream;
+  }
+
+  /**
+   * a body that was given as string
+   */
+  static RequestBody of(String requestBody)
+  {
+    return new RequestBody(requestBody, null, null);
+  }
+
+  /**
+   * a body that was given as encoded bytes
+   */
+  static RequestBody of(byte[] requestBody)
+  {
+    return new RequestBody(null, requestBody, null);
+  }
+
+  /**
+   * a body that was given as encoded input stream
+   */
+  static RequestBody of(InputStream requestBody)
+  {
+    return new RequestBody(null, null, requestBody);
+  }
+
+  /**
+   * resolves the body as bulk request. A body that was given as input stream is read incrementally by the bulk
+   * endpoint
+   */
+  BulkResponse bulk(BulkEndpoint bulkEndpoint, String baseUri, Authorization authorization)
+  {
+    if (inputStream != null)
+    {
+      InputStream body = inputStream;
+      inputStream = null;
+      return bulkEndpoint.bulk(baseUri, body, authorization);
+    }
+    if (text != null)
+    {
+      return bulkEndpoint.bulk(baseUri, text, authorization);
+    }
+    return bulkEndpoint.bulk(baseUri, bytes, authorization);
+  }
+
+  /**
+   * checks if the body is missing or contains only whitespaces
+   */
+  boolean isBlank()
+  {
+    if (text != null)
+    {
+      return StringUtils.isBlank(text);
+    }
+    byte[] body = getBytes();
+    if (body == null)
+    {
+      return true;
+    }
+    for ( byte b : body )
+    {
+      if (b != ' ' && b != '\t' && b != '\r' && b != '\n')
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * reads and validates the body as resource of the given resource type
+   *
+   * @see RequestDocumentReader#readResource(ResourceType, String, HttpMethod, Class)
+   */
+  <T extends ObjectNode> T readResource(ResourceType resourceType, HttpMethod httpMethod, Class<T> type)
+  {
+    if (text != null)
+    {
+      return RequestDocumentReader.readResource(resourceType, text, httpMethod, type);
+    }
+    return RequestDocumentReader.readResource(resourceType, getBytes(), httpMethod, type);
+  }
+
+  /**
+   * reads the body as json document
+   *
+   * @return the json document or null if the body is empty
+   */
+  JsonNode readJsonDocument()
+  {
+    return text != null ? JsonHelper.readJsonDocument(text) : JsonHelper.readJsonDocument(getBytes());
+  }
+
+  /**
+   * reads the body as json document of the given type
+   *
+   * @return the json document or null if the body is empty
+   */
+  <T extends ObjectNode> T readJsonDocument(Class<T> type)
+  {
+    return text != null ? JsonHelper.readJsonDocument(text, type) : JsonHelper.readJsonDocument(getBytes(), type);
+  }
+
+  /**
+   * the encoded body. An input stream that was given is read completely on the first call
+   */
+  private byte[] getBytes()
+  {
+    if (inputStream != null)
+    {
+      try (InputStream body = inputStream)
+      {
+        bytes = IOUtils.toByteArray(body);
+      }
+      catch (IOException ex)
+      {
+        throw new BadRequestException("the request body could not be read: " + ex.getMessage(), ex,
+                                      ScimType.Custom.UNPARSEABLE_REQUEST);
+      }
+      inputStream = null;
+    }
+    return bytes;
+  }
+}
@@ -1,5 +1,6 @@
 package de.captaingoldfish.scim.sdk.server.endpoints;
 
+import java.io.InputStream;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.BiConsumer;
@@ -251,6 +252,102 @@ public final class ResourceEndpoint extends ResourceEndpointHandler
                                     Authorization authorization,
                                     Consumer<ResourceType> doBeforeExecution,
                                     BiConsumer<ScimResponse, Boolean> doAfterExecution)
+  {
+    return handleRequestBody(requestUrl,
+                             httpMethod,
+                             RequestBody.of(requestBody),
+                             httpHeaders,
+                             authorization,
+                             doBeforeExecution,
+                             doAfterExecution);
+  }
+
+  /**
+   * handles the given request with a request body that is read directly from its encoded bytes. This avoids
+   * decoding the request body into a string and should be preferred if the request body is available as byte
+   * array e.g. from the buffer of a servlet container
+   *
+   * @param requestUrl the fully qualified resource URL
+   * @param httpMethod the http method that was used by in the request
+   * @param requestBody the encoded request body of the request, may be null. The encoding is detected by the
+   *          json parser
+   * @param httpHeaders the http request headers, may be null
+   * @param authorization should return the roles of an user and may contain arbitrary data needed in the
+   *          handler implementation
+   * @param doBeforeExecution arbitary code that is executed before the endpoint is called. This might be used
+   *          to execute authentication on dedicated resource types
+   * @param doAfterExecution an optional implementation that can be used to execute arbitrary code after the
+   *          execution of the request has been finished. First parameter is the response object second is a
+   *          boolean that tells if the request failed or succeeded.
+   * @return the resolved SCIM response
+   * @see #handleRequest(String, HttpMethod, String, Map, Authorization, Consumer, BiConsumer)
+   */
+  public ScimResponse handleRequestBytes(String requestUrl,
+                                         HttpMethod httpMethod,
+                                         byte[] requestBody,
+                                         Map<String, String> httpHeaders,
+                                         Authorization authorization,
+                                         Consumer<ResourceType> doBeforeExecution,
+                                         BiConsumer<ScimResponse, Boolean> doAfterExecution)
+  {
+    return handleRequestBody(requestUrl,
+                             httpMethod,
+                             RequestBody.of(requestBody),
+                             httpHeaders,
+                             authorization,
+                             doBeforeExecution,
+                             doAfterExecution);
+  }
+
+  /**
+   * handles the given request with a request body that is read directly from the given input stream. Bulk
+   * requests are read incrementally from the stream and all other request bodies are read as bytes without
+   * decoding them into a string. The input stream is closed after it was read
+   *
+   * @param requestUrl the fully qualified resource URL
+   * @param httpMethod the http method that was used by in the request
+   * @param requestBody the encoded request body of the request e.g. the input stream of a servlet request, may
+   *          be null. The encoding is detected by the json parser
+   * @param httpHeaders the http request headers, may be null
+   * @param authorization should return the roles of an user and may contain arbitrary data needed in the
+   *          handler implementation
+   * @param doBeforeExecution arbitary code that is executed before the endpoint is called. This might be used
+   *          to execute authentication on dedicated resource types
+   * @param doAfterExecution an optional implementation that can be used to execute arbitrary code after the
+   *          execution of the request has been finished. First parameter is the response object second is a
+   *          boolean that tells if the request failed or succeeded.
+   * @return the resolved SCIM response
+   * @see #handleRequest(String, HttpMethod, String, Map, Authorization, Consumer, BiConsumer)
+   */
+  public ScimResponse handleRequestStream(String requestUrl,
+                                          HttpMethod httpMethod,
+                                          InputStream requestBody,
+                                          Map<String, String> httpHeaders,
+                                          Authorization authorization,
+                                          Consumer<ResourceType> doBeforeExecution,
+                                          BiConsumer<ScimResponse, Boolean> doAfterExecution)
+  {
+    return handleRequestBody(requestUrl,
+                             httpMethod,
+                             requestBody == null ? RequestBody.of((byte[])null) : RequestBody.of(requestBody),
+                             httpHeaders,
+                             authorization,
+                             doBeforeExecution,
+                             doAfterExecution);
+  }
+
+  /**
+   * handles the given request
+   *
+   * @see #handleRequest(String, HttpMethod, String, Map, Authorization, Consumer, BiConsumer)
+   */
+  private ScimResponse handleRequestBody(String requestUrl,
+                                         HttpMethod httpMethod,
+                                         RequestBody requestBody,
+                                         Map<String, String> httpHeaders,
+                                         Authorization authorization,
+                                         Consumer<ResourceType> doBeforeExecution,
+                                         BiConsumer<ScimResponse, Boolean> doAfterExecution)
   {
     ScimResponse scimResponse;
 
@@ -261,11 +358,11 @@ public final class ResourceEndpoint extends ResourceEndpointHandler
       {
         BulkEndpoint bulkEndpoint = new BulkEndpoint(this, getServiceProvider(), getResourceTypeFactory(),
                                                      uriInfos.getHttpHeaders(), uriInfos.getQueryParameters(),
-                                                     doBeforeExecution);
-        scimResponse = bulkEndpoint.bulk(uriInfos.getBaseUri(), requestBody, authorization);
+                                                     doBeforeExecution, getBulkExecutor());
+        scimResponse = requestBody.bulk(bulkEndpoint, uriInfos.getBaseUri(), authorization);
         break handleScimRequest;
       }
-      scimResponse = resolveRequest(httpMethod, requestBody, uriInfos, authorization, doBeforeExecution);
+      scimResponse = resolveRequestBody(httpMethod, requestBody, uriInfos, authorization, doBeforeExecution);
     }
     catch (ScimException ex)
     {
@@ -301,6 +398,20 @@ public final class ResourceEndpoint extends ResourceEndpointHandler
                                         UriInfos uriInfos,
                                         Authorization authorization,
                                         Consumer<ResourceType> doBeforeExecution)
+  {
+    return resolveRequestBody(httpMethod, RequestBody.of(requestBody), uriInfos, authorization, doBeforeExecution);
+  }
+
+  /**
+   * delegates the request to the corresponding methods
+   *
+   * @see #resolveRequest(HttpMethod, String, UriInfos, Authorization, Consumer)
+   */
+  private ScimResponse resolveRequestBody(HttpMethod httpMethod,
+                                          RequestBody requestBody,
+                                          UriInfos uriInfos,
+                                          Authorization authorization,
+                                          Consumer<ResourceType> doBeforeExecution)
   {
     Optional.ofNullable(doBeforeExecution).ifPresent(consumer -> consumer.accept(uriInfos.getResourceType()));
     authenticateClient(uriInfos, authorization);
@@ -310,13 +421,19 @@ public final class ResourceEndpoint extends ResourceEndpointHandler
         if (uriInfos.isSearchRequest())
         {
           EndpointFeatureHandler.handleEndpointFeatures(uriInfos.getResourceType(), EndpointType.LIST, authorization);
-          return listResources(uriInfos.getResourceEndpoint(), requestBody, uriInfos::getBaseUri, authorization);
+          return listResourcesFromBody(uriInfos.getResourceEndpoint(),
+                                       requestBody,
+                                       uriInfos::getBaseUri,
+                                       authorization);
         }
         else
         {
           EndpointFeatureHandler.handleEndpointFeatures(uriInfos.getResourceType(), EndpointType.CREATE, authorization);
-          return createResource(uriInfos.getResourceEndpoint(), requestBody, uriInfos::getBaseUri, authorization,
-              uriInfos.getHttpHeaders());
+          return createResourceFromBody(uriInfos.getResourceEndpoint(),
+                                        requestBody,
+                                        uriInfos::getBaseUri,
+                                        authorization,
+                                        uriInfos.getHttpHeaders());
         }
       case GET:
         if (uriInfos.isSearchRequest() && !uriInfos.getResourceType().getFeatures().isSingletonEndpoint())
@@ -350,23 +467,23 @@ public final class ResourceEndpoint extends ResourceEndpointHandler
         }
       case PUT:
         EndpointFeatureHandler.handleEndpointFeatures(uriInfos.getResourceType(), EndpointType.UPDATE, authorization);
-        return updateResource(uriInfos.getResourceEndpoint(),
-                              uriInfos.getResourceId(),
-                              requestBody,
-                              uriInfos.getHttpHeaders(),
-                              uriInfos::getBaseUri,
-                              authorization);
+        return updateResourceFromBody(uriInfos.getResourceEndpoint(),
+                                      uriInfos.getResourceId(),
+                                      requestBody,
+                                      uriInfos.getHttpHeaders(),
+                                      uriInfos::getBaseUri,
+                                      authorization);
       case PATCH:
         EndpointFeatureHandler.handleEndpointFeatures(uriInfos.getResourceType(), EndpointType.UPDATE, authorization);
-        return patchResource(uriInfos.getResourceEndpoint(),
-                             uriInfos.getResourceId(),
-                             requestBody,
-                             uriInfos.getQueryParameters().get(AttributeNames.RFC7643.ATTRIBUTES),
-                             uriInfos.getQueryParameters()
-                                     .get(AttributeNames.RFC7643.EXCLUDED_ATTRIBUTES.toLowerCase()),
-                             uriInfos.getHttpHeaders(),
-                             uriInfos::getBaseUri,
-                             authorization);
+        return patchResourceFromBody(uriInfos.getResourceEndpoint(),
+                                     uriInfos.getResourceId(),
+                                     requestBody,
+                                     uriInfos.getQueryParameters().get(AttributeNames.RFC7643.ATTRIBUTES),
+                                     uriInfos.getQueryParameters()
+                                             .get(AttributeNames.RFC7643.EXCLUDED_ATTRIBUTES.toLowerCase()),
+                                     uriInfos.getHttpHeaders(),
+                                     uriInfos::getBaseUri,
+                                     authorization);
       default:
         EndpointFeatureHandler.handleEndpointFeatures(uriInfos.getResourceType(), EndpointType.DELETE, authorization);
         return deleteResource(uriInfos.getResourceEndpoint(),
@@ -8,6 +8,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -23,7 +26,6 @@ import de.captaingoldfish.scim.sdk.common.constants.enums.HttpMethod;
 import de.captaingoldfish.scim.sdk.common.constants.enums.SortOrder;
 import de.captaingoldfish.scim.sdk.common.exceptions.BadRequestException;
 import de.captaingoldfish.scim.sdk.common.exceptions.DocumentValidationException;
-import de.captaingoldfish.scim.sdk.common.exceptions.IOException;
 import de.captaingoldfish.scim.sdk.common.exceptions.InternalServerException;
 import de.captaingoldfish.scim.sdk.common.exceptions.NotImplementedException;
 import de.captaingoldfish.scim.sdk.common.exceptions.ResourceNotFoundException;
@@ -32,6 +34,7 @@ import de.captaingoldfish.scim.sdk.common.request.PatchOpRequest;
 import de.captaingoldfish.scim.sdk.common.request.SearchRequest;
 import de.captaingoldfish.scim.sdk.common.resources.ResourceNode;
 import de.captaingoldfish.scim.sdk.common.resources.ServiceProvider;
+import de.captaingoldfish.scim.sdk.common.resources.base.ScimObjectNode;
 import de.captaingoldfish.scim.sdk.common.resources.complex.Meta;
 import de.captaingoldfish.scim.sdk.common.response.CreateResponse;
 import de.captaingoldfish.scim.sdk.common.response.DeleteResponse;
@@ -50,16 +53,23 @@ import de.captaingoldfish.scim.sdk.server.endpoints.base.ServiceProviderEndpoint
 import de.captaingoldfish.scim.sdk.server.etag.ETagHandler;
 import de.captaingoldfish.scim.sdk.server.filter.FilterNode;
 import de.captaingoldfish.scim.sdk.server.filter.resources.FilterResourceResolver;
+import de.captaingoldfish.scim.sdk.server.patch.PatchDelta;
 import de.captaingoldfish.scim.sdk.server.patch.PatchHandler;
+import de.captaingoldfish.scim.sdk.server.query.QueryPlan;
 import de.captaingoldfish.scim.sdk.server.response.PartialListResponse;
+import de.captaingoldfish.scim.sdk.server.response.StreamingListResponse;
+import de.captaingoldfish.scim.sdk.server.schemas.AttributeProjection;
 import de.captaingoldfish.scim.sdk.server.schemas.ResourceType;
 import de.captaingoldfish.scim.sdk.server.schemas.ResourceTypeFactory;
 import de.captaingoldfish.scim.sdk.server.schemas.SchemaValidator;
+import de.captaingoldfish.scim.sdk.server.schemas.TrustedResponseProjector;
 import de.captaingoldfish.scim.sdk.server.schemas.custom.ResourceTypeFeatures;
-import de.captaingoldfish.scim.sdk.server.sort.ResourceNodeComparator;
+import de.captaingoldfish.scim.sdk.server.schemas.custom.TrustedResponseFeature;
+import de.captaingoldfish.scim.sdk.server.sort.ResourceNodeSorter;
 import de.captaingoldfish.scim.sdk.server.utils.RequestUtils;
 import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 
@@ -86,6 +96,30 @@ class ResourceEndpointHandler
   @Getter(AccessLevel.PROTECTED)
   private ResourceTypeFactory resourceTypeFactory;
 
+  /**
+   * if list responses should be returned as {@link StreamingListResponse}s. In this case the listed resources
+   * are validated while the response is written into the output stream instead of holding the complete
+   * response document in memory. Errors that occur during the validation of a listed resource can no longer be
+   * returned as error response in this case
+   */
+  @Getter
+  @Setter
+  private boolean streamListResponses;
+
+  /**
+   * if set the operations of a bulk request that do not depend on each other by bulkId references are executed
+   * in parallel on this executor. The resource handlers must be thread safe in this case
+   */
+  @Getter
+  @Setter
+  private Executor bulkExecutor;
+
+  /**
+   * counts the trusted responses of each resource type to decide which of them are still validated if a
+   * validation sample rate is configured in the {@link TrustedResponseFeature}
+   */
+  private final Map<String, AtomicLong> trustedResponseCounters = new ConcurrentHashMap<>();
+
   /**
    * this constructor was introduced for unit tests to add a specific resourceTypeFactory instance which will
    * prevent application context pollution within unit tests
@@ -186,26 +220,37 @@ class ResourceEndpointHandler
       String resourceDocument,
       Supplier<String> baseUrlSupplier,
       Authorization authorization, Map<String, String> httpHeaders)
+  {
+    return createResourceFromBody(endpoint,
+                                  RequestBody.of(resourceDocument),
+                                  baseUrlSupplier,
+                                  authorization,
+                                  httpHeaders);
+  }
+
+  /**
+   * creates a resource from the given request body
+   *
+   * @see #createResource(String, String, Supplier, Authorization, Map)
+   */
+  ScimResponse createResourceFromBody(String endpoint,
+                                      RequestBody resourceDocument,
+                                      Supplier<String> baseUrlSupplier,
+                                      Authorization authorization,
+                                      Map<String, String> httpHeaders)
   {
     try
     {
-      if (StringUtils.isBlank(resourceDocument))
+      if (resourceDocument.isBlank())
       {
         throw new BadRequestException("the request body is empty", null, ScimType.Custom.INVALID_PARAMETERS);
       }
       ResourceType resourceType = getResourceType(endpoint);
-      JsonNode resource;
-      try
-      {
-        resource = JsonHelper.readJsonDocument(resourceDocument);
-      }
-      catch (IOException ex)
-      {
-        throw new BadRequestException(ex.getMessage(), ex, ScimType.Custom.UNPARSEABLE_REQUEST);
-      }
-      resource = SchemaValidator.validateDocumentForRequest(resourceType, resource, HttpMethod.POST);
       ResourceHandler resourceHandler = resourceType.getResourceHandlerImpl();
-      ResourceNode resourceNode = (ResourceNode)JsonHelper.copyResourceToObject(resource, resourceHandler.getType());
+      ResourceNode resourceNode = (ResourceNode)resourceDocument.readResource(resourceType,
+                                                                             HttpMethod.POST,
+                                                                             resourceHandler.getType());
+      JsonNode validatedRequest = getValidatedRequest(resourceNode);
       Meta meta = resourceNode.getMeta().orElse(Meta.builder().build());
       meta.setResourceType(resourceType.getName());
       resourceNode.remove(AttributeNames.RFC7643.META);
@@ -234,7 +279,7 @@ class ResourceEndpointHandler
       JsonNode responseResource = SchemaValidator.validateDocumentForResponse(resourceTypeFactory,
                                                                               resourceType,
                                                                               resourceNode,
-                                                                              resource,
+                                                                              validatedRequest,
                                                                               null,
                                                                               null,
                                                                               baseUrlSupplier);
@@ -250,6 +295,21 @@ class ResourceEndpointHandler
     }
   }
 
+  /**
+   * the validated request resource is handed over to the resource handler that may modify it. The response
+   * validation needs to know which attributes were present in the request so their state is preserved here
+   * without copying the attribute values
+   *
+   * @param resourceNode the validated resource of the request
+   * @return a node that holds the attributes of the request
+   */
+  private JsonNode getValidatedRequest(ResourceNode resourceNode)
+  {
+    ScimObjectNode validatedRequest = new ScimObjectNode();
+    validatedRequest.setAll(resourceNode);
+    return validatedRequest;
+  }
+
   /**
    * checks if a resource type exists under the given endpoint and will then give the id to the developers
    * custom implementation stored under the found resource type. The returned {@link ResourceNode} will then be
@@ -330,6 +390,7 @@ class ResourceEndpointHandler
       ResourceHandler resourceHandler = resourceType.getResourceHandlerImpl();
       final List<SchemaAttribute> attributesList = RequestUtils.getAttributes(resourceType, attributes);
       final List<SchemaAttribute> excludedAttributesList = RequestUtils.getAttributes(resourceType, excludedAttributes);
+      boolean versionValidated = validateCurrentVersion(resourceType, id, httpHeaders, authorization);
       ResourceNode resourceNode = resourceHandler.getResource(id,
                                                               authorization,
                                                               attributesList,
@@ -340,7 +401,10 @@ class ResourceEndpointHandler
         throw new ResourceNotFoundException("the '" + resourceType.getName() + "' resource with id '" + id + "' does "
                                             + "not exist", null, null);
       }
-      ETagHandler.validateVersion(serviceProvider, resourceType, () -> resourceNode, httpHeaders);
+      if (!versionValidated)
+      {
+        ETagHandler.validateVersion(serviceProvider, resourceType, () -> resourceNode, httpHeaders);
+      }
       String resourceId = resourceNode.getId().orElse(null);
       if (resourceId != null && !resourceId.equals(id))
       {
@@ -362,13 +426,10 @@ class ResourceEndpointHandler
         meta.setResourceType(resourceType.getName());
         ETagHandler.getResourceVersion(serviceProvider, resourceType, resourceNode).ifPresent(meta::setVersion);
       });
-      JsonNode responseResource = SchemaValidator.validateDocumentForResponse(resourceTypeFactory,
-                                                                              resourceType,
-                                                                              resourceNode,
-                                                                              null,
-                                                                              attributes,
-                                                                              excludedAttributes,
-                                                                              baseUrlSupplier);
+      JsonNode responseResource = prepareResourceForResponse(resourceType,
+                                                             resourceNode,
+                                                             new AttributeProjection(attributes, excludedAttributes),
+                                                             baseUrlSupplier);
       return new GetResponse(responseResource, location, resourceNode.getMeta().orElse(null));
     }
     catch (ScimException ex)
@@ -403,10 +464,23 @@ class ResourceEndpointHandler
                                        String searchRequest,
                                        Supplier<String> baseUrlSupplier,
                                        Authorization authorization)
+  {
+    return listResourcesFromBody(endpoint, RequestBody.of(searchRequest), baseUrlSupplier, authorization);
+  }
+
+  /**
+   * executes the search request of the given request body
+   *
+   * @see #listResources(String, String, Supplier, Authorization)
+   */
+  ScimResponse listResourcesFromBody(String endpoint,
+                                     RequestBody searchRequest,
+                                     Supplier<String> baseUrlSupplier,
+                                     Authorization authorization)
   {
     return listResources(endpoint,
-                         StringUtils.isBlank(searchRequest) ? SearchRequest.builder().build()
-                           : JsonHelper.readJsonDocument(searchRequest, SearchRequest.class),
+                         searchRequest.isBlank() ? SearchRequest.builder().build()
+                           : searchRequest.readJsonDocument(SearchRequest.class),
                          baseUrlSupplier,
                          authorization);
   }
@@ -521,22 +595,23 @@ class ResourceEndpointHandler
       final long effectiveStartIndex = RequestUtils.getEffectiveStartIndex(startIndex);
       final int effectiveCount = RequestUtils.getEffectiveCount(serviceProvider, count);
       final FilterNode filterNode = getFilterNode(resourceType, filter);
-      final boolean autoFiltering = resourceType.getFeatures().isAutoFiltering();
       final SchemaAttribute sortByAttribute = getSortByAttribute(resourceType, sortBy);
       final SortOrder sortOrdering = getSortOrdering(sortOrder, sortByAttribute);
-      final boolean autoSorting = resourceType.getFeatures().isAutoSorting();
       final List<SchemaAttribute> attributesList = RequestUtils.getAttributes(resourceType, attributes);
       final List<SchemaAttribute> excludedAttributesList = RequestUtils.getAttributes(resourceType, excludedAttributes);
 
       ResourceHandler<T> resourceHandler = resourceType.getResourceHandlerImpl();
-      PartialListResponse<T> resources = resourceHandler.listResources(effectiveStartIndex,
-                                                                       effectiveCount,
-                                                                       autoFiltering ? null : filterNode,
-                                                                       autoSorting ? null : sortByAttribute,
-                                                                       autoSorting ? null : sortOrdering,
-                                                                       attributesList,
-                                                                       excludedAttributesList,
-                                                                       authorization, httpHeaders);
+      QueryPlan queryPlan = QueryPlan.builder()
+                                     .resourceType(resourceType)
+                                     .startIndex(effectiveStartIndex)
+                                     .count(effectiveCount)
+                                     .filter(filterNode)
+                                     .sortBy(sortByAttribute)
+                                     .sortOrder(sortOrdering)
+                                     .attributes(attributesList)
+                                     .excludedAttributes(excludedAttributesList)
+                                     .build();
+      PartialListResponse<T> resources = resourceHandler.listResources(queryPlan, authorization, httpHeaders);
       if (resources == null)
       {
         throw new NotImplementedException("listResources was not implemented for resourceType '"
@@ -544,14 +619,21 @@ class ResourceEndpointHandler
       }
 
       List<T> resourceList = resources.getResources();
-      List<T> filteredResources = filterResources(filterNode, resourceList, resourceType);
-      filteredResources = sortResources(filteredResources, sortByAttribute, sortOrdering, resourceType);
-
+      List<T> filteredResources = FilterResourceResolver.filterResources(resourceList,
+                                                                         queryPlan.getResidualFilters());
       long totalResults = resourceList.size() != filteredResources.size() ? filteredResources.size()
         : (resources.getTotalResults() == 0 ? filteredResources.size() : resources.getTotalResults());
 
-      // this if-block will assert that no more results will be returned than the countValue allows.
-      if (effectiveStartIndex <= filteredResources.size())
+      if (!queryPlan.isSortingHandled())
+      {
+        // only the resources up to the end of the requested page are needed in sorted order
+        int maxResults = (int)Math.min(Integer.MAX_VALUE, effectiveStartIndex - 1 + effectiveCount);
+        filteredResources = sortResources(filteredResources, sortByAttribute, sortOrdering, maxResults);
+      }
+
+      // this if-block will assert that no more results will be returned than the countValue allows. A backend
+      // that applied the paging by itself has already returned the requested page
+      if (!queryPlan.isPagingHandled() && effectiveStartIndex <= filteredResources.size())
       {
         filteredResources = filteredResources.subList((int)Math.min(effectiveStartIndex - 1,
                                                                     filteredResources.size() - 1),
@@ -566,27 +648,22 @@ class ResourceEndpointHandler
         filteredResources = filteredResources.subList(0, effectiveCount);
       }
 
+      // the projection is resolved once and shared by all listed resources
+      AttributeProjection projection = new AttributeProjection(attributes, excludedAttributes);
+      if (streamListResponses)
+      {
+        return new StreamingListResponse<T>(filteredResources,
+                                            resourceNode -> validateListedResource(resourceType,
+                                                                                   resourceNode,
+                                                                                   projection,
+                                                                                   baseUrlSupplier),
+                                            totalResults, effectiveStartIndex);
+      }
+
       List<JsonNode> validatedResourceList = new ArrayList<>();
       for ( ResourceNode resourceNode : filteredResources )
       {
-        final String location = getLocation(resourceType, resourceNode.getId().orElse(null), baseUrlSupplier);
-        resourceNode.getMeta().ifPresent(meta -> {
-          if (!meta.getLastModified().isPresent())
-          {
-            meta.setLastModified(meta.getCreated().orElse(null));
-          }
-          meta.setLocation(location);
-          meta.setResourceType(resourceType.getName());
-          ETagHandler.getResourceVersion(serviceProvider, resourceType, resourceNode).ifPresent(meta::setVersion);
-        });
-        JsonNode validatedResource = SchemaValidator.validateDocumentForResponse(resourceTypeFactory,
-                                                                                 resourceType,
-                                                                                 resourceNode,
-                                                                                 null,
-                                                                                 attributes,
-                                                                                 excludedAttributes,
-                                                                                 baseUrlSupplier);
-        validatedResourceList.add(validatedResource);
+        validatedResourceList.add(validateListedResource(resourceType, resourceNode, projection, baseUrlSupplier));
       }
 
       return new ListResponse<T>(validatedResourceList, totalResults, validatedResourceList.size(),
@@ -603,53 +680,106 @@ class ResourceEndpointHandler
   }
 
   /**
-   * this method will sort the resources based on the given attribute and the ordering
+   * sets the meta attributes of a listed resource and validates it for the response
    *
-   * @param filteredResources the resources that might have already been filtered
-   * @param sortByAttribute the sortby attribute that tells us which attribute should be used for sorting
-   * @param sortOrdering the sort order to use
-   * @return the ordered resources
+   * @param resourceType the resource type of the listed resource
+   * @param resourceNode the resource that should be returned to the client
+   * @param projection the resolved attributes and excludedAttributes parameters of the request
+   * @param baseUrlSupplier supplies the base url that is used to build the location of the resource
+   * @return the validated resource
    */
-  private <T extends ResourceNode> List<T> sortResources(List<T> filteredResources,
-                                                         SchemaAttribute sortByAttribute,
-                                                         SortOrder sortOrdering,
-                                                         ResourceType resourceType)
+  private JsonNode validateListedResource(ResourceType resourceType,
+                                          ResourceNode resourceNode,
+                                          AttributeProjection projection,
+                                          Supplier<String> baseUrlSupplier)
+  {
+    final String location = getLocation(resourceType, resourceNode.getId().orElse(null), baseUrlSupplier);
+    resourceNode.getMeta().ifPresent(meta -> {
+      if (!meta.getLastModified().isPresent())
+      {
+        meta.setLastModified(meta.getCreated().orElse(null));
+      }
+      meta.setLocation(location);
+      meta.setResourceType(resourceType.getName());
+      ETagHandler.getResourceVersion(serviceProvider, resourceType, resourceNode).ifPresent(meta::setVersion);
+    });
+    return prepareResourceForResponse(resourceType, resourceNode, projection, baseUrlSupplier);
+  }
+
+  /**
+   * validates a resource that was returned by the resource handler for the response. If the
+   * {@link TrustedResponseFeature} is enabled for the resource type the validation is skipped and the resource
+   * is only projected on the attributes that should be returned unless the resource was chosen for a sample
+   * validation
+   *
+   * @param resourceType the resource type of the resource
+   * @param resourceNode the resource that should be returned to the client
+   * @param projection the resolved attributes and excludedAttributes parameters of the request
+   * @param baseUrlSupplier supplies the base url that is used to build missing resource references
+   * @return the resource as it should be returned to the client
+   */
+  private JsonNode prepareResourceForResponse(ResourceType resourceType,
+                                              ResourceNode resourceNode,
+                                              AttributeProjection projection,
+                                              Supplier<String> baseUrlSupplier)
   {
-    if (!serviceProvider.getSortConfig().isSupported() || sortByAttribute == null
-        || !resourceType.getFeatures().isAutoSorting())
+    ResourceTypeFeatures features = resourceType.getFeatures();
+    TrustedResponseFeature trustedResponseFeature = features == null ? null : features.getTrustedResponseFeature();
+    if (trustedResponseFeature != null && trustedResponseFeature.isEnabled()
+        && !isSampledForValidation(resourceType, trustedResponseFeature.getValidationSampleRate()))
     {
-      log.trace("auto-sorting skipped for auto-sorting is not supported or missing sortBy attribute");
-      return filteredResources;
+      TrustedResponseProjector projector = new TrustedResponseProjector(resourceTypeFactory,
+                                                                        projection,
+                                                                        baseUrlSupplier);
+      return projector.projectDocument(resourceType, resourceNode);
     }
-    return filteredResources.parallelStream()
-                            .sorted(new ResourceNodeComparator(sortByAttribute, sortOrdering))
-                            .collect(Collectors.toList());
+    return SchemaValidator.validateDocumentForResponse(resourceTypeFactory,
+                                                       resourceType,
+                                                       resourceNode,
+                                                       null,
+                                                       projection,
+                                                       baseUrlSupplier);
   }
 
   /**
-   * this method executes filtering on the given resource list
+   * checks if a trusted response should still be validated
    *
-   * @param filterNode the filter expression from the client. Might be null if filtering is disabled
-   * @param resourceList the list that should be filtered
-   * @param resourceType the resource type must have filtering enabled. If filtering is not explicitly enabled
-   *          the developer must do the filtering manually
-   * @return the filtered list or the {@code resourceList}
+   * @param resourceType the resource type of the trusted response
+   * @param validationSampleRate every N-th trusted response is validated. Values lower than 1 disable the
+   *          validation
+   * @return true if the response should be validated
    */
-  protected <T extends ResourceNode> List<T> filterResources(FilterNode filterNode,
-                                                             List<T> resourceList,
-                                                             ResourceType resourceType)
+  private boolean isSampledForValidation(ResourceType resourceType, int validationSampleRate)
   {
-    boolean isApplicationFilteringEnabled = resourceType.getFeatures().isAutoFiltering();
-    List<T> filteredResourceType;
-    if (isApplicationFilteringEnabled && filterNode != null)
+    if (validationSampleRate < 1)
     {
-      filteredResourceType = FilterResourceResolver.filterResources(resourceList, filterNode);
+      return false;
     }
-    else
+    AtomicLong counter = trustedResponseCounters.computeIfAbsent(resourceType.getName(), name -> new AtomicLong());
+    return counter.incrementAndGet() % validationSampleRate == 0;
+  }
+
+  /**
+   * this method will sort the resources based on the given attribute and the ordering if the resources have not
+   * already been sorted by the resource handler
+   *
+   * @param filteredResources the resources that might have already been filtered
+   * @param sortByAttribute the sortby attribute that tells us which attribute should be used for sorting
+   * @param sortOrdering the sort order to use
+   * @param maxResults the number of resources from the beginning of the sorted list that are needed
+   * @return the ordered resources. If sorting is done the list contains at most maxResults resources
+   */
+  private <T extends ResourceNode> List<T> sortResources(List<T> filteredResources,
+                                                         SchemaAttribute sortByAttribute,
+                                                         SortOrder sortOrdering,
+                                                         int maxResults)
+  {
+    if (!serviceProvider.getSortConfig().isSupported() || sortByAttribute == null)
     {
-      filteredResourceType = resourceList;
+      log.trace("auto-sorting skipped for auto-sorting is not supported or missing sortBy attribute");
+      return filteredResources;
     }
-    return filteredResourceType;
+    return ResourceNodeSorter.sort(filteredResources, sortByAttribute, sortOrdering, maxResults);
   }
 
   /**
@@ -748,48 +878,49 @@ class ResourceEndpointHandler
                                         Map<String, String> httpHeaders,
                                         Supplier<String> baseUrlSupplier,
                                         Authorization authorization)
+  {
+    return updateResourceFromBody(endpoint,
+                                  id,
+                                  RequestBody.of(resourceDocument),
+                                  httpHeaders,
+                                  baseUrlSupplier,
+                                  authorization);
+  }
+
+  /**
+   * replaces a resource with the given request body
+   *
+   * @see #updateResource(String, String, String, Map, Supplier, Authorization)
+   */
+  ScimResponse updateResourceFromBody(String endpoint,
+                                      String id,
+                                      RequestBody resourceDocument,
+                                      Map<String, String> httpHeaders,
+                                      Supplier<String> baseUrlSupplier,
+                                      Authorization authorization)
   {
     try
     {
-      if (StringUtils.isBlank(resourceDocument))
+      if (resourceDocument.isBlank())
       {
         throw new BadRequestException("the request body is empty", null, ScimType.Custom.INVALID_PARAMETERS);
       }
       ResourceType resourceType = getResourceType(endpoint);
-      JsonNode resource;
-      try
-      {
-        resource = JsonHelper.readJsonDocument(resourceDocument);
-      }
-      catch (IOException ex)
-      {
-        throw new BadRequestException(ex.getMessage(), ex, ScimType.Custom.UNPARSEABLE_REQUEST);
-      }
-      resource = SchemaValidator.validateDocumentForRequest(resourceType, resource, HttpMethod.PUT);
       ResourceHandler resourceHandler = resourceType.getResourceHandlerImpl();
-      try
-      {
-        ETagHandler.validateVersion(serviceProvider,
-                                    resourceType,
-                                    () -> resourceHandler.getResource(id, authorization, null, null, httpHeaders),
-                                    httpHeaders);
-      }
-      catch (ResourceNotFoundException ex)
+      boolean versionValidated = validateCurrentVersion(resourceType, id, httpHeaders, authorization);
+      ResourceNode resourceNode = (ResourceNode)resourceDocument.readResource(resourceType,
+                                                                             HttpMethod.PUT,
+                                                                             resourceHandler.getType());
+      if (!versionValidated)
       {
-        throw new ResourceNotFoundException("the '" + resourceType.getName() + "' resource with id '" + id + "' does "
-                                            + "not exist", ex, null);
+        validateVersionOfStoredResource(resourceType, id, httpHeaders, authorization);
       }
-      if (resource == null)
+      if (resourceNode == null)
       {
         throw new BadRequestException("the request body does not contain any writable parameters", null,
                                       ScimType.Custom.UNPARSEABLE_REQUEST);
       }
-      ResourceNode resourceNode = (ResourceNode)JsonHelper.copyResourceToObject(resource, resourceHandler.getType());
-      if (resourceNode == null)
-      {
-        throw new ResourceNotFoundException("the '" + resourceType.getName() + "' resource with id '" + id + "' does "
-                                            + "not exist", null, null);
-      }
+      JsonNode validatedRequest = getValidatedRequest(resourceNode);
       resourceNode.setId(id);
       final String location = getLocation(resourceType, id, baseUrlSupplier);
       Meta meta = resourceNode.getMeta().orElse(Meta.builder().build());
@@ -827,7 +958,7 @@ class ResourceEndpointHandler
       JsonNode responseResource = SchemaValidator.validateDocumentForResponse(resourceTypeFactory,
                                                                               resourceType,
                                                                               resourceNode,
-                                                                              resource,
+                                                                              validatedRequest,
                                                                               null,
                                                                               null,
                                                                               baseUrlSupplier);
@@ -863,17 +994,9 @@ class ResourceEndpointHandler
     {
       ResourceType resourceType = getResourceType(endpoint);
       ResourceHandler resourceHandler = resourceType.getResourceHandlerImpl();
-      try
+      if (!validateCurrentVersion(resourceType, id, httpHeaders, authorization))
       {
-        ETagHandler.validateVersion(serviceProvider,
-                                    resourceType,
-                                    () -> resourceHandler.getResource(id, authorization, null, null, httpHeaders),
-                                    httpHeaders);
-      }
-      catch (ResourceNotFoundException ex)
-      {
-        throw new ResourceNotFoundException("the '" + resourceType.getName() + "' resource with id '" + id + "' does "
-                                            + "not exist", ex, null);
+        validateVersionOfStoredResource(resourceType, id, httpHeaders, authorization);
       }
       resourceHandler.deleteResource(id, authorization, httpHeaders);
       return new DeleteResponse();
@@ -950,6 +1073,30 @@ class ResourceEndpointHandler
                                        Map<String, String> httpHeaders,
                                        Supplier<String> baseUrlSupplier,
                                        Authorization authorization)
+  {
+    return patchResourceFromBody(endpoint,
+                                 id,
+                                 RequestBody.of(requestBody),
+                                 attributes,
+                                 excludedAttributes,
+                                 httpHeaders,
+                                 baseUrlSupplier,
+                                 authorization);
+  }
+
+  /**
+   * patches a resource with the operations of the given request body
+   *
+   * @see #patchResource(String, String, String, String, String, Map, Supplier, Authorization)
+   */
+  ScimResponse patchResourceFromBody(String endpoint,
+                                     String id,
+                                     RequestBody requestBody,
+                                     String attributes,
+                                     String excludedAttributes,
+                                     Map<String, String> httpHeaders,
+                                     Supplier<String> baseUrlSupplier,
+                                     Authorization authorization)
   {
     try
     {
@@ -959,9 +1106,26 @@ class ResourceEndpointHandler
       }
       ResourceType resourceType = getResourceType(endpoint);
       ResourceHandler resourceHandler = resourceType.getResourceHandlerImpl();
+      boolean versionValidated = validateCurrentVersion(resourceType, id, httpHeaders, authorization);
       Schema patchSchema = resourceTypeFactory.getSchemaFactory().getMetaSchema(SchemaUris.PATCH_OP);
-      JsonNode patchDocument = JsonHelper.readJsonDocument(requestBody);
+      JsonNode patchDocument = requestBody.readJsonDocument();
       patchDocument = SchemaValidator.validateSchemaDocumentForRequest(patchSchema, patchDocument);
+      PatchOpRequest patchOpRequest = JsonHelper.copyResourceToObject(patchDocument, PatchOpRequest.class);
+      if (versionValidated && resourceHandler.isPatchDeltaSupported())
+      {
+        Optional<ScimResponse> deltaResponse = patchResourceWithDeltas(resourceType,
+                                                                       id,
+                                                                       patchOpRequest,
+                                                                       attributes,
+                                                                       excludedAttributes,
+                                                                       httpHeaders,
+                                                                       baseUrlSupplier,
+                                                                       authorization);
+        if (deltaResponse.isPresent())
+        {
+          return deltaResponse.get();
+        }
+      }
       // attributes and excludedAttributes are not passed here because the update is done on the whole resource so
       // we
       // must also extract the whole resource now
@@ -975,7 +1139,10 @@ class ResourceEndpointHandler
         throw new ResourceNotFoundException("the '" + resourceType.getName() + "' resource with id '" + id + "' does "
                                             + "not exist", null, null);
       }
-      ETagHandler.validateVersion(serviceProvider, resourceType, () -> resourceNode, httpHeaders);
+      if (!versionValidated)
+      {
+        ETagHandler.validateVersion(serviceProvider, resourceType, () -> resourceNode, httpHeaders);
+      }
       Supplier<String> errorMessage = () -> "ID attribute not set on updated resource";
       String resourceId = resourceNode.getId()
                                       .orElseThrow(() -> new InternalServerException(errorMessage.get(), null, null));
@@ -992,7 +1159,6 @@ class ResourceEndpointHandler
       meta.setResourceType(resourceType.getName());
       resourceNode.setMeta(meta);
       ETagHandler.getResourceVersion(serviceProvider, resourceType, resourceNode).ifPresent(meta::setVersion);
-      PatchOpRequest patchOpRequest = JsonHelper.copyResourceToObject(patchDocument, PatchOpRequest.class);
       PatchHandler patchHandler = new PatchHandler(resourceType);
       ResourceNode patchedResourceNode = patchHandler.patchResource(resourceNode, patchOpRequest);
       try
@@ -1042,6 +1208,60 @@ class ResourceEndpointHandler
     }
   }
 
+  /**
+   * resolves the operations of the patch request into validated deltas and gives them to
+   * {@link ResourceHandler#patchResource(String, List, Authorization, Map)} so that the resource does not need
+   * to be loaded
+   *
+   * @return the response of the patched resource or an empty if the operations could not be resolved into
+   *         deltas or the resource handler did not apply them
+   * @see #patchResource(String, String, String, String, String, Map, Supplier, Authorization)
+   */
+  private Optional<ScimResponse> patchResourceWithDeltas(ResourceType resourceType,
+                                                         String id,
+                                                         PatchOpRequest patchOpRequest,
+                                                         String attributes,
+                                                         String excludedAttributes,
+                                                         Map<String, String> httpHeaders,
+                                                         Supplier<String> baseUrlSupplier,
+                                                         Authorization authorization)
+  {
+    PatchHandler patchHandler = new PatchHandler(resourceType);
+    Optional<List<PatchDelta>> patchDeltas = patchHandler.getPatchDeltas(patchOpRequest);
+    if (!patchDeltas.isPresent())
+    {
+      log.trace("patch request on resource '{}' cannot be resolved into deltas", id);
+      return Optional.empty();
+    }
+    ResourceHandler resourceHandler = resourceType.getResourceHandlerImpl();
+    ResourceNode patchedResourceNode = resourceHandler.patchResource(id, patchDeltas.get(), authorization, httpHeaders);
+    if (patchedResourceNode == null)
+    {
+      log.trace("resource handler did not apply the deltas on resource '{}'", id);
+      return Optional.empty();
+    }
+    patchedResourceNode.setId(id);
+    Meta meta = patchedResourceNode.getMeta().orElseThrow(() -> {
+      return new InternalServerException("The mandatory meta attribute is missing in the patched resource");
+    });
+    if (!meta.getLastModified().isPresent())
+    {
+      meta.setLastModified(meta.getCreated().orElse(null));
+    }
+    final String location = getLocation(resourceType, id, baseUrlSupplier);
+    meta.setResourceType(resourceType.getName());
+    meta.setLocation(location);
+    ETagHandler.getResourceVersion(serviceProvider, resourceType, patchedResourceNode).ifPresent(meta::setVersion);
+    JsonNode responseResource = SchemaValidator.validateDocumentForResponse(resourceTypeFactory,
+                                                                            resourceType,
+                                                                            patchedResourceNode,
+                                                                            patchHandler.getRequestedAttributes(),
+                                                                            attributes,
+                                                                            excludedAttributes,
+                                                                            baseUrlSupplier);
+    return Optional.of(new UpdateResponse(responseResource, location, meta));
+  }
+
   /**
    * tries to extract the resource type by its endpoint path suffix e.g. "/Users" or "/Groups"
    *
@@ -1057,6 +1277,57 @@ class ResourceEndpointHandler
     return resourceType;
   }
 
+  /**
+   * validates the entity tags of the request against the version that is returned by
+   * {@link ResourceHandler#getResourceVersion(String, Authorization, Map)} without loading the resource
+   *
+   * @param resourceType the resource type of the called endpoint
+   * @param id the id of the requested resource
+   * @param httpHeaders the http request headers
+   * @param authorization the authorization information of the current client
+   * @return false if the resource handler did not return a version and the entity tags must be validated against
+   *         the loaded resource, true else
+   */
+  private boolean validateCurrentVersion(ResourceType resourceType,
+                                         String id,
+                                         Map<String, String> httpHeaders,
+                                         Authorization authorization)
+  {
+    ResourceHandler resourceHandler = resourceType.getResourceHandlerImpl();
+    return ETagHandler.validateCurrentVersion(serviceProvider,
+                                              resourceType,
+                                              () -> resourceHandler.getResourceVersion(id, authorization, httpHeaders),
+                                              httpHeaders);
+  }
+
+  /**
+   * validates the entity tags of the request against the stored resource with the given id
+   *
+   * @param resourceType the resource type of the called endpoint
+   * @param id the id of the resource to validate
+   * @param httpHeaders the http request headers
+   * @param authorization the authorization information of the current client
+   */
+  private void validateVersionOfStoredResource(ResourceType resourceType,
+                                               String id,
+                                               Map<String, String> httpHeaders,
+                                               Authorization authorization)
+  {
+    ResourceHandler resourceHandler = resourceType.getResourceHandlerImpl();
+    try
+    {
+      ETagHandler.validateVersion(serviceProvider,
+                                  resourceType,
+                                  () -> resourceHandler.getResource(id, authorization, null, null, httpHeaders),
+                                  httpHeaders);
+    }
+    catch (ResourceNotFoundException ex)
+    {
+      throw new ResourceNotFoundException("the '" + resourceType.getName() + "' resource with id '" + id + "' does "
+                                          + "not exist", ex, null);
+    }
+  }
+
   /**
    * builds the location attribute for the meta-object
    *
@@ -8,13 +8,17 @@ import java.util.Optional;
 import java.util.function.Supplier;
 
 import de.captaingoldfish.scim.sdk.common.constants.enums.SortOrder;
+import de.captaingoldfish.scim.sdk.common.etag.ETag;
 import de.captaingoldfish.scim.sdk.common.exceptions.InternalServerException;
 import de.captaingoldfish.scim.sdk.common.resources.ResourceNode;
 import de.captaingoldfish.scim.sdk.common.schemas.Schema;
 import de.captaingoldfish.scim.sdk.common.schemas.SchemaAttribute;
 import de.captaingoldfish.scim.sdk.server.endpoints.authorize.Authorization;
 import de.captaingoldfish.scim.sdk.server.filter.FilterNode;
+import de.captaingoldfish.scim.sdk.server.patch.PatchDelta;
+import de.captaingoldfish.scim.sdk.server.query.QueryPlan;
 import de.captaingoldfish.scim.sdk.server.response.PartialListResponse;
+import de.captaingoldfish.scim.sdk.server.schemas.custom.ResourceTypeFeatures;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
@@ -123,6 +127,27 @@ public abstract class ResourceHandler<T extends ResourceNode>
                                 List<SchemaAttribute> excludedAttributes,
                                 Map<String, String> httpHeaders);
 
+  /**
+   * extracts only the current version of a resource. If a request contains an If-Match or If-None-Match header
+   * this method is called before the resource is loaded so that conditional requests can be answered e.g. from
+   * a version column or a cache without loading and validating the complete resource. The returned version
+   * must be equal to the version within the meta attribute of the resource that is returned by
+   * {@link #getResource(String, Authorization, List, List, Map)}<br>
+   * <br>
+   * The default implementation returns null which means that the resource is loaded to validate the version
+   *
+   * @param id the id of the resource whose version is requested
+   * @param authorization should return the roles of an user and may contain arbitrary data needed in the
+   *          handler implementation
+   * @param httpHeaders the http request headers
+   * @return the current version of the resource or null if the version is not known without loading the
+   *         resource
+   */
+  public ETag getResourceVersion(String id, Authorization authorization, Map<String, String> httpHeaders)
+  {
+    return null;
+  }
+
   /**
    * queries several resources based on the following values
    *
@@ -154,6 +179,51 @@ public abstract class ResourceHandler<T extends ResourceNode>
       List<SchemaAttribute> excludedAttributes,
       Authorization authorization, Map<String, String> httpHeaders);
 
+  /**
+   * queries several resources based on the given query plan. The query plan allows to evaluate only parts of
+   * the filter expression in the backend. All parts of the filter that are not marked as handled in the query
+   * plan are evaluated by the SDK on the returned resources. Sorting is done by the SDK if it was not marked as
+   * handled, and paging should only be applied by the backend if {@link QueryPlan#isPagingAllowed()} is true.
+   * <br>
+   * <br>
+   * The default implementation delegates to
+   * {@link #listResources(long, int, FilterNode, SchemaAttribute, SortOrder, List, List, Authorization, Map)}
+   * and honors the auto-filtering and auto-sorting features of the resource type. So the filter is given to the
+   * handler and marked as handled if auto-filtering is disabled and the same applies to the sorting
+   *
+   * @param queryPlan the parsed query parameters of the list request
+   * @param authorization should return the roles of an user and may contain arbitrary data needed in the
+   *          handler implementation
+   * @param httpHeaders the http request headers
+   * @return a list of several resources and a total results value
+   */
+  public PartialListResponse<T> listResources(QueryPlan queryPlan,
+                                              Authorization authorization,
+                                              Map<String, String> httpHeaders)
+  {
+    ResourceTypeFeatures features = queryPlan.getResourceType().getFeatures();
+    boolean autoFiltering = features.isAutoFiltering();
+    boolean autoSorting = features.isAutoSorting();
+    PartialListResponse<T> partialListResponse = listResources(queryPlan.getStartIndex(),
+                                                               queryPlan.getCount(),
+                                                               autoFiltering ? null : queryPlan.getFilter(),
+                                                               autoSorting ? null : queryPlan.getSortBy(),
+                                                               autoSorting ? null : queryPlan.getSortOrder(),
+                                                               queryPlan.getAttributes(),
+                                                               queryPlan.getExcludedAttributes(),
+                                                               authorization,
+                                                               httpHeaders);
+    if (!autoFiltering)
+    {
+      queryPlan.markFilterHandled();
+    }
+    if (!autoSorting)
+    {
+      queryPlan.markSortingHandled();
+    }
+    return partialListResponse;
+  }
+
   /**
    * should update an existing resource with the given one. Simply use the id of the given resource and override
    * the existing one with the given one. Be careful there have been no checks in advance for you if the
@@ -172,6 +242,48 @@ public abstract class ResourceHandler<T extends ResourceNode>
   public abstract T updateResource(T resourceToUpdate, Authorization authorization,
       Map<String, String> httpHeaders);
 
+  /**
+   * tells if this handler is able to apply patch operations directly on the stored resource with
+   * {@link #patchResource(String, List, Authorization, Map)}. If false the resource is always loaded with
+   * {@link #getResource(String, Authorization, List, List, Map)}, patched by the SDK and stored with
+   * {@link #updateResource(ResourceNode, Authorization, Map)}
+   *
+   * @return true if patch operations should be given to {@link #patchResource(String, List, Authorization, Map)}
+   *         first, false else
+   */
+  public boolean isPatchDeltaSupported()
+  {
+    return false;
+  }
+
+  /**
+   * applies the validated operations of a patch request directly on the stored resource without loading the
+   * complete resource. This allows e.g. to add a few members to a group with a huge number of members without
+   * reading and writing all its members. This method is only called if {@link #isPatchDeltaSupported()} returns
+   * true and if all operations of the request have a path that can be resolved without the current resource.
+   * The values of the deltas have already been validated against the schema<br>
+   * <br>
+   * If the deltas cannot be applied by this handler null must be returned without changing the resource. In
+   * this case the resource is loaded, patched by the SDK and stored with
+   * {@link #updateResource(ResourceNode, Authorization, Map)}
+   *
+   * @param id the id of the resource to patch
+   * @param patchDeltas the validated operations of the patch request in the order of the request
+   * @param authorization should return the roles of an user and may contain arbitrary data needed in the
+   *          handler implementation
+   * @param httpHeaders the http request headers
+   * @return the patched resource with its meta attribute that is returned to the client or null if the deltas
+   *         were not applied. Large attributes may be omitted from the returned resource in which case the
+   *         version within the meta attribute should be set by the handler
+   */
+  public T patchResource(String id,
+                         List<PatchDelta> patchDeltas,
+                         Authorization authorization,
+                         Map<String, String> httpHeaders)
+  {
+    return null;
+  }
+
   /**
    * permanently deletes the resource with the given id
    *  @param id the id of the resource to delete
@@ -1,8 +1,6 @@
 package de.captaingoldfish.scim.sdk.server.etag;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.io.IOException;
 import java.util.Base64;
 import java.util.Map;
 import java.util.Optional;
@@ -22,6 +20,7 @@ import de.captaingoldfish.scim.sdk.common.exceptions.ResourceNotFoundException;
 import de.captaingoldfish.scim.sdk.common.resources.ResourceNode;
 import de.captaingoldfish.scim.sdk.common.resources.ServiceProvider;
 import de.captaingoldfish.scim.sdk.common.resources.complex.Meta;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
 import de.captaingoldfish.scim.sdk.server.schemas.ResourceType;
 import lombok.extern.slf4j.Slf4j;
 
@@ -39,11 +38,11 @@ public class ETagHandler
   /**
    * if the service provider has its support vor eTag set to true this method will return either the already set
    * version from the meta-attribute of the resource node or will generate a version value by generating a
-   * base64 encoded SHA-1 hash of the resource
+   * base64 encoded hash of the resource with the hash algorithm of the resource types eTag feature
    *
    * @param serviceProvider the service provider configuration
    * @param resourceNode the current resource node
-   * @return the version set by the developer or a base64 encoded SHA-1 hash. An empty if etag is not supported
+   * @return the version set by the developer or a base64 encoded hash. An empty if etag is not supported
    */
   public static Optional<ETag> getResourceVersion(ServiceProvider serviceProvider,
                                                   ResourceType resourceType,
@@ -65,31 +64,30 @@ public class ETagHandler
       log.trace("version already set to: {}", version.get().getEntityTag());
       return version;
     }
-    return Optional.of(generateVersionOfResource(resourceNode));
+    return Optional.of(generateVersionOfResource(resourceType, resourceNode));
   }
 
   /**
-   * generates a base64 encoded SHA-1 hash of the given resource node
+   * generates a base64 encoded hash of the given resource node. The json representation of the resource is
+   * written directly into the hash calculation so the json string of the resource is never created
    *
+   * @param resourceType the resource type that defines the hash algorithm within its eTag feature
    * @param resourceNode the resource node for which we want to get a version value
    * @return the etag of the given resource node
    */
-  private static ETag generateVersionOfResource(ResourceNode resourceNode)
+  private static ETag generateVersionOfResource(ResourceType resourceType, ResourceNode resourceNode)
   {
+    String hashAlgorithm = resourceType.getFeatures().getETagFeature().getHashAlgorithm();
+    VersionDigest versionDigest = VersionDigest.getInstance(hashAlgorithm);
     try
     {
-      MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
-      return ETag.builder()
-                 .weak(true)
-                 .tag(Base64.getEncoder()
-                            .encodeToString(messageDigest.digest(resourceNode.toString()
-                                                                             .getBytes(StandardCharsets.UTF_8))))
-                 .build();
+      JsonHelper.writeValue(versionDigest, resourceNode);
     }
-    catch (NoSuchAlgorithmException e)
+    catch (IOException ex)
     {
-      throw new InternalServerException(e.getMessage(), e, null);
+      throw new InternalServerException(ex.getMessage(), ex, null);
     }
+    return ETag.builder().weak(true).tag(Base64.getEncoder().encodeToString(versionDigest.digest())).build();
   }
 
   /**
@@ -105,14 +103,8 @@ public class ETagHandler
                                      Supplier<ResourceNode> currentState,
                                      Map<String, String> httpHeaders)
   {
-    if (!serviceProvider.getETagConfig().isSupported())
+    if (!isETagHandlingEnabled(serviceProvider, resourceType))
     {
-      log.trace("not handling eTags for service provider support for eTags is set to false");
-      return;
-    }
-    else if (!resourceType.getFeatures().getETagFeature().isEnabled())
-    {
-      log.trace("not handling eTags for for support on resource type {} is disabled", resourceType.getName());
       return;
     }
     Optional<ETag> ifNoneMatchEtag = getETagFromHeader(httpHeaders, true);
@@ -127,7 +119,74 @@ public class ETagHandler
       throw new ResourceNotFoundException(null, null, null);
     }
     Optional<ETag> version = resourceNode.getMeta().flatMap(Meta::getVersion);
-    ETag currentVersion = version.orElseGet(() -> generateVersionOfResource(resourceNode));
+    ETag currentVersion = version.orElseGet(() -> generateVersionOfResource(resourceType, resourceNode));
+    validateVersion(currentVersion, ifNoneMatchEtag, ifMatchEtag);
+  }
+
+  /**
+   * will validate the entity tags of the given httpHeaders against the current version of a resource without
+   * accessing the resource itself. This allows to answer conditional requests before the resource is loaded
+   *
+   * @param serviceProvider the service provider configuration
+   * @param currentVersion supplier that gives access to the current version of the resource. The supplier may
+   *          return null if the version is not known without loading the resource
+   * @param httpHeaders the http headers that might contain the corresponding http request headers
+   * @return false if the supplier did not return a version and the headers must still be validated against the
+   *         resource with {@link #validateVersion(ServiceProvider, ResourceType, Supplier, Map)}, true else
+   */
+  public static boolean validateCurrentVersion(ServiceProvider serviceProvider,
+                                               ResourceType resourceType,
+                                               Supplier<ETag> currentVersion,
+                                               Map<String, String> httpHeaders)
+  {
+    if (!isETagHandlingEnabled(serviceProvider, resourceType))
+    {
+      return true;
+    }
+    Optional<ETag> ifNoneMatchEtag = getETagFromHeader(httpHeaders, true);
+    Optional<ETag> ifMatchEtag = getETagFromHeader(httpHeaders, false);
+    if (!ifNoneMatchEtag.isPresent() && !ifMatchEtag.isPresent())
+    {
+      return true;
+    }
+    ETag version = currentVersion.get();
+    if (version == null)
+    {
+      log.trace("current version of resource is unknown, the resource must be loaded to validate the eTag");
+      return false;
+    }
+    validateVersion(version, ifNoneMatchEtag, ifMatchEtag);
+    return true;
+  }
+
+  /**
+   * checks if entity tags are handled for the given resource type
+   */
+  private static boolean isETagHandlingEnabled(ServiceProvider serviceProvider, ResourceType resourceType)
+  {
+    if (!serviceProvider.getETagConfig().isSupported())
+    {
+      log.trace("not handling eTags for service provider support for eTags is set to false");
+      return false;
+    }
+    else if (!resourceType.getFeatures().getETagFeature().isEnabled())
+    {
+      log.trace("not handling eTags for for support on resource type {} is disabled", resourceType.getName());
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * validates the current version of a resource against the entity tag of the If-None-Match or the If-Match
+   * header
+   *
+   * @param currentVersion the current version of the resource
+   * @param ifNoneMatchEtag the value of the If-None-Match header
+   * @param ifMatchEtag the value of the If-Match header
+   */
+  private static void validateVersion(ETag currentVersion, Optional<ETag> ifNoneMatchEtag, Optional<ETag> ifMatchEtag)
+  {
     if (ifNoneMatchEtag.isPresent())
     {
       // the client wants a response under the condition that the ETag versions do not match so in case they do
@@ -0,0 +1,156 @@
+package de.captaingoldfish.scim.sdk.server.etag;
+
+/**
+ * calculates the 128-bit x64 variant of the MurmurHash3 with seed 0 over the bytes that are written into this
+ * stream. The hash is not a cryptographic hash but it is much cheaper than SHA-1 and its 128 bits are
+ * sufficient to detect changed resources. The result is identical to the murmur3_128 implementation of guava<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+class Murmur3Digest extends VersionDigest
+{
+
+  /**
+   * the mixing constants of the 128-bit x64 variant
+   */
+  private static final long C1 = 0x87c37b91114253d5L;
+
+  private static final long C2 = 0x4cf5ad432745937fL;
+
+  /**
+   * the bytes of the current block that is not yet complete
+   */
+  private final byte[] block = new byte[16];
+
+  /**
+   * the number of bytes within the current block
+   */
+  private int blockLength;
+
+  /**
+   * the total number of bytes that were written
+   */
+  private long length;
+
+  /**
+   * the two halves of the hash state
+   */
+  private long h1;
+
+  private long h2;
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void write(byte[] bytes, int offset, int length)
+  {
+    this.length += length;
+    int index = offset;
+    int end = offset + length;
+    while (index < end)
+    {
+      int numberOfBytes = Math.min(block.length - blockLength, end - index);
+      System.arraycopy(bytes, index, block, blockLength, numberOfBytes);
+      blockLength += numberOfBytes;
+      index += numberOfBytes;
+      if (blockLength == block.length)
+      {
+        processBlock(getLong(0, 8), getLong(8, 8));
+        blockLength = 0;
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  byte[] digest()
+  {
+    if (blockLength > 8)
+    {
+      long k2 = getLong(8, blockLength - 8);
+      h2 ^= mixK2(k2);
+    }
+    if (blockLength > 0)
+    {
+      long k1 = getLong(0, Math.min(blockLength, 8));
+      h1 ^= mixK1(k1);
+    }
+    h1 ^= length;
+    h2 ^= length;
+    h1 += h2;
+    h2 += h1;
+    h1 = fmix64(h1);
+    h2 = fmix64(h2);
+    h1 += h2;
+    h2 += h1;
+    byte[] hash = new byte[16];
+    putLong(hash, 0, h1);
+    putLong(hash, 8, h2);
+    return hash;
+  }
+
+  /**
+   * mixes a complete block of 16 bytes into the hash
+   */
+  private void processBlock(long k1, long k2)
+  {
+    h1 ^= mixK1(k1);
+    h1 = Long.rotateLeft(h1, 27);
+    h1 += h2;
+    h1 = h1 * 5 + 0x52dce729;
+
+    h2 ^= mixK2(k2);
+    h2 = Long.rotateLeft(h2, 31);
+    h2 += h1;
+    h2 = h2 * 5 + 0x38495ab5;
+  }
+
+  private static long mixK1(long k1)
+  {
+    return Long.rotateLeft(k1 * C1, 31) * C2;
+  }
+
+  private static long mixK2(long k2)
+  {
+    return Long.rotateLeft(k2 * C2, 33) * C1;
+  }
+
+  private static long fmix64(long k)
+  {
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+
+  /**
+   * reads the given number of bytes of the current block as little endian long
+   */
+  private long getLong(int offset, int numberOfBytes)
+  {
+    long value = 0;
+    for ( int i = numberOfBytes - 1 ; i >= 0 ; i-- )
+    {
+      value = (value << 8) | (block[offset + i] & 0xffL);
+    }
+    return value;
+  }
+
+  /**
+   * writes the given long as little endian bytes into the given array
+   */
+  private static void putLong(byte[] bytes, int offset, long value)
+  {
+    for ( int i = 0 ; i < 8 ; i++ )
+    {
+      bytes[offset + i] = (byte)(value >>> (8 * i));
+    }
+  }
+}
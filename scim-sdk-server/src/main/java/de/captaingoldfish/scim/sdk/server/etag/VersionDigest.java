@@ -0,0 +1,102 @@
+package de.captaingoldfish.scim.sdk.server.etag;
+
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import de.captaingoldfish.scim.sdk.common.exceptions.InternalServerException;
+import de.captaingoldfish.scim.sdk.server.schemas.custom.ETagFeature;
+
+
+/**
+ * an output stream that calculates the hash of the bytes that are written into it. The json representation of
+ * a resource is written directly into this stream so that the version of a resource is calculated without
+ * creating the json string of the resource<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+abstract class VersionDigest extends OutputStream
+{
+
+  /**
+   * creates the digest for the given algorithm
+   *
+   * @param algorithm {@link ETagFeature#MURMUR3_128} or the name of a {@link MessageDigest} algorithm
+   * @return the digest for the given algorithm
+   */
+  static VersionDigest getInstance(String algorithm)
+  {
+    if (ETagFeature.MURMUR3_128.equalsIgnoreCase(algorithm))
+    {
+      return new Murmur3Digest();
+    }
+    try
+    {
+      return new MessageDigestVersionDigest(MessageDigest.getInstance(algorithm));
+    }
+    catch (NoSuchAlgorithmException ex)
+    {
+      throw new InternalServerException("unsupported eTag hash algorithm '" + algorithm + "': " + ex.getMessage(),
+                                        ex, null);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void write(int b)
+  {
+    write(new byte[]{(byte)b}, 0, 1);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public abstract void write(byte[] bytes, int offset, int length);
+
+  /**
+   * completes the hash calculation
+   *
+   * @return the hash of all bytes that were written into this stream
+   */
+  abstract byte[] digest();
+
+  /**
+   * calculates the version with a {@link MessageDigest}
+   */
+  private static class MessageDigestVersionDigest extends VersionDigest
+  {
+
+    /**
+     * the message digest that gets the written bytes
+     */
+    private final MessageDigest messageDigest;
+
+    public MessageDigestVersionDigest(MessageDigest messageDigest)
+    {
+      this.messageDigest = messageDigest;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(byte[] bytes, int offset, int length)
+    {
+      messageDigest.update(bytes, offset, length);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    byte[] digest()
+    {
+      return messageDigest.digest();
+    }
+  }
+}
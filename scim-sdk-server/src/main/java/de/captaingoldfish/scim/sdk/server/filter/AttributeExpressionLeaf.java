@@ -4,10 +4,13 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.apache.commons.lang3.StringUtils;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 import de.captaingoldfish.scim.sdk.common.constants.enums.Comparator;
 import de.captaingoldfish.scim.sdk.common.constants.enums.Mutability;
 import de.captaingoldfish.scim.sdk.common.constants.enums.ReferenceTypes;
@@ -18,6 +21,7 @@ import de.captaingoldfish.scim.sdk.common.schemas.SchemaAttribute;
 import de.captaingoldfish.scim.sdk.server.filter.antlr.CompareValue;
 import de.captaingoldfish.scim.sdk.server.filter.antlr.FilterAttributeName;
 import de.captaingoldfish.scim.sdk.server.filter.antlr.ScimFilterParser;
+import de.captaingoldfish.scim.sdk.server.filter.resources.FilterPredicateCompiler;
 import de.captaingoldfish.scim.sdk.server.schemas.ResourceType;
 import de.captaingoldfish.scim.sdk.server.utils.RequestUtils;
 import lombok.AccessLevel;
@@ -65,6 +69,13 @@ public final class AttributeExpressionLeaf extends FilterNode
   @Getter
   private final boolean mainSchemaNode;
 
+  /**
+   * the compiled matcher for the values of this expression. It is compiled on first use and reused for every
+   * node that is checked against this expression
+   */
+  @EqualsAndHashCode.Exclude
+  private Predicate<JsonNode> valueMatcher;
+
   public AttributeExpressionLeaf(ScimFilterParser.AttributeExpressionContext context, ResourceType resourceType)
   {
     ScimFilterParser.ValuePathContext attributeValuePath = getParentValuePath(context);
@@ -99,6 +110,19 @@ public final class AttributeExpressionLeaf extends FilterNode
     this.mainSchemaNode = resourceType.getMainSchema().getId().equals(schemaAttribute.getSchema().getId());
   }
 
+  /**
+   * @return the predicate that checks if a simple attribute node matches this expression. This might be a json
+   *         array with primitives or a json primitive
+   */
+  public Predicate<JsonNode> getValueMatcher()
+  {
+    if (valueMatcher == null)
+    {
+      valueMatcher = FilterPredicateCompiler.compileValueMatcher(this);
+    }
+    return valueMatcher;
+  }
+
   public String getParentAttributeName()
   {
     return attributeName.getParentAttributeName();
@@ -28,9 +28,10 @@ public abstract class FilterNode
   private String subAttributeName;
 
   /**
-   * this attribute is relevant for resolving value-paths on patch operations
+   * this attribute is relevant for resolving value-paths on patch operations. Only the nodes themselves may set
+   * this value while the tree is built because parsed trees are shared between requests
    */
-  public void setSubAttributeName(String subAttributeName)
+  protected void setSubAttributeName(String subAttributeName)
   {
     this.subAttributeName = subAttributeName;
   }
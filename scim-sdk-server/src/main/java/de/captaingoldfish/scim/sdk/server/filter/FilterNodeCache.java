@@ -0,0 +1,320 @@
+package de.captaingoldfish.scim.sdk.server.filter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import de.captaingoldfish.scim.sdk.server.schemas.ResourceType;
+import de.captaingoldfish.scim.sdk.server.schemas.SchemaVersion;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * a bounded and thread-safe cache for parsed filter- and patch-path-expressions. Each
+ * {@link de.captaingoldfish.scim.sdk.server.schemas.ResourceType} holds its own instance so the effective key
+ * of a cached entry is the resource type together with the normalized expression string. Parsing an
+ * expression with antlr is expensive compared to a simple map lookup and most clients are sending the same
+ * few expressions again and again so the parsed trees are shared between requests. The trees are never
+ * modified after they have been built so they can safely be used by several threads at the same time. The
+ * trees are holding references to the attribute definitions of the resource type so the cache is cleared if
+ * the schemas of the resource type are changed<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+public class FilterNodeCache
+{
+
+  /**
+   * the default number of expressions that will be cached per resource type
+   */
+  public static final int DEFAULT_MAX_SIZE = 500;
+
+  /**
+   * the least recently used entries are removed if the cache exceeds its maximum size
+   */
+  private final Map<CacheKey, FilterNode> cache;
+
+  /**
+   * the maximum number of entries in this cache. A value of 0 or less disables the cache
+   */
+  @Getter
+  private volatile int maxSize;
+
+  /**
+   * number of lookups that were answered from the cache
+   */
+  private final AtomicLong hits = new AtomicLong();
+
+  /**
+   * number of lookups that needed to parse the expression
+   */
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * number of entries that were removed because the cache exceeded its maximum size
+   */
+  private final AtomicLong evictions = new AtomicLong();
+
+  /**
+   * the resource type whose expressions are cached. If null the cache is never cleared automatically
+   */
+  private final ResourceType resourceType;
+
+  /**
+   * the versions of the schemas of {@link #resourceType} from which the currently cached trees were parsed
+   */
+  private SchemaVersion schemaVersion;
+
+  public FilterNodeCache()
+  {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  public FilterNodeCache(int maxSize)
+  {
+    this(null, maxSize);
+  }
+
+  public FilterNodeCache(ResourceType resourceType)
+  {
+    this(resourceType, DEFAULT_MAX_SIZE);
+  }
+
+  public FilterNodeCache(ResourceType resourceType, int maxSize)
+  {
+    this.resourceType = resourceType;
+    this.maxSize = maxSize;
+    this.cache = new LinkedHashMap<CacheKey, FilterNode>(16, 0.75f, true)
+    {
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<CacheKey, FilterNode> eldest)
+      {
+        boolean remove = size() > FilterNodeCache.this.maxSize;
+        if (remove)
+        {
+          evictions.incrementAndGet();
+        }
+        return remove;
+      }
+    };
+  }
+
+  /**
+   * gets the parsed filter expression from the cache or parses and caches it if not present
+   *
+   * @param filter the filter expression e.g. 'userName eq "chuck"'
+   * @param parser the parser that is used if the expression was not cached yet
+   * @return the parsed filter tree
+   */
+  public FilterNode getFilter(String filter, Function<String, FilterNode> parser)
+  {
+    return get(ExpressionType.FILTER, filter, parser);
+  }
+
+  /**
+   * gets the parsed patch path expression from the cache or parses and caches it if not present
+   *
+   * @param path the patch path expression e.g. 'members[value eq "123456"]'
+   * @param parser the parser that is used if the expression was not cached yet
+   * @return the parsed patch path
+   */
+  public AttributePathRoot getPatchPath(String path, Function<String, AttributePathRoot> parser)
+  {
+    return (AttributePathRoot)get(ExpressionType.PATCH_PATH, path, parser::apply);
+  }
+
+  /**
+   * gets the parsed expression from the cache or parses and caches it if not present. The parser is called
+   * outside of the lock so that a slow parse run will not block other threads. If an expression cannot be
+   * parsed the exception of the parser is propagated and nothing is cached. A tree that was parsed while the
+   * schemas of the resource type were changed is not cached
+   */
+  private FilterNode get(ExpressionType expressionType, String expression, Function<String, FilterNode> parser)
+  {
+    if (maxSize <= 0)
+    {
+      misses.incrementAndGet();
+      return parser.apply(expression);
+    }
+    CacheKey cacheKey = new CacheKey(expressionType, normalize(expression));
+    FilterNode filterNode;
+    SchemaVersion currentVersion;
+    synchronized (cache)
+    {
+      currentVersion = getCurrentSchemaVersion();
+      filterNode = cache.get(cacheKey);
+    }
+    if (filterNode != null)
+    {
+      hits.incrementAndGet();
+      return filterNode;
+    }
+    misses.incrementAndGet();
+    FilterNode parsedNode = parser.apply(expression);
+    synchronized (cache)
+    {
+      if (currentVersion != getCurrentSchemaVersion())
+      {
+        return parsedNode;
+      }
+      FilterNode concurrentlyParsed = cache.putIfAbsent(cacheKey, parsedNode);
+      return concurrentlyParsed == null ? parsedNode : concurrentlyParsed;
+    }
+  }
+
+  /**
+   * clears the cache if the schemas of the resource type have changed since the cached trees were parsed. Must
+   * be called while holding the lock on {@link #cache}
+   *
+   * @return the versions of the schemas from which the currently cached trees were parsed
+   */
+  private SchemaVersion getCurrentSchemaVersion()
+  {
+    if (resourceType == null)
+    {
+      return null;
+    }
+    if (schemaVersion == null || schemaVersion.isOutdated())
+    {
+      cache.clear();
+      schemaVersion = new SchemaVersion(resourceType);
+    }
+    return schemaVersion;
+  }
+
+  /**
+   * normalizes the given expression by removing leading and trailing whitespaces and by reducing any sequence
+   * of whitespaces outside of string literals into a single space. The content of string literals is never
+   * modified because it is relevant for the comparison
+   *
+   * @param expression the expression to normalize
+   * @return the normalized expression that is used as cache key
+   */
+  protected static String normalize(String expression)
+  {
+    String stripped = expression.trim();
+    StringBuilder normalized = new StringBuilder(stripped.length());
+    boolean inLiteral = false;
+    boolean lastWasWhitespace = false;
+    for ( int i = 0 ; i < stripped.length() ; i++ )
+    {
+      char c = stripped.charAt(i);
+      if (inLiteral)
+      {
+        normalized.append(c);
+        if (c == '\\' && i + 1 < stripped.length())
+        {
+          normalized.append(stripped.charAt(++i));
+        }
+        else if (c == '"')
+        {
+          inLiteral = false;
+        }
+        continue;
+      }
+      if (Character.isWhitespace(c))
+      {
+        if (!lastWasWhitespace)
+        {
+          normalized.append(' ');
+        }
+        lastWasWhitespace = true;
+        continue;
+      }
+      lastWasWhitespace = false;
+      inLiteral = c == '"';
+      normalized.append(c);
+    }
+    return normalized.toString();
+  }
+
+  /**
+   * changes the maximum number of cached entries. If the new value is smaller than the current number of
+   * entries the cache is cleared. A value of 0 or less disables the cache
+   */
+  public void setMaxSize(int maxSize)
+  {
+    this.maxSize = maxSize;
+    synchronized (cache)
+    {
+      if (cache.size() > maxSize)
+      {
+        evictions.addAndGet(cache.size());
+        cache.clear();
+      }
+    }
+  }
+
+  /**
+   * removes all entries from the cache
+   */
+  public void clear()
+  {
+    synchronized (cache)
+    {
+      cache.clear();
+    }
+  }
+
+  /**
+   * @return the current number of cached expressions
+   */
+  public int getSize()
+  {
+    synchronized (cache)
+    {
+      return cache.size();
+    }
+  }
+
+  /**
+   * @return the number of lookups that were answered from the cache
+   */
+  public long getHits()
+  {
+    return hits.get();
+  }
+
+  /**
+   * @return the number of lookups that needed to parse the expression
+   */
+  public long getMisses()
+  {
+    return misses.get();
+  }
+
+  /**
+   * @return the number of entries that were removed because the cache exceeded its maximum size
+   */
+  public long getEvictions()
+  {
+    return evictions.get();
+  }
+
+  /**
+   * the same string may be parsed into different trees depending on whether it is a filter or a patch path
+   */
+  private enum ExpressionType
+  {
+    FILTER, PATCH_PATH
+  }
+
+  /**
+   * the key of a cached expression
+   */
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static class CacheKey
+  {
+
+    private final ExpressionType expressionType;
+
+    private final String expression;
+  }
+}
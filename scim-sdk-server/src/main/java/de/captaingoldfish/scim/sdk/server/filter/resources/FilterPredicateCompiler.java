@@ -0,0 +1,492 @@
+package de.captaingoldfish.scim.sdk.server.filter.resources;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import de.captaingoldfish.scim.sdk.common.constants.enums.Comparator;
+import de.captaingoldfish.scim.sdk.common.exceptions.InternalServerException;
+import de.captaingoldfish.scim.sdk.common.resources.ResourceNode;
+import de.captaingoldfish.scim.sdk.common.schemas.SchemaAttribute;
+import de.captaingoldfish.scim.sdk.common.utils.TimeUtils;
+import de.captaingoldfish.scim.sdk.server.filter.AndExpressionNode;
+import de.captaingoldfish.scim.sdk.server.filter.AttributeExpressionLeaf;
+import de.captaingoldfish.scim.sdk.server.filter.AttributePathRoot;
+import de.captaingoldfish.scim.sdk.server.filter.FilterNode;
+import de.captaingoldfish.scim.sdk.server.filter.NotExpressionNode;
+import de.captaingoldfish.scim.sdk.server.filter.OrExpressionNode;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+
+/**
+ * compiles a {@link FilterNode} tree into a {@link Predicate} that can be executed on resources. All
+ * information that is needed to evaluate the filter is resolved once during compilation: the path to the
+ * attribute within the resource, the comparison operation including its case-exactness and the converted
+ * comparison value. Evaluating the predicate on a resource does therefore only need a few field lookups and a
+ * comparison instead of walking the filter tree again for each resource<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class FilterPredicateCompiler
+{
+
+  /**
+   * compiles the given filter tree into a predicate that tells us if a resource matches the filter
+   *
+   * @param filterNode the filter expression to compile
+   * @return the predicate that evaluates the filter expression on a resource
+   */
+  public static Predicate<ResourceNode> compile(FilterNode filterNode)
+  {
+    Predicate<JsonNode> predicate = compileNode(filterNode);
+    return predicate::test;
+  }
+
+  /**
+   * compiles the given leaf into a predicate that checks a simple attribute node. This might be a json array
+   * with primitives or a json primitive
+   *
+   * @param attributeExpressionLeaf the expression leaf that describes the node
+   * @return the predicate that checks if an attribute node matches the expression
+   */
+  public static Predicate<JsonNode> compileValueMatcher(AttributeExpressionLeaf attributeExpressionLeaf)
+  {
+    switch (attributeExpressionLeaf.getType())
+    {
+      case BOOLEAN:
+        return compileBooleanMatcher(attributeExpressionLeaf);
+      case INTEGER:
+      case DECIMAL:
+        return compileNumberMatcher(attributeExpressionLeaf.getNumberValue().orElse(null),
+                                    attributeExpressionLeaf.getComparator());
+      case DATE_TIME:
+        return compileDateTimeMatcher(attributeExpressionLeaf);
+      default:
+        return compileStringMatcher(attributeExpressionLeaf);
+    }
+  }
+
+  /**
+   * checks the current filter node and compiles it or does a recursive call to itself
+   */
+  private static Predicate<JsonNode> compileNode(FilterNode filterNode)
+  {
+    if (filterNode instanceof AndExpressionNode)
+    {
+      AndExpressionNode andExpressionNode = (AndExpressionNode)filterNode;
+      return compileNode(andExpressionNode.getLeftNode()).and(compileNode(andExpressionNode.getRightNode()));
+    }
+    else if (filterNode instanceof OrExpressionNode)
+    {
+      OrExpressionNode orExpressionNode = (OrExpressionNode)filterNode;
+      return compileNode(orExpressionNode.getLeftNode()).or(compileNode(orExpressionNode.getRightNode()));
+    }
+    else if (filterNode instanceof NotExpressionNode)
+    {
+      NotExpressionNode notExpressionNode = (NotExpressionNode)filterNode;
+      return compileNode(notExpressionNode.getRightNode()).negate();
+    }
+    else if (filterNode instanceof AttributeExpressionLeaf)
+    {
+      return compileAttributeExpressionLeaf((AttributeExpressionLeaf)filterNode);
+    }
+    else if (filterNode instanceof AttributePathRoot && ((AttributePathRoot)filterNode).getChild() != null)
+    {
+      return compileNode(((AttributePathRoot)filterNode).getChild());
+    }
+    return resource -> false;
+  }
+
+  /**
+   * compiles a leaf node so a direct expression. The attribute path is resolved here so that the evaluation
+   * only needs to extract the nodes by their names
+   */
+  private static Predicate<JsonNode> compileAttributeExpressionLeaf(AttributeExpressionLeaf attributeExpressionLeaf)
+  {
+    final SchemaAttribute schemaAttribute = attributeExpressionLeaf.getSchemaAttribute();
+    final String attributeName = schemaAttribute.getName();
+    final String extensionUri = attributeExpressionLeaf.isMainSchemaNode() ? null
+      : schemaAttribute.getSchema().getId().get();
+    final Predicate<JsonNode> valueMatcher = attributeExpressionLeaf.getValueMatcher();
+
+    if (attributeExpressionLeaf.getShortName().indexOf('.') == -1)
+    {
+      return resource -> valueMatcher.test(getNode(resource, extensionUri, attributeName));
+    }
+
+    final String parentName = schemaAttribute.getParent().getName();
+    return resource -> {
+      JsonNode complexNode = getNode(resource, extensionUri, parentName);
+      if (complexNode == null)
+      {
+        return valueMatcher.test(null);
+      }
+      if (complexNode.isArray())
+      {
+        for ( JsonNode complexType : complexNode )
+        {
+          if (valueMatcher.test(complexType.get(attributeName)))
+          {
+            return true;
+          }
+        }
+        return false;
+      }
+      return valueMatcher.test(complexNode.get(attributeName));
+    };
+  }
+
+  /**
+   * retrieves the attribute from either the main schema or an schema extension
+   *
+   * @param resource the json document from which the attribute should be extracted
+   * @param extensionUri the id of the extension schema or null if the attribute belongs to the main schema
+   * @param attributeName the name of the attribute
+   * @return the extracted json node or null if not present
+   */
+  private static JsonNode getNode(JsonNode resource, String extensionUri, String attributeName)
+  {
+    if (extensionUri == null)
+    {
+      return resource.get(attributeName);
+    }
+    JsonNode extensionNode = resource.get(extensionUri);
+    return extensionNode == null ? null : extensionNode.get(attributeName);
+  }
+
+  /**
+   * compiles a matcher for a simple attribute node (json array with boolean or json boolean)
+   */
+  private static Predicate<JsonNode> compileBooleanMatcher(AttributeExpressionLeaf attributeExpressionLeaf)
+  {
+    final Boolean boolValue = attributeExpressionLeaf.getBooleanValue().orElse(null);
+    final boolean multiValued = attributeExpressionLeaf.isMultiValued();
+    final Predicate<Boolean> comparison;
+    final Comparator comparator = attributeExpressionLeaf.getComparator();
+    switch (comparator)
+    {
+      case PR:
+        comparison = booleanValue -> booleanValue != null;
+        break;
+      case EQ:
+        comparison = booleanValue -> booleanValue == boolValue;
+        break;
+      case NE:
+        comparison = booleanValue -> booleanValue != boolValue;
+        break;
+      default:
+        throw new InternalServerException("Illegal comparator '" + comparator + "' for boolean type", null, null);
+    }
+    return attributeNode -> {
+      if (attributeNode != null && attributeNode.isArray())
+      {
+        for ( JsonNode jsonNode : attributeNode )
+        {
+          if (comparison.test(jsonNode == null || jsonNode.isNull() ? null : jsonNode.asBoolean()))
+          {
+            return true;
+          }
+        }
+        return false;
+      }
+      Boolean booleanValue = attributeNode == null || attributeNode.isNull() ? null : attributeNode.booleanValue();
+      // if the attribute is a simple node and not present expect it to be false as default value
+      if (booleanValue == null && !multiValued)
+      {
+        booleanValue = false;
+      }
+      return comparison.test(booleanValue);
+    };
+  }
+
+  /**
+   * compiles a matcher that compares strings based on the given filter {@link Comparator}
+   */
+  private static Predicate<JsonNode> compileStringMatcher(AttributeExpressionLeaf attributeExpressionLeaf)
+  {
+    final Comparator comparator = attributeExpressionLeaf.getComparator();
+    if (Comparator.PR.equals(comparator))
+    {
+      return jsonNode -> jsonNode != null && !jsonNode.isNull();
+    }
+    final String value = attributeExpressionLeaf.getValue();
+    final boolean caseExact = attributeExpressionLeaf.getSchemaAttribute().isCaseExact();
+    final BiPredicate<String, String> comparison;
+    switch (comparator)
+    {
+      case EQ:
+      case NE:
+        comparison = caseExact ? StringUtils::equals : StringUtils::equalsIgnoreCase;
+        break;
+      case EW:
+        comparison = caseExact ? StringUtils::endsWith : StringUtils::endsWithIgnoreCase;
+        break;
+      case SW:
+        comparison = caseExact ? StringUtils::startsWith : StringUtils::startsWithIgnoreCase;
+        break;
+      case CO:
+        comparison = caseExact ? StringUtils::contains : StringUtils::containsIgnoreCase;
+        break;
+      case LT:
+        comparison = caseExact ? (s, v) -> StringUtils.compare(s, v) < 0
+          : (s, v) -> StringUtils.compareIgnoreCase(s, v) < 0;
+        break;
+      case LE:
+        comparison = caseExact ? (s, v) -> StringUtils.compare(s, v) <= 0
+          : (s, v) -> StringUtils.compareIgnoreCase(s, v) <= 0;
+        break;
+      case GT:
+        comparison = caseExact ? (s, v) -> StringUtils.compare(s, v) > 0
+          : (s, v) -> StringUtils.compareIgnoreCase(s, v) > 0;
+        break;
+      case GE:
+        comparison = caseExact ? (s, v) -> StringUtils.compare(s, v) >= 0
+          : (s, v) -> StringUtils.compareIgnoreCase(s, v) >= 0;
+        break;
+      default:
+        throw new InternalServerException("Illegal comparator '" + comparator + "' for attribute type string", null,
+                                          null);
+    }
+    Predicate<JsonNode> matcher = jsonNode -> evaluateString(jsonNode, s -> comparison.test(s, value));
+    return Comparator.NE.equals(comparator) ? matcher.negate() : matcher;
+  }
+
+  /**
+   * evaluates if the given json string node does apply to the given comparison operation (this might also be an
+   * array of json primitive strings)
+   */
+  private static boolean evaluateString(JsonNode jsonNode, Predicate<String> comparison)
+  {
+    if (jsonNode != null && jsonNode.isArray())
+    {
+      for ( JsonNode val : jsonNode )
+      {
+        if (comparison.test(val == null || val.isNull() ? null : val.textValue()))
+        {
+          return true;
+        }
+      }
+      return false;
+    }
+    return comparison.test(jsonNode == null || jsonNode.isNull() ? null : jsonNode.textValue());
+  }
+
+  /**
+   * compiles a matcher for dateTime nodes that should be primitive json strings or arrays with primitive
+   * strings applying to the dateTime syntax. The comparison value is converted only once into epoch millis
+   */
+  private static Predicate<JsonNode> compileDateTimeMatcher(AttributeExpressionLeaf attributeExpressionLeaf)
+  {
+    final Comparator comparator = attributeExpressionLeaf.getComparator();
+    if (Comparator.PR.equals(comparator))
+    {
+      return jsonNode -> jsonNode != null && !jsonNode.isNull();
+    }
+    final boolean compareWithNull = attributeExpressionLeaf.isNull();
+    final Predicate<String> dateTimeComparison;
+    switch (comparator)
+    {
+      case EQ:
+      case NE:
+      case GT:
+      case GE:
+      case LT:
+      case LE:
+        final Long compareMillis = attributeExpressionLeaf.getDateTime().map(Instant::toEpochMilli).orElse(null);
+        final Function<Integer, Boolean> evaluateComparison = getNumberComparison(comparator);
+        dateTimeComparison = dateTimeString -> {
+          if (compareMillis == null)
+          {
+            return false;
+          }
+          long dateTimeMillis = TimeUtils.parseDateTime(dateTimeString).toEpochMilli();
+          return evaluateComparison.apply(Long.compare(dateTimeMillis, compareMillis));
+        };
+        break;
+      default:
+        // the string comparison is always executed on the whole node
+        dateTimeComparison = null;
+    }
+    final Predicate<JsonNode> stringMatcher = dateTimeComparison == null
+      ? compileStringMatcher(attributeExpressionLeaf) : null;
+    return jsonNode -> {
+      if (jsonNode != null && jsonNode.isArray())
+      {
+        for ( JsonNode dateNode : jsonNode )
+        {
+          if (matchesDateTime(dateNode.isNull() ? null : dateNode.textValue(),
+                              jsonNode,
+                              compareWithNull,
+                              dateTimeComparison,
+                              stringMatcher))
+          {
+            return true;
+          }
+        }
+        return false;
+      }
+      return matchesDateTime(jsonNode == null ? null : jsonNode.textValue(),
+                             jsonNode,
+                             compareWithNull,
+                             dateTimeComparison,
+                             stringMatcher);
+    };
+  }
+
+  /**
+   * checks a single dateTime value of an attribute node
+   *
+   * @param dateTimeString the single dateTime value
+   * @param jsonNode the whole attribute node that is used for string comparisons
+   * @param compareWithNull if the filter value is null
+   * @param dateTimeComparison the comparison of the dateTime values or null if a string comparison is used
+   * @param stringMatcher the string matcher if dateTimeComparison is null
+   * @return true if the value matches, false else
+   */
+  private static boolean matchesDateTime(String dateTimeString,
+                                         JsonNode jsonNode,
+                                         boolean compareWithNull,
+                                         Predicate<String> dateTimeComparison,
+                                         Predicate<JsonNode> stringMatcher)
+  {
+    if (dateTimeString == null)
+    {
+      return compareWithNull;
+    }
+    if (dateTimeComparison != null)
+    {
+      return dateTimeComparison.test(dateTimeString);
+    }
+    return stringMatcher.test(jsonNode);
+  }
+
+  /**
+   * compiles a matcher that checks if a number json node matches the given filter expression. This might be a
+   * simple json number or an array of json numbers
+   *
+   * @param compareNumber the number from the filter expression
+   * @param comparator the comparator operation
+   */
+  private static Predicate<JsonNode> compileNumberMatcher(BigDecimal compareNumber, Comparator comparator)
+  {
+    final String compareNumberString = String.valueOf(compareNumber);
+    switch (comparator)
+    {
+      case PR:
+        return number -> number != null && !number.isNull();
+      case EQ:
+      case NE:
+      case LT:
+      case LE:
+      case GT:
+      case GE:
+        // the not-equal operator is evaluated as negated equal operator on all values
+        final Function<Integer, Boolean> evaluateComparison = getNumberComparison(Comparator.NE.equals(comparator)
+          ? Comparator.EQ : comparator);
+        final Predicate<BigDecimal> compareDecimal = bigDecimal -> {
+          if (bigDecimal == null || compareNumber == null)
+          {
+            return bigDecimal == compareNumber;
+          }
+          return evaluateComparison.apply(bigDecimal.compareTo(compareNumber));
+        };
+        Predicate<JsonNode> matcher = number -> evaluateNumber(number, compareDecimal);
+        return Comparator.NE.equals(comparator) ? matcher.negate() : matcher;
+      case SW:
+        return number -> evaluateNumberString(number, s -> s.startsWith(compareNumberString));
+      case EW:
+        return number -> evaluateNumberString(number, s -> s.endsWith(compareNumberString));
+      case CO:
+        return number -> evaluateNumberString(number, s -> s.contains(compareNumberString));
+      default:
+        throw new InternalServerException("Illegal comparator '" + comparator
+                                          + "' for attribute type number or dateTime", null, null);
+    }
+  }
+
+  /**
+   * translates the given comparator into a check of the result of a {@link java.lang.Comparable#compareTo}
+   * call
+   */
+  private static Function<Integer, Boolean> getNumberComparison(Comparator comparator)
+  {
+    switch (comparator)
+    {
+      case EQ:
+        return comparison -> comparison == 0;
+      case NE:
+        return comparison -> comparison != 0;
+      case LT:
+        return comparison -> comparison < 0;
+      case LE:
+        return comparison -> comparison <= 0;
+      case GT:
+        return comparison -> comparison > 0;
+      case GE:
+        return comparison -> comparison >= 0;
+      default:
+        throw new InternalServerException("Illegal comparator '" + comparator
+                                          + "' for attribute type number or dateTime", null, null);
+    }
+  }
+
+  /**
+   * evaluates that the given number node applies to the given comparison operation
+   *
+   * @param numberNode the number node that is either a primitive json number node or an array of numbers
+   * @param comparison the comparison operation to which at least one of the numbers of the json node must apply
+   * @return true if the json node applies to the given comparison operation, false else
+   */
+  private static boolean evaluateNumber(JsonNode numberNode, Predicate<BigDecimal> comparison)
+  {
+    if (numberNode != null && numberNode.isArray())
+    {
+      for ( JsonNode jsonNode : numberNode )
+      {
+        if (comparison.test(jsonNode.decimalValue()))
+        {
+          return true;
+        }
+      }
+      return false;
+    }
+    return comparison.test(numberNode == null ? null : numberNode.decimalValue());
+  }
+
+  /**
+   * evaluates the string representations of the given number node with the given comparison
+   *
+   * @param numberNode a number node which is either a simple json node or a json array of numbers
+   * @param comparison the comparison operation to which at least one of the numbers of the json node must apply
+   * @return true if the json node applies to the given comparison operation, false else
+   */
+  private static boolean evaluateNumberString(JsonNode numberNode, Predicate<String> comparison)
+  {
+    if (numberNode == null)
+    {
+      return false;
+    }
+    if (numberNode.isArray())
+    {
+      for ( JsonNode jsonNode : numberNode )
+      {
+        if (comparison.test(jsonNode.decimalValue().toString()))
+        {
+          return true;
+        }
+      }
+      return false;
+    }
+    return comparison.test(numberNode.decimalValue().toString());
+  }
+}
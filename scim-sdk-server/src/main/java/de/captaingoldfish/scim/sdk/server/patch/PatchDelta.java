@@ -0,0 +1,71 @@
+package de.captaingoldfish.scim.sdk.server.patch;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import de.captaingoldfish.scim.sdk.common.constants.enums.PatchOp;
+import de.captaingoldfish.scim.sdk.common.schemas.SchemaAttribute;
+import de.captaingoldfish.scim.sdk.server.filter.AttributePathRoot;
+import de.captaingoldfish.scim.sdk.server.filter.FilterNode;
+import lombok.Getter;
+
+
+/**
+ * a single validated patch operation that can be applied to a stored resource without loading the resource
+ * first. E.g. the operation {@code {"op": "add", "path": "members", "value": [{"value": "123456"}]}} is
+ * represented by a delta with the operation {@link PatchOp#ADD}, the attribute definition of "members" and the
+ * validated member as value<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+@Getter
+public class PatchDelta
+{
+
+  /**
+   * the operation that should be applied
+   */
+  private final PatchOp op;
+
+  /**
+   * the parsed path expression of the operation
+   */
+  private final AttributePathRoot path;
+
+  /**
+   * the definition of the attribute that is the target of the operation. If the path references a
+   * sub-attribute e.g. "name.givenName" or "emails[type eq \"work\"].value" this is the definition of the
+   * sub-attribute
+   */
+  private final SchemaAttribute schemaAttribute;
+
+  /**
+   * the values that were validated against {@link #schemaAttribute}. Each value of a multivalued attribute is a
+   * separate entry within this list. The list is empty for remove operations
+   */
+  private final List<JsonNode> values;
+
+  PatchDelta(PatchOp op, AttributePathRoot path, SchemaAttribute schemaAttribute, List<JsonNode> values)
+  {
+    this.op = op;
+    this.path = path;
+    this.schemaAttribute = schemaAttribute;
+    this.values = Collections.unmodifiableList(values);
+  }
+
+  /**
+   * the value filter of the path expression e.g. {@code value eq "123456"} in the path
+   * {@code members[value eq "123456"]}. The backend must apply the operation only on the values of the
+   * multivalued attribute that are matching this filter
+   *
+   * @return the value filter or null if the path does not contain a value filter
+   */
+  public FilterNode getFilter()
+  {
+    return path.getChild();
+  }
+}
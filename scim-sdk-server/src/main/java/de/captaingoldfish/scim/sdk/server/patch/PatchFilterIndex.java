@@ -0,0 +1,212 @@
+package de.captaingoldfish.scim.sdk.server.patch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import de.captaingoldfish.scim.sdk.common.constants.enums.Comparator;
+import de.captaingoldfish.scim.sdk.common.constants.enums.Type;
+import de.captaingoldfish.scim.sdk.common.schemas.SchemaAttribute;
+import de.captaingoldfish.scim.sdk.server.filter.AttributeExpressionLeaf;
+import de.captaingoldfish.scim.sdk.server.filter.AttributePathRoot;
+
+
+/**
+ * a transient hash index over the complex nodes of a multivalued complex attribute that is used within a
+ * single patch request. Patch requests that remove many values from a large multivalued attribute e.g.
+ *
+ * <pre>
+ *   {"op": "remove", "path": "members[value eq \"123456\"]"}
+ * </pre>
+ *
+ * would otherwise evaluate the filter on each node of the attribute for each operation. The index maps the
+ * values of the filtered sub-attribute to the nodes that contain them so that each operation only needs a
+ * single lookup. Only equality filters on a single string or reference sub-attribute are supported. The
+ * comparison honors the caseExact-value of the sub-attribute exactly as the filter evaluation would do<br>
+ * <br>
+ * The index is only valid as long as the indexed array is modified exclusively by this index. It must be
+ * cleared if any other operation was executed on the resource<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+class PatchFilterIndex
+{
+
+  /**
+   * the multivalued complex attribute that is currently indexed
+   */
+  private ArrayNode multiValued;
+
+  /**
+   * the sub-attribute whose values are indexed
+   */
+  private SchemaAttribute filterAttribute;
+
+  /**
+   * the indexed nodes in the order of {@link #multiValued} mapped by the values of {@link #filterAttribute}
+   */
+  private Map<String, List<ObjectNode>> indexedNodes;
+
+  /**
+   * the size of {@link #multiValued} after the last modification by this index
+   */
+  private int expectedSize;
+
+  /**
+   * checks if the nodes that are matching the filter of the given path can be resolved by this index
+   *
+   * @param path the path of a patch operation
+   * @return true if the path has an equality filter on a single string or reference sub-attribute and does not
+   *         reference a sub-attribute of the matching nodes
+   */
+  static boolean isIndexable(AttributePathRoot path)
+  {
+    if (path.getSubAttributeName() != null || !(path.getChild() instanceof AttributeExpressionLeaf))
+    {
+      return false;
+    }
+    AttributeExpressionLeaf expressionLeaf = (AttributeExpressionLeaf)path.getChild();
+    if (!Comparator.EQ.equals(expressionLeaf.getComparator()) || expressionLeaf.getValue() == null)
+    {
+      return false;
+    }
+    Type type = expressionLeaf.getSchemaAttribute().getType();
+    return Type.STRING.equals(type) || Type.REFERENCE.equals(type);
+  }
+
+  /**
+   * removes all nodes from the given array that are matching the filter of the given path. The path must be
+   * accepted by {@link #isIndexable(AttributePathRoot)}
+   *
+   * @param multiValued the multivalued complex attribute from which the nodes should be removed
+   * @param path the path with the filter that selects the nodes to remove
+   * @return true if at least one node was removed, false else
+   */
+  boolean removeMatchingNodes(ArrayNode multiValued, AttributePathRoot path)
+  {
+    AttributeExpressionLeaf expressionLeaf = (AttributeExpressionLeaf)path.getChild();
+    SchemaAttribute leafAttribute = expressionLeaf.getSchemaAttribute();
+    if (this.multiValued != multiValued || this.filterAttribute != leafAttribute
+        || this.expectedSize != multiValued.size())
+    {
+      buildIndex(multiValued, leafAttribute);
+    }
+    List<ObjectNode> matchingNodes = indexedNodes.remove(toKey(expressionLeaf.getValue(),
+                                                               leafAttribute.isCaseExact()));
+    if (matchingNodes == null)
+    {
+      return false;
+    }
+    boolean changeWasMade = false;
+    for ( ObjectNode matchingNode : matchingNodes )
+    {
+      // a node with a multivalued sub-attribute might have been removed already by another of its values
+      changeWasMade = removeNode(multiValued, matchingNode) || changeWasMade;
+    }
+    expectedSize = multiValued.size();
+    return changeWasMade;
+  }
+
+  /**
+   * discards the current index
+   */
+  void clear()
+  {
+    multiValued = null;
+    filterAttribute = null;
+    indexedNodes = null;
+    expectedSize = 0;
+  }
+
+  /**
+   * indexes the nodes of the given array by the values of the given sub-attribute
+   */
+  private void buildIndex(ArrayNode multiValued, SchemaAttribute filterAttribute)
+  {
+    this.multiValued = multiValued;
+    this.filterAttribute = filterAttribute;
+    this.indexedNodes = new HashMap<>();
+    this.expectedSize = multiValued.size();
+    final boolean caseExact = filterAttribute.isCaseExact();
+    for ( JsonNode complexNode : multiValued )
+    {
+      if (!complexNode.isObject())
+      {
+        continue;
+      }
+      JsonNode valueNode = complexNode.get(filterAttribute.getName());
+      if (valueNode != null && valueNode.isArray())
+      {
+        for ( JsonNode value : valueNode )
+        {
+          addToIndex(value, (ObjectNode)complexNode, caseExact);
+        }
+      }
+      else
+      {
+        addToIndex(valueNode, (ObjectNode)complexNode, caseExact);
+      }
+    }
+  }
+
+  /**
+   * adds the given complex node under the given value to the index if the value is a string
+   */
+  private void addToIndex(JsonNode valueNode, ObjectNode complexNode, boolean caseExact)
+  {
+    if (valueNode == null || !valueNode.isTextual())
+    {
+      return;
+    }
+    List<ObjectNode> nodes = indexedNodes.computeIfAbsent(toKey(valueNode.textValue(), caseExact),
+                                                          key -> new ArrayList<>(1));
+    if (nodes.isEmpty() || nodes.get(nodes.size() - 1) != complexNode)
+    {
+      nodes.add(complexNode);
+    }
+  }
+
+  /**
+   * removes the given node from the given array by its identity
+   *
+   * @return true if the node was found and removed, false else
+   */
+  private static boolean removeNode(ArrayNode multiValued, ObjectNode node)
+  {
+    for ( int i = 0 ; i < multiValued.size() ; i++ )
+    {
+      if (multiValued.get(i) == node)
+      {
+        multiValued.remove(i);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * creates the key of a value. If the attribute is not caseExact each character is mapped in the same way as
+   * {@link String#equalsIgnoreCase(String)} compares them so that two values get the same key if and only if
+   * they are equal ignoring their case
+   */
+  static String toKey(String value, boolean caseExact)
+  {
+    if (caseExact)
+    {
+      return value;
+    }
+    char[] characters = value.toCharArray();
+    for ( int i = 0 ; i < characters.length ; i++ )
+    {
+      characters[i] = Character.toLowerCase(Character.toUpperCase(characters[i]));
+    }
+    return new String(characters);
+  }
+}
@@ -1,6 +1,7 @@
 package de.captaingoldfish.scim.sdk.server.patch;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -55,6 +56,12 @@ public class PatchHandler
   @Getter
   private boolean changedResource;
 
+  /**
+   * resolves remove operations with simple equality filters on multivalued complex attributes with a hash
+   * lookup. The index lives only as long as this request is processed
+   */
+  private final PatchFilterIndex filterIndex = new PatchFilterIndex();
+
   public PatchHandler(ResourceType resourceType)
   {
     this.requestedAttributes = new ScimObjectNode();
@@ -71,15 +78,120 @@ public class PatchHandler
   public <T extends ResourceNode> T patchResource(T resource, PatchOpRequest patchOpRequest)
   {
     AtomicBoolean changeWasMade = new AtomicBoolean(false);
-    for ( PatchRequestOperation operation : patchOpRequest.getOperations() )
+    List<PatchRequestOperation> operations = patchOpRequest.getOperations();
+    int index = 0;
+    while (index < operations.size())
     {
-      changeWasMade.weakCompareAndSet(false, handlePatchOp(resource, operation));
+      PatchRequestOperation operation = operations.get(index);
+      int numberOfOperations = getNumberOfMergeableOperations(resource, operations, index);
+      List<String> values;
+      if (numberOfOperations == 1)
+      {
+        values = operation.getValues();
+      }
+      else
+      {
+        values = new ArrayList<>();
+        for ( PatchRequestOperation mergedOperation : operations.subList(index, index + numberOfOperations) )
+        {
+          values.addAll(mergedOperation.getValues());
+        }
+      }
+      changeWasMade.weakCompareAndSet(false, handlePatchOp(resource, operation, values));
+      index += numberOfOperations;
     }
     setLastModified(resource, changeWasMade);
     changedResource = changeWasMade.get();
     return resource;
   }
 
+  /**
+   * clients like Azure AD send patch requests with many consecutive add operations on the same multivalued
+   * attribute e.g. one operation for each new member of a group. Such operations do nothing else than
+   * appending their values to the attribute so they are executed as a single operation with all their values
+   * to prevent walking through the resource and resolving the path again for each operation
+   *
+   * @param resource the resource that is patched
+   * @param operations the operations of the patch request
+   * @param index the index of the current operation
+   * @return the number of consecutive operations starting at the given index that can be executed as a single
+   *         operation. This is 1 if the current operation cannot be merged with its successors
+   */
+  private int getNumberOfMergeableOperations(ResourceNode resource,
+                                             List<PatchRequestOperation> operations,
+                                             int index)
+  {
+    PatchRequestOperation operation = operations.get(index);
+    if (!isMergeableOperation(operation))
+    {
+      return 1;
+    }
+    Optional<String> path = operation.getPath();
+    int end = index + 1;
+    while (end < operations.size() && isMergeableOperation(operations.get(end))
+           && path.equals(operations.get(end).getPath()))
+    {
+      end++;
+    }
+    if (end - index == 1)
+    {
+      return 1;
+    }
+    PatchTargetHandler patchTargetHandler = new PatchTargetHandler(resourceType, PatchOp.ADD, path.get());
+    return patchTargetHandler.isMultiValuedAppend(resource) ? end - index : 1;
+  }
+
+  /**
+   * @return true if the given operation is an add operation with a path and at least one value
+   */
+  private boolean isMergeableOperation(PatchRequestOperation operation)
+  {
+    if (!PatchOp.ADD.equals(operation.getOp()) || !operation.getPath().isPresent())
+    {
+      return false;
+    }
+    List<String> values = operation.getValues();
+    return values != null && !values.isEmpty();
+  }
+
+  /**
+   * validates the operations of the given request and resolves them into deltas that can be applied by the
+   * backend without loading the resource that should be patched
+   *
+   * @param patchOpRequest the patch operation that should be executed on the resource
+   * @return the validated deltas or an empty if at least one operation cannot be resolved without the current
+   *         resource. This is the case for operations without a path, for operations on immutable attributes, for
+   *         remove and replace operations on required attributes and for operations that might change the
+   *         "schemas" attribute of the resource
+   */
+  public Optional<List<PatchDelta>> getPatchDeltas(PatchOpRequest patchOpRequest)
+  {
+    List<PatchDelta> patchDeltas = new ArrayList<>();
+    for ( PatchRequestOperation operation : patchOpRequest.getOperations() )
+    {
+      Optional<String> target = operation.getPath();
+      if (!target.isPresent())
+      {
+        return Optional.empty();
+      }
+      List<String> values = operation.getValues();
+      if (!operation.getOp().equals(PatchOp.REMOVE) && (values == null || values.isEmpty()))
+      {
+        throw new BadRequestException("no value attributes present in patch operation", null,
+                                      ScimType.RFC7644.INVALID_VALUE);
+      }
+      PatchTargetHandler patchTargetHandler = new PatchTargetHandler(resourceType, operation.getOp(), target.get());
+      Optional<PatchDelta> patchDelta = patchTargetHandler.getPatchDelta(values);
+      if (!patchDelta.isPresent())
+      {
+        return Optional.empty();
+      }
+      patchDeltas.add(patchDelta.get());
+      setAttributeFromPath(operation, patchTargetHandler.getPath());
+    }
+    return Optional.of(patchDeltas);
+  }
+
   /**
    * adds the attributes to the {@link #requestedAttributes} object node to return the requested attributes
    * object. This is necessary for schema validation so that the changed attributes are returned on the response
@@ -134,11 +246,11 @@ public class PatchHandler
    *
    * @param resource the resource to which the attributes should be added
    * @param operation the operation request that contains the new attributes
+   * @param values the values of the operation
    */
-  private boolean handlePatchOp(ResourceNode resource, PatchRequestOperation operation)
+  private boolean handlePatchOp(ResourceNode resource, PatchRequestOperation operation, List<String> values)
   {
     Optional<String> target = operation.getPath();
-    List<String> values = operation.getValues();
     if (!operation.getOp().equals(PatchOp.REMOVE) && (values == null || values.isEmpty()))
     {
       throw new BadRequestException("no value attributes present in patch operation", null,
@@ -147,13 +259,19 @@ public class PatchHandler
 
     if (target.isPresent())
     {
-      PatchTargetHandler patchTargetHandler = new PatchTargetHandler(resourceType, operation.getOp(), target.get());
-      boolean changeWasMade = patchTargetHandler.addOperationValues(resource, operation.getValues());
+      PatchTargetHandler patchTargetHandler = new PatchTargetHandler(resourceType, operation.getOp(), target.get(),
+                                                                     filterIndex);
+      boolean changeWasMade = patchTargetHandler.addOperationValues(resource, values);
+      if (!patchTargetHandler.isFilterIndexUsed())
+      {
+        filterIndex.clear();
+      }
       setAttributeFromPath(operation, patchTargetHandler.getPath());
       return changeWasMade;
     }
     else
     {
+      filterIndex.clear();
       if (PatchOp.REMOVE.equals(operation.getOp()))
       {
         throw new BadRequestException("missing target for remove operation", null, ScimType.RFC7644.NO_TARGET);
@@ -1,6 +1,7 @@
 package de.captaingoldfish.scim.sdk.server.patch;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +15,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import de.captaingoldfish.scim.sdk.common.constants.AttributeNames;
 import de.captaingoldfish.scim.sdk.common.constants.ScimType;
+import de.captaingoldfish.scim.sdk.common.constants.enums.HttpMethod;
 import de.captaingoldfish.scim.sdk.common.constants.enums.Mutability;
 import de.captaingoldfish.scim.sdk.common.constants.enums.PatchOp;
 import de.captaingoldfish.scim.sdk.common.constants.enums.Type;
@@ -33,6 +35,7 @@ import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
 import de.captaingoldfish.scim.sdk.server.filter.AttributePathRoot;
 import de.captaingoldfish.scim.sdk.server.filter.resources.PatchFilterResolver;
 import de.captaingoldfish.scim.sdk.server.schemas.ResourceType;
+import de.captaingoldfish.scim.sdk.server.schemas.SchemaValidator;
 import de.captaingoldfish.scim.sdk.server.utils.RequestUtils;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
@@ -94,7 +97,25 @@ public class PatchTargetHandler extends AbstractPatch
    */
   private SchemaAttribute schemaAttribute;
 
+  /**
+   * an optional index that is shared by the operations of the same patch request to resolve remove operations
+   * with simple equality filters without evaluating the filter on each node of a multivalued attribute
+   */
+  private final PatchFilterIndex filterIndex;
+
+  /**
+   * tells if the {@link #filterIndex} was used to execute this operation. If not the index must be cleared
+   * because the resource might have been modified in a way that is not known to the index
+   */
+  @Getter(AccessLevel.PACKAGE)
+  private boolean filterIndexUsed;
+
   public PatchTargetHandler(ResourceType resourceType, PatchOp patchOp, String path)
+  {
+    this(resourceType, patchOp, path, null);
+  }
+
+  PatchTargetHandler(ResourceType resourceType, PatchOp patchOp, String path, PatchFilterIndex filterIndex)
   {
     super(resourceType);
     try
@@ -108,6 +129,7 @@ public class PatchTargetHandler extends AbstractPatch
     }
     this.patchOp = patchOp;
     this.schemaAttribute = getSchemaAttribute();
+    this.filterIndex = filterIndex;
   }
 
   /**
@@ -200,6 +222,145 @@ public class PatchTargetHandler extends AbstractPatch
     return false;
   }
 
+  /**
+   * checks if this operation does nothing else than appending its values to a multivalued attribute of the
+   * given resource. The values of several consecutive operations of this kind on the same path can be appended
+   * within a single operation without changing the result
+   *
+   * @param resource the resource on which the operation would be executed
+   * @return true if this is an add operation without filter on a mutable multivalued top level attribute that
+   *         is either unassigned or an array within the given resource
+   */
+  boolean isMultiValuedAppend(ResourceNode resource)
+  {
+    if (!PatchOp.ADD.equals(patchOp) || path.getChild() != null || StringUtils.isNotBlank(path.getSubAttributeName())
+        || schemaAttribute.getParent() != null || !schemaAttribute.isMultiValued()
+        || Mutability.READ_ONLY.equals(schemaAttribute.getMutability())
+        || Mutability.IMMUTABLE.equals(schemaAttribute.getMutability()))
+    {
+      return false;
+    }
+    boolean isExtension = resourceType.getSchemaExtensions()
+                                      .stream()
+                                      .anyMatch(ext -> ext.getSchema().equals(schemaAttribute.getResourceUri()));
+    JsonNode parent = isExtension ? resource.get(schemaAttribute.getResourceUri()) : resource;
+    JsonNode attribute = parent == null ? null : parent.get(schemaAttribute.getName());
+    return attribute == null || attribute.isArray();
+  }
+
+  /**
+   * validates the values of this operation against the targeted attribute without applying them on a resource
+   *
+   * @param values the values of the operation
+   * @return the validated operation or an empty if the operation cannot be validated without the current
+   *         resource. This is the case for operations on immutable attributes that may only be changed if they
+   *         are unassigned, for remove and replace operations on required attributes that might leave the
+   *         resource without the required value and for operations on extensions that might add the extension
+   *         to the resource or remove it from the resource and thereby change its "schemas" attribute
+   */
+  public Optional<PatchDelta> getPatchDelta(List<String> values)
+  {
+    validateRequest(values);
+    String[] fullAttributeNames = getAttributeNames();
+    SchemaAttribute targetAttribute = getSchemaAttribute(fullAttributeNames[fullAttributeNames.length - 1]);
+    for ( SchemaAttribute attribute : Arrays.asList(schemaAttribute, targetAttribute) )
+    {
+      evaluatePatchPathOperation(attribute, null);
+      if (!PatchOp.REMOVE.equals(patchOp) && Mutability.IMMUTABLE.equals(attribute.getMutability()))
+      {
+        return Optional.empty();
+      }
+      if (!PatchOp.ADD.equals(patchOp) && attribute.isRequired())
+      {
+        return Optional.empty();
+      }
+    }
+    if (isSchemasAttributeAffected())
+    {
+      return Optional.empty();
+    }
+    if (PatchOp.REMOVE.equals(patchOp))
+    {
+      return Optional.of(new PatchDelta(patchOp, path, targetAttribute, Collections.emptyList()));
+    }
+    JsonNode validatedNode = SchemaValidator.validateAttributeForRequest(targetAttribute,
+                                                                         createValueNode(targetAttribute, values),
+                                                                         HttpMethod.PATCH);
+    if (validatedNode == null)
+    {
+      throw new BadRequestException("no value attributes present in patch operation", null,
+                                    ScimType.RFC7644.INVALID_VALUE);
+    }
+    List<JsonNode> validatedValues = new ArrayList<>();
+    if (validatedNode.isArray())
+    {
+      validatedNode.forEach(validatedValues::add);
+    }
+    else
+    {
+      validatedValues.add(validatedNode);
+    }
+    return Optional.of(new PatchDelta(patchOp, path, targetAttribute, validatedValues));
+  }
+
+  /**
+   * checks if this operation targets an extension whose entry within the "schemas" attribute of the resource
+   * might have to be added or removed. An add or replace operation on an optional extension adds the extension
+   * if it is not yet present within the resource and a remove operation removes the extension if its last
+   * attribute is removed
+   *
+   * @return true if the operation targets an extension that is optional or if it is a remove operation on an
+   *         extension, false else
+   */
+  private boolean isSchemasAttributeAffected()
+  {
+    return resourceType.getSchemaExtensions()
+                       .stream()
+                       .filter(extension -> extension.getSchema().equals(schemaAttribute.getResourceUri()))
+                       .anyMatch(extension -> !extension.isRequired() || PatchOp.REMOVE.equals(patchOp));
+  }
+
+  /**
+   * creates the json representation of the values of a patch operation
+   *
+   * @param schemaAttribute the definition of the attribute that is the target of the operation
+   * @param values the values of the operation
+   * @return an array if the attribute is multivalued or a single node else
+   */
+  private JsonNode createValueNode(SchemaAttribute schemaAttribute, List<String> values)
+  {
+    if (!schemaAttribute.isMultiValued() && values.size() != 1)
+    {
+      throw new BadRequestException("found multiple values for non multi valued attribute '"
+                                    + schemaAttribute.getFullResourceName() + "': " + String.join(",", values), null,
+                                    ScimType.RFC7644.INVALID_VALUE);
+    }
+    List<JsonNode> valueNodes = new ArrayList<>();
+    for ( String value : values )
+    {
+      if (Type.COMPLEX.equals(schemaAttribute.getType()))
+      {
+        if (!JsonHelper.isValidJson(value))
+        {
+          throw new BadRequestException("the value parameters must be valid json representations but was\n'" + value
+                                        + "'", null, ScimType.RFC7644.INVALID_VALUE);
+        }
+        valueNodes.add(JsonHelper.readJsonDocument(value));
+      }
+      else
+      {
+        valueNodes.add(createNewNode(schemaAttribute, value));
+      }
+    }
+    if (!schemaAttribute.isMultiValued())
+    {
+      return valueNodes.get(0);
+    }
+    ScimArrayNode arrayNode = new ScimArrayNode(schemaAttribute);
+    valueNodes.forEach(arrayNode::add);
+    return arrayNode;
+  }
+
   /**
    * handles a single patch operation on a complex type
    *
@@ -622,6 +783,11 @@ public class PatchTargetHandler extends AbstractPatch
   {
     if (PatchOp.REMOVE.equals(patchOp))
     {
+      if (filterIndex != null && PatchFilterIndex.isIndexable(path))
+      {
+        filterIndexUsed = true;
+        return filterIndex.removeMatchingNodes(multiValued, path);
+      }
       List<IndexNode> matchingComplexNodes = resolveFilter(multiValued, path);
       boolean changeWasMade = false;
       for ( int i = matchingComplexNodes.size() - 1 ; i >= 0 ; i-- )
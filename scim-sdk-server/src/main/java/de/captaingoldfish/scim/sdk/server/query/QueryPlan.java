@@ -0,0 +1,227 @@
+package de.captaingoldfish.scim.sdk.server.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import de.captaingoldfish.scim.sdk.common.constants.enums.SortOrder;
+import de.captaingoldfish.scim.sdk.common.exceptions.InternalServerException;
+import de.captaingoldfish.scim.sdk.common.schemas.SchemaAttribute;
+import de.captaingoldfish.scim.sdk.server.filter.AndExpressionNode;
+import de.captaingoldfish.scim.sdk.server.filter.FilterNode;
+import de.captaingoldfish.scim.sdk.server.schemas.ResourceType;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+
+
+/**
+ * describes a list request in a form that can be translated by a backend e.g. into a SQL WHERE, ORDER BY and
+ * LIMIT clause or into an index lookup. The filter expression is split into its top level conjuncts (the
+ * operands of the top level and-expressions). The backend may mark each conjunct that it was able to evaluate
+ * by itself with {@link #markHandled(FilterNode)}. All conjuncts that were not marked are the residual filter
+ * that is evaluated in memory by the SDK on the resources returned by the backend. The same is true for the
+ * sorting which is done by the SDK if the backend did not call {@link #markSortingHandled()}.<br>
+ * <br>
+ * A backend must only apply {@link #getStartIndex()} and {@link #getCount()} if {@link #isPagingAllowed()}
+ * returns true. Otherwise the SDK needs all matching candidates to filter and sort them before the requested
+ * page can be extracted. A backend that applied the paging must call {@link #markPagingHandled()} so that the
+ * SDK does not extract the requested page a second time from the already paged result<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+@Getter
+public class QueryPlan
+{
+
+  /**
+   * the resource type on which the query is executed
+   */
+  private final ResourceType resourceType;
+
+  /**
+   * the start index that has a minimum value of 1
+   */
+  private final long startIndex;
+
+  /**
+   * the number of entries that should be returned to the client. The minimum value of this value is 0
+   */
+  private final int count;
+
+  /**
+   * the complete parsed filter expression or null if the client did not send a filter
+   */
+  private final FilterNode filter;
+
+  /**
+   * the attribute that should be used for sorting or null if no sorting was requested
+   */
+  private final SchemaAttribute sortBy;
+
+  /**
+   * the sort order or null if no sorting was requested
+   */
+  private final SortOrder sortOrder;
+
+  /**
+   * the attributes that should be returned to the client
+   */
+  private final List<SchemaAttribute> attributes;
+
+  /**
+   * the attributes that should NOT be returned to the client
+   */
+  private final List<SchemaAttribute> excludedAttributes;
+
+  /**
+   * the top level conjuncts of the filter expression. A filter without a top level and-expression has a single
+   * conjunct
+   */
+  private final List<FilterNode> conjuncts;
+
+  /**
+   * the conjuncts that have been evaluated by the backend. The nodes are compared by identity because the
+   * filter trees are shared between requests
+   */
+  @Getter(AccessLevel.NONE)
+  private final Set<FilterNode> handledConjuncts = Collections.newSetFromMap(new IdentityHashMap<>());
+
+  /**
+   * if the backend has already sorted the resources
+   */
+  private boolean sortingHandled;
+
+  /**
+   * if the backend has already applied startIndex and count
+   */
+  @Getter(AccessLevel.NONE)
+  private boolean pagingHandled;
+
+  @Builder
+  public QueryPlan(ResourceType resourceType,
+                   long startIndex,
+                   int count,
+                   FilterNode filter,
+                   SchemaAttribute sortBy,
+                   SortOrder sortOrder,
+                   List<SchemaAttribute> attributes,
+                   List<SchemaAttribute> excludedAttributes)
+  {
+    this.resourceType = resourceType;
+    this.startIndex = startIndex;
+    this.count = count;
+    this.filter = filter;
+    this.sortBy = sortBy;
+    this.sortOrder = sortOrder;
+    this.attributes = attributes == null ? Collections.emptyList() : attributes;
+    this.excludedAttributes = excludedAttributes == null ? Collections.emptyList() : excludedAttributes;
+    List<FilterNode> conjunctList = new ArrayList<>();
+    addConjuncts(filter, conjunctList);
+    this.conjuncts = Collections.unmodifiableList(conjunctList);
+  }
+
+  /**
+   * splits the given filter at its and-expressions and adds the operands to the given list
+   */
+  private static void addConjuncts(FilterNode filterNode, List<FilterNode> conjunctList)
+  {
+    if (filterNode == null)
+    {
+      return;
+    }
+    if (filterNode instanceof AndExpressionNode)
+    {
+      AndExpressionNode andExpressionNode = (AndExpressionNode)filterNode;
+      addConjuncts(andExpressionNode.getLeftNode(), conjunctList);
+      addConjuncts(andExpressionNode.getRightNode(), conjunctList);
+      return;
+    }
+    conjunctList.add(filterNode);
+  }
+
+  /**
+   * tells the SDK that the backend has evaluated the given conjunct so that it is no longer part of the residual
+   * filter
+   *
+   * @param conjunct one of the nodes returned by {@link #getConjuncts()}
+   */
+  public void markHandled(FilterNode conjunct)
+  {
+    if (conjuncts.stream().noneMatch(node -> node == conjunct))
+    {
+      throw new InternalServerException("the given filter node '" + conjunct + "' is not a top level conjunct "
+                                        + "of the filter '" + filter + "'", null, null);
+    }
+    handledConjuncts.add(conjunct);
+  }
+
+  /**
+   * tells the SDK that the backend has evaluated the complete filter expression
+   */
+  public void markFilterHandled()
+  {
+    handledConjuncts.addAll(conjuncts);
+  }
+
+  /**
+   * tells the SDK that the backend has already sorted the resources
+   */
+  public void markSortingHandled()
+  {
+    this.sortingHandled = true;
+  }
+
+  /**
+   * tells the SDK that the backend has already applied startIndex and count so that the returned resources are
+   * exactly the requested page. Must only be called if {@link #isPagingAllowed()} returns true
+   */
+  public void markPagingHandled()
+  {
+    if (!isPagingAllowed())
+    {
+      throw new InternalServerException("the paging must not be applied by the backend if the filter or the "
+                                        + "sorting is not completely handled by the backend", null, null);
+    }
+    this.pagingHandled = true;
+  }
+
+  /**
+   * @return the conjuncts that have not been evaluated by the backend and must be evaluated by the SDK. The
+   *         returned conjuncts must all match for a resource to be part of the result
+   */
+  public List<FilterNode> getResidualFilters()
+  {
+    return conjuncts.stream().filter(node -> !handledConjuncts.contains(node)).collect(Collectors.toList());
+  }
+
+  /**
+   * @return true if the complete filter expression was evaluated by the backend
+   */
+  public boolean isFilterHandled()
+  {
+    return handledConjuncts.size() == conjuncts.size();
+  }
+
+  /**
+   * @return true if the backend is allowed to apply startIndex and count by itself. This is only the case if
+   *         neither filtering nor sorting must be done by the SDK
+   */
+  public boolean isPagingAllowed()
+  {
+    return isFilterHandled() && (sortBy == null || sortingHandled);
+  }
+
+  /**
+   * @return true if the backend has applied startIndex and count by itself
+   */
+  public boolean isPagingHandled()
+  {
+    return pagingHandled && isPagingAllowed();
+  }
+}
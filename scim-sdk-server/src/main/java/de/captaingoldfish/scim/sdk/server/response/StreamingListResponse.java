@@ -0,0 +1,221 @@
+package de.captaingoldfish.scim.sdk.server.response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import de.captaingoldfish.scim.sdk.common.constants.AttributeNames;
+import de.captaingoldfish.scim.sdk.common.exceptions.InternalServerException;
+import de.captaingoldfish.scim.sdk.common.resources.ResourceNode;
+import de.captaingoldfish.scim.sdk.common.resources.base.ScimObjectNode;
+import de.captaingoldfish.scim.sdk.common.response.ListResponse;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
+
+
+/**
+ * a list response that does not hold the validated resources in memory. The surrounding attributes of the
+ * list response are held as usual but each listed resource is validated at the moment it is written into the
+ * output and is released immediately afterwards. So the complete response document does never exist as json
+ * tree or as string at the same time which reduces the memory consumption of large pages significantly.<br>
+ * <br>
+ * Since the resources are validated while the response is written an error that occurs during the
+ * validation of a resource can no longer be turned into an error response because the response has already
+ * been partially written. Such an error is thrown as {@link de.captaingoldfish.scim.sdk.common.exceptions.ScimException}
+ * from the writing methods<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+public class StreamingListResponse<T extends ScimObjectNode> extends ListResponse<T>
+{
+
+  /**
+   * the resources that have not been validated yet
+   */
+  private final List<? extends ResourceNode> resources;
+
+  /**
+   * validates a single resource and returns the json representation that will be written into the response
+   */
+  private final Function<ResourceNode, JsonNode> responseValidator;
+
+  /**
+   * the validated resources. They are only created if {@link #getListedResources()} was called and are reused
+   * afterwards so that each resource is validated only once
+   */
+  private List<T> validatedResources;
+
+  public StreamingListResponse(List<? extends ResourceNode> resources,
+                               Function<ResourceNode, JsonNode> responseValidator,
+                               Long totalResults,
+                               Long startIndex)
+  {
+    super((Class<T>)ScimObjectNode.class, totalResults, resources.size(), startIndex);
+    this.resources = resources;
+    this.responseValidator = responseValidator;
+  }
+
+  /**
+   * validates all resources and returns them. This will materialize all resources at once and should only be
+   * used if the resources are really needed in memory. The validated resources are kept within this response
+   * so that subsequent calls and the serialization of this response do not validate them again
+   */
+  @Override
+  public List<T> getListedResources()
+  {
+    if (validatedResources == null)
+    {
+      validatedResources = resources.stream()
+                                    .map(responseValidator)
+                                    .map(resource -> JsonHelper.copyResourceToObject(resource, getType()))
+                                    .collect(Collectors.toList());
+    }
+    return new ArrayList<>(validatedResources);
+  }
+
+  /**
+   * a view that validates a resource each time it is accessed. The validated resources are not cached because
+   * this response should never hold all validated resources at the same time. If {@link #getListedResources()}
+   * was already called the validated resources are returned instead
+   */
+  @Override
+  public List<T> getListedResourcesView()
+  {
+    if (validatedResources != null)
+    {
+      return Collections.unmodifiableList(validatedResources);
+    }
+    return new AbstractList<T>()
+    {
+
+      @Override
+      public T get(int index)
+      {
+        return JsonHelper.copyResourceToObject(responseValidator.apply(resources.get(index)), getType());
+      }
+
+      @Override
+      public int size()
+      {
+        return resources.size();
+      }
+    };
+  }
+
+  /**
+   * writes the surrounding attributes of the list response and afterwards each resource directly after it was
+   * validated
+   */
+  @Override
+  public void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException
+  {
+    generator.writeStartObject(this);
+    Iterator<Map.Entry<String, JsonNode>> fields = fields();
+    while (fields.hasNext())
+    {
+      Map.Entry<String, JsonNode> field = fields.next();
+      generator.writeFieldName(field.getKey());
+      field.getValue().serialize(generator, provider);
+    }
+    generator.writeArrayFieldStart(AttributeNames.RFC7643.RESOURCES);
+    if (validatedResources == null)
+    {
+      for ( ResourceNode resource : resources )
+      {
+        responseValidator.apply(resource).serialize(generator, provider);
+      }
+    }
+    else
+    {
+      for ( T resource : validatedResources )
+      {
+        resource.serialize(generator, provider);
+      }
+    }
+    generator.writeEndArray();
+    generator.writeEndObject();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void writeTo(OutputStream outputStream) throws IOException
+  {
+    ObjectMapper objectMapper = JsonHelper.getObjectMapper();
+    try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream))
+    {
+      // the output stream belongs to the caller
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      serialize(generator, objectMapper.getSerializerProviderInstance());
+    }
+  }
+
+  /**
+   * the response is streamed into the jax-rs response
+   */
+  @Override
+  protected Object getResponseEntity()
+  {
+    return (StreamingOutput)this::writeTo;
+  }
+
+  /**
+   * writes this response into a string. Errors during the validation are not wrapped so that the original
+   * exception reaches the caller
+   */
+  @Override
+  public String toString()
+  {
+    return writeToString(false);
+  }
+
+  /**
+   * writes this response into a pretty printed string
+   */
+  @Override
+  public String toPrettyString()
+  {
+    return writeToString(true);
+  }
+
+  /**
+   * writes this response into a string
+   *
+   * @param pretty if the output should be pretty printed
+   */
+  private String writeToString(boolean pretty)
+  {
+    StringWriter stringWriter = new StringWriter();
+    ObjectMapper objectMapper = JsonHelper.getObjectMapper();
+    try (JsonGenerator generator = objectMapper.getFactory().createGenerator(stringWriter))
+    {
+      if (pretty)
+      {
+        generator.useDefaultPrettyPrinter();
+      }
+      serialize(generator, objectMapper.getSerializerProviderInstance());
+    }
+    catch (IOException ex)
+    {
+      throw new InternalServerException(ex.getMessage(), ex, null);
+    }
+    return stringWriter.toString();
+  }
+}
@@ -0,0 +1,121 @@
+package de.captaingoldfish.scim.sdk.server.schemas;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import de.captaingoldfish.scim.sdk.common.schemas.SchemaAttribute;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * a thread-safe index that maps the attribute paths that were used on a {@link ResourceType} to their
+ * {@link SchemaAttribute} definitions. Attribute paths like "name.givenName" or
+ * "urn:ietf:params:scim:schemas:core:2.0:User:name.givenName" are used by patch operations, filter
+ * expressions, the sortBy parameter and the attributes parameters. Resolving such a path means parsing it and
+ * searching it within the main schema and all extensions of the resource type. The index remembers the result
+ * of each successful resolution so that subsequent lookups of the same path are simple map lookups. Paths that
+ * cannot be resolved are not indexed so that the error handling of the resolver is not changed<br>
+ * <br>
+ * The index is discarded if a schema of the resource type is replaced or if attributes are added to or removed
+ * from a schema<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+@Slf4j
+public class AttributePathIndex
+{
+
+  /**
+   * the maximum number of attribute paths that are indexed. The number of valid paths of a resource type is
+   * limited but the attribute names are case-insensitive so a client might send arbitrary spellings of the same
+   * path
+   */
+  public static final int MAX_SIZE = 1000;
+
+  /**
+   * the resource type whose attribute paths are indexed
+   */
+  private final ResourceType resourceType;
+
+  /**
+   * the indexed paths together with the versions of the schemas that they were resolved from
+   */
+  private volatile IndexState indexState;
+
+  public AttributePathIndex(ResourceType resourceType)
+  {
+    this.resourceType = resourceType;
+  }
+
+  /**
+   * gets the attribute definition of the given path from the index or resolves and indexes it if not present
+   *
+   * @param attributePath the attribute path e.g. "name.givenName"
+   * @param resolver resolves the attribute definition if the path was not indexed yet. The resolver may throw
+   *          an exception if the path cannot be resolved
+   * @return the attribute definition of the given path
+   */
+  public SchemaAttribute getSchemaAttribute(String attributePath, Function<String, SchemaAttribute> resolver)
+  {
+    IndexState currentState = getCurrentState();
+    SchemaAttribute schemaAttribute = currentState.getAttributes().get(attributePath);
+    if (schemaAttribute != null)
+    {
+      return schemaAttribute;
+    }
+    schemaAttribute = resolver.apply(attributePath);
+    if (schemaAttribute != null && currentState.getAttributes().size() < MAX_SIZE)
+    {
+      currentState.getAttributes().put(attributePath, schemaAttribute);
+    }
+    return schemaAttribute;
+  }
+
+  /**
+   * @return the number of attribute paths that are indexed for the current schemas of the resource type
+   */
+  public int size()
+  {
+    return getCurrentState().getAttributes().size();
+  }
+
+  /**
+   * gets the current state of the index or creates a new empty state if the schemas of the resource type have
+   * changed since the current state was created
+   */
+  private IndexState getCurrentState()
+  {
+    IndexState currentState = indexState;
+    if (currentState == null || currentState.getSchemaVersion().isOutdated())
+    {
+      log.trace("creating new attribute path index for resource type '{}'", resourceType.getName());
+      currentState = new IndexState(new SchemaVersion(resourceType));
+      indexState = currentState;
+    }
+    return currentState;
+  }
+
+  /**
+   * the indexed attribute paths of a specific version of the schemas of the resource type
+   */
+  @Getter
+  @RequiredArgsConstructor
+  private static class IndexState
+  {
+
+    /**
+     * the versions of the schemas from which the attribute paths of this state were resolved
+     */
+    private final SchemaVersion schemaVersion;
+
+    /**
+     * the indexed attribute paths
+     */
+    private final Map<String, SchemaAttribute> attributes = new ConcurrentHashMap<>();
+  }
+}
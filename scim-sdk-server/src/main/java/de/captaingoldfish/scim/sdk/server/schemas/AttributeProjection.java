@@ -0,0 +1,123 @@
+package de.captaingoldfish.scim.sdk.server.schemas;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+
+import de.captaingoldfish.scim.sdk.common.schemas.AttributeValidationPlan;
+import de.captaingoldfish.scim.sdk.server.utils.RequestUtils;
+import lombok.Getter;
+
+
+/**
+ * the resolved "attributes" and "excludedAttributes" parameters of a request. The parameters are parsed once
+ * and the decision whether an attribute is requested or excluded is computed only once for each attribute
+ * definition. This projection should therefore be reused for all resources of the same request e.g. for all
+ * resources of a list response<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+public class AttributeProjection
+{
+
+  /**
+   * the attribute names from the attributes parameter
+   */
+  @Getter
+  private final List<String> attributes;
+
+  /**
+   * the attribute names from the excludedAttributes parameter
+   */
+  @Getter
+  private final List<String> excludedAttributes;
+
+  /**
+   * the already computed results of {@link #isMissingInAttributes(AttributeValidationPlan)}
+   */
+  private final Map<AttributeValidationPlan, Boolean> missingInAttributes = new ConcurrentHashMap<>();
+
+  /**
+   * the already computed results of {@link #isExcluded(AttributeValidationPlan)}
+   */
+  private final Map<AttributeValidationPlan, Boolean> excluded = new ConcurrentHashMap<>();
+
+  /**
+   * @param attributes the comma separated attributes parameter, may be null
+   * @param excludedAttributes the comma separated excludedAttributes parameter, may be null
+   */
+  public AttributeProjection(String attributes, String excludedAttributes)
+  {
+    this.attributes = RequestUtils.getAttributes(attributes);
+    this.excludedAttributes = RequestUtils.getAttributes(excludedAttributes);
+  }
+
+  /**
+   * checks if the given attribute is missing within the attributes parameter
+   *
+   * @param attributePlan the attribute definition to check
+   * @return false if the attribute is present within the attributes parameter, true else
+   */
+  public boolean isMissingInAttributes(AttributeValidationPlan attributePlan)
+  {
+    return missingInAttributes.computeIfAbsent(attributePlan, this::computeMissingInAttributes);
+  }
+
+  /**
+   * checks if the given attribute is set in the excludedAttributes parameter list
+   *
+   * @param attributePlan the attribute definition to check
+   * @return true if the attribute should be excluded, false else
+   */
+  public boolean isExcluded(AttributeValidationPlan attributePlan)
+  {
+    if (excludedAttributes.isEmpty())
+    {
+      return false;
+    }
+    return excluded.computeIfAbsent(attributePlan, this::computeExcluded);
+  }
+
+  /**
+   * checks if the given attribute name is missing within the attributes parameter
+   */
+  private boolean computeMissingInAttributes(AttributeValidationPlan attributePlan)
+  {
+    final String resourceUri = attributePlan.getResourceUri();
+    final String shortName = attributePlan.getScimNodeName();
+    final String fullName = resourceUri + ":" + shortName;
+    final String nameSuffix = "." + attributePlan.getName();
+    // this will check if the full name is matching any parameter in the attributes parameter list or
+    // if this attribute to check is a subnode of the attributes defined in the attributes parameter list
+    boolean anyNameMatch = attributes.stream()
+                                     .anyMatch(param -> StringUtils.equalsIgnoreCase(fullName, param)
+                                                        || StringUtils.equalsIgnoreCase(shortName, param)
+                                                        || (StringUtils.startsWithIgnoreCase(fullName, param)
+                                                            && StringUtils.endsWithIgnoreCase(fullName, nameSuffix))
+                                                        || StringUtils.startsWithIgnoreCase(shortName, param + ".")
+                                                        || StringUtils.startsWith(param, fullName + ".")
+                                                        || StringUtils.startsWithIgnoreCase(param, shortName + ".")
+                                                        || StringUtils.equalsIgnoreCase(param, resourceUri));
+    return !anyNameMatch;
+  }
+
+  /**
+   * checks if the given attribute is set in the excludedAttributes parameter list
+   */
+  private boolean computeExcluded(AttributeValidationPlan attributePlan)
+  {
+    final String resourceUri = attributePlan.getResourceUri();
+    final String shortName = attributePlan.getScimNodeName();
+    final String fullName = resourceUri + ":" + shortName;
+    // this will check if the full name is matching any parameter in the attributes parameter list or
+    // if this attribute to check is a subnode of the attributes defined in the attributes parameter list
+    return excludedAttributes.stream()
+                             .anyMatch(param -> StringUtils.equalsIgnoreCase(fullName, param)
+                                                || StringUtils.equalsIgnoreCase(shortName, param)
+                                                || StringUtils.equalsIgnoreCase(param, resourceUri));
+  }
+}
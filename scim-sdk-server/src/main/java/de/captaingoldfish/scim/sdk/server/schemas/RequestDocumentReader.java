@@ -0,0 +1,285 @@
+package de.captaingoldfish.scim.sdk.server.schemas;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import de.captaingoldfish.scim.sdk.common.constants.AttributeNames;
+import de.captaingoldfish.scim.sdk.common.constants.ScimType;
+import de.captaingoldfish.scim.sdk.common.constants.enums.HttpMethod;
+import de.captaingoldfish.scim.sdk.common.constants.enums.Type;
+import de.captaingoldfish.scim.sdk.common.exceptions.BadRequestException;
+import de.captaingoldfish.scim.sdk.common.exceptions.InternalServerException;
+import de.captaingoldfish.scim.sdk.common.resources.base.ScimArrayNode;
+import de.captaingoldfish.scim.sdk.common.resources.base.ScimObjectNode;
+import de.captaingoldfish.scim.sdk.common.schemas.AttributeValidationPlan;
+import de.captaingoldfish.scim.sdk.common.schemas.Schema;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
+
+
+/**
+ * reads the body of a POST or PUT request directly into the resource type that is expected by the resource
+ * handler. The body is read once with a {@link JsonParser} along the schemas of the resource type. Attributes
+ * that are unknown to the schemas are skipped while reading and the complex attributes are created as
+ * {@link ScimObjectNode}s of their attribute definition. The {@link SchemaValidator} validates these nodes in
+ * place and creates the nodes of the simple values so the request is represented by a single tree instead of a
+ * parsed tree, a validated copy and a copy of the requested resource type<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+public final class RequestDocumentReader
+{
+
+  /**
+   * the no args constructors of the resource types that can be created directly by the validation. Types that
+   * define a constructor with a {@link JsonNode} parameter are mapped to an empty because such a constructor
+   * must be called with the validated document
+   */
+  private static final Map<Class<?>, Optional<Constructor<?>>> RESOURCE_CONSTRUCTORS = new ConcurrentHashMap<>();
+
+  private RequestDocumentReader()
+  {}
+
+  /**
+   * reads and validates the given request body
+   *
+   * @param resourceType the resource type of the endpoint that was called
+   * @param resourceDocument the request body
+   * @param httpMethod the http method of the request
+   * @param type the resource type that is expected by the resource handler
+   * @return the validated resource or null if the request does not contain any writable attributes
+   * @throws BadRequestException if the request body is not a valid json document
+   */
+  public static <T extends ObjectNode> T readResource(ResourceType resourceType,
+                                                      String resourceDocument,
+                                                      HttpMethod httpMethod,
+                                                      Class<T> type)
+  {
+    try (JsonParser parser = JsonHelper.createParser(resourceDocument))
+    {
+      return readResource(resourceType, parser, httpMethod, type);
+    }
+    catch (IOException ex)
+    {
+      throw new BadRequestException(ex.getMessage(), ex, ScimType.Custom.UNPARSEABLE_REQUEST);
+    }
+  }
+
+  /**
+   * reads and validates the given request body without decoding it into a string first
+   *
+   * @param resourceType the resource type of the endpoint that was called
+   * @param resourceDocument the encoded request body. The encoding is detected by the parser
+   * @param httpMethod the http method of the request
+   * @param type the resource type that is expected by the resource handler
+   * @return the validated resource or null if the request does not contain any writable attributes
+   * @throws BadRequestException if the request body is not a valid json document
+   */
+  public static <T extends ObjectNode> T readResource(ResourceType resourceType,
+                                                      byte[] resourceDocument,
+                                                      HttpMethod httpMethod,
+                                                      Class<T> type)
+  {
+    try (JsonParser parser = JsonHelper.createParser(resourceDocument))
+    {
+      return readResource(resourceType, parser, httpMethod, type);
+    }
+    catch (IOException ex)
+    {
+      throw new BadRequestException(ex.getMessage(), ex, ScimType.Custom.UNPARSEABLE_REQUEST);
+    }
+  }
+
+  /**
+   * reads and validates the request body from the given parser
+   */
+  private static <T extends ObjectNode> T readResource(ResourceType resourceType,
+                                                       JsonParser parser,
+                                                       HttpMethod httpMethod,
+                                                       Class<T> type)
+    throws IOException
+  {
+    JsonToken token = parser.nextToken();
+    Constructor<T> constructor = getResourceConstructor(type);
+    if (token != JsonToken.START_OBJECT || constructor == null)
+    {
+      JsonNode document = parser.readValueAsTree();
+      JsonNode validatedDocument = SchemaValidator.validateDocumentForRequest(resourceType, document, httpMethod);
+      return JsonHelper.copyResourceToObject(validatedDocument, type);
+    }
+    JsonNode document = readResourceDocument(parser, resourceType);
+    return SchemaValidator.validateReadDocumentForRequest(resourceType,
+                                                          document,
+                                                          httpMethod,
+                                                          () -> newInstance(constructor));
+  }
+
+  /**
+   * reads the top level object of the request body. The attributes of the main schema and the extensions are
+   * read along their attribute definitions and the "schemas" and "meta" attributes are read as they are
+   */
+  private static JsonNode readResourceDocument(JsonParser parser, ResourceType resourceType) throws IOException
+  {
+    List<AttributeValidationPlan> mainAttributePlans = resourceType.getMainSchema().getValidationPlan();
+    ObjectNode document = new ScimObjectNode();
+    while (parser.nextToken() == JsonToken.FIELD_NAME)
+    {
+      String fieldName = parser.getCurrentName();
+      JsonToken token = parser.nextToken();
+      if (AttributeNames.RFC7643.SCHEMAS.equals(fieldName) || AttributeNames.RFC7643.META.equals(fieldName))
+      {
+        document.set(fieldName, parser.readValueAsTree());
+        continue;
+      }
+      AttributeValidationPlan attributePlan = findAttributePlan(mainAttributePlans, fieldName);
+      if (attributePlan != null)
+      {
+        document.set(fieldName, readAttribute(parser, attributePlan, false));
+        continue;
+      }
+      Schema extensionSchema = resourceType.getSchemaFactory().getResourceSchema(fieldName);
+      if (extensionSchema != null && token == JsonToken.START_OBJECT)
+      {
+        document.set(fieldName, readObject(parser, extensionSchema.getValidationPlan(), new ScimObjectNode()));
+      }
+      else if (extensionSchema != null)
+      {
+        document.set(fieldName, parser.readValueAsTree());
+      }
+      else
+      {
+        parser.skipChildren();
+      }
+    }
+    return document;
+  }
+
+  /**
+   * reads the attributes of a json object along the given attribute definitions. Unknown attributes are skipped
+   */
+  private static ObjectNode readObject(JsonParser parser,
+                                       List<AttributeValidationPlan> attributePlans,
+                                       ObjectNode objectNode)
+    throws IOException
+  {
+    while (parser.nextToken() == JsonToken.FIELD_NAME)
+    {
+      String fieldName = parser.getCurrentName();
+      parser.nextToken();
+      AttributeValidationPlan attributePlan = findAttributePlan(attributePlans, fieldName);
+      if (attributePlan == null)
+      {
+        parser.skipChildren();
+        continue;
+      }
+      objectNode.set(fieldName, readAttribute(parser, attributePlan, false));
+    }
+    return objectNode;
+  }
+
+  /**
+   * reads the value of an attribute. Simple values and values that do not match the attribute definition are
+   * read as plain json nodes so that the {@link SchemaValidator} validates them and creates their
+   * {@link de.captaingoldfish.scim.sdk.common.resources.base.ScimNode}s in the usual order
+   *
+   * @param parser the parser that points to the first token of the value
+   * @param attributePlan the definition of the attribute
+   * @param isArrayElement if the value is an element of a multivalued attribute
+   * @return the read value
+   */
+  private static JsonNode readAttribute(JsonParser parser, AttributeValidationPlan attributePlan, boolean isArrayElement)
+    throws IOException
+  {
+    JsonToken token = parser.currentToken();
+    if (attributePlan.isMultiValued() && !isArrayElement && token == JsonToken.START_ARRAY)
+    {
+      ScimArrayNode arrayNode = new ScimArrayNode(attributePlan.getSchemaAttribute());
+      while (parser.nextToken() != JsonToken.END_ARRAY)
+      {
+        arrayNode.add(readAttribute(parser, attributePlan, true));
+      }
+      return arrayNode;
+    }
+    if (Type.COMPLEX.equals(attributePlan.getType()) && token == JsonToken.START_OBJECT)
+    {
+      return readObject(parser,
+                        attributePlan.getSubAttributePlans(),
+                        new ScimObjectNode(attributePlan.getSchemaAttribute()));
+    }
+    return parser.readValueAsTree();
+  }
+
+  /**
+   * finds the definition of the attribute with the given name
+   *
+   * @return the attribute definition or null if the attribute is unknown
+   */
+  private static AttributeValidationPlan findAttributePlan(List<AttributeValidationPlan> attributePlans, String name)
+  {
+    for ( AttributeValidationPlan attributePlan : attributePlans )
+    {
+      if (attributePlan.getName().equals(name))
+      {
+        return attributePlan;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * gets the no args constructor of the given type
+   *
+   * @return the constructor or null if the type defines a constructor with a {@link JsonNode} parameter
+   */
+  @SuppressWarnings("unchecked")
+  private static <T> Constructor<T> getResourceConstructor(Class<T> type)
+  {
+    return (Constructor<T>)RESOURCE_CONSTRUCTORS.computeIfAbsent(type, key -> {
+      try
+      {
+        key.getConstructor(JsonNode.class);
+        return Optional.empty();
+      }
+      catch (NoSuchMethodException ex)
+      {
+        // the type can be created directly by the validation
+      }
+      try
+      {
+        return Optional.of(key.getConstructor());
+      }
+      catch (NoSuchMethodException ex)
+      {
+        throw new InternalServerException("missing no args constructor for type '" + key + "': " + ex.getMessage(),
+                                          ex, null);
+      }
+    }).orElse(null);
+  }
+
+  /**
+   * creates a new instance of the resource with the given constructor
+   */
+  private static <T> T newInstance(Constructor<T> constructor)
+  {
+    try
+    {
+      return constructor.newInstance();
+    }
+    catch (InstantiationException | IllegalAccessException | InvocationTargetException ex)
+    {
+      throw new InternalServerException("could not create instance of type '" + constructor.getDeclaringClass()
+                                        + "': " + ex.getMessage(), ex, null);
+    }
+  }
+}
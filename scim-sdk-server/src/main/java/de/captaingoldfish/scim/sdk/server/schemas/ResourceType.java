@@ -33,6 +33,7 @@ import de.captaingoldfish.scim.sdk.common.resources.complex.Meta;
 import de.captaingoldfish.scim.sdk.common.schemas.Schema;
 import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
 import de.captaingoldfish.scim.sdk.server.endpoints.ResourceHandler;
+import de.captaingoldfish.scim.sdk.server.filter.FilterNodeCache;
 import de.captaingoldfish.scim.sdk.server.schemas.custom.ResourceTypeFeatures;
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -64,6 +65,20 @@ public class ResourceType extends ResourceNode
   @Setter(AccessLevel.PUBLIC)
   private ResourceHandler resourceHandlerImpl;
 
+  /**
+   * caches the parsed filter and patch path expressions that were used on this resource type so that the same
+   * expression does not need to be parsed again on each request
+   */
+  @Getter
+  private final FilterNodeCache filterNodeCache = new FilterNodeCache(this);
+
+  /**
+   * remembers the attribute definitions of the attribute paths that were used on this resource type so that
+   * the same path does not need to be searched within all schemas again on each request
+   */
+  @Getter
+  private final AttributePathIndex attributePathIndex = new AttributePathIndex(this);
+
   protected ResourceType(SchemaFactory schemaFactory, String resourceDocument)
   {
     this(schemaFactory, JsonHelper.readJsonDocument(resourceDocument));
@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
@@ -44,6 +45,12 @@ public final class SchemaFactory
   @Getter(AccessLevel.PROTECTED)
   private ResourceTypeFactory resourceTypeFactory;
 
+  /**
+   * counts the registered schemas so that indices that were built from the registered schemas are able to
+   * detect that a schema was replaced
+   */
+  private final AtomicLong registrationVersion = new AtomicLong();
+
   /**
    * this constructor will register the default schemas defined by RFC7643
    */
@@ -69,6 +76,7 @@ public final class SchemaFactory
   {
     Schema schema = new Schema(jsonSchema);
     metaSchemas.put(schema.getNonNullId(), schema);
+    registrationVersion.incrementAndGet();
   }
 
   /**
@@ -92,6 +100,7 @@ public final class SchemaFactory
       {
         metaSchemas.put(schema.getNonNullId(), schema);
       }
+      registrationVersion.incrementAndGet();
     }
     catch (DocumentValidationException ex)
     {
@@ -127,6 +136,14 @@ public final class SchemaFactory
     return metaSchemas.get(id);
   }
 
+  /**
+   * @return a value that is changed whenever a schema is registered
+   */
+  protected long getRegistrationVersion()
+  {
+    return registrationVersion.get();
+  }
+
   /**
    * @return all registered resource schematas
    */
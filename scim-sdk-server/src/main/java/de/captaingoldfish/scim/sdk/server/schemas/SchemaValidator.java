@@ -2,10 +2,14 @@ package de.captaingoldfish.scim.sdk.server.schemas;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -40,12 +44,12 @@ import de.captaingoldfish.scim.sdk.common.resources.base.ScimLongNode;
 import de.captaingoldfish.scim.sdk.common.resources.base.ScimNode;
 import de.captaingoldfish.scim.sdk.common.resources.base.ScimObjectNode;
 import de.captaingoldfish.scim.sdk.common.resources.base.ScimTextNode;
+import de.captaingoldfish.scim.sdk.common.schemas.AttributeValidationPlan;
 import de.captaingoldfish.scim.sdk.common.schemas.Schema;
 import de.captaingoldfish.scim.sdk.common.schemas.SchemaAttribute;
 import de.captaingoldfish.scim.sdk.common.utils.AttributeValidator;
 import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
 import de.captaingoldfish.scim.sdk.common.utils.TimeUtils;
-import de.captaingoldfish.scim.sdk.server.utils.RequestUtils;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -86,7 +90,7 @@ public class SchemaValidator
   /**
    * this member is used for attributes that have a returned value of {@link Returned#REQUEST}. Those attributes
    * should only be returned if the attribute was modified on a POST, PUT or PATCH request or in a query request
-   * only if the attribute is present within the {@link #attributes} parameter. So the validated request tells
+   * only if the attribute is present within the "attributes" parameter. So the validated request tells
    * us if the client tried to write to the attribute and if this is the case the attribute should be returned
    * <br>
    * <br>
@@ -103,20 +107,16 @@ public class SchemaValidator
   private final JsonNode validatedRequest;
 
   /**
-   * When specified, the default list of attributes SHALL be overridden, and each resource returned MUST contain
-   * the minimum set of resource attributes and any attributes or sub-attributes explicitly requested by the
-   * "attributes" parameter. The query parameter attributes value is a comma-separated list of resource
-   * attribute names in standard attribute notation (Section 3.10) form (e.g., userName, name, emails).
-   */
-  private final List<String> attributes;
-
-  /**
-   * When specified, each resource returned MUST contain the minimum set of resource attributes. Additionally,
-   * the default set of attributes minus those attributes listed in "excludedAttributes" is returned. The query
-   * parameter attributes value is a comma-separated list of resource attribute names in standard attribute
-   * notation (Section 3.10) form (e.g., userName, name, emails).
+   * the resolved "attributes" and "excludedAttributes" parameters of the request.<br>
+   * <br>
+   * attributes: When specified, the default list of attributes SHALL be overridden, and each resource returned
+   * MUST contain the minimum set of resource attributes and any attributes or sub-attributes explicitly
+   * requested by the "attributes" parameter.<br>
+   * excludedAttributes: When specified, each resource returned MUST contain the minimum set of resource
+   * attributes. Additionally, the default set of attributes minus those attributes listed in
+   * "excludedAttributes" is returned.
    */
-  private final List<String> excludedAttributes;
+  private final AttributeProjection projection;
 
   /**
    * used to automatically set $ref values on reference types during schema-validation if the attribute is
@@ -130,23 +130,35 @@ public class SchemaValidator
    */
   private final ResourceTypeFactory resourceTypeFactory;
 
+  /**
+   * if the document was built by the {@link RequestDocumentReader} its complex nodes are already
+   * {@link ScimObjectNode}s of the correct attribute. In this case these nodes are validated in place instead of
+   * being copied. The simple values are plain json nodes that are validated and converted as usual
+   */
+  private final boolean reuseDocumentNodes;
+
+  /**
+   * creates the top level node of the validated document. If null a {@link ScimObjectNode} is used
+   */
+  private final Supplier<? extends ObjectNode> resourceNodeFactory;
+
   private SchemaValidator(DirectionType directionType, String attributes, String excludedAttributes)
   {
     this.extensionSchema = false;
     this.directionType = directionType;
     this.httpMethod = null;
     this.validatedRequest = null;
-    this.attributes = RequestUtils.getAttributes(attributes);
-    this.excludedAttributes = RequestUtils.getAttributes(excludedAttributes);
+    this.projection = new AttributeProjection(attributes, excludedAttributes);
     this.baseUrlSupplier = null;
     this.resourceTypeFactory = null;
+    this.reuseDocumentNodes = false;
+    this.resourceNodeFactory = null;
   }
 
   private SchemaValidator(DirectionType directionType,
                           HttpMethod httpMethod,
                           JsonNode validatedRequest,
-                          String attributes,
-                          String excludedAttributes,
+                          AttributeProjection projection,
                           Supplier<String> baseUrlSupplier,
                           ResourceTypeFactory resourceTypeFactory)
   {
@@ -154,18 +166,18 @@ public class SchemaValidator
     this.httpMethod = httpMethod;
     this.extensionSchema = false;
     this.validatedRequest = validatedRequest;
-    this.attributes = RequestUtils.getAttributes(attributes);
-    this.excludedAttributes = RequestUtils.getAttributes(excludedAttributes);
+    this.projection = projection;
     this.baseUrlSupplier = baseUrlSupplier;
     this.resourceTypeFactory = resourceTypeFactory;
+    this.reuseDocumentNodes = false;
+    this.resourceNodeFactory = null;
   }
 
   private SchemaValidator(DirectionType directionType,
                           HttpMethod httpMethod,
                           boolean extensionSchema,
                           JsonNode validatedRequest,
-                          String attributes,
-                          String excludedAttributes,
+                          AttributeProjection projection,
                           Supplier<String> baseUrlSupplier,
                           ResourceTypeFactory resourceTypeFactory)
   {
@@ -173,10 +185,26 @@ public class SchemaValidator
     this.httpMethod = httpMethod;
     this.extensionSchema = extensionSchema;
     this.validatedRequest = validatedRequest;
-    this.attributes = RequestUtils.getAttributes(attributes);
-    this.excludedAttributes = RequestUtils.getAttributes(excludedAttributes);
+    this.projection = projection;
     this.baseUrlSupplier = baseUrlSupplier;
     this.resourceTypeFactory = resourceTypeFactory;
+    this.reuseDocumentNodes = false;
+    this.resourceNodeFactory = null;
+  }
+
+  private SchemaValidator(HttpMethod httpMethod,
+                          boolean extensionSchema,
+                          Supplier<? extends ObjectNode> resourceNodeFactory)
+  {
+    this.directionType = DirectionType.REQUEST;
+    this.httpMethod = httpMethod;
+    this.extensionSchema = extensionSchema;
+    this.validatedRequest = null;
+    this.projection = new AttributeProjection(null, null);
+    this.baseUrlSupplier = null;
+    this.resourceTypeFactory = null;
+    this.reuseDocumentNodes = true;
+    this.resourceNodeFactory = resourceNodeFactory;
   }
 
   /**
@@ -222,7 +250,7 @@ public class SchemaValidator
    * @param validatedRequest this parameter is used for attributes that have a returned value of
    *          {@link Returned#REQUEST}. Those attributes should only be returned if the attribute was modified
    *          on a POST, PUT or PATCH request or in a query request only if the attribute is present within the
-   *          {@link #attributes} parameter. So the validated request tells us if the client tried to write to
+   *          "attributes" parameter. So the validated request tells us if the client tried to write to
    *          the attribute and if this is the case the attribute should be returned
    * @param attributes When specified, the default list of attributes SHALL be overridden, and each resource
    *          returned MUST contain the minimum set of resource attributes and any attributes or sub-attributes
@@ -245,13 +273,41 @@ public class SchemaValidator
                                                      String excludedAttributes,
                                                      Supplier<String> baseUrlSupplier)
     throws DocumentValidationException
+  {
+    return validateDocumentForResponse(resourceTypeFactory,
+                                       resourceType,
+                                       document,
+                                       validatedRequest,
+                                       new AttributeProjection(attributes, excludedAttributes),
+                                       baseUrlSupplier);
+  }
+
+  /**
+   * will validate an outgoing document against its main schema and all its extensions. This method does the
+   * same as {@link #validateDocumentForResponse(ResourceTypeFactory, ResourceType, JsonNode, JsonNode, String,
+   * String, Supplier)} but accepts an already resolved projection of the "attributes" and "excludedAttributes"
+   * parameters so that the projection can be shared by all resources of the same request
+   *
+   * @param resourceType the resource type definition of the outgoing document
+   * @param document the document that should be validated
+   * @param validatedRequest the validated request document or null
+   * @param projection the resolved "attributes" and "excludedAttributes" parameters
+   * @return the validated document that consists of {@link ScimNode}s
+   * @throws DocumentValidationException if the schema validation failed
+   */
+  public static JsonNode validateDocumentForResponse(ResourceTypeFactory resourceTypeFactory,
+                                                     ResourceType resourceType,
+                                                     JsonNode document,
+                                                     JsonNode validatedRequest,
+                                                     AttributeProjection projection,
+                                                     Supplier<String> baseUrlSupplier)
+    throws DocumentValidationException
   {
     ResourceType.ResourceSchema resourceSchema = resourceType.getResourceSchema(document);
     JsonNode validatedMainDocument = validateDocumentForResponse(resourceSchema.getMetaSchema(),
                                                                  document,
                                                                  validatedRequest,
-                                                                 attributes,
-                                                                 excludedAttributes,
+                                                                 projection,
                                                                  baseUrlSupplier,
                                                                  resourceTypeFactory);
     validatedForMissingRequiredExtension(resourceType, document, DirectionType.RESPONSE);
@@ -267,8 +323,7 @@ public class SchemaValidator
                                                             extension,
                                                             validatedRequest == null ? null
                                                               : validatedRequest.get(schemaExtension.getNonNullId()),
-                                                            attributes,
-                                                            excludedAttributes,
+                                                            projection,
                                                             baseUrlSupplier,
                                                             resourceTypeFactory);
       if (extensionNode == null)
@@ -289,8 +344,7 @@ public class SchemaValidator
       validatedMeta = validateExtensionForResponse(metaSchema,
                                                    document,
                                                    validatedRequest,
-                                                   attributes,
-                                                   excludedAttributes,
+                                                   projection,
                                                    baseUrlSupplier,
                                                    resourceTypeFactory);
     }
@@ -342,7 +396,7 @@ public class SchemaValidator
    * @param validatedRequest this parameter is used for attributes that have a returned value of
    *          {@link Returned#REQUEST}. Those attributes should only be returned if the attribute was modified
    *          on a POST, PUT or PATCH request or in a query request only if the attribute is present within the
-   *          {@link #attributes} parameter. So the validated request tells us if the client tried to write to
+   *          "attributes" parameter. So the validated request tells us if the client tried to write to
    *          the attribute and if this is the case the attribute should be returned write to the attribute and
    *          if this is the case the attribute should be returned
    * @param attributes When specified, the default list of attributes SHALL be overridden, and each resource
@@ -365,8 +419,33 @@ public class SchemaValidator
                                                         Supplier<String> baseUrlSupplier,
                                                         ResourceTypeFactory resourceTypeFactory)
   {
-    SchemaValidator schemaValidator = new SchemaValidator(DirectionType.RESPONSE, null, validatedRequest, attributes,
-                                                          excludedAttributes, baseUrlSupplier, resourceTypeFactory);
+    return validateDocumentForResponse(metaSchema,
+                                       document,
+                                       validatedRequest,
+                                       new AttributeProjection(attributes, excludedAttributes),
+                                       baseUrlSupplier,
+                                       resourceTypeFactory);
+  }
+
+  /**
+   * will validate an outgoing document against its main schema with an already resolved projection of the
+   * "attributes" and "excludedAttributes" parameters
+   *
+   * @param metaSchema the json meta schema definition of the document
+   * @param document the document to validate
+   * @param validatedRequest the validated request document or null
+   * @param projection the resolved "attributes" and "excludedAttributes" parameters
+   * @return the validated document that consists of {@link ScimNode}s
+   */
+  private static JsonNode validateDocumentForResponse(Schema metaSchema,
+                                                      JsonNode document,
+                                                      JsonNode validatedRequest,
+                                                      AttributeProjection projection,
+                                                      Supplier<String> baseUrlSupplier,
+                                                      ResourceTypeFactory resourceTypeFactory)
+  {
+    SchemaValidator schemaValidator = new SchemaValidator(DirectionType.RESPONSE, null, validatedRequest, projection,
+                                                          baseUrlSupplier, resourceTypeFactory);
     try
     {
       return schemaValidator.validateDocument(metaSchema, document);
@@ -389,21 +468,19 @@ public class SchemaValidator
    * @param validatedRequest this parameter is used for attributes that have a returned value of
    *          {@link Returned#REQUEST}. Those attributes should only be returned if the attribute was modified
    *          on a POST, PUT or PATCH request or in a query request only if the attribute is present within the
-   *          {@link #attributes} parameter. So the validated request tells us if the client tried to write to
+   *          "attributes" parameter. So the validated request tells us if the client tried to write to
    *          the attribute and if this is the case the attribute should be returned
    * @return the validated document that consists of {@link ScimNode}s
    */
   private static JsonNode validateExtensionForResponse(Schema metaSchema,
                                                        JsonNode document,
                                                        JsonNode validatedRequest,
-                                                       String attributes,
-                                                       String excludedAttributes,
+                                                       AttributeProjection projection,
                                                        Supplier<String> baseUrlSupplier,
                                                        ResourceTypeFactory resourceTypeFactory)
   {
     SchemaValidator schemaValidator = new SchemaValidator(DirectionType.RESPONSE, null, true, validatedRequest,
-                                                          attributes, excludedAttributes, baseUrlSupplier,
-                                                          resourceTypeFactory);
+                                                          projection, baseUrlSupplier, resourceTypeFactory);
     try
     {
       return schemaValidator.validateDocument(metaSchema, document);
@@ -431,9 +508,54 @@ public class SchemaValidator
    */
   public static JsonNode validateDocumentForRequest(ResourceType resourceType, JsonNode document, HttpMethod httpMethod)
     throws DocumentValidationException
+  {
+    return validateDocumentForRequest(resourceType,
+                                      document,
+                                      metaSchema -> validateDocumentForRequest(metaSchema, document, httpMethod),
+                                      (schemaExtension, extension) -> validateExtensionForRequest(schemaExtension,
+                                                                                                  extension,
+                                                                                                  httpMethod));
+  }
+
+  /**
+   * validates a document that was built by the {@link RequestDocumentReader}. The complex nodes of the document
+   * are validated in place and the validated document itself is created by the given factory so that no further
+   * copy of the document is necessary
+   *
+   * @param resourceType the resource type definition of the incoming document
+   * @param document the document that was built by the {@link RequestDocumentReader}
+   * @param httpMethod the request http method that is used to validate the request-document
+   * @param resourceNodeFactory creates the top level node of the validated document
+   * @return the validated document
+   * @throws DocumentValidationException if the schema validation failed
+   */
+  static <T extends ObjectNode> T validateReadDocumentForRequest(ResourceType resourceType,
+                                                                 JsonNode document,
+                                                                 HttpMethod httpMethod,
+                                                                 Supplier<T> resourceNodeFactory)
+    throws DocumentValidationException
+  {
+    Function<Schema, JsonNode> mainValidation = metaSchema -> {
+      SchemaValidator schemaValidator = new SchemaValidator(httpMethod, false, resourceNodeFactory);
+      return schemaValidator.validateDocumentForRequest(metaSchema, document);
+    };
+    BiFunction<Schema, JsonNode, JsonNode> extensionValidation = (schemaExtension, extension) -> {
+      SchemaValidator schemaValidator = new SchemaValidator(httpMethod, true, null);
+      return schemaValidator.validateDocumentForRequest(schemaExtension, extension);
+    };
+    return (T)validateDocumentForRequest(resourceType, document, mainValidation, extensionValidation);
+  }
+
+  /**
+   * validates the main document and its extensions with the given validation functions
+   */
+  private static JsonNode validateDocumentForRequest(ResourceType resourceType,
+                                                     JsonNode document,
+                                                     Function<Schema, JsonNode> mainValidation,
+                                                     BiFunction<Schema, JsonNode, JsonNode> extensionValidation)
   {
     ResourceType.ResourceSchema resourceSchema = resourceType.getResourceSchema(document);
-    JsonNode validatedMainDocument = validateDocumentForRequest(resourceSchema.getMetaSchema(), document, httpMethod);
+    JsonNode validatedMainDocument = mainValidation.apply(resourceSchema.getMetaSchema());
     if (validatedMainDocument == null)
     {
       throw new DocumentValidationException("the received document is invalid and does not contain any data. The "
@@ -450,7 +572,7 @@ public class SchemaValidator
         // the extension so go on to the next one
         continue;
       }
-      JsonNode extensionNode = validateExtensionForRequest(schemaExtension, extension, httpMethod);
+      JsonNode extensionNode = extensionValidation.apply(schemaExtension, extension);
       if (extensionNode == null)
       {
         JsonHelper.getArrayAttribute(validatedMainDocument, AttributeNames.RFC7643.SCHEMAS).ifPresent(arrayNode -> {
@@ -542,11 +664,23 @@ public class SchemaValidator
    */
   protected static JsonNode validateDocumentForRequest(Schema metaSchema, JsonNode document, HttpMethod httpMethod)
   {
-    SchemaValidator schemaValidator = new SchemaValidator(DirectionType.REQUEST, httpMethod, null, null, null, null,
-                                                          null);
+    SchemaValidator schemaValidator = new SchemaValidator(DirectionType.REQUEST, httpMethod, null,
+                                                          new AttributeProjection(null, null), null, null);
+    return schemaValidator.validateDocumentForRequest(metaSchema, document);
+  }
+
+  /**
+   * validates the given document as request document
+   *
+   * @param metaSchema the json meta schema definition of the document
+   * @param document the document to validate
+   * @return the validated document that consists of {@link ScimNode}s
+   */
+  private JsonNode validateDocumentForRequest(Schema metaSchema, JsonNode document)
+  {
     try
     {
-      return schemaValidator.validateDocument(metaSchema, document);
+      return validateDocument(metaSchema, document);
     }
     catch (ScimException ex)
     {
@@ -569,11 +703,35 @@ public class SchemaValidator
    */
   protected static JsonNode validateExtensionForRequest(Schema metaSchema, JsonNode document, HttpMethod httpMethod)
   {
-    SchemaValidator schemaValidator = new SchemaValidator(DirectionType.REQUEST, httpMethod, true, null, null, null,
-                                                          null, null);
+    SchemaValidator schemaValidator = new SchemaValidator(DirectionType.REQUEST, httpMethod, true, null,
+                                                          new AttributeProjection(null, null), null, null);
+    return schemaValidator.validateDocumentForRequest(metaSchema, document);
+  }
+
+  /**
+   * validates the value of a single attribute without the document that contains the attribute. This is used to
+   * validate the values of patch operations that are applied by the backend without loading the resource
+   *
+   * @param schemaAttribute the definition of the attribute
+   * @param attribute the value of the attribute. This must be an array if the attribute is multivalued
+   * @param httpMethod the request http method that is used to validate the attribute
+   * @return the validated attribute or null if nothing was left after validation
+   */
+  public static JsonNode validateAttributeForRequest(SchemaAttribute schemaAttribute,
+                                                     JsonNode attribute,
+                                                     HttpMethod httpMethod)
+  {
+    SchemaValidator schemaValidator = new SchemaValidator(DirectionType.REQUEST, httpMethod, null,
+                                                          new AttributeProjection(null, null), null, null);
+    ObjectNode document = new ScimObjectNode(schemaAttribute.getParent());
+    document.set(schemaAttribute.getName(), attribute);
+    AttributeValidationPlan attributePlan = new AttributeValidationPlan(schemaAttribute);
     try
     {
-      return schemaValidator.validateDocument(metaSchema, document);
+      JsonNode validatedDocument = schemaValidator.validateAttributes(Collections.singletonList(attributePlan),
+                                                                      document,
+                                                                      schemaAttribute.getParent());
+      return validatedDocument == null ? null : validatedDocument.get(schemaAttribute.getName());
     }
     catch (ScimException ex)
     {
@@ -623,7 +781,7 @@ public class SchemaValidator
     {
       schemasNode = checkDocumentAndMetaSchemaRelationship(metaSchema, document);
     }
-    JsonNode validatedDocument = validateAttributes(metaSchema.getAttributes(), document, null);
+    JsonNode validatedDocument = validateAttributes(metaSchema.getValidationPlan(), document, null);
     if (validatedDocument != null && schemasNode != null)
     {
       JsonHelper.addAttribute(validatedDocument, AttributeNames.RFC7643.SCHEMAS, schemasNode);
@@ -640,42 +798,70 @@ public class SchemaValidator
    *          given to the new {@link SchemaAttribute} object
    * @return the validated document that consists of {@link ScimNode}s
    */
-  private JsonNode validateAttributes(List<SchemaAttribute> metaAttributes,
+  private JsonNode validateAttributes(List<AttributeValidationPlan> metaAttributes,
                                       JsonNode document,
                                       SchemaAttribute parentAttribute)
   {
-    JsonNode scimNode = new ScimObjectNode(parentAttribute);
-    for ( SchemaAttribute metaAttribute : metaAttributes )
+    ObjectNode scimNode = createValidatedNode(document, parentAttribute);
+    boolean isValidatedInPlace = scimNode == document;
+    boolean hasAttributes = false;
+    for ( AttributeValidationPlan metaAttribute : metaAttributes )
     {
       if (document == null)
       {
         validateIsRequired(null, metaAttribute);
         continue;
       }
-      checkMetaAttributeOnDocument(document, metaAttribute).ifPresent(childNode -> {
-        if (!(childNode.isArray() && childNode.size() == 0))
-        {
-          JsonHelper.addAttribute(scimNode, metaAttribute.getName(), childNode);
-        }
-      });
+      JsonNode childNode = checkMetaAttributeOnDocument(document, metaAttribute).orElse(null);
+      if (childNode != null && !(childNode.isArray() && childNode.size() == 0))
+      {
+        JsonHelper.addAttribute(scimNode, metaAttribute.getName(), childNode);
+        hasAttributes = true;
+      }
+      else if (isValidatedInPlace)
+      {
+        scimNode.remove(metaAttribute.getName());
+      }
     }
-    if (scimNode.size() == 0)
+    if (!hasAttributes)
     {
       return null;
     }
     return scimNode;
   }
 
+  /**
+   * creates the node that takes the validated attributes of the given document. Complex nodes that were built by
+   * the {@link RequestDocumentReader} are validated in place
+   *
+   * @param document the document that is validated
+   * @param parentAttribute the definition of the complex attribute or null for the top level node
+   * @return the node that takes the validated attributes
+   */
+  private ObjectNode createValidatedNode(JsonNode document, SchemaAttribute parentAttribute)
+  {
+    if (parentAttribute == null && resourceNodeFactory != null)
+    {
+      return resourceNodeFactory.get();
+    }
+    if (reuseDocumentNodes && document instanceof ScimObjectNode
+        && ((ScimObjectNode)document).getSchemaAttribute() == parentAttribute)
+    {
+      return (ObjectNode)document;
+    }
+    return new ScimObjectNode(parentAttribute);
+  }
+
   /**
    * will check a single meta-attribute on the given document
    *
    * @param document the document to validate
-   * @param schemaAttribute the single meta-attribute that will be validated against the given document
+   * @param attributePlan the single meta-attribute that will be validated against the given document
    * @return the attribute if present in the document an empty else
    */
-  private Optional<JsonNode> checkMetaAttributeOnDocument(JsonNode document, SchemaAttribute schemaAttribute)
+  private Optional<JsonNode> checkMetaAttributeOnDocument(JsonNode document, AttributeValidationPlan attributePlan)
   {
-    JsonNode documentNode = document.get(schemaAttribute.getName());
+    JsonNode documentNode = document.get(attributePlan.getName());
     if (documentNode != null && documentNode.isNull())
     {
       // simplify further validations by normalizing NullNode to null
@@ -684,46 +870,46 @@ public class SchemaValidator
     if (log.isTraceEnabled())
     {
       log.trace("validating attribute '{}' with value '{}'",
-                schemaAttribute.getName(),
+                attributePlan.getName(),
                 Optional.ofNullable(documentNode)
                         .map(JsonNode::textValue)
                         .orElse(Optional.ofNullable(documentNode).map(JsonNode::toString).orElse(null)));
     }
-    validateIsRequired(documentNode, schemaAttribute);
+    validateIsRequired(documentNode, attributePlan);
     if (directionType != null && directionType.equals(DirectionType.RESPONSE) && documentNode == null
-        && schemaAttribute.getReferenceTypes().contains(ReferenceTypes.RESOURCE))
+        && attributePlan.getReferenceTypes().contains(ReferenceTypes.RESOURCE))
     {
       // this block is used for automatically setting $ref values if not already present on complex
       // resource-references
-      Optional<JsonNode> overriddenReferenceNode = overrideEmptyReferenceNode(document, schemaAttribute);
+      Optional<JsonNode> overriddenReferenceNode = overrideEmptyReferenceNode(document, attributePlan);
       if (overriddenReferenceNode.isPresent())
       {
         documentNode = overriddenReferenceNode.get();
       }
       else
       {
-        validateNonPresentAttributes(schemaAttribute);
+        validateNonPresentAttributes(attributePlan);
         return Optional.empty();
       }
     }
     else if (documentNode == null)
     {
-      validateNonPresentAttributes(schemaAttribute);
+      validateNonPresentAttributes(attributePlan);
       return Optional.empty();
     }
-    else if (!validatePresentAttributes(schemaAttribute))
+    else if (!validatePresentAttributes(attributePlan))
     {
       return Optional.empty();
     }
-    documentNode = validateComplexAndArrayTypeAttribute(documentNode, schemaAttribute);
+    documentNode = validateComplexAndArrayTypeAttribute(documentNode, attributePlan);
 
-    if (schemaAttribute.isMultiValued())
+    if (attributePlan.isMultiValued())
     {
-      return handleMultivaluedNodes(documentNode, schemaAttribute);
+      return handleMultivaluedNodes(documentNode, attributePlan);
     }
     else
     {
-      return handleNode(documentNode, schemaAttribute);
+      return handleNode(documentNode, attributePlan);
     }
   }
 
@@ -733,26 +919,19 @@ public class SchemaValidator
    *
    * @param document the complex object node that represents a resource reference e.g. a member-attribute of the
    *          group resource
-   * @param schemaAttribute the attribute definition of the current node
+   * @param attributePlan the attribute definition of the current node
    * @return the overridden $ref node or an empty if overriding is not possible due to lack of information
    */
-  private Optional<JsonNode> overrideEmptyReferenceNode(JsonNode document, SchemaAttribute schemaAttribute)
+  private Optional<JsonNode> overrideEmptyReferenceNode(JsonNode document, AttributeValidationPlan attributePlan)
   {
-    SchemaAttribute parentAttribute = schemaAttribute.getParent();
-    Optional<SchemaAttribute> valueAttribute = parentAttribute.getSubAttributes().stream().filter(attribute -> {
-      return attribute.getName().equals(AttributeNames.RFC7643.VALUE);
-    }).findAny();
-    Optional<SchemaAttribute> typeAttribute = parentAttribute.getSubAttributes().stream().filter(attribute -> {
-      return attribute.getName().equals(AttributeNames.RFC7643.TYPE);
-    }).findAny();
-    if (!valueAttribute.isPresent() || !typeAttribute.isPresent())
+    if (!attributePlan.isResolvableResourceReference())
     {
       return Optional.empty();
     }
-    String referenceId = Optional.ofNullable(document.get(valueAttribute.get().getName()))
+    String referenceId = Optional.ofNullable(document.get(AttributeNames.RFC7643.VALUE))
                                  .map(JsonNode::textValue)
                                  .orElse(null);
-    String typeReference = Optional.ofNullable(document.get(typeAttribute.get().getName()))
+    String typeReference = Optional.ofNullable(document.get(AttributeNames.RFC7643.TYPE))
                                    .map(JsonNode::textValue)
                                    .orElse(null);
     ResourceType referencedResourceType = resourceTypeFactory.getResourceTypeByName(typeReference).orElse(null);
@@ -763,10 +942,10 @@ public class SchemaValidator
     }
 
     ObjectNode objectNode = (ObjectNode)document;
-    JsonNode newReferencenode = new ScimTextNode(schemaAttribute,
+    JsonNode newReferencenode = new ScimTextNode(attributePlan.getSchemaAttribute(),
                                                  baseUrlSupplier.get() + referencedResourceType.getEndpoint() + "/"
                                                                   + referenceId);
-    objectNode.set(schemaAttribute.getName(), newReferencenode);
+    objectNode.set(attributePlan.getName(), newReferencenode);
     return Optional.of(newReferencenode);
   }
 
@@ -776,23 +955,26 @@ public class SchemaValidator
    * single attribute
    *
    * @param document the document part to validate
-   * @param schemaAttribute the meta information of the attribute
+   * @param attributePlan the meta information of the attribute
    */
-  private JsonNode validateComplexAndArrayTypeAttribute(JsonNode document, SchemaAttribute schemaAttribute)
+  private JsonNode validateComplexAndArrayTypeAttribute(JsonNode document, AttributeValidationPlan attributePlan)
   {
     Supplier<String> errorMessage = () -> String.format("the attribute '%s' does not apply to its defined type. The "
                                                         + "received document node is of type '%s' but the schema"
                                                         + " defintion is as follows: \n\tmultivalued: %s\n\ttype: "
                                                         + "%s\nfor schema with id %s\n%s",
-                                                        schemaAttribute.getScimNodeName(),
+                                                        attributePlan.getScimNodeName(),
                                                         document.getNodeType(),
-                                                        schemaAttribute.isMultiValued(),
-                                                        schemaAttribute.getType(),
-                                                        schemaAttribute.getSchema().getId().orElse(null),
+                                                        attributePlan.isMultiValued(),
+                                                        attributePlan.getType(),
+                                                        attributePlan.getSchemaAttribute()
+                                                                     .getSchema()
+                                                                     .getId()
+                                                                     .orElse(null),
                                                         document.toString());
-    if (schemaAttribute.isMultiValued())
+    if (attributePlan.isMultiValued())
     {
-      boolean isComplexExpected = Type.COMPLEX.equals(schemaAttribute.getType());
+      boolean isComplexExpected = Type.COMPLEX.equals(attributePlan.getType());
       boolean isNodeMultiValuedComplex = document == null
                                          || document.isArray() && document.size() > 0 && document.get(0).isObject()
                                          || document.isArray() && document.size() == 0;
@@ -802,7 +984,7 @@ public class SchemaValidator
 
       if (isSimpleMultiValuedExpected && !isNodeSimpleMultiValued && !isNodeMultiValuedComplex)
       {
-        ArrayNode arrayNode = new ScimArrayNode(schemaAttribute);
+        ArrayNode arrayNode = new ScimArrayNode(attributePlan.getSchemaAttribute());
         arrayNode.add(document);
         return arrayNode;
       }
@@ -812,7 +994,7 @@ public class SchemaValidator
         throw new DocumentValidationException(errorMessage.get(), null, getHttpStatus(), null);
       }
     }
-    else if (Type.COMPLEX.equals(schemaAttribute.getType()))
+    else if (Type.COMPLEX.equals(attributePlan.getType()))
     {
       boolean isNodeComplex = document == null || document.isObject();
       if (!isNodeComplex)
@@ -827,26 +1009,26 @@ public class SchemaValidator
    * validates attributes that are marked as multiValued attributes in the meta attribute
    *
    * @param document the document that holds the multiValued attribute
-   * @param schemaAttribute the meta information of the attribute
+   * @param attributePlan the meta information of the attribute
    * @return the attribute if present in the document or an empty else
    */
-  private Optional<JsonNode> handleMultivaluedNodes(JsonNode document, SchemaAttribute schemaAttribute)
+  private Optional<JsonNode> handleMultivaluedNodes(JsonNode document, AttributeValidationPlan attributePlan)
   {
-    if (Type.COMPLEX.equals(schemaAttribute.getType()))
+    if (Type.COMPLEX.equals(attributePlan.getType()))
     {
       // we will throw an exception if the primary counter exceeds 1
       AtomicInteger countPrimary = new AtomicInteger(0);
-      return handleMultivaluedNode(document, schemaAttribute, (jsonNode, scimArrayNode) -> {
-        countPrimary.set(checkForPrimary(jsonNode, schemaAttribute, countPrimary.get()));
-        handleComplexNode(jsonNode, schemaAttribute).ifPresent(returnedAttribute -> {
+      return handleMultivaluedNode(document, attributePlan, (jsonNode, scimArrayNode) -> {
+        countPrimary.set(checkForPrimary(jsonNode, attributePlan, countPrimary.get()));
+        handleComplexNode(jsonNode, attributePlan).ifPresent(returnedAttribute -> {
           JsonHelper.addAttributeToArray(scimArrayNode, returnedAttribute);
         });
       });
     }
     else
     {
-      return handleMultivaluedNode(document, schemaAttribute, (jsonNode, scimArrayNode) -> {
-        JsonNode attribute = handleSimpleNode(jsonNode, schemaAttribute);
+      return handleMultivaluedNode(document, attributePlan, (jsonNode, scimArrayNode) -> {
+        JsonNode attribute = handleSimpleNode(jsonNode, attributePlan);
         JsonHelper.addAttributeToArray(scimArrayNode, attribute);
       });
     }
@@ -860,7 +1042,7 @@ public class SchemaValidator
    * @param primaryCounter the current number of found primary values
    * @return the new calculated number of primary values
    */
-  private int checkForPrimary(JsonNode jsonNode, SchemaAttribute schemaAttribute, int primaryCounter)
+  private int checkForPrimary(JsonNode jsonNode, AttributeValidationPlan attributePlan, int primaryCounter)
   {
     boolean isPrimary = JsonHelper.getSimpleAttribute(jsonNode, AttributeNames.RFC7643.PRIMARY, Boolean.class)
                                   .orElse(false);
@@ -868,7 +1050,7 @@ public class SchemaValidator
     if (counter > 1)
     {
       String errorMessage = "multiple primary values detected in attribute with name '"
-                            + schemaAttribute.getFullResourceName() + "'";
+                            + attributePlan.getFullResourceName() + "'";
       throw getException(errorMessage, null);
     }
     return counter;
@@ -878,13 +1060,13 @@ public class SchemaValidator
    * handles a json array with complex node types
    *
    * @param document the document that should be validated
-   * @param schemaAttribute the meta information of the attribute
+   * @param attributePlan the meta information of the attribute
    * @param handleMultivaluedNode a consumer that handles either a simple multivalued node or a multivalued
    *          complex node
    * @return the attribute if present in the document or an empty else
    */
   private Optional<JsonNode> handleMultivaluedNode(JsonNode document,
-                                                   SchemaAttribute schemaAttribute,
+                                                   AttributeValidationPlan attributePlan,
                                                    BiConsumer<JsonNode, ScimArrayNode> handleMultivaluedNode)
   {
     ArrayNode arrayNode;
@@ -897,16 +1079,26 @@ public class SchemaValidator
       arrayNode = new ArrayNode(JsonNodeFactory.instance);
       arrayNode.add(document);
     }
-    ScimArrayNode scimArrayNode = new ScimArrayNode(schemaAttribute);
+    ScimArrayNode scimArrayNode = new ScimArrayNode(attributePlan.getSchemaAttribute());
+    Map<JsonNode, JsonNode> uniqueValues = Uniqueness.NONE.equals(attributePlan.getUniqueness()) ? null
+      : new HashMap<>();
     for ( JsonNode jsonNode : arrayNode )
     {
-      checkForUniqueAttribute(schemaAttribute, scimArrayNode, jsonNode);
+      checkForUniqueAttribute(attributePlan, uniqueValues, jsonNode);
+      int numberOfValues = scimArrayNode.size();
       handleMultivaluedNode.accept(jsonNode, scimArrayNode);
+      if (uniqueValues != null)
+      {
+        for ( int i = numberOfValues ; i < scimArrayNode.size() ; i++ )
+        {
+          uniqueValues.putIfAbsent(scimArrayNode.get(i), scimArrayNode.get(i));
+        }
+      }
     }
-    AttributeValidator.validateArrayNode(schemaAttribute, scimArrayNode);
+    AttributeValidator.validateArrayNode(attributePlan.getSchemaAttribute(), scimArrayNode);
     if (scimArrayNode.size() == 0)
     {
-      validateNonPresentAttributes(schemaAttribute);
+      validateNonPresentAttributes(attributePlan);
       return Optional.empty();
     }
     return Optional.of(scimArrayNode);
@@ -916,18 +1108,18 @@ public class SchemaValidator
    * handles a simple json node with a primitive value
    *
    * @param document the document that should be validated
-   * @param schemaAttribute the meta information of the attribute
+   * @param attributePlan the meta information of the attribute
    * @return the attribute if present in the document or an empty else
    */
-  private Optional<JsonNode> handleNode(JsonNode document, SchemaAttribute schemaAttribute)
+  private Optional<JsonNode> handleNode(JsonNode document, AttributeValidationPlan attributePlan)
   {
-    if (Type.COMPLEX.equals(schemaAttribute.getType()))
+    if (Type.COMPLEX.equals(attributePlan.getType()))
     {
-      return handleComplexNode(document, schemaAttribute);
+      return handleComplexNode(document, attributePlan);
     }
     else
     {
-      return Optional.of(handleSimpleNode(document, schemaAttribute));
+      return Optional.of(handleSimpleNode(document, attributePlan));
     }
   }
 
@@ -937,44 +1129,45 @@ public class SchemaValidator
    * {@link #validateDocument(Schema, JsonNode)} to do its work
    *
    * @param document the document complex node to validate
-   * @param schemaAttribute the meta information of the attribute
+   * @param attributePlan the meta information of the attribute
    * @return the attribute if present in the document or an empty else
    */
-  private Optional<JsonNode> handleComplexNode(JsonNode document, SchemaAttribute schemaAttribute)
+  private Optional<JsonNode> handleComplexNode(JsonNode document, AttributeValidationPlan attributePlan)
   {
-    validateIsRequired(document, schemaAttribute);
-    List<SchemaAttribute> metaSubAttributes = schemaAttribute.getSubAttributes();
-    return Optional.ofNullable(validateAttributes(metaSubAttributes, document, schemaAttribute));
+    validateIsRequired(document, attributePlan);
+    List<AttributeValidationPlan> metaSubAttributes = attributePlan.getSubAttributePlans();
+    return Optional.ofNullable(validateAttributes(metaSubAttributes, document, attributePlan.getSchemaAttribute()));
   }
 
   /**
    * the handling of a simple json node with a primitive type
    *
    * @param simpleDocumentNode the simple value node that should be validated
-   * @param schemaAttribute the meta information of the attribute
+   * @param attributePlan the meta information of the attribute
    * @return the attribute as a {@link JsonNode} that implements the interface {@link ScimNode} in its
    *         corresponding node type
    */
-  private JsonNode handleSimpleNode(JsonNode simpleDocumentNode, SchemaAttribute schemaAttribute)
+  private JsonNode handleSimpleNode(JsonNode simpleDocumentNode, AttributeValidationPlan attributePlan)
   {
-    checkCanonicalValues(schemaAttribute, simpleDocumentNode);
-    Type type = schemaAttribute.getType();
+    checkCanonicalValues(attributePlan, simpleDocumentNode);
+    SchemaAttribute schemaAttribute = attributePlan.getSchemaAttribute();
+    Type type = attributePlan.getType();
     switch (type)
     {
       case ANY:
         return new ScimTextNode(schemaAttribute, simpleDocumentNode.isTextual() ? simpleDocumentNode.textValue()
           : simpleDocumentNode.toString());
       case STRING:
-        isNodeOfExpectedType(schemaAttribute,
+        isNodeOfExpectedType(attributePlan,
                              simpleDocumentNode,
                              jsonNode -> jsonNode.isTextual() || jsonNode.isObject());
         return new ScimTextNode(schemaAttribute, simpleDocumentNode.isTextual() ? simpleDocumentNode.textValue()
           : simpleDocumentNode.toString());
       case BOOLEAN:
-        isNodeOfExpectedType(schemaAttribute, simpleDocumentNode, JsonNode::isBoolean);
+        isNodeOfExpectedType(attributePlan, simpleDocumentNode, JsonNode::isBoolean);
         return new ScimBooleanNode(schemaAttribute, simpleDocumentNode.booleanValue());
       case INTEGER:
-        isNodeOfExpectedType(schemaAttribute,
+        isNodeOfExpectedType(attributePlan,
                              simpleDocumentNode,
                              jsonNode -> jsonNode.isInt() || jsonNode.isLong() || jsonNode.isBigDecimal());
         if (simpleDocumentNode.intValue() == simpleDocumentNode.longValue())
@@ -986,18 +1179,18 @@ public class SchemaValidator
           return new ScimLongNode(schemaAttribute, simpleDocumentNode.intValue());
         }
       case DECIMAL:
-        isNodeOfExpectedType(schemaAttribute,
+        isNodeOfExpectedType(attributePlan,
                              simpleDocumentNode,
                              jsonNode -> jsonNode.isInt() || jsonNode.isLong() || jsonNode.isFloat()
                                          || jsonNode.isDouble() || jsonNode.isBigDecimal());
         return new ScimDoubleNode(schemaAttribute, simpleDocumentNode.doubleValue());
       case DATE_TIME:
-        isNodeOfExpectedType(schemaAttribute, simpleDocumentNode, JsonNode::isTextual);
+        isNodeOfExpectedType(attributePlan, simpleDocumentNode, JsonNode::isTextual);
         parseDateTime(simpleDocumentNode.textValue());
         return new ScimTextNode(schemaAttribute, simpleDocumentNode.textValue());
       default:
-        isNodeOfExpectedType(schemaAttribute, simpleDocumentNode, JsonNode::isTextual);
-        validateValueNodeWithReferenceTypes(schemaAttribute, simpleDocumentNode);
+        isNodeOfExpectedType(attributePlan, simpleDocumentNode, JsonNode::isTextual);
+        validateValueNodeWithReferenceTypes(attributePlan, simpleDocumentNode);
         return new ScimTextNode(schemaAttribute, simpleDocumentNode.textValue());
     }
   }
@@ -1007,21 +1200,21 @@ public class SchemaValidator
    * present within the document.
    *
    * @param document the document that should contain the attribute
-   * @param schemaAttribute the meta information of the attribute
+   * @param attributePlan the meta information of the attribute
    */
-  private void validateIsRequired(JsonNode document, SchemaAttribute schemaAttribute)
+  private void validateIsRequired(JsonNode document, AttributeValidationPlan attributePlan)
   {
-    if (!schemaAttribute.isRequired())
+    if (!attributePlan.isRequired())
     {
       return;
     }
     if (DirectionType.REQUEST.equals(directionType))
     {
-      validateIsRequiredForRequest(document, schemaAttribute);
+      validateIsRequiredForRequest(document, attributePlan);
     }
     else
     {
-      validateIsRequiredForResponse(document, schemaAttribute);
+      validateIsRequiredForResponse(document, attributePlan);
     }
   }
 
@@ -1029,22 +1222,22 @@ public class SchemaValidator
    * checks if the attribute is required in a request
    *
    * @param document the document that should contain the attribute
-   * @param schemaAttribute the meta information of the attribute
+   * @param attributePlan the meta information of the attribute
    */
-  private void validateIsRequiredForRequest(JsonNode document, SchemaAttribute schemaAttribute)
+  private void validateIsRequiredForRequest(JsonNode document, AttributeValidationPlan attributePlan)
   {
     boolean isNodeNull = document == null || document.isNull();
-    Supplier<String> errorMessage = () -> "the attribute '" + schemaAttribute.getFullResourceName() + "' is required "
+    Supplier<String> errorMessage = () -> "the attribute '" + attributePlan.getFullResourceName() + "' is required "
                                           + (httpMethod == null ? "" : "for http method '" + httpMethod + "' ")
-                                          + "\n\tmutability: '" + schemaAttribute.getMutability() + "'"
-                                          + "\n\treturned: '" + schemaAttribute.getReturned() + "'";
-    if ((Mutability.READ_WRITE.equals(schemaAttribute.getMutability())
-         || Mutability.WRITE_ONLY.equals(schemaAttribute.getMutability()))
+                                          + "\n\tmutability: '" + attributePlan.getMutability() + "'"
+                                          + "\n\treturned: '" + attributePlan.getReturned() + "'";
+    if ((Mutability.READ_WRITE.equals(attributePlan.getMutability())
+         || Mutability.WRITE_ONLY.equals(attributePlan.getMutability()))
         && isNodeNull)
     {
       throw new DocumentValidationException(errorMessage.get(), null, getHttpStatus(), ScimType.Custom.REQUIRED);
     }
-    else if (Mutability.IMMUTABLE.equals(schemaAttribute.getMutability()) && HttpMethod.POST.equals(httpMethod)
+    else if (Mutability.IMMUTABLE.equals(attributePlan.getMutability()) && HttpMethod.POST.equals(httpMethod)
              && isNodeNull)
     {
       throw new DocumentValidationException(errorMessage.get(), null, getHttpStatus(), ScimType.Custom.REQUIRED);
@@ -1055,9 +1248,9 @@ public class SchemaValidator
    * checks if the attribute is required in a response
    *
    * @param document the document that should contain the attribute
-   * @param schemaAttribute the meta information of the attribute
+   * @param attributePlan the meta information of the attribute
    */
-  private void validateIsRequiredForResponse(JsonNode document, SchemaAttribute schemaAttribute)
+  private void validateIsRequiredForResponse(JsonNode document, AttributeValidationPlan attributePlan)
   {
     boolean isNodeNull = document == null || document.isNull();
     // @formatter:off
@@ -1071,84 +1264,88 @@ public class SchemaValidator
                                                           "\n\t\tmultivalued: '%s'" +
                                                           "\n\t\trequired: '%s'" +
                                                           "\n\t\tcaseExact: '%s'",
-                                                        schemaAttribute.getFullResourceName(),
-                                                        schemaAttribute.getName(),
-                                                        schemaAttribute.getType().toString(),
-                                                        schemaAttribute.getDescription(),
-                                                        schemaAttribute.getMutability(),
-                                                        schemaAttribute.getReturned(),
-                                                        schemaAttribute.getUniqueness().toString(),
-                                                        schemaAttribute.isMultiValued(),
-                                                        schemaAttribute.isRequired(),
-                                                        schemaAttribute.isCaseExact());
+                                                        attributePlan.getFullResourceName(),
+                                                        attributePlan.getName(),
+                                                        attributePlan.getType().toString(),
+                                                        attributePlan.getSchemaAttribute().getDescription(),
+                                                        attributePlan.getMutability(),
+                                                        attributePlan.getReturned(),
+                                                        attributePlan.getUniqueness().toString(),
+                                                        attributePlan.isMultiValued(),
+                                                        attributePlan.isRequired(),
+                                                        attributePlan.isCaseExact());
     // @formatter:on
-    if (isNodeNull && !Mutability.WRITE_ONLY.equals(schemaAttribute.getMutability()))
+    if (isNodeNull && !Mutability.WRITE_ONLY.equals(attributePlan.getMutability()))
     {
       throw getException(errorMessage.get(), null);
     }
   }
 
   /**
-   * this method checks if the given array does already contain an equally jsonNode as the given one and throws
-   * an exception if the uniqueness is not set to none
+   * this method checks if the already added values of an array do contain an equally jsonNode as the given one
+   * and throws an exception if the uniqueness is not set to none. The added values are kept in a hash map so that
+   * a new value is only compared with the values that have the same structural hash instead of all values of the
+   * array
    *
-   * @param schemaAttribute the attribute definition
-   * @param scimArrayNode the scimArrayNode that should not contain any duplicate nodes
+   * @param attributePlan the attribute definition
+   * @param uniqueValues the values that were already added to the array or null if the uniqueness is none
    * @param jsonNode the node that should not have any duplicates if the uniqueness has another value than none
    */
-  private void checkForUniqueAttribute(SchemaAttribute schemaAttribute, ScimArrayNode scimArrayNode, JsonNode jsonNode)
+  private void checkForUniqueAttribute(AttributeValidationPlan attributePlan,
+                                       Map<JsonNode, JsonNode> uniqueValues,
+                                       JsonNode jsonNode)
   {
-    if (!Uniqueness.NONE.equals(schemaAttribute.getUniqueness()))
+    if (uniqueValues == null)
     {
-      for ( JsonNode complexNode : scimArrayNode )
-      {
-        if (complexNode.equals(jsonNode))
-        {
-          String errorMessage = "the array node with name '" + schemaAttribute.getFullResourceName()
-                                + "' has a uniqueness of '" + schemaAttribute.getUniqueness() + "' but "
-                                + "has at least one duplicate value: '" + complexNode.toString() + "'";
-          throw getException(errorMessage, null);
-        }
-      }
+      return;
+    }
+    JsonNode duplicateNode = uniqueValues.get(jsonNode);
+    if (duplicateNode != null)
+    {
+      String errorMessage = "the array node with name '" + attributePlan.getFullResourceName()
+                            + "' has a uniqueness of '" + attributePlan.getUniqueness() + "' but "
+                            + "has at least one duplicate value: '" + duplicateNode.toString() + "'";
+      throw getException(errorMessage, null);
     }
   }
 
   /**
    * validates if the missing attribute should be present or not
    *
-   * @param schemaAttribute the attribute definition that holds the necessary meta information
+   * @param attributePlan the attribute definition that holds the necessary meta information
    */
-  private void validateNonPresentAttributes(SchemaAttribute schemaAttribute)
+  private void validateNonPresentAttributes(AttributeValidationPlan attributePlan)
   {
     if (DirectionType.RESPONSE.equals(directionType))
     {
-      validateNonPresentAttributesForResponse(schemaAttribute);
+      validateNonPresentAttributesForResponse(attributePlan);
     }
     // in case of request there is nothing to validate here since the validation was already preformed by the
     // isRequired... method
   }
 
   /**
-   * this method is called if the node represented by the schemaAttribute is not present in the document. The
+   * this method is called if the node represented by the attributePlan is not present in the document. The
    * validation will simply add log messages for debugging purposes so that the developer will be able to
    * understand what went wrong. The validation is reduced to log messages only because there might be use cases
    * in which an exception would be fatal for the developer
    *
-   * @param schemaAttribute the schema attribute definition of a node that is not present within the document
+   * @param attributePlan the schema attribute definition of a node that is not present within the document
    */
-  private void validateNonPresentAttributesForResponse(SchemaAttribute schemaAttribute)
+  private void validateNonPresentAttributesForResponse(AttributeValidationPlan attributePlan)
   {
-    final String scimNodeName = schemaAttribute.getScimNodeName();
-    if (Returned.ALWAYS.equals(schemaAttribute.getReturned()))
+    final String scimNodeName = attributePlan.getScimNodeName();
+    if (Returned.ALWAYS.equals(attributePlan.getReturned()))
     {
       log.debug("the attribute '{}' has a returned value of " + "'{}' and is therefore a required attribute in the"
                 + "minimal dataset of the resource but it is missing in the response document.",
                 scimNodeName,
-                schemaAttribute.getReturned());
+                attributePlan.getReturned());
     }
-    else if ((Returned.REQUEST.equals(schemaAttribute.getReturned())
-              || Returned.DEFAULT.equals(schemaAttribute.getReturned()))
-             && attributes.stream().anyMatch(s -> StringUtils.equalsIgnoreCase(s, scimNodeName)))
+    else if ((Returned.REQUEST.equals(attributePlan.getReturned())
+              || Returned.DEFAULT.equals(attributePlan.getReturned()))
+             && log.isDebugEnabled()
+             && projection.getAttributes().stream().anyMatch(s -> StringUtils.equalsIgnoreCase(s, scimNodeName)))
     {
       log.debug("the attribute '{}' was requested by the client but it is not present within the document. "
                 + "Maybe the value has not been set on the resource?",
@@ -1159,30 +1356,30 @@ public class SchemaValidator
   /**
    * checks if an attribute must be removed from the current document
    *
-   * @param schemaAttribute the schema meta definition that holds the necessary information
+   * @param attributePlan the schema meta definition that holds the necessary information
    * @return true if the attribute should be kept in the response, false if the attribute should be removed
    */
-  private boolean validatePresentAttributes(SchemaAttribute schemaAttribute)
+  private boolean validatePresentAttributes(AttributeValidationPlan attributePlan)
   {
     if (DirectionType.RESPONSE.equals(directionType))
     {
-      return validatePresentAttributesForResponse(schemaAttribute);
+      return validatePresentAttributesForResponse(attributePlan);
     }
     else if (DirectionType.REQUEST.equals(directionType))
     {
-      return validatePresentAttributesForRequest(schemaAttribute);
+      return validatePresentAttributesForRequest(attributePlan);
     }
     // in case for schema validation. in this case the directionType will be null
     return true;
   }
 
-  private boolean validatePresentAttributesForRequest(SchemaAttribute schemaAttribute)
+  private boolean validatePresentAttributesForRequest(AttributeValidationPlan attributePlan)
   {
-    if (Mutability.READ_ONLY.equals(schemaAttribute.getMutability()))
+    if (Mutability.READ_ONLY.equals(attributePlan.getMutability()))
     {
       log.debug("removed attribute '{}' from request since it has a mutability of {}",
-                schemaAttribute.getFullResourceName(),
-                schemaAttribute.getMutability());
+                attributePlan.getFullResourceName(),
+                attributePlan.getMutability());
       return false;
     }
     return true;
@@ -1191,108 +1388,62 @@ public class SchemaValidator
   /**
    * checks if an attribute must be removed from the response document
    *
-   * @param schemaAttribute the schema meta definition that holds the necessary information
+   * @param attributePlan the schema meta definition that holds the necessary information
    * @return true if the attribute should be kept in the response, false if the attribute should be removed
    */
-  private boolean validatePresentAttributesForResponse(SchemaAttribute schemaAttribute)
+  private boolean validatePresentAttributesForResponse(AttributeValidationPlan attributePlan)
   {
-    if (Returned.ALWAYS.equals(schemaAttribute.getReturned()))
+    if (Returned.ALWAYS.equals(attributePlan.getReturned()))
     {
       return true;
     }
-    if (!excludedAttributes.isEmpty() && isExcludedParameterPresent(schemaAttribute))
+    if (projection.isExcluded(attributePlan))
     {
       return false;
     }
-    if (Returned.NEVER.equals(schemaAttribute.getReturned()))
+    if (Returned.NEVER.equals(attributePlan.getReturned()))
     {
       log.warn("attribute '{}' was present on the response document but has a returned value of '{}'. Attribute is "
                + "being removed from response document",
-               schemaAttribute.getFullResourceName(),
-               schemaAttribute.getReturned());
+               attributePlan.getFullResourceName(),
+               attributePlan.getReturned());
       return false;
     }
-    if (Returned.DEFAULT.equals(schemaAttribute.getReturned()) && !attributes.isEmpty()
-        && isAttributeMissingInAttributeParameter(schemaAttribute) && !isAttributePresentInRequest(schemaAttribute))
+    if (Returned.DEFAULT.equals(attributePlan.getReturned()) && !projection.getAttributes().isEmpty()
+        && projection.isMissingInAttributes(attributePlan) && !isAttributePresentInRequest(attributePlan))
     {
       log.trace("removing attribute '{}' from response for its returned value is '{}' and its name is not in the list"
                 + " of requested attributes: {}",
-                schemaAttribute.getFullResourceName(),
-                schemaAttribute.getReturned(),
-                attributes);
+                attributePlan.getFullResourceName(),
+                attributePlan.getReturned(),
+                projection.getAttributes());
       return false;
     }
-    if (Returned.REQUEST.equals(schemaAttribute.getReturned())
-        && isAttributeMissingInAttributeParameter(schemaAttribute) && !isAttributePresentInRequest(schemaAttribute))
+    if (Returned.REQUEST.equals(attributePlan.getReturned())
+        && projection.isMissingInAttributes(attributePlan) && !isAttributePresentInRequest(attributePlan))
     {
       log.trace("removing attribute '{}' from response for its returned value is '{}' and its name is not in the list"
                 + " of requested attributes: {}",
-                schemaAttribute.getFullResourceName(),
-                schemaAttribute.getReturned(),
-                attributes);
+                attributePlan.getFullResourceName(),
+                attributePlan.getReturned(),
+                projection.getAttributes());
       return false;
     }
     return true;
   }
 
-  /**
-   * will check if the given attribute is set in the excludedAttributes parameter list
-   *
-   * @param schemaAttribute the attribute to check if it is excluded
-   * @return true if the attribute should be excluded, false else
-   */
-  private boolean isExcludedParameterPresent(SchemaAttribute schemaAttribute)
-  {
-    final String shortName = schemaAttribute.getScimNodeName();
-    final String fullName = schemaAttribute.getResourceUri() + ":" + shortName;
-    // this will check if the full name is matching any parameter in the attributes parameter list or
-    // if this attribute to check is a subnode of the attributes defined in the attributes parameter list
-    boolean anyFullNameMatch = excludedAttributes.stream()
-                                                 .anyMatch(param -> StringUtils.equalsIgnoreCase(fullName, param)
-                                                                    || StringUtils.equalsIgnoreCase(shortName, param)
-                                                                    || StringUtils.equalsIgnoreCase(param,
-                                                                                                    schemaAttribute.getResourceUri()));
-    return anyFullNameMatch;
-  }
-
-  /**
-   * checks if the given attribute name is missing within the attributes parameter
-   *
-   * @param schemaAttribute the schema attribute definition of the parameter
-   * @return false if the attribute is present within the attributes parameter, true else
-   */
-  private boolean isAttributeMissingInAttributeParameter(SchemaAttribute schemaAttribute)
-  {
-    final String shortName = schemaAttribute.getScimNodeName();
-    final String fullName = schemaAttribute.getResourceUri() + ":" + shortName;
-    // this will check if the full name is matching any parameter in the attributes parameter list or
-    // if this attribute to check is a subnode of the attributes defined in the attributes parameter list
-    boolean anyNameMatch = attributes.stream()
-                                     .anyMatch(param -> StringUtils.equalsIgnoreCase(fullName, param)
-                                                        || StringUtils.equalsIgnoreCase(shortName, param)
-                                                        || (StringUtils.startsWithIgnoreCase(fullName, param)
-                                                            && StringUtils.endsWithIgnoreCase(fullName,
-                                                                                              "." + schemaAttribute.getName()))
-                                                        || StringUtils.startsWithIgnoreCase(shortName, param + ".")
-                                                        || StringUtils.startsWith(param, fullName + ".")
-                                                        || StringUtils.startsWithIgnoreCase(param, shortName + ".")
-                                                        || StringUtils.equalsIgnoreCase(param,
-                                                                                        schemaAttribute.getResourceUri()));
-    return !anyNameMatch;
-  }
-
   /**
    * this method will check if the given attribute was present in the request document.<br>
    * <b>NOTE:</b>:<br>
    * this type of validation is ignored for multivalued complex types because this might lead to drastic
    * performance issues under specific circumstances
    *
-   * @param schemaAttribute the meta definition of the attribute
+   * @param attributePlan the meta definition of the attribute
    * @return true if the attribute was present within the response, false else
    */
-  private boolean isAttributePresentInRequest(SchemaAttribute schemaAttribute)
+  private boolean isAttributePresentInRequest(AttributeValidationPlan attributePlan)
   {
-    String[] scimNodeParts = schemaAttribute.getScimNodeName().split("\\.");
+    String[] scimNodeParts = attributePlan.getScimNodeNameParts();
     if (validatedRequest == null)
     {
       return false;
@@ -1324,22 +1475,22 @@ public class SchemaValidator
    * will verify that the current value node does define one of the canonical values of the attribute definition
    * if some are defined
    *
-   * @param attributeDefinition the attribute definition from the meta schema
+   * @param attributePlan the attribute definition from the meta schema
    * @param valueNode the value that matches to this definition
    */
-  private void checkCanonicalValues(SchemaAttribute attributeDefinition, JsonNode valueNode)
+  private void checkCanonicalValues(AttributeValidationPlan attributePlan, JsonNode valueNode)
   {
-    if (attributeDefinition.getCanonicalValues().isEmpty())
+    if (attributePlan.getCanonicalValues().isEmpty())
     {
       // all values are valid
       return;
     }
     final String value = valueNode.textValue();
-    if (attributeDefinition.getCanonicalValues().stream().noneMatch(s -> StringUtils.equalsIgnoreCase(s, value)))
+    if (!attributePlan.isCanonicalValue(value))
     {
-      final String errorMessage = "attribute with name '" + attributeDefinition.getName()
+      final String errorMessage = "attribute with name '" + attributePlan.getName()
                                   + "' does not have one of the " + "canonicalValues: '"
-                                  + attributeDefinition.getCanonicalValues() + "' actual value is: '" + value + "'";
+                                  + attributePlan.getCanonicalValues() + "' actual value is: '" + value + "'";
       throw getException(errorMessage, null);
     }
   }
@@ -1347,16 +1498,16 @@ public class SchemaValidator
   /**
    * checks if the given node is of the expected type
    *
-   * @param attributeDefinition the meta attribute definition
+   * @param attributePlan the meta attribute definition
    * @param valueNode the current value node that should be checked
    * @param isOfType the check that will validate if the node has the expected type
    */
-  private void isNodeOfExpectedType(SchemaAttribute attributeDefinition,
+  private void isNodeOfExpectedType(AttributeValidationPlan attributePlan,
                                     JsonNode valueNode,
                                     Function<JsonNode, Boolean> isOfType)
   {
-    Type type = attributeDefinition.getType();
-    final String errorMessage = "value of field with name '" + attributeDefinition.getFullResourceName()
+    Type type = attributePlan.getType();
+    final String errorMessage = "value of field with name '" + attributePlan.getFullResourceName()
                                 + "' is not of type '" + type.getValue() + "' but of type: "
                                 + StringUtils.lowerCase(valueNode.getNodeType().toString());
     checkAttributeValidity(isOfType.apply(valueNode), errorMessage);
@@ -1395,13 +1546,13 @@ public class SchemaValidator
   /**
    * validates a simple value node against the valid resource types defined in the meta schema
    *
-   * @param attributeDefinition the meta attribute definition
+   * @param attributePlan the meta attribute definition
    * @param valueNode the value node
    */
-  private void validateValueNodeWithReferenceTypes(SchemaAttribute attributeDefinition, JsonNode valueNode)
+  private void validateValueNodeWithReferenceTypes(AttributeValidationPlan attributePlan, JsonNode valueNode)
   {
     boolean isValidReferenceType = false;
-    for ( ReferenceTypes referenceType : attributeDefinition.getReferenceTypes() )
+    for ( ReferenceTypes referenceType : attributePlan.getReferenceTypes() )
     {
       switch (referenceType)
       {
@@ -1420,7 +1571,7 @@ public class SchemaValidator
     checkAttributeValidity(isValidReferenceType,
                            "given value is not a valid reference type: " + valueNode.textValue()
                                                  + ": was expected to be of one of the following types: "
-                                                 + attributeDefinition.getReferenceTypes());
+                                                 + attributePlan.getReferenceTypes());
   }
 
   /**
@@ -0,0 +1,82 @@
+package de.captaingoldfish.scim.sdk.server.schemas;
+
+import java.util.List;
+
+import de.captaingoldfish.scim.sdk.common.schemas.Schema;
+
+
+/**
+ * a snapshot of the versions of the schemas of a {@link ResourceType}. Caches that hold references to
+ * {@link de.captaingoldfish.scim.sdk.common.schemas.SchemaAttribute} definitions of a resource type are using
+ * this snapshot to detect that a schema was registered again within the {@link SchemaFactory} or that the
+ * attributes of a schema were changed so that the cached entries must be discarded<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+public final class SchemaVersion
+{
+
+  /**
+   * the factory that holds the schemas of the resource type
+   */
+  private final SchemaFactory schemaFactory;
+
+  /**
+   * the registration version of the schema factory at the time this snapshot was created
+   */
+  private final long registrationVersion;
+
+  /**
+   * the schemas of the resource type at the time this snapshot was created
+   */
+  private final List<Schema> schemas;
+
+  /**
+   * the attribute versions of {@link #schemas} at the time this snapshot was created
+   */
+  private final long[] attributeVersions;
+
+  public SchemaVersion(ResourceType resourceType)
+  {
+    this.schemaFactory = resourceType.getSchemaFactory();
+    this.registrationVersion = schemaFactory.getRegistrationVersion();
+    this.schemas = resourceType.getAllSchemas();
+    this.attributeVersions = new long[schemas.size()];
+    for ( int i = 0 ; i < schemas.size() ; i++ )
+    {
+      attributeVersions[i] = getAttributeVersion(schemas.get(i));
+    }
+  }
+
+  /**
+   * checks if a schema was registered or if the attributes of a schema have changed since this snapshot was
+   * created
+   *
+   * @return true if the schemas of the resource type have changed, false else
+   */
+  public boolean isOutdated()
+  {
+    if (registrationVersion != schemaFactory.getRegistrationVersion())
+    {
+      return true;
+    }
+    for ( int i = 0 ; i < schemas.size() ; i++ )
+    {
+      if (attributeVersions[i] != getAttributeVersion(schemas.get(i)))
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * the schemas of a resource type might not be registered yet
+   */
+  private static long getAttributeVersion(Schema schema)
+  {
+    return schema == null ? -1 : schema.getAttributeVersion();
+  }
+}
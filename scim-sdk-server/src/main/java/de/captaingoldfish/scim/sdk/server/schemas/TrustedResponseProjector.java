@@ -0,0 +1,251 @@
+package de.captaingoldfish.scim.sdk.server.schemas;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import de.captaingoldfish.scim.sdk.common.constants.AttributeNames;
+import de.captaingoldfish.scim.sdk.common.constants.SchemaUris;
+import de.captaingoldfish.scim.sdk.common.constants.enums.Returned;
+import de.captaingoldfish.scim.sdk.common.constants.enums.Type;
+import de.captaingoldfish.scim.sdk.common.resources.base.ScimArrayNode;
+import de.captaingoldfish.scim.sdk.common.resources.base.ScimObjectNode;
+import de.captaingoldfish.scim.sdk.common.resources.base.ScimTextNode;
+import de.captaingoldfish.scim.sdk.common.schemas.AttributeValidationPlan;
+import de.captaingoldfish.scim.sdk.common.schemas.Schema;
+import de.captaingoldfish.scim.sdk.server.schemas.custom.TrustedResponseFeature;
+
+
+/**
+ * prepares resources for the response that are trusted to be valid because they were returned by the
+ * resource handler of a resource type with an enabled {@link TrustedResponseFeature}. In contrast to
+ * {@link SchemaValidator#validateDocumentForResponse(ResourceTypeFactory, ResourceType, JsonNode, JsonNode,
+ * AttributeProjection, Supplier)} the values of the resource are not validated and not copied into new nodes.
+ * Only the attributes that must not be returned are left out, unknown attributes are removed and missing
+ * resource references are added. Nodes that are not changed by this projection are shared with the original
+ * resource which is never modified<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+public class TrustedResponseProjector
+{
+
+  /**
+   * used to get the endpoint of referenced resources when missing resource references are added
+   */
+  private final ResourceTypeFactory resourceTypeFactory;
+
+  /**
+   * the resolved "attributes" and "excludedAttributes" parameters of the request
+   */
+  private final AttributeProjection projection;
+
+  /**
+   * supplies the base url that is used to add missing resource references
+   */
+  private final Supplier<String> baseUrlSupplier;
+
+  public TrustedResponseProjector(ResourceTypeFactory resourceTypeFactory,
+                                  AttributeProjection projection,
+                                  Supplier<String> baseUrlSupplier)
+  {
+    this.resourceTypeFactory = resourceTypeFactory;
+    this.projection = projection;
+    this.baseUrlSupplier = baseUrlSupplier;
+  }
+
+  /**
+   * projects the given resource on the attributes that should be returned to the client
+   *
+   * @param resourceType the resource type of the resource
+   * @param document the trusted resource as it was returned by the resource handler
+   * @return the projected resource
+   */
+  public JsonNode projectDocument(ResourceType resourceType, JsonNode document)
+  {
+    ResourceType.ResourceSchema resourceSchema = resourceType.getResourceSchema(document);
+    ObjectNode projectedDocument = new ScimObjectNode();
+    JsonNode schemasNode = document.get(AttributeNames.RFC7643.SCHEMAS);
+    projectedDocument.set(AttributeNames.RFC7643.SCHEMAS, schemasNode);
+    addAttributes(resourceSchema.getMetaSchema().getValidationPlan(), document, projectedDocument);
+    for ( Schema schemaExtension : resourceSchema.getExtensions() )
+    {
+      JsonNode extension = document.get(schemaExtension.getNonNullId());
+      JsonNode projectedExtension = extension == null ? null
+        : projectObject(schemaExtension.getValidationPlan(), extension);
+      if (projectedExtension == null)
+      {
+        schemasNode = removeSchemaUri(schemasNode, schemaExtension.getNonNullId());
+        projectedDocument.set(AttributeNames.RFC7643.SCHEMAS, schemasNode);
+      }
+      else
+      {
+        projectedDocument.set(schemaExtension.getNonNullId(), projectedExtension);
+      }
+    }
+    Schema metaSchema = resourceTypeFactory.getSchemaFactory().getMetaSchema(SchemaUris.META);
+    addAttributes(metaSchema.getValidationPlan(), document, projectedDocument);
+    return projectedDocument;
+  }
+
+  /**
+   * projects the given complex node on its sub attributes
+   *
+   * @return the given node if no attribute was removed or added, a projected copy of the node or null if no
+   *         attribute is left
+   */
+  private JsonNode projectObject(List<AttributeValidationPlan> attributePlans, JsonNode document)
+  {
+    if (!document.isObject())
+    {
+      return document;
+    }
+    ObjectNode projectedNode = new ScimObjectNode();
+    boolean changed = addAttributes(attributePlans, document, projectedNode);
+    if (projectedNode.size() == 0)
+    {
+      return null;
+    }
+    return changed || projectedNode.size() != document.size() ? projectedNode : document;
+  }
+
+  /**
+   * adds the attributes of the given document that should be returned to the given target node
+   *
+   * @return true if an added attribute is not the original node of the document
+   */
+  private boolean addAttributes(List<AttributeValidationPlan> attributePlans, JsonNode document, ObjectNode target)
+  {
+    boolean changed = false;
+    for ( AttributeValidationPlan attributePlan : attributePlans )
+    {
+      JsonNode attribute = document.get(attributePlan.getName());
+      if (attribute == null || attribute.isNull())
+      {
+        JsonNode reference = getResourceReference(attributePlan, document);
+        if (reference != null)
+        {
+          target.set(attributePlan.getName(), reference);
+          changed = true;
+        }
+        continue;
+      }
+      if (!isReturned(attributePlan))
+      {
+        continue;
+      }
+      JsonNode projectedAttribute = projectAttribute(attributePlan, attribute);
+      if (projectedAttribute != null)
+      {
+        target.set(attributePlan.getName(), projectedAttribute);
+        changed = changed || projectedAttribute != attribute;
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * projects the value of a single attribute
+   *
+   * @return the projected value or null if nothing is left of the value
+   */
+  private JsonNode projectAttribute(AttributeValidationPlan attributePlan, JsonNode attribute)
+  {
+    if (!Type.COMPLEX.equals(attributePlan.getType()))
+    {
+      return attribute.isArray() && attribute.size() == 0 ? null : attribute;
+    }
+    if (!attribute.isArray())
+    {
+      return projectObject(attributePlan.getSubAttributePlans(), attribute);
+    }
+    ArrayNode projectedArray = new ScimArrayNode(attributePlan.getSchemaAttribute());
+    boolean changed = false;
+    for ( JsonNode element : attribute )
+    {
+      JsonNode projectedElement = projectObject(attributePlan.getSubAttributePlans(), element);
+      if (projectedElement != null)
+      {
+        projectedArray.add(projectedElement);
+      }
+      changed = changed || projectedElement != element;
+    }
+    if (projectedArray.size() == 0)
+    {
+      return null;
+    }
+    return changed ? projectedArray : attribute;
+  }
+
+  /**
+   * the same decision as in the response validation for resources that are not the result of a modifying
+   * request
+   *
+   * @return true if the attribute should be returned to the client
+   */
+  private boolean isReturned(AttributeValidationPlan attributePlan)
+  {
+    Returned returned = attributePlan.getReturned();
+    if (Returned.ALWAYS.equals(returned))
+    {
+      return true;
+    }
+    if (projection.isExcluded(attributePlan) || Returned.NEVER.equals(returned))
+    {
+      return false;
+    }
+    if (Returned.DEFAULT.equals(returned) && !projection.getAttributes().isEmpty()
+        && projection.isMissingInAttributes(attributePlan))
+    {
+      return false;
+    }
+    return !Returned.REQUEST.equals(returned) || !projection.isMissingInAttributes(attributePlan);
+  }
+
+  /**
+   * builds the missing resource reference of a complex attribute from its "value" and "type" attributes
+   *
+   * @return the resource reference or null if the reference cannot be built or should not be returned
+   */
+  private JsonNode getResourceReference(AttributeValidationPlan attributePlan, JsonNode document)
+  {
+    if (!attributePlan.isResolvableResourceReference() || !isReturned(attributePlan))
+    {
+      return null;
+    }
+    JsonNode value = document.get(AttributeNames.RFC7643.VALUE);
+    JsonNode type = document.get(AttributeNames.RFC7643.TYPE);
+    if (value == null || !value.isTextual() || type == null || !type.isTextual())
+    {
+      return null;
+    }
+    ResourceType referencedResourceType = resourceTypeFactory.getResourceTypeByName(type.textValue()).orElse(null);
+    if (referencedResourceType == null)
+    {
+      return null;
+    }
+    return new ScimTextNode(attributePlan.getSchemaAttribute(),
+                            baseUrlSupplier.get() + referencedResourceType.getEndpoint() + "/" + value.textValue());
+  }
+
+  /**
+   * removes the given schema uri from the schemas attribute without modifying the original schemas attribute
+   */
+  private static JsonNode removeSchemaUri(JsonNode schemasNode, String schemaUri)
+  {
+    ArrayNode projectedSchemas = new ScimArrayNode(null);
+    for ( JsonNode schema : schemasNode )
+    {
+      if (!schemaUri.equals(schema.textValue()))
+      {
+        projectedSchemas.add(schema);
+      }
+    }
+    return projectedSchemas;
+  }
+}
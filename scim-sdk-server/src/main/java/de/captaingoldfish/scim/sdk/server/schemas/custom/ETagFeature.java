@@ -19,10 +19,26 @@ import lombok.NoArgsConstructor;
 public class ETagFeature extends ScimObjectNode
 {
 
-  @Builder
+  /**
+   * the default hash algorithm of generated ETags
+   */
+  public static final String SHA_1 = "SHA-1";
+
+  /**
+   * a 128-bit non cryptographic hash algorithm that is much cheaper than the message digest algorithms
+   */
+  public static final String MURMUR3_128 = "MURMUR3-128";
+
   public ETagFeature(Boolean enabled)
+  {
+    this(enabled, null);
+  }
+
+  @Builder
+  public ETagFeature(Boolean enabled, String hashAlgorithm)
   {
     setEnabled(Optional.ofNullable(enabled).orElse(false));
+    setHashAlgorithm(hashAlgorithm);
   }
 
   /**
@@ -42,4 +58,22 @@ public class ETagFeature extends ScimObjectNode
   {
     setAttribute(AttributeNames.Custom.ETAG_ENABLED, enabled);
   }
+
+  /**
+   * the hash algorithm that is used to generate ETags. Either {@link #MURMUR3_128} or the name of a
+   * {@link java.security.MessageDigest} algorithm. Default is {@link #SHA_1}.
+   */
+  public String getHashAlgorithm()
+  {
+    return getStringAttribute(AttributeNames.Custom.ETAG_HASH_ALGORITHM).orElse(SHA_1);
+  }
+
+  /**
+   * the hash algorithm that is used to generate ETags. Either {@link #MURMUR3_128} or the name of a
+   * {@link java.security.MessageDigest} algorithm. Default is {@link #SHA_1}.
+   */
+  public void setHashAlgorithm(String hashAlgorithm)
+  {
+    setAttribute(AttributeNames.Custom.ETAG_HASH_ALGORITHM, hashAlgorithm);
+  }
 }
@@ -23,7 +23,8 @@ public class ResourceTypeFeatures extends ScimObjectNode
                               boolean singletonEndpoint,
                               EndpointControlFeature endpointControlFeature,
                               ResourceTypeAuthorization authorization,
-                              ETagFeature eTagFeature)
+                              ETagFeature eTagFeature,
+                              TrustedResponseFeature trustedResponseFeature)
   {
     super(null);
     setAutoFiltering(autoFiltering);
@@ -32,6 +33,21 @@ public class ResourceTypeFeatures extends ScimObjectNode
     setEndpointControlFeature(endpointControlFeature);
     setAuthorization(authorization);
     setETagFeature(eTagFeature);
+    setTrustedResponseFeature(trustedResponseFeature);
+  }
+
+  /**
+   * creates the features with the default {@link TrustedResponseFeature} that keeps the validation of the
+   * returned resources enabled
+   */
+  public ResourceTypeFeatures(boolean autoFiltering,
+                              boolean autoSorting,
+                              boolean singletonEndpoint,
+                              EndpointControlFeature endpointControlFeature,
+                              ResourceTypeAuthorization authorization,
+                              ETagFeature eTagFeature)
+  {
+    this(autoFiltering, autoSorting, singletonEndpoint, endpointControlFeature, authorization, eTagFeature, null);
   }
 
   /**
@@ -60,6 +76,35 @@ public class ResourceTypeFeatures extends ScimObjectNode
     setAttribute(AttributeNames.RFC7643.ETAG, eTagFeature);
   }
 
+  /**
+   * a complex type configuration that allows to skip the schema validation of resources that are returned by
+   * the resource handler on get and list requests
+   */
+  public TrustedResponseFeature getTrustedResponseFeature()
+  {
+    Optional<TrustedResponseFeature> optionalFeature = getObjectAttribute(AttributeNames.Custom.TRUSTED_RESPONSE,
+                                                                          TrustedResponseFeature.class);
+    if (optionalFeature.isPresent())
+    {
+      return optionalFeature.get();
+    }
+    else
+    {
+      TrustedResponseFeature trustedResponseFeature = TrustedResponseFeature.builder().build();
+      setTrustedResponseFeature(trustedResponseFeature);
+      return trustedResponseFeature;
+    }
+  }
+
+  /**
+   * a complex type configuration that allows to skip the schema validation of resources that are returned by
+   * the resource handler on get and list requests
+   */
+  public void setTrustedResponseFeature(TrustedResponseFeature trustedResponseFeature)
+  {
+    setAttribute(AttributeNames.Custom.TRUSTED_RESPONSE, trustedResponseFeature);
+  }
+
   /**
    * if true it is not possible to access the list-resources endpoint anymore because all get-requests will be
    * delegated to the get-resource endpoint
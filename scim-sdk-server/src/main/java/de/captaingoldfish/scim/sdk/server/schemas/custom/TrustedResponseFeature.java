@@ -0,0 +1,66 @@
+package de.captaingoldfish.scim.sdk.server.schemas.custom;
+
+import java.util.Optional;
+
+import de.captaingoldfish.scim.sdk.common.constants.AttributeNames;
+import de.captaingoldfish.scim.sdk.common.resources.base.ScimObjectNode;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+
+
+/**
+ * a complex type configuration that allows to skip the schema validation of resources that are returned by
+ * the resource handler on get and list requests. Trusted resources are only projected on the "attributes" and
+ * "excludedAttributes" parameters and the returned values of their attribute definitions<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+@NoArgsConstructor
+public class TrustedResponseFeature extends ScimObjectNode
+{
+
+  @Builder
+  public TrustedResponseFeature(Boolean enabled, Integer validationSampleRate)
+  {
+    setEnabled(Optional.ofNullable(enabled).orElse(false));
+    setValidationSampleRate(Optional.ofNullable(validationSampleRate).orElse(0));
+  }
+
+  /**
+   * a boolean if set to true the resources returned by the resource handler on get and list requests are not
+   * validated. Default is false.
+   */
+  public boolean isEnabled()
+  {
+    return getBooleanAttribute(AttributeNames.Custom.TRUSTED_RESPONSE_ENABLED).orElse(false);
+  }
+
+  /**
+   * a boolean if set to true the resources returned by the resource handler on get and list requests are not
+   * validated. Default is false.
+   */
+  public void setEnabled(boolean enabled)
+  {
+    setAttribute(AttributeNames.Custom.TRUSTED_RESPONSE_ENABLED, enabled);
+  }
+
+  /**
+   * if set to a value N greater than 0 every N-th trusted response is still fully validated. Default is 0 which
+   * means that trusted responses are never validated.
+   */
+  public int getValidationSampleRate()
+  {
+    return getIntegerAttribute(AttributeNames.Custom.VALIDATION_SAMPLE_RATE).orElse(0);
+  }
+
+  /**
+   * if set to a value N greater than 0 every N-th trusted response is still fully validated. Default is 0 which
+   * means that trusted responses are never validated.
+   */
+  public void setValidationSampleRate(int validationSampleRate)
+  {
+    setAttribute(AttributeNames.Custom.VALIDATION_SAMPLE_RATE, validationSampleRate);
+  }
+}
@@ -1,10 +1,6 @@
 package de.captaingoldfish.scim.sdk.server.sort;
 
 import java.util.Comparator;
-import java.util.Optional;
-
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.math.NumberUtils;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
@@ -12,28 +8,52 @@ import de.captaingoldfish.scim.sdk.common.constants.enums.SortOrder;
 import de.captaingoldfish.scim.sdk.common.resources.ResourceNode;
 import de.captaingoldfish.scim.sdk.common.schemas.SchemaAttribute;
 import de.captaingoldfish.scim.sdk.common.utils.TimeUtils;
-import lombok.AllArgsConstructor;
 
 
 /**
  * author Pascal Knueppel <br>
  * created at: 04.11.2019 - 21:25 <br>
  * <br>
+ * compares resources by a single attribute. The attribute value of a resource is converted into a typed
+ * {@link SortKey} that can be compared without any further json lookups or parsing. Sorting algorithms that
+ * compare the same resource several times should extract the keys once with {@link #getSortKey(ResourceNode)}
+ * and compare the keys with {@link #compareSortKeys(SortKey, SortKey)}
  */
-@AllArgsConstructor
 public class ResourceNodeComparator implements Comparator<ResourceNode>
 {
 
   /**
    * the attribute that must be compared
    */
-  private SchemaAttribute schemaAttribute;
+  private final SchemaAttribute schemaAttribute;
 
   /**
    * the ordering direction
    */
-  private SortOrder sortOrder;
+  private final SortOrder sortOrder;
+
+  /**
+   * compares two present sort keys in ascending order based on the type of the attribute
+   */
+  private final Comparator<SortKey> keyComparator;
 
+  public ResourceNodeComparator(SchemaAttribute schemaAttribute, SortOrder sortOrder)
+  {
+    this.schemaAttribute = schemaAttribute;
+    this.sortOrder = sortOrder;
+    switch (schemaAttribute.getType())
+    {
+      case DATE_TIME:
+      case INTEGER:
+        this.keyComparator = (key1, key2) -> Long.compare(key1.longValue, key2.longValue);
+        break;
+      case DECIMAL:
+        this.keyComparator = (key1, key2) -> Double.compare(key1.doubleValue, key2.doubleValue);
+        break;
+      default:
+        this.keyComparator = (key1, key2) -> key1.stringValue.compareTo(key2.stringValue);
+    }
+  }
 
   /**
    * {@inheritDoc}
@@ -41,54 +61,104 @@ public class ResourceNodeComparator implements Comparator<ResourceNode>
   @Override
   public int compare(ResourceNode resource1, ResourceNode resource2)
   {
-    boolean ascending = SortOrder.ASCENDING.equals(sortOrder);
-    Optional<JsonNode> attribute1Optional = resource1.getSortingAttribute(schemaAttribute);
-    Optional<JsonNode> attribute2Optional = resource2.getSortingAttribute(schemaAttribute);
-    if (!attribute1Optional.isPresent() && !attribute2Optional.isPresent())
+    return compareSortKeys(getSortKey(resource1), getSortKey(resource2));
+  }
+
+  /**
+   * extracts the value of the sorting attribute from the given resource and converts it into a sort key. Date
+   * times are parsed into epoch millis and strings that are not case exact are folded so that an ordinal
+   * comparison gives the same result as {@link String#compareToIgnoreCase(String)}
+   *
+   * @param resource the resource from which the key should be extracted
+   * @return the sort key of the resource or null if the resource does not have the sorting attribute
+   */
+  public SortKey getSortKey(ResourceNode resource)
+  {
+    JsonNode attribute = resource.getSortingAttribute(schemaAttribute).orElse(null);
+    if (attribute == null)
+    {
+      return null;
+    }
+    switch (schemaAttribute.getType())
+    {
+      case DATE_TIME:
+        return new SortKey(TimeUtils.parseDateTime(attribute.textValue()).toEpochMilli(), 0, null);
+      case INTEGER:
+        return new SortKey(attribute.longValue(), 0, null);
+      case DECIMAL:
+        return new SortKey(0, attribute.doubleValue(), null);
+      default:
+        String value = attribute.asText();
+        return new SortKey(0, 0, schemaAttribute.isCaseExact() ? value : foldCase(value));
+    }
+  }
+
+  /**
+   * compares the sort keys of two resources. Missing keys are always sorted to the end of the list
+   *
+   * @param key1 the sort key of the first resource or null
+   * @param key2 the sort key of the second resource or null
+   * @return the comparison result in respect to the sort order
+   */
+  public int compareSortKeys(SortKey key1, SortKey key2)
+  {
+    if (key1 == null && key2 == null)
     {
       return 0;
     }
-    if (!attribute1Optional.isPresent())
+    if (key1 == null)
     {
       return 1;
     }
-    if (!attribute2Optional.isPresent())
+    if (key2 == null)
     {
       return -1;
     }
+    int compare = keyComparator.compare(key1, key2);
+    return SortOrder.ASCENDING.equals(sortOrder) ? compare : -compare;
+  }
 
-    JsonNode attribute1 = attribute1Optional.get();
-    JsonNode attribute2 = attribute2Optional.get();
-    int compare;
-    switch (schemaAttribute.getType())
+  /**
+   * converts each character in the same way as {@link String#compareToIgnoreCase(String)} does before it
+   * compares the characters
+   */
+  private static String foldCase(String value)
+  {
+    char[] characters = value.toCharArray();
+    for ( int i = 0 ; i < characters.length ; i++ )
     {
-      case DATE_TIME:
-        long dateTime1 = TimeUtils.parseDateTime(attribute1.textValue()).toEpochMilli();
-        long dateTime2 = TimeUtils.parseDateTime(attribute2.textValue()).toEpochMilli();
-        compare = NumberUtils.compare(dateTime1, dateTime2);
-        return ascending ? compare : -compare;
-      case INTEGER:
-        compare = NumberUtils.compare(attribute1.longValue(), attribute2.longValue());
-        return ascending ? compare : -compare;
-      case DECIMAL:
-        double x = attribute1.doubleValue(), y = attribute2.doubleValue();
-        if (x == y)
-        {
-          return 0;
-        }
-        compare = x < y ? -1 : 1;
-        return ascending ? compare : -compare;
-      default:
-        if (schemaAttribute.isCaseExact())
-        {
-          compare = StringUtils.compare(attribute1.asText(), attribute2.asText());
-          return ascending ? compare : -compare;
-        }
-        else
-        {
-          compare = StringUtils.compareIgnoreCase(attribute1.asText(), attribute2.asText());
-          return ascending ? compare : -compare;
-        }
+      characters[i] = Character.toLowerCase(Character.toUpperCase(characters[i]));
+    }
+    return new String(characters);
+  }
+
+  /**
+   * the extracted value of the sorting attribute of a single resource. Only the field that matches the type
+   * of the sorting attribute is set
+   */
+  public static final class SortKey
+  {
+
+    /**
+     * the value of integer attributes or the epoch millis of dateTime attributes
+     */
+    private final long longValue;
+
+    /**
+     * the value of decimal attributes
+     */
+    private final double doubleValue;
+
+    /**
+     * the value of string attributes
+     */
+    private final String stringValue;
+
+    private SortKey(long longValue, double doubleValue, String stringValue)
+    {
+      this.longValue = longValue;
+      this.doubleValue = doubleValue;
+      this.stringValue = stringValue;
     }
   }
 }
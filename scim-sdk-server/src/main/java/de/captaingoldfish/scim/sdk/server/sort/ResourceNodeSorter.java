@@ -0,0 +1,152 @@
+package de.captaingoldfish.scim.sdk.server.sort;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+import de.captaingoldfish.scim.sdk.common.constants.enums.SortOrder;
+import de.captaingoldfish.scim.sdk.common.resources.ResourceNode;
+import de.captaingoldfish.scim.sdk.common.schemas.SchemaAttribute;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+
+/**
+ * sorts resources by a single attribute. The sorting attribute of each resource is extracted and converted
+ * into a typed sort key only once before the sorting starts instead of extracting and parsing it twice for
+ * each comparison. If only the first elements of the sorted list are needed, e.g. for the first pages of a
+ * list request, a bounded heap is used that selects these elements in O(n log k) instead of sorting the whole
+ * list in O(n log n). For deep pages the whole list is sorted because the heap would not save any work
+ * anymore. In both cases the sorting is stable so that resources with equal values keep the order in which
+ * they were returned by the resource handler<br>
+ * <br>
+ * created at: 17.10.2026
+ *
+ * @author Pascal Knüppel
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ResourceNodeSorter
+{
+
+  /**
+   * if the number of requested elements multiplied with this factor reaches the number of resources the whole
+   * list is sorted instead of using a bounded heap
+   */
+  private static final int FULL_SORT_FACTOR = 4;
+
+  /**
+   * sorts the given resources
+   *
+   * @param resources the resources to sort
+   * @param sortBy the attribute that is used for sorting
+   * @param sortOrder the sort order to use
+   * @return a new list with the sorted resources
+   */
+  public static <T extends ResourceNode> List<T> sort(List<T> resources, SchemaAttribute sortBy, SortOrder sortOrder)
+  {
+    return sort(resources, sortBy, sortOrder, resources.size());
+  }
+
+  /**
+   * sorts the given resources and returns only the first elements of the sorted list
+   *
+   * @param resources the resources to sort
+   * @param sortBy the attribute that is used for sorting
+   * @param sortOrder the sort order to use
+   * @param maxResults the number of elements from the beginning of the sorted list that are needed. For a list
+   *          request this is the startIndex - 1 + count
+   * @return a new list with at most maxResults sorted resources
+   */
+  public static <T extends ResourceNode> List<T> sort(List<T> resources,
+                                                      SchemaAttribute sortBy,
+                                                      SortOrder sortOrder,
+                                                      int maxResults)
+  {
+    final int limit = Math.max(0, Math.min(maxResults, resources.size()));
+    if (limit == 0)
+    {
+      return new ArrayList<>();
+    }
+    final ResourceNodeComparator resourceNodeComparator = new ResourceNodeComparator(sortBy, sortOrder);
+    final Comparator<SortEntry<T>> comparator = (entry1, entry2) -> {
+      int compare = resourceNodeComparator.compareSortKeys(entry1.getSortKey(), entry2.getSortKey());
+      return compare != 0 ? compare : Integer.compare(entry1.getIndex(), entry2.getIndex());
+    };
+
+    List<SortEntry<T>> sortEntries = new ArrayList<>(resources.size());
+    for ( int i = 0 ; i < resources.size() ; i++ )
+    {
+      T resource = resources.get(i);
+      sortEntries.add(new SortEntry<>(i, resource, resourceNodeComparator.getSortKey(resource)));
+    }
+
+    List<SortEntry<T>> sortedEntries;
+    if ((long)limit * FULL_SORT_FACTOR >= resources.size())
+    {
+      sortEntries.sort(comparator);
+      sortedEntries = sortEntries.subList(0, limit);
+    }
+    else
+    {
+      sortedEntries = selectFirstEntries(sortEntries, comparator, limit);
+    }
+    return sortedEntries.stream().map(SortEntry::getResource).collect(Collectors.toList());
+  }
+
+  /**
+   * selects the first elements of the sorted list with a bounded heap that holds the currently smallest
+   * elements with the biggest element on top
+   *
+   * @return the selected elements in sorted order
+   */
+  private static <T extends ResourceNode> List<SortEntry<T>> selectFirstEntries(List<SortEntry<T>> sortEntries,
+                                                                               Comparator<SortEntry<T>> comparator,
+                                                                               int limit)
+  {
+    PriorityQueue<SortEntry<T>> heap = new PriorityQueue<>(limit + 1, Collections.reverseOrder(comparator));
+    for ( SortEntry<T> sortEntry : sortEntries )
+    {
+      if (heap.size() < limit)
+      {
+        heap.add(sortEntry);
+      }
+      else if (comparator.compare(sortEntry, heap.peek()) < 0)
+      {
+        heap.poll();
+        heap.add(sortEntry);
+      }
+    }
+    List<SortEntry<T>> selectedEntries = new ArrayList<>(heap);
+    selectedEntries.sort(comparator);
+    return selectedEntries;
+  }
+
+  /**
+   * a resource together with its sort key and its original position in the list
+   */
+  @Getter
+  @AllArgsConstructor
+  private static class SortEntry<T extends ResourceNode>
+  {
+
+    /**
+     * the original position of the resource that is used to keep the sorting stable
+     */
+    private final int index;
+
+    /**
+     * the resource to sort
+     */
+    private final T resource;
+
+    /**
+     * the sort key of the resource or null if the resource does not have the sorting attribute
+     */
+    private final ResourceNodeComparator.SortKey sortKey;
+  }
+}
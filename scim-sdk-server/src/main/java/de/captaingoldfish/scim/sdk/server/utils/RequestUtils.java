@@ -124,7 +124,8 @@ public final class RequestUtils
   }
 
   /**
-   * parsed the filter of a list request
+   * parsed the filter of a list request. The parsed tree is cached on the given resource type and shared with
+   * other requests that are using the same filter expression so it must not be modified
    *
    * @param resourceType the resource type that describes the endpoint on which the filter is used so that the
    *          filter expression can be correctly resolved
@@ -138,6 +139,18 @@ public final class RequestUtils
     {
       return null;
     }
+    return resourceType.getFilterNodeCache().getFilter(filter, f -> doParseFilter(resourceType, f));
+  }
+
+  /**
+   * parses the filter expression with antlr without using the cache of the resource type
+   *
+   * @param resourceType the resource type that describes the endpoint on which the filter is used
+   * @param filter the filter expression that must apply to the given resource type
+   * @return The parsed filter expression as resolvable tree structure
+   */
+  private static FilterNode doParseFilter(ResourceType resourceType, String filter)
+  {
     FilterRuleErrorListener filterRuleErrorListener = new FilterRuleErrorListener();
     ScimFilterLexer lexer = new ScimFilterLexer(CharStreams.fromString(filter));
     lexer.removeErrorListeners();
@@ -152,7 +165,8 @@ public final class RequestUtils
   }
 
   /**
-   * parses a value path context for patch path expressions
+   * parses a value path context for patch path expressions. The parsed tree is cached on the given resource type
+   * and shared with other requests that are using the same path expression so it must not be modified
    *
    * @param resourceType the resource type that describes the endpoint on which the path expression is used
    * @param path the path expression that must apply to the given resource type
@@ -165,6 +179,18 @@ public final class RequestUtils
     {
       return null;
     }
+    return resourceType.getFilterNodeCache().getPatchPath(path, p -> doParsePatchPath(resourceType, p));
+  }
+
+  /**
+   * parses the patch path expression with antlr without using the cache of the resource type
+   *
+   * @param resourceType the resource type that describes the endpoint on which the path expression is used
+   * @param path the path expression that must apply to the given resource type
+   * @return The parsed path expression as resolvable tree structure
+   */
+  private static AttributePathRoot doParsePatchPath(ResourceType resourceType, String path)
+  {
     FilterRuleErrorListener filterRuleErrorListener = new FilterRuleErrorListener();
     ScimFilterLexer lexer = new ScimFilterLexer(CharStreams.fromString(path));
     lexer.removeErrorListeners();
@@ -237,8 +263,13 @@ public final class RequestUtils
   {
     try
     {
-      return StringUtils.isBlank(attributeName) ? null
-        : getSchemaAttribute(resourceType, new FilterAttributeName(attributeName));
+      if (StringUtils.isBlank(attributeName))
+      {
+        return null;
+      }
+      return resourceType.getAttributePathIndex()
+                         .getSchemaAttribute(attributeName,
+                                             name -> getSchemaAttribute(resourceType, new FilterAttributeName(name)));
     }
     catch (BadRequestException ex)
     {
@@ -259,9 +290,16 @@ public final class RequestUtils
   public static SchemaAttribute getSchemaAttributeForFilter(ResourceType resourceType,
                                                             FilterAttributeName attributeName)
   {
+    if (attributeName == null)
+    {
+      return null;
+    }
+    String attributePath = StringUtils.isBlank(attributeName.getResourceUri()) ? attributeName.getShortName()
+      : attributeName.getResourceUri() + ":" + attributeName.getShortName();
     try
     {
-      return getSchemaAttribute(resourceType, attributeName);
+      return resourceType.getAttributePathIndex()
+                         .getSchemaAttribute(attributePath, name -> getSchemaAttribute(resourceType, attributeName));
     }
     catch (BadRequestException ex)
     {
@@ -391,7 +429,18 @@ public final class RequestUtils
    */
   public static int getEffectiveFailOnErrors(BulkRequest bulkRequest)
   {
-    Integer failOnErrors = bulkRequest.getFailOnErrors().orElse(null);
+    return getEffectiveFailOnErrors(bulkRequest.getFailOnErrors().orElse(null));
+  }
+
+  /**
+   * sanitizes the given failOnErrors value of a bulk request
+   *
+   * @param failOnErrors the failOnErrors value of the bulk request or null if not present
+   * @return a failOnErrors value that has been validated and sanitized
+   * @see #getEffectiveFailOnErrors(BulkRequest)
+   */
+  public static int getEffectiveFailOnErrors(Integer failOnErrors)
+  {
     if (failOnErrors == null)
     {
       return Integer.MAX_VALUE;
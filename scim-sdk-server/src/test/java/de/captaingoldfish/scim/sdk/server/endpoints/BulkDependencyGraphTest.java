@@ -0,0 +1,193 @@
+package de.captaingoldfish.scim.sdk.server.endpoints;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.captaingoldfish.scim.sdk.common.constants.EndpointPaths;
+import de.captaingoldfish.scim.sdk.common.constants.enums.HttpMethod;
+import de.captaingoldfish.scim.sdk.common.constants.enums.PatchOp;
+import de.captaingoldfish.scim.sdk.common.request.BulkRequestOperation;
+import de.captaingoldfish.scim.sdk.common.request.PatchOpRequest;
+import de.captaingoldfish.scim.sdk.common.request.PatchRequestOperation;
+import de.captaingoldfish.scim.sdk.common.resources.EnterpriseUser;
+import de.captaingoldfish.scim.sdk.common.resources.Group;
+import de.captaingoldfish.scim.sdk.common.resources.User;
+import de.captaingoldfish.scim.sdk.common.resources.complex.Manager;
+import de.captaingoldfish.scim.sdk.common.resources.multicomplex.Member;
+
+
+/**
+ * author Pascal Knueppel <br>
+ * created at: 17.10.2026 <br>
+ * <br>
+ */
+public class BulkDependencyGraphTest
+{
+
+  /**
+   * creates a user create operation with the given bulkId
+   */
+  private static BulkRequestOperation createUser(String bulkId)
+  {
+    return BulkRequestOperation.builder()
+                               .bulkId(bulkId)
+                               .method(HttpMethod.POST)
+                               .path(EndpointPaths.USERS)
+                               .data(User.builder().userName(bulkId).build().toString())
+                               .build();
+  }
+
+  /**
+   * creates a group create operation with the given bulkId that references the given bulkIds as members
+   */
+  private static BulkRequestOperation createGroup(String bulkId, String... memberBulkIds)
+  {
+    Group group = Group.builder().displayName(bulkId).build();
+    for ( String memberBulkId : memberBulkIds )
+    {
+      group.addMember(Member.builder().value("bulkId:" + memberBulkId).build());
+    }
+    return BulkRequestOperation.builder()
+                               .bulkId(bulkId)
+                               .method(HttpMethod.POST)
+                               .path(EndpointPaths.GROUPS)
+                               .data(group.toString())
+                               .build();
+  }
+
+  /**
+   * verifies that operations without references are ready immediately and that referencing operations become
+   * ready after all of their referenced operations have been finished
+   */
+  @Test
+  public void testOperationsBecomeReadyAfterTheirReferences()
+  {
+    List<BulkRequestOperation> operations = Arrays.asList(createGroup("group", "user1", "user2"),
+                                                          createUser("user1"),
+                                                          createUser("user2"),
+                                                          BulkRequestOperation.builder()
+                                                                              .method(HttpMethod.DELETE)
+                                                                              .path(EndpointPaths.GROUPS
+                                                                                    + "/bulkId:group")
+                                                                              .build());
+    BulkDependencyGraph dependencyGraph = new BulkDependencyGraph(operations);
+    Assertions.assertEquals(Arrays.asList(1, 2), dependencyGraph.getReadyOperations());
+    Assertions.assertEquals(Collections.emptyList(), dependencyGraph.finish(2));
+    Assertions.assertEquals(Collections.singletonList(0), dependencyGraph.finish(1));
+    Assertions.assertEquals(Collections.singletonList(3), dependencyGraph.finish(0));
+    Assertions.assertEquals(Collections.emptyList(), dependencyGraph.finish(3));
+  }
+
+  /**
+   * verifies that bulkId references within the values of patch operations are detected
+   */
+  @Test
+  public void testReferencesWithinPatchValues()
+  {
+    User patchUserRep = User.builder()
+                            .enterpriseUser(EnterpriseUser.builder()
+                                                          .manager(Manager.builder().value("bulkId:manager").build())
+                                                          .build())
+                            .build();
+    List<String> patchValues = Collections.singletonList(patchUserRep.toString());
+    PatchRequestOperation patchOperation = PatchRequestOperation.builder().op(PatchOp.ADD).values(patchValues).build();
+    PatchOpRequest patchOpRequest = PatchOpRequest.builder()
+                                                  .operations(Collections.singletonList(patchOperation))
+                                                  .build();
+    List<BulkRequestOperation> operations = Arrays.asList(BulkRequestOperation.builder()
+                                                                              .method(HttpMethod.PATCH)
+                                                                              .path(EndpointPaths.USERS + "/123")
+                                                                              .data(patchOpRequest.toString())
+                                                                              .build(),
+                                                          createUser("manager"));
+    BulkDependencyGraph dependencyGraph = new BulkDependencyGraph(operations);
+    Assertions.assertEquals(Collections.singletonList(1), dependencyGraph.getReadyOperations());
+    Assertions.assertEquals(Collections.singletonList(0), dependencyGraph.finish(1));
+  }
+
+  /**
+   * verifies that self references, circular references and operations that depend on a circular reference do
+   * never become ready
+   */
+  @Test
+  public void testCircularReferencesDoNeverBecomeReady()
+  {
+    List<BulkRequestOperation> operations = Arrays.asList(createGroup("self", "self"),
+                                                          createGroup("group1", "group2"),
+                                                          createGroup("group2", "group1"),
+                                                          createGroup("group3", "group2"),
+                                                          createUser("user"));
+    BulkDependencyGraph dependencyGraph = new BulkDependencyGraph(operations);
+    Assertions.assertEquals(Collections.singletonList(4), dependencyGraph.getReadyOperations());
+    Assertions.assertEquals(Collections.emptyList(), dependencyGraph.finish(4));
+
+    Assertions.assertTrue(dependencyGraph.isCircularReference("self", "self"));
+    Assertions.assertTrue(dependencyGraph.isCircularReference("group1", "group2"));
+    Assertions.assertTrue(dependencyGraph.isCircularReference("group2", "group1"));
+    Assertions.assertFalse(dependencyGraph.isCircularReference("group3", "group2"));
+    Assertions.assertFalse(dependencyGraph.isCircularReference("user", "group1"));
+    Assertions.assertFalse(dependencyGraph.isCircularReference("group1", "unknown"));
+  }
+
+  /**
+   * verifies that circular references over several operations are detected
+   */
+  @Test
+  public void testIndirectCircularReferences()
+  {
+    List<BulkRequestOperation> operations = Arrays.asList(createGroup("group1", "group2"),
+                                                          createGroup("group2", "group3", "user"),
+                                                          createGroup("group3", "group1"),
+                                                          createUser("user"));
+    BulkDependencyGraph dependencyGraph = new BulkDependencyGraph(operations);
+    Assertions.assertEquals(Collections.singletonList(3), dependencyGraph.getReadyOperations());
+    Assertions.assertEquals(Collections.emptyList(), dependencyGraph.finish(3));
+    Assertions.assertTrue(dependencyGraph.isCircularReference("group1", "group2"));
+    Assertions.assertTrue(dependencyGraph.isCircularReference("group3", "group1"));
+    Assertions.assertFalse(dependencyGraph.isCircularReference("group2", "user"));
+  }
+
+  /**
+   * verifies that references to unknown bulkIds do not prevent an operation from becoming ready
+   */
+  @Test
+  public void testUnknownReferencesAreIgnored()
+  {
+    List<BulkRequestOperation> operations = Arrays.asList(createGroup("group", "unknown"), createUser("user"));
+    BulkDependencyGraph dependencyGraph = new BulkDependencyGraph(operations);
+    Assertions.assertEquals(Arrays.asList(0, 1), dependencyGraph.getReadyOperations());
+  }
+
+  /**
+   * verifies that operations on the same resource become ready in the order of the request even if they do not
+   * reference each other
+   */
+  @Test
+  public void testOperationsOnTheSameResourceKeepTheirOrder()
+  {
+    List<BulkRequestOperation> operations = Arrays.asList(BulkRequestOperation.builder()
+                                                                              .method(HttpMethod.PATCH)
+                                                                              .path(EndpointPaths.USERS + "/123")
+                                                                              .data("{}")
+                                                                              .build(),
+                                                          createUser("user"),
+                                                          BulkRequestOperation.builder()
+                                                                              .method(HttpMethod.PATCH)
+                                                                              .path(EndpointPaths.USERS + "/456")
+                                                                              .data("{}")
+                                                                              .build(),
+                                                          BulkRequestOperation.builder()
+                                                                              .method(HttpMethod.DELETE)
+                                                                              .path(EndpointPaths.USERS + "/123/")
+                                                                              .build());
+    BulkDependencyGraph dependencyGraph = new BulkDependencyGraph(operations);
+    Assertions.assertEquals(Arrays.asList(0, 1, 2), dependencyGraph.getReadyOperations());
+    Assertions.assertEquals(Collections.emptyList(), dependencyGraph.finish(1));
+    Assertions.assertEquals(Collections.emptyList(), dependencyGraph.finish(2));
+    Assertions.assertEquals(Collections.singletonList(3), dependencyGraph.finish(0));
+  }
+}
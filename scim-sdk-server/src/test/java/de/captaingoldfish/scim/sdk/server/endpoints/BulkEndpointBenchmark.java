@@ -0,0 +1,144 @@
+package de.captaingoldfish.scim.sdk.server.endpoints;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import de.captaingoldfish.scim.sdk.common.constants.EndpointPaths;
+import de.captaingoldfish.scim.sdk.common.constants.ResourceTypeNames;
+import de.captaingoldfish.scim.sdk.common.constants.enums.HttpMethod;
+import de.captaingoldfish.scim.sdk.common.request.BulkRequest;
+import de.captaingoldfish.scim.sdk.common.request.BulkRequestOperation;
+import de.captaingoldfish.scim.sdk.common.resources.Group;
+import de.captaingoldfish.scim.sdk.common.resources.ServiceProvider;
+import de.captaingoldfish.scim.sdk.common.resources.multicomplex.Member;
+import de.captaingoldfish.scim.sdk.common.response.BulkResponse;
+import de.captaingoldfish.scim.sdk.server.endpoints.base.GroupEndpointDefinition;
+import de.captaingoldfish.scim.sdk.server.endpoints.base.UserEndpointDefinition;
+import de.captaingoldfish.scim.sdk.server.endpoints.handler.GroupHandlerImpl;
+import de.captaingoldfish.scim.sdk.server.endpoints.handler.UserHandlerImpl;
+
+
+/**
+ * measures bulk requests in which each operation references the operation that follows it. This is the worst
+ * case for executing the operations in the order of the request because only the last operation could be
+ * executed in the first run. This benchmark is not executed during the build. Run it with the main method from
+ * the test classpath<br>
+ * <br>
+ * author Pascal Knueppel <br>
+ * created at: 17.10.2026 <br>
+ * <br>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkEndpointBenchmark
+{
+
+  /**
+   * the number of operations within the bulk request
+   */
+  @Param({"100", "1000", "10000"})
+  private int numberOfOperations;
+
+  /**
+   * the service provider configuration
+   */
+  private ServiceProvider serviceProvider;
+
+  /**
+   * the resource endpoint that executes the single operations
+   */
+  private ResourceEndpoint resourceEndpoint;
+
+  /**
+   * holds the groups that are created by the bulk request
+   */
+  private GroupHandlerImpl groupHandler;
+
+  /**
+   * the bulk request with the chained operations
+   */
+  private String bulkRequest;
+
+  public static void main(String[] args) throws RunnerException
+  {
+    new Runner(new OptionsBuilder().include(BulkEndpointBenchmark.class.getSimpleName()).build()).run();
+  }
+
+  /**
+   * creates the resource endpoint and a bulk request in which each group has the group of the next operation as
+   * member
+   */
+  @Setup
+  public void createBulkRequest()
+  {
+    serviceProvider = ServiceProvider.builder().build();
+    serviceProvider.getBulkConfig().setSupported(true);
+    serviceProvider.getBulkConfig().setMaxOperations(numberOfOperations);
+    serviceProvider.getBulkConfig().setMaxPayloadSize(Long.MAX_VALUE);
+    groupHandler = new GroupHandlerImpl();
+    resourceEndpoint = new ResourceEndpoint(serviceProvider, new UserEndpointDefinition(new UserHandlerImpl(true)),
+                                            new GroupEndpointDefinition(groupHandler));
+
+    List<BulkRequestOperation> operations = new ArrayList<>(numberOfOperations);
+    for ( int i = 0 ; i < numberOfOperations ; i++ )
+    {
+      Group group = Group.builder().displayName("group" + i).build();
+      if (i + 1 < numberOfOperations)
+      {
+        Member member = Member.builder().value("bulkId:" + (i + 1)).type(ResourceTypeNames.GROUPS).build();
+        group.setMembers(Collections.singletonList(member));
+      }
+      operations.add(BulkRequestOperation.builder()
+                                         .bulkId(String.valueOf(i))
+                                         .method(HttpMethod.POST)
+                                         .path(EndpointPaths.GROUPS)
+                                         .data(group.toString())
+                                         .build());
+    }
+    bulkRequest = BulkRequest.builder().bulkRequestOperation(operations).build().toString();
+  }
+
+  /**
+   * removes the groups of the previous invocation
+   */
+  @Setup(Level.Invocation)
+  public void clearGroups()
+  {
+    groupHandler.getInMemoryMap().clear();
+  }
+
+  /**
+   * executes the bulk request
+   */
+  @Benchmark
+  public BulkResponse executeChainedBulkRequest()
+  {
+    BulkEndpoint bulkEndpoint = new BulkEndpoint(resourceEndpoint, serviceProvider,
+                                                 resourceEndpoint.getResourceTypeFactory(), new HashMap<>(),
+                                                 new HashMap<>(), resourceType -> {});
+    return bulkEndpoint.bulk("https://localhost/scim/v2", bulkRequest, null);
+  }
+}
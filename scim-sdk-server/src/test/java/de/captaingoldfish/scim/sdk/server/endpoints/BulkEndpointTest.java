@@ -1,5 +1,8 @@
 package de.captaingoldfish.scim.sdk.server.endpoints;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -10,6 +13,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 
 import org.hamcrest.MatcherAssert;
@@ -326,6 +331,108 @@ public class BulkEndpointTest extends AbstractBulkTest
     log.warn(bulkResponse.toPrettyString());
   }
 
+  /**
+   * verifies that a bulk request is rejected as a whole if the payload behind the operations that would reach
+   * the failOnErrors value cannot be parsed. The complete payload must be read before any operation is executed
+   */
+  @Test
+  public void testRejectUnparseablePayloadBehindFailOnErrors()
+  {
+    final int maxOperations = 3;
+    serviceProvider.getBulkConfig().setSupported(true);
+    serviceProvider.getBulkConfig().setMaxOperations(maxOperations);
+    List<BulkRequestOperation> operations = getCreateUserBulkOperations(maxOperations);
+    operations.get(0).setBulkId(null);
+    String bulkRequest = BulkRequest.builder().failOnErrors(1).bulkRequestOperation(operations).build().toString();
+    // the payload is cut behind the first operation so it cannot be parsed if it is read completely
+    String truncatedBulkRequest = bulkRequest.substring(0, bulkRequest.indexOf(operations.get(1).toString()));
+
+    BadRequestException ex = Assertions.assertThrows(BadRequestException.class,
+                                                     () -> bulkEndpoint.bulk(BASE_URI, truncatedBulkRequest, null));
+    Assertions.assertEquals(ScimType.Custom.UNPARSEABLE_REQUEST, ex.getScimType());
+    Mockito.verify(userHandler, Mockito.never()).createResource(Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  /**
+   * verifies that a bulk request is rejected as a whole if it has too many operations even if the failOnErrors
+   * value would be reached by the first operations
+   */
+  @Test
+  public void testRejectTooManyOperationsBehindFailOnErrors()
+  {
+    final int maxOperations = 2;
+    serviceProvider.getBulkConfig().setSupported(true);
+    serviceProvider.getBulkConfig().setMaxOperations(maxOperations);
+    List<BulkRequestOperation> operations = getCreateUserBulkOperations(maxOperations + 1);
+    operations.get(0).setBulkId(null);
+    BulkRequest bulkRequest = BulkRequest.builder().failOnErrors(1).bulkRequestOperation(operations).build();
+
+    BadRequestException ex = Assertions.assertThrows(BadRequestException.class,
+                                                     () -> bulkEndpoint.bulk(BASE_URI, bulkRequest.toString(), null));
+    Assertions.assertEquals(ScimType.RFC7644.TOO_MANY, ex.getScimType());
+    Mockito.verify(userHandler, Mockito.never()).createResource(Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  /**
+   * verifies that an operation that references a bulkId that is declared behind the operations that reach the
+   * failOnErrors value is not executed before the referenced operation
+   */
+  @Test
+  public void testReferenceToOperationBehindFailOnErrors()
+  {
+    final int maxOperations = 4;
+    serviceProvider.getBulkConfig().setSupported(true);
+    serviceProvider.getBulkConfig().setMaxOperations(maxOperations);
+    List<BulkRequestOperation> operations = getCreateUserBulkOperations(3);
+    operations.get(0).setBulkId(null);
+    operations.get(1).setBulkId(null);
+    String bulkId = operations.get(2).getBulkId().get();
+    Member member = Member.builder().value("bulkId:" + bulkId).type(ResourceTypeNames.USER).build();
+    Group group = Group.builder().displayName("admin").members(Collections.singletonList(member)).build();
+    operations.add(0,
+                   BulkRequestOperation.builder()
+                                       .method(HttpMethod.POST)
+                                       .path(EndpointPaths.GROUPS)
+                                       .data(group.toString())
+                                       .bulkId(UUID.randomUUID().toString())
+                                       .build());
+    BulkRequest bulkRequest = BulkRequest.builder().failOnErrors(2).bulkRequestOperation(operations).build();
+
+    BulkResponse bulkResponse = bulkEndpoint.bulk(BASE_URI, bulkRequest.toString(), null);
+    Assertions.assertEquals(HttpStatus.PRECONDITION_FAILED, bulkResponse.getHttpStatus());
+    List<BulkResponseOperation> responseOperations = bulkResponse.getBulkResponseOperations();
+    Assertions.assertEquals(2, responseOperations.size(), bulkResponse.toPrettyString());
+    for ( BulkResponseOperation responseOperation : responseOperations )
+    {
+      Assertions.assertEquals("missing 'bulkId' on BULK-POST request",
+                              responseOperation.getResponse().get().getDetail().get());
+    }
+    Mockito.verify(groupHandler, Mockito.never()).createResource(Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  /**
+   * verifies that a bulk request that is read from a stream is aborted as soon as the maximum payload size is
+   * exceeded
+   */
+  @Test
+  public void testFailIfMaxPayloadIsExceededOnStream()
+  {
+    final int maxOperations = 10;
+    serviceProvider.getBulkConfig().setSupported(true);
+    serviceProvider.getBulkConfig().setMaxOperations(maxOperations);
+    serviceProvider.getBulkConfig().setMaxPayloadSize(100L);
+    List<BulkRequestOperation> createOperations = getCreateUserBulkOperations(maxOperations);
+    BulkRequest bulkRequest = BulkRequest.builder().bulkRequestOperation(createOperations).build();
+    InputStream payload = new ByteArrayInputStream(bulkRequest.toString().getBytes(StandardCharsets.UTF_8));
+
+    BadRequestException ex = Assertions.assertThrows(BadRequestException.class,
+                                                     () -> bulkEndpoint.bulk(BASE_URI, payload, null));
+    Assertions.assertEquals(ScimType.Custom.TOO_LARGE, ex.getScimType());
+    Assertions.assertEquals("request body too large with more than '100'-bytes maximum payload size is '100'",
+                            ex.getDetail());
+    Mockito.verify(userHandler, Mockito.never()).createResource(Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
   /**
    * verifies that bulk cannot be used if the service provider has set its support to false
    */
@@ -626,6 +733,229 @@ public class BulkEndpointTest extends AbstractBulkTest
     Assertions.assertEquals(requestOperation.getBulkId().get(), responseList.get(1).getBulkId().get());
   }
 
+  /**
+   * verifies that the bulk operations are executed on the bulk executor if present, that operations with
+   * bulkId references are executed after the referenced operations have been finished and that the responses
+   * are returned in the order of the request
+   */
+  @Test
+  public void testExecuteBulkOperationsOnExecutor()
+  {
+    final int numberOfUsers = 5;
+    serviceProvider.getBulkConfig().setSupported(true);
+    serviceProvider.getBulkConfig().setMaxOperations(numberOfUsers + 1);
+
+    List<BulkRequestOperation> createUserOperations = getCreateUserBulkOperations(numberOfUsers);
+    Group group = Group.builder().displayName("admin").build();
+    createUserOperations.forEach(operation -> {
+      String bulkIdReference = AttributeNames.RFC7643.BULK_ID + ":" + operation.getBulkId().get();
+      group.addMember(Member.builder().value(bulkIdReference).build());
+    });
+    String groupBulkId = UUID.randomUUID().toString();
+    List<BulkRequestOperation> operations = new ArrayList<>();
+    operations.add(BulkRequestOperation.builder()
+                                       .bulkId(groupBulkId)
+                                       .method(HttpMethod.POST)
+                                       .path(EndpointPaths.GROUPS)
+                                       .data(group.toString())
+                                       .build());
+    operations.addAll(createUserOperations);
+    BulkRequest bulkRequest = BulkRequest.builder().bulkRequestOperation(operations).build();
+
+    ResourceEndpoint resourceEndpoint = new ResourceEndpoint(serviceProvider, new UserEndpointDefinition(userHandler),
+                                                             new GroupEndpointDefinition(groupHandler));
+    List<String> executingThreads = Collections.synchronizedList(new ArrayList<>());
+    ExecutorService executorService = Executors.newSingleThreadExecutor();
+    try
+    {
+      bulkEndpoint = new BulkEndpoint(resourceEndpoint, serviceProvider, resourceEndpoint.getResourceTypeFactory(),
+                                      new HashMap<>(), new HashMap<>(),
+                                      resourceType -> executingThreads.add(Thread.currentThread().getName()),
+                                      executorService);
+      BulkResponse bulkResponse = bulkEndpoint.bulk(BASE_URI, bulkRequest.toString(), null);
+      Assertions.assertEquals(HttpStatus.OK, bulkResponse.getHttpStatus());
+      List<BulkResponseOperation> responseList = bulkResponse.getBulkResponseOperations();
+      Assertions.assertEquals(numberOfUsers + 1, responseList.size());
+      Assertions.assertEquals(HttpStatus.CREATED, responseList.get(0).getStatus());
+      Assertions.assertEquals(groupBulkId, responseList.get(0).getBulkId().get());
+      for ( int i = 1 ; i <= numberOfUsers ; i++ )
+      {
+        BulkResponseOperation responseOperation = responseList.get(i);
+        Assertions.assertEquals(HttpStatus.CREATED, responseOperation.getStatus(), bulkResponse.toPrettyString());
+        Assertions.assertEquals(operations.get(i).getBulkId(), responseOperation.getBulkId());
+        MatcherAssert.assertThat(responseOperation.getLocation().get(),
+                                 Matchers.startsWith(BASE_URI + EndpointPaths.USERS));
+      }
+    }
+    finally
+    {
+      executorService.shutdown();
+    }
+    Assertions.assertEquals(numberOfUsers + 1, executingThreads.size());
+    Assertions.assertFalse(executingThreads.contains(Thread.currentThread().getName()));
+
+    Group createdGroup = groupHandler.getInMemoryMap().values().iterator().next();
+    Assertions.assertEquals(numberOfUsers, createdGroup.getMembers().size());
+    createdGroup.getMembers().forEach(member -> {
+      Assertions.assertTrue(userHandler.getInMemoryMap().containsKey(member.getValue().get()));
+    });
+  }
+
+  /**
+   * verifies that the responses of operations that were already running on the bulk executor when the
+   * failOnErrors value was reached are returned and that no resource is created
+   */
+  @Test
+  public void testFailOnErrorsOnExecutor()
+  {
+    final int numberOfInvalidOperations = 4;
+    serviceProvider.getBulkConfig().setSupported(true);
+    serviceProvider.getBulkConfig().setMaxOperations(numberOfInvalidOperations + 1);
+    List<BulkRequestOperation> operations = getCreateUserBulkOperations(numberOfInvalidOperations);
+    operations.forEach(operation -> operation.setBulkId(null));
+    BulkRequest bulkRequest = BulkRequest.builder().failOnErrors(1).bulkRequestOperation(operations).build();
+
+    ResourceEndpoint resourceEndpoint = new ResourceEndpoint(serviceProvider, new UserEndpointDefinition(userHandler));
+    ExecutorService executorService = Executors.newFixedThreadPool(numberOfInvalidOperations);
+    try
+    {
+      bulkEndpoint = new BulkEndpoint(resourceEndpoint, serviceProvider, resourceEndpoint.getResourceTypeFactory(),
+                                      new HashMap<>(), new HashMap<>(), null, executorService);
+      BulkResponse bulkResponse = bulkEndpoint.bulk(BASE_URI, bulkRequest.toString(), null);
+      Assertions.assertEquals(HttpStatus.PRECONDITION_FAILED, bulkResponse.getHttpStatus());
+      List<BulkResponseOperation> responseList = bulkResponse.getBulkResponseOperations();
+      Assertions.assertEquals(numberOfInvalidOperations, responseList.size(), bulkResponse.toPrettyString());
+      responseList.forEach(responseOperation -> {
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, responseOperation.getStatus());
+      });
+    }
+    finally
+    {
+      executorService.shutdown();
+    }
+    Mockito.verify(userHandler, Mockito.never()).createResource(Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  /**
+   * verifies that operations that were still running on the bulk executor when the failOnErrors value was
+   * reached are reported with their responses if they succeed afterwards
+   */
+  @Test
+  public void testFailOnErrorsOnExecutorReturnsRunningOperations()
+  {
+    final int numberOfUsers = 3;
+    serviceProvider.getBulkConfig().setSupported(true);
+    serviceProvider.getBulkConfig().setMaxOperations(numberOfUsers + 1);
+    List<BulkRequestOperation> operations = new ArrayList<>();
+    BulkRequestOperation invalidOperation = getCreateUserBulkOperations(1).get(0);
+    invalidOperation.setBulkId(null);
+    operations.add(invalidOperation);
+    operations.addAll(getCreateUserBulkOperations(numberOfUsers));
+    BulkRequest bulkRequest = BulkRequest.builder().failOnErrors(1).bulkRequestOperation(operations).build();
+
+    // the users are created after the error of the invalid operation has been counted
+    Mockito.doAnswer(invocation -> {
+      Thread.sleep(500);
+      return invocation.callRealMethod();
+    }).when(userHandler).createResource(Mockito.any(), Mockito.any(), Mockito.any());
+
+    ResourceEndpoint resourceEndpoint = new ResourceEndpoint(serviceProvider, new UserEndpointDefinition(userHandler));
+    ExecutorService executorService = Executors.newFixedThreadPool(numberOfUsers + 1);
+    try
+    {
+      bulkEndpoint = new BulkEndpoint(resourceEndpoint, serviceProvider, resourceEndpoint.getResourceTypeFactory(),
+                                      new HashMap<>(), new HashMap<>(), null, executorService);
+      BulkResponse bulkResponse = bulkEndpoint.bulk(BASE_URI, bulkRequest.toString(), null);
+      Assertions.assertEquals(HttpStatus.PRECONDITION_FAILED, bulkResponse.getHttpStatus());
+      List<BulkResponseOperation> responseList = bulkResponse.getBulkResponseOperations();
+      Assertions.assertEquals(numberOfUsers + 1, responseList.size(), bulkResponse.toPrettyString());
+      Assertions.assertEquals(HttpStatus.BAD_REQUEST, responseList.get(0).getStatus());
+      for ( int i = 1 ; i <= numberOfUsers ; i++ )
+      {
+        BulkResponseOperation responseOperation = responseList.get(i);
+        Assertions.assertEquals(HttpStatus.CREATED, responseOperation.getStatus(), bulkResponse.toPrettyString());
+        Assertions.assertEquals(operations.get(i).getBulkId(), responseOperation.getBulkId());
+        MatcherAssert.assertThat(responseOperation.getLocation().get(),
+                                 Matchers.startsWith(BASE_URI + EndpointPaths.USERS));
+      }
+    }
+    finally
+    {
+      executorService.shutdown();
+    }
+    Assertions.assertEquals(numberOfUsers, userHandler.getInMemoryMap().size());
+  }
+
+  /**
+   * verifies that operations on the same resource are executed in the order of the request on the bulk
+   * executor even if they do not reference each other
+   */
+  @Test
+  public void testOperationsOnTheSameResourceKeepTheirOrderOnExecutor()
+  {
+    final List<String> nickNames = Arrays.asList("first", "second");
+    serviceProvider.getBulkConfig().setSupported(true);
+    serviceProvider.getPatchConfig().setSupported(true);
+    serviceProvider.getBulkConfig().setMaxOperations(nickNames.size());
+
+    final String id = UUID.randomUUID().toString();
+    User user = User.builder()
+                    .id(id)
+                    .userName(UUID.randomUUID().toString())
+                    .meta(Meta.builder().created(LocalDateTime.now()).lastModified(LocalDateTime.now()).build())
+                    .build();
+    userHandler.getInMemoryMap().put(id, user);
+
+    List<BulkRequestOperation> operations = new ArrayList<>();
+    for ( String nickName : nickNames )
+    {
+      PatchRequestOperation patchOperation = PatchRequestOperation.builder()
+                                                                  .op(PatchOp.REPLACE)
+                                                                  .path(AttributeNames.RFC7643.NICK_NAME)
+                                                                  .values(Collections.singletonList(nickName))
+                                                                  .build();
+      PatchOpRequest patchOpRequest = PatchOpRequest.builder()
+                                                    .operations(Collections.singletonList(patchOperation))
+                                                    .build();
+      operations.add(BulkRequestOperation.builder()
+                                         .method(HttpMethod.PATCH)
+                                         .path(EndpointPaths.USERS + "/" + id)
+                                         .data(patchOpRequest.toString())
+                                         .build());
+    }
+    BulkRequest bulkRequest = BulkRequest.builder().bulkRequestOperation(operations).build();
+
+    // the first operation would be overtaken by the second one if both were executed at the same time
+    Mockito.doAnswer(invocation -> {
+      User patchedUser = invocation.getArgument(0);
+      if (nickNames.get(0).equals(patchedUser.getNickName().orElse(null)))
+      {
+        Thread.sleep(500);
+      }
+      return invocation.callRealMethod();
+    }).when(userHandler).updateResource(Mockito.any(), Mockito.any(), Mockito.any());
+
+    ResourceEndpoint resourceEndpoint = new ResourceEndpoint(serviceProvider, new UserEndpointDefinition(userHandler));
+    ExecutorService executorService = Executors.newFixedThreadPool(nickNames.size());
+    try
+    {
+      bulkEndpoint = new BulkEndpoint(resourceEndpoint, serviceProvider, resourceEndpoint.getResourceTypeFactory(),
+                                      new HashMap<>(), new HashMap<>(), null, executorService);
+      BulkResponse bulkResponse = bulkEndpoint.bulk(BASE_URI, bulkRequest.toString(), null);
+      Assertions.assertEquals(HttpStatus.OK, bulkResponse.getHttpStatus(), bulkResponse.toPrettyString());
+      List<BulkResponseOperation> responseList = bulkResponse.getBulkResponseOperations();
+      Assertions.assertEquals(nickNames.size(), responseList.size());
+      responseList.forEach(responseOperation -> {
+        Assertions.assertEquals(HttpStatus.OK, responseOperation.getStatus(), bulkResponse.toPrettyString());
+      });
+    }
+    finally
+    {
+      executorService.shutdown();
+    }
+    Assertions.assertEquals(nickNames.get(1), userHandler.getInMemoryMap().get(id).getNickName().get());
+  }
+
   /**
    * verifies that circular references will cause an error and a {@link HttpStatus#CONFLICT} status code is
    * returned
@@ -667,19 +997,106 @@ public class BulkEndpointTest extends AbstractBulkTest
     Assertions.assertEquals(HttpStatus.OK, bulkResponse.getHttpStatus());
     Assertions.assertEquals(2, bulkResponse.getBulkResponseOperations().size());
     ErrorResponse firstResponse = bulkResponse.getBulkResponseOperations().get(0).getResponse().get();
-    Assertions.assertEquals("the bulkIds '" + bulkId2 + "' and '" + bulkId + "' do form a circular "
+    Assertions.assertEquals("the bulkIds '" + bulkId + "' and '" + bulkId2 + "' do form a circular "
                             + "reference that cannot be resolved.",
                             firstResponse.getDetail().get(),
                             bulkResponse.toPrettyString());
     Assertions.assertEquals(HttpStatus.CONFLICT, firstResponse.getHttpStatus());
 
     ErrorResponse secondResponse = bulkResponse.getBulkResponseOperations().get(1).getResponse().get();
-    Assertions.assertEquals("the bulkIds '" + bulkId + "' and '" + bulkId2 + "' do form a circular "
+    Assertions.assertEquals("the bulkIds '" + bulkId2 + "' and '" + bulkId + "' do form a circular "
                             + "reference that cannot be resolved.",
                             secondResponse.getDetail().get());
     Assertions.assertEquals(HttpStatus.CONFLICT, secondResponse.getHttpStatus());
   }
 
+  /**
+   * verifies that a chain of operations is resolved completely if each operation references the operation that
+   * follows it within the request
+   */
+  @Test
+  public void testChainedBulkIdReferencesInReverseOrder()
+  {
+    final int maxOperations = 50;
+    serviceProvider.getBulkConfig().setSupported(true);
+    serviceProvider.getBulkConfig().setMaxOperations(maxOperations);
+
+    List<BulkRequestOperation> operations = new ArrayList<>();
+    for ( int i = 0 ; i < maxOperations ; i++ )
+    {
+      Group group = Group.builder().displayName("group" + i).build();
+      if (i + 1 < maxOperations)
+      {
+        Member member = Member.builder().value("bulkId:" + (i + 1)).type(ResourceTypeNames.GROUPS).build();
+        group.setMembers(Collections.singletonList(member));
+      }
+      operations.add(BulkRequestOperation.builder()
+                                         .method(HttpMethod.POST)
+                                         .path(EndpointPaths.GROUPS)
+                                         .data(group.toString())
+                                         .bulkId(String.valueOf(i))
+                                         .build());
+    }
+    BulkRequest bulkRequest = BulkRequest.builder().bulkRequestOperation(operations).build();
+    BulkResponse bulkResponse = bulkEndpoint.bulk(BASE_URI, bulkRequest.toString(), null);
+    Assertions.assertEquals(HttpStatus.OK, bulkResponse.getHttpStatus());
+    List<BulkResponseOperation> responseOperations = bulkResponse.getBulkResponseOperations();
+    Assertions.assertEquals(maxOperations, responseOperations.size());
+    for ( int i = 0 ; i < maxOperations ; i++ )
+    {
+      Assertions.assertEquals(HttpStatus.CREATED, responseOperations.get(i).getStatus());
+      Assertions.assertEquals(String.valueOf(maxOperations - 1 - i), responseOperations.get(i).getBulkId().get());
+    }
+    Assertions.assertEquals(maxOperations, groupHandler.getInMemoryMap().size());
+  }
+
+  /**
+   * verifies that circular references over several operations are detected and that operations that reference
+   * such a circular reference fail because their references cannot be resolved
+   */
+  @Test
+  public void testIndirectCircularReference()
+  {
+    final int maxOperations = 4;
+    serviceProvider.getBulkConfig().setSupported(true);
+    serviceProvider.getBulkConfig().setMaxOperations(maxOperations);
+
+    List<String> bulkIds = Arrays.asList("group1", "group2", "group3", "group4");
+    List<String> referencedBulkIds = Arrays.asList("group2", "group3", "group1", "group1");
+    List<BulkRequestOperation> operations = new ArrayList<>();
+    for ( int i = 0 ; i < bulkIds.size() ; i++ )
+    {
+      Member member = Member.builder()
+                            .value("bulkId:" + referencedBulkIds.get(i))
+                            .type(ResourceTypeNames.GROUPS)
+                            .build();
+      Group group = Group.builder().displayName(bulkIds.get(i)).members(Collections.singletonList(member)).build();
+      operations.add(BulkRequestOperation.builder()
+                                         .method(HttpMethod.POST)
+                                         .path(EndpointPaths.GROUPS)
+                                         .data(group.toString())
+                                         .bulkId(bulkIds.get(i))
+                                         .build());
+    }
+    BulkRequest bulkRequest = BulkRequest.builder().bulkRequestOperation(operations).build();
+    BulkResponse bulkResponse = bulkEndpoint.bulk(BASE_URI, bulkRequest.toString(), null);
+    Assertions.assertEquals(HttpStatus.OK, bulkResponse.getHttpStatus());
+    List<BulkResponseOperation> responseOperations = bulkResponse.getBulkResponseOperations();
+    Assertions.assertEquals(maxOperations, responseOperations.size());
+    for ( int i = 0 ; i < 3 ; i++ )
+    {
+      ErrorResponse errorResponse = responseOperations.get(i).getResponse().get();
+      Assertions.assertEquals(HttpStatus.CONFLICT, errorResponse.getHttpStatus(), bulkResponse.toPrettyString());
+      Assertions.assertEquals("the bulkIds '" + bulkIds.get(i) + "' and '" + referencedBulkIds.get(i)
+                              + "' do form a circular reference that cannot be resolved.",
+                              errorResponse.getDetail().get());
+    }
+    ErrorResponse errorResponse = responseOperations.get(3).getResponse().get();
+    Assertions.assertEquals(HttpStatus.BAD_REQUEST, errorResponse.getHttpStatus());
+    Assertions.assertEquals(ScimType.RFC7644.INVALID_VALUE, errorResponse.getScimType().get());
+    Assertions.assertEquals(0, groupHandler.getInMemoryMap().size());
+  }
+
   /**
    * this test will verify that bulkIds are also resolved on extensions as the {@link EnterpriseUser}
    */
@@ -1035,12 +1452,12 @@ public class BulkEndpointTest extends AbstractBulkTest
     List<BulkResponseOperation> responseOperations = bulkResponse.getBulkResponseOperations();
     Assertions.assertEquals(2, responseOperations.size());
     Assertions.assertEquals(HttpStatus.CONFLICT, responseOperations.get(0).getStatus());
-    Assertions.assertEquals("the bulkIds '" + createBulkId + "' and '" + patchBulkId + "' do form a circular "
+    Assertions.assertEquals("the bulkIds '" + patchBulkId + "' and '" + createBulkId + "' do form a circular "
                             + "reference that cannot be resolved.",
                             responseOperations.get(0).getResponse().get().getDetail().get());
 
     Assertions.assertEquals(HttpStatus.CONFLICT, responseOperations.get(1).getStatus());
-    Assertions.assertEquals("the bulkIds '" + patchBulkId + "' and '" + createBulkId + "' do form a circular "
+    Assertions.assertEquals("the bulkIds '" + createBulkId + "' and '" + patchBulkId + "' do form a circular "
                             + "reference that cannot be resolved.",
                             responseOperations.get(1).getResponse().get().getDetail().get());
     Assertions.assertEquals(1, userHandler.getInMemoryMap().size());
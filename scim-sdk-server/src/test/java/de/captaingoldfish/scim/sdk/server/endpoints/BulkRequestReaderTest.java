@@ -0,0 +1,177 @@
+package de.captaingoldfish.scim.sdk.server.endpoints;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.captaingoldfish.scim.sdk.common.constants.AttributeNames;
+import de.captaingoldfish.scim.sdk.common.constants.SchemaUris;
+import de.captaingoldfish.scim.sdk.common.constants.ScimType;
+import de.captaingoldfish.scim.sdk.common.exceptions.BadRequestException;
+import de.captaingoldfish.scim.sdk.common.request.BulkRequest;
+import de.captaingoldfish.scim.sdk.common.request.BulkRequestOperation;
+import de.captaingoldfish.scim.sdk.common.resources.complex.BulkConfig;
+import de.captaingoldfish.scim.sdk.common.schemas.Schema;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
+import de.captaingoldfish.scim.sdk.server.schemas.ResourceTypeFactory;
+
+
+/**
+ * author Pascal Knueppel <br>
+ * created at: 17.10.2026 <br>
+ * <br>
+ */
+public class BulkRequestReaderTest extends AbstractBulkTest
+{
+
+  /**
+   * the meta schema of bulk requests
+   */
+  private Schema bulkRequestSchema;
+
+  /**
+   * initializes the bulk request schema
+   */
+  @BeforeEach
+  public void initialize()
+  {
+    bulkRequestSchema = new ResourceTypeFactory().getSchemaFactory().getMetaSchema(SchemaUris.BULK_REQUEST_URI);
+  }
+
+  /**
+   * creates a reader for the given bulk request
+   */
+  private BulkRequestReader getReader(String bulkRequest, int maxOperations, long maxPayloadSize)
+  {
+    BulkConfig bulkConfig = BulkConfig.builder()
+                                      .supported(true)
+                                      .maxOperations(maxOperations)
+                                      .maxPayloadSize(maxPayloadSize)
+                                      .build();
+    return new BulkRequestReader(bulkRequestSchema, bulkConfig,
+                                 new ByteArrayInputStream(bulkRequest.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  /**
+   * verifies that the read operation matches the expected operation
+   */
+  private void assertOperation(BulkRequestOperation expected, BulkRequestOperation actual)
+  {
+    Assertions.assertNotNull(actual);
+    Assertions.assertEquals(expected.getMethod(), actual.getMethod());
+    Assertions.assertEquals(expected.getBulkId(), actual.getBulkId());
+    Assertions.assertEquals(expected.getPath(), actual.getPath());
+    Assertions.assertEquals(JsonHelper.readJsonDocument(expected.getData().get()),
+                            JsonHelper.readJsonDocument(actual.getData().get()));
+  }
+
+  /**
+   * verifies that the operations are read one after another
+   */
+  @Test
+  public void testReadOperations()
+  {
+    List<BulkRequestOperation> operations = getCreateUserBulkOperations(3);
+    BulkRequest bulkRequest = BulkRequest.builder().failOnErrors(2).bulkRequestOperation(operations).build();
+    try (BulkRequestReader reader = getReader(bulkRequest.toString(), 3, Long.MAX_VALUE))
+    {
+      for ( BulkRequestOperation operation : operations )
+      {
+        assertOperation(operation, reader.nextOperation());
+      }
+      Assertions.assertNull(reader.nextOperation());
+      BulkRequest header = reader.finish();
+      Assertions.assertEquals(2, header.getFailOnErrors().get());
+      Assertions.assertFalse(header.has(AttributeNames.RFC7643.OPERATIONS));
+    }
+  }
+
+  /**
+   * verifies that the attributes behind the operations are read and validated as well
+   */
+  @Test
+  public void testReadAttributesBehindOperations()
+  {
+    List<BulkRequestOperation> operations = getCreateUserBulkOperations(1);
+    String bulkRequest = "{\"Operations\": " + operations + ", \"failOnErrors\": 5, "
+                         + "\"schemas\": [\"" + SchemaUris.BULK_REQUEST_URI + "\"]}";
+    try (BulkRequestReader reader = getReader(bulkRequest, 1, Long.MAX_VALUE))
+    {
+      assertOperation(operations.get(0), reader.nextOperation());
+      Assertions.assertNull(reader.nextOperation());
+      Assertions.assertEquals(5, reader.finish().getFailOnErrors().get());
+    }
+  }
+
+  /**
+   * verifies that the reading is aborted as soon as the maximum number of operations is exceeded
+   */
+  @Test
+  public void testTooManyOperations()
+  {
+    List<BulkRequestOperation> operations = getCreateUserBulkOperations(3);
+    BulkRequest bulkRequest = BulkRequest.builder().bulkRequestOperation(operations).build();
+    try (BulkRequestReader reader = getReader(bulkRequest.toString(), 2, Long.MAX_VALUE))
+    {
+      Assertions.assertNotNull(reader.nextOperation());
+      Assertions.assertNotNull(reader.nextOperation());
+      BadRequestException ex = Assertions.assertThrows(BadRequestException.class, reader::nextOperation);
+      Assertions.assertEquals(ScimType.RFC7644.TOO_MANY, ex.getScimType());
+    }
+  }
+
+  /**
+   * verifies that the reading is aborted as soon as the maximum payload size is exceeded
+   */
+  @Test
+  public void testPayloadTooLarge()
+  {
+    List<BulkRequestOperation> operations = getCreateUserBulkOperations(100);
+    String bulkRequest = BulkRequest.builder().bulkRequestOperation(operations).build().toString();
+    try (BulkRequestReader reader = getReader(bulkRequest, 100, bulkRequest.length() / 2))
+    {
+      BadRequestException ex = Assertions.assertThrows(BadRequestException.class, () -> {
+        while (reader.nextOperation() != null)
+        {
+          // read until the limit is exceeded
+        }
+      });
+      Assertions.assertEquals(ScimType.Custom.TOO_LARGE, ex.getScimType());
+    }
+  }
+
+  /**
+   * verifies that each operation is validated against the bulk request schema while it is read
+   */
+  @Test
+  public void testInvalidOperation()
+  {
+    List<BulkRequestOperation> operations = getCreateUserBulkOperations(2);
+    operations.get(1).remove(AttributeNames.RFC7643.METHOD);
+    BulkRequest bulkRequest = BulkRequest.builder().bulkRequestOperation(operations).build();
+    try (BulkRequestReader reader = getReader(bulkRequest.toString(), 2, Long.MAX_VALUE))
+    {
+      assertOperation(operations.get(0), reader.nextOperation());
+      BadRequestException ex = Assertions.assertThrows(BadRequestException.class, reader::nextOperation);
+      Assertions.assertEquals(ScimType.Custom.UNPARSEABLE_REQUEST, ex.getScimType());
+    }
+  }
+
+  /**
+   * verifies that a document that is not a json object is rejected
+   */
+  @Test
+  public void testDocumentIsNoObject()
+  {
+    List<BulkRequestOperation> operations = getCreateUserBulkOperations(1);
+    try (BulkRequestReader reader = getReader(operations.toString(), 1, Long.MAX_VALUE))
+    {
+      BadRequestException ex = Assertions.assertThrows(BadRequestException.class, reader::nextOperation);
+      Assertions.assertEquals(ScimType.Custom.UNPARSEABLE_REQUEST, ex.getScimType());
+    }
+  }
+}
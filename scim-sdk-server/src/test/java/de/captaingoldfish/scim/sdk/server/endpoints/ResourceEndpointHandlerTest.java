@@ -1,7 +1,10 @@
 package de.captaingoldfish.scim.sdk.server.endpoints;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -27,6 +30,8 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mockito;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 import de.captaingoldfish.scim.sdk.common.constants.AttributeNames;
 import de.captaingoldfish.scim.sdk.common.constants.EndpointPaths;
 import de.captaingoldfish.scim.sdk.common.constants.HttpHeader;
@@ -77,10 +82,14 @@ import de.captaingoldfish.scim.sdk.server.endpoints.handler.ResourceTypeHandler;
 import de.captaingoldfish.scim.sdk.server.endpoints.handler.ServiceProviderHandler;
 import de.captaingoldfish.scim.sdk.server.endpoints.handler.UserHandlerImpl;
 import de.captaingoldfish.scim.sdk.server.filter.FilterNode;
+import de.captaingoldfish.scim.sdk.server.patch.PatchDelta;
+import de.captaingoldfish.scim.sdk.server.query.QueryPlan;
 import de.captaingoldfish.scim.sdk.server.response.PartialListResponse;
+import de.captaingoldfish.scim.sdk.server.response.StreamingListResponse;
 import de.captaingoldfish.scim.sdk.server.schemas.ResourceType;
 import de.captaingoldfish.scim.sdk.server.schemas.ResourceTypeFactory;
 import de.captaingoldfish.scim.sdk.server.schemas.custom.ResourceTypeFeatures;
+import de.captaingoldfish.scim.sdk.server.schemas.custom.TrustedResponseFeature;
 import de.captaingoldfish.scim.sdk.server.utils.FileReferences;
 import de.captaingoldfish.scim.sdk.server.utils.RequestUtils;
 import lombok.extern.slf4j.Slf4j;
@@ -445,6 +454,37 @@ public class ResourceEndpointHandlerTest implements FileReferences
                                                                                             .collect(Collectors.toList()))));
   }
 
+  /**
+   * verifies that trusted responses are not validated unless they are chosen for a sample validation
+   */
+  @Test
+  public void testGetResourceWithTrustedResponse()
+  {
+    final String userId = UUID.randomUUID().toString();
+    User user = JsonHelper.loadJsonDocument(USER_RESOURCE, User.class);
+    user.setId(userId);
+    user.remove(AttributeNames.RFC7643.USER_NAME); // a required attribute that would fail the validation
+    Meta meta = Meta.builder().created(Instant.now()).lastModified(Instant.now()).build();
+    user.setMeta(meta);
+    userHandler.getInMemoryMap().put(user.getId().get(), user);
+
+    ResourceType userResourceType = resourceTypeFactory.getResourceType(EndpointPaths.USERS);
+    userResourceType.getFeatures()
+                    .setTrustedResponseFeature(TrustedResponseFeature.builder()
+                                                                     .enabled(true)
+                                                                     .validationSampleRate(2)
+                                                                     .build());
+
+    ScimResponse scimResponse = resourceEndpointHandler.getResource("/Users", userId, null, getBaseUrlSupplier());
+    MatcherAssert.assertThat(scimResponse.getClass(), Matchers.typeCompatibleWith(GetResponse.class));
+    Assertions.assertFalse(scimResponse.has(AttributeNames.RFC7643.PASSWORD));
+    Assertions.assertEquals(userId, scimResponse.get(AttributeNames.RFC7643.ID).textValue());
+
+    // the second response is validated because of the sample rate
+    scimResponse = resourceEndpointHandler.getResource("/Users", userId, null, getBaseUrlSupplier());
+    MatcherAssert.assertThat(scimResponse.getClass(), Matchers.typeCompatibleWith(ErrorResponse.class));
+  }
+
   /**
    * if no resource is returned after update a {@link ResourceNotFoundException} should be thrown
    */
@@ -1346,6 +1386,102 @@ public class ResourceEndpointHandlerTest implements FileReferences
                             listResponse.getListedResources().size());
   }
 
+  /**
+   * verifies that only the conjuncts of the filter that were not handled by the resource handler are evaluated
+   * by the SDK
+   */
+  @Test
+  public void testResidualFilterIsEvaluatedBySdk()
+  {
+    resourceEndpointHandler.getServiceProvider().getFilterConfig().setSupported(true);
+    resourceEndpointHandler.getServiceProvider().getFilterConfig().setMaxResults(Integer.MAX_VALUE);
+    resourceTypeFactory.getResourceType(EndpointPaths.USERS).getFeatures().setAutoFiltering(true);
+    List<User> users = Arrays.asList(User.builder()
+                                         .id("1")
+                                         .userName("chuck")
+                                         .nickName("norris")
+                                         .meta(Meta.builder().created(Instant.now()).build())
+                                         .build(),
+                                     User.builder()
+                                         .id("2")
+                                         .userName("bruce")
+                                         .nickName("lee")
+                                         .meta(Meta.builder().created(Instant.now()).build())
+                                         .build(),
+                                     User.builder()
+                                         .id("3")
+                                         .userName("chuck")
+                                         .meta(Meta.builder().created(Instant.now()).build())
+                                         .build());
+    Mockito.doAnswer(invocation -> {
+      QueryPlan queryPlan = invocation.getArgument(0);
+      Assertions.assertEquals(2, queryPlan.getConjuncts().size());
+      // the backend claims that it has already evaluated the userName expression
+      queryPlan.markHandled(queryPlan.getConjuncts().get(0));
+      Assertions.assertFalse(queryPlan.isPagingAllowed());
+      return PartialListResponse.<User> builder().resources(users).totalResults(users.size()).build();
+    }).when(userHandler).listResources(Mockito.any(QueryPlan.class), Mockito.any(), Mockito.any());
+
+    SearchRequest searchRequest = SearchRequest.builder().filter("userName eq \"chuck\" and nickName pr").build();
+    ScimResponse scimResponse = resourceEndpointHandler.listResources(EndpointPaths.USERS,
+                                                                      searchRequest,
+                                                                      getBaseUrlSupplier(),
+                                                                      null);
+
+    MatcherAssert.assertThat(scimResponse.getClass(), Matchers.typeCompatibleWith(ListResponse.class));
+    ListResponse<ScimObjectNode> listResponse = (ListResponse<ScimObjectNode>)scimResponse;
+    Assertions.assertEquals(Arrays.asList("1", "2"),
+                            listResponse.getListedResources()
+                                        .stream()
+                                        .map(resource -> resource.get(AttributeNames.RFC7643.ID).textValue())
+                                        .collect(Collectors.toList()));
+  }
+
+  /**
+   * verifies that the SDK does not extract the requested page a second time if the resource handler has already
+   * applied startIndex and count
+   */
+  @Test
+  public void testPagingHandledByBackend()
+  {
+    resourceEndpointHandler.getServiceProvider().getFilterConfig().setSupported(true);
+    resourceEndpointHandler.getServiceProvider().getFilterConfig().setMaxResults(Integer.MAX_VALUE);
+    List<User> users = new ArrayList<>();
+    for ( int i = 1 ; i <= 5 ; i++ )
+    {
+      users.add(User.builder()
+                    .id(String.valueOf(i))
+                    .userName("user-" + i)
+                    .meta(Meta.builder().created(Instant.now()).build())
+                    .build());
+    }
+    Mockito.doAnswer(invocation -> {
+      QueryPlan queryPlan = invocation.getArgument(0);
+      queryPlan.markFilterHandled();
+      Assertions.assertTrue(queryPlan.isPagingAllowed());
+      queryPlan.markPagingHandled();
+      int fromIndex = (int)queryPlan.getStartIndex() - 1;
+      List<User> page = users.subList(fromIndex, Math.min(fromIndex + queryPlan.getCount(), users.size()));
+      return PartialListResponse.<User> builder().resources(page).totalResults(users.size()).build();
+    }).when(userHandler).listResources(Mockito.any(QueryPlan.class), Mockito.any(), Mockito.any());
+
+    SearchRequest searchRequest = SearchRequest.builder().startIndex(2L).count(3).build();
+    ScimResponse scimResponse = resourceEndpointHandler.listResources(EndpointPaths.USERS,
+                                                                      searchRequest,
+                                                                      getBaseUrlSupplier(),
+                                                                      null);
+
+    MatcherAssert.assertThat(scimResponse.getClass(), Matchers.typeCompatibleWith(ListResponse.class));
+    ListResponse<ScimObjectNode> listResponse = (ListResponse<ScimObjectNode>)scimResponse;
+    Assertions.assertEquals(users.size(), listResponse.getTotalResults());
+    Assertions.assertEquals(2, listResponse.getStartIndex());
+    Assertions.assertEquals(Arrays.asList("2", "3", "4"),
+                            listResponse.getListedResources()
+                                        .stream()
+                                        .map(resource -> resource.get(AttributeNames.RFC7643.ID).textValue())
+                                        .collect(Collectors.toList()));
+  }
+
   /**
    * the {@link ResourceEndpointHandler#registerEndpoint(EndpointDefinition)} method must be accessible for
    * developers
@@ -2010,6 +2146,206 @@ public class ResourceEndpointHandlerTest implements FileReferences
     return getBaseUrlSupplier().get() + endpoint + "/" + resourceId;
   }
 
+  /**
+   * verifies that conditional requests are answered with the version of the resource handler without loading
+   * the resource
+   */
+  @Test
+  public void testConditionalRequestsWithResourceVersionOfHandler()
+  {
+    resourceEndpointHandler.getServiceProvider().getETagConfig().setSupported(true);
+    resourceEndpointHandler.getServiceProvider().getPatchConfig().setSupported(true);
+    ResourceType userResourceType = resourceTypeFactory.getResourceTypeByName(ResourceTypeNames.USER).get();
+    userResourceType.getFeatures().getETagFeature().setEnabled(true);
+    final String id = UUID.randomUUID().toString();
+    ETag version = ETag.builder().tag("123456").build();
+    Mockito.doReturn(version).when(userHandler).getResourceVersion(Mockito.eq(id), Mockito.isNull(), Mockito.any());
+
+    Map<String, String> httpHeaders = new HashMap<>();
+    httpHeaders.put(HttpHeader.IF_NONE_MATCH_HEADER, version.getEntityTag());
+    ScimResponse scimResponse = resourceEndpointHandler.getResource(EndpointPaths.USERS,
+                                                                    id,
+                                                                    httpHeaders,
+                                                                    getBaseUrlSupplier());
+    MatcherAssert.assertThat(scimResponse.getClass(), Matchers.typeCompatibleWith(ErrorResponse.class));
+    Assertions.assertEquals(HttpStatus.NOT_MODIFIED, ((ErrorResponse)scimResponse).getHttpStatus());
+
+    httpHeaders.clear();
+    httpHeaders.put(HttpHeader.IF_MATCH_HEADER, ETag.builder().tag("654321").build().getEntityTag());
+    User user = User.builder().userName("goldfish").build();
+    scimResponse = resourceEndpointHandler.updateResource(EndpointPaths.USERS,
+                                                          id,
+                                                          user.toString(),
+                                                          httpHeaders,
+                                                          getBaseUrlSupplier(),
+                                                          null);
+    MatcherAssert.assertThat(scimResponse.getClass(), Matchers.typeCompatibleWith(ErrorResponse.class));
+    Assertions.assertEquals(HttpStatus.PRECONDITION_FAILED, ((ErrorResponse)scimResponse).getHttpStatus());
+
+    List<PatchRequestOperation> operations = Arrays.asList(PatchRequestOperation.builder()
+                                                                                .op(PatchOp.ADD)
+                                                                                .path("nickName")
+                                                                                .value("captain")
+                                                                                .build());
+    PatchOpRequest patchOpRequest = PatchOpRequest.builder().operations(operations).build();
+    scimResponse = resourceEndpointHandler.patchResource(EndpointPaths.USERS,
+                                                         id,
+                                                         patchOpRequest.toString(),
+                                                         httpHeaders,
+                                                         getBaseUrlSupplier());
+    MatcherAssert.assertThat(scimResponse.getClass(), Matchers.typeCompatibleWith(ErrorResponse.class));
+    Assertions.assertEquals(HttpStatus.PRECONDITION_FAILED, ((ErrorResponse)scimResponse).getHttpStatus());
+
+    Mockito.verify(userHandler, Mockito.times(3)).getResourceVersion(Mockito.eq(id), Mockito.isNull(), Mockito.any());
+    Mockito.verify(userHandler, Mockito.never())
+           .getResource(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  /**
+   * verifies that the operations of a patch request are given as deltas to a resource handler that supports them
+   * without loading the resource and that the resource is patched as a whole if the handler does not apply them
+   */
+  @Test
+  public void testPatchResourceWithDeltas()
+  {
+    resourceEndpointHandler.getServiceProvider().getPatchConfig().setSupported(true);
+    final String id = UUID.randomUUID().toString();
+    final String memberId = UUID.randomUUID().toString();
+    Mockito.doReturn(true).when(groupHandler).isPatchDeltaSupported();
+    List<List<PatchDelta>> receivedDeltas = new ArrayList<>();
+    Mockito.doAnswer(invocation -> {
+      receivedDeltas.add(invocation.getArgument(1));
+      Meta meta = Meta.builder().created(LocalDateTime.now()).lastModified(LocalDateTime.now()).build();
+      return Group.builder().id(id).displayName("goldfish").meta(meta).build();
+    }).when(groupHandler).patchResource(Mockito.eq(id), Mockito.any(), Mockito.any(), Mockito.any());
+
+    Member member = Member.builder().value(memberId).build();
+    List<PatchRequestOperation> operations = Arrays.asList(PatchRequestOperation.builder()
+                                                                                .op(PatchOp.ADD)
+                                                                                .path(AttributeNames.RFC7643.MEMBERS)
+                                                                                .value(member.toString())
+                                                                                .build(),
+                                                           PatchRequestOperation.builder()
+                                                                                .op(PatchOp.REMOVE)
+                                                                                .path("members[value eq \"123\"]")
+                                                                                .build());
+    PatchOpRequest patchOpRequest = PatchOpRequest.builder().operations(operations).build();
+    ScimResponse scimResponse = resourceEndpointHandler.patchResource(EndpointPaths.GROUPS,
+                                                                      id,
+                                                                      patchOpRequest.toString(),
+                                                                      new HashMap<>(),
+                                                                      getBaseUrlSupplier());
+    MatcherAssert.assertThat(scimResponse.getClass(), Matchers.typeCompatibleWith(UpdateResponse.class));
+    Assertions.assertEquals(1, receivedDeltas.size());
+    List<PatchDelta> patchDeltas = receivedDeltas.get(0);
+    Assertions.assertEquals(2, patchDeltas.size());
+    Assertions.assertEquals(PatchOp.ADD, patchDeltas.get(0).getOp());
+    Assertions.assertEquals(memberId,
+                            patchDeltas.get(0).getValues().get(0).get(AttributeNames.RFC7643.VALUE).textValue());
+    Assertions.assertEquals(PatchOp.REMOVE, patchDeltas.get(1).getOp());
+    Assertions.assertNotNull(patchDeltas.get(1).getFilter());
+    Mockito.verify(groupHandler, Mockito.never())
+           .getResource(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    Mockito.verify(groupHandler, Mockito.never()).updateResource(Mockito.any(), Mockito.any(), Mockito.any());
+
+    Mockito.doReturn(null)
+           .when(groupHandler)
+           .patchResource(Mockito.eq(id), Mockito.any(), Mockito.any(), Mockito.any());
+    scimResponse = resourceEndpointHandler.patchResource(EndpointPaths.GROUPS,
+                                                         id,
+                                                         patchOpRequest.toString(),
+                                                         new HashMap<>(),
+                                                         getBaseUrlSupplier());
+    MatcherAssert.assertThat(scimResponse.getClass(), Matchers.typeCompatibleWith(ErrorResponse.class));
+    Assertions.assertEquals(HttpStatus.NOT_FOUND, ((ErrorResponse)scimResponse).getHttpStatus());
+    Mockito.verify(groupHandler, Mockito.times(1))
+           .getResource(Mockito.eq(id), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  /**
+   * verifies that the resource is loaded and patched as a whole if an operation removes or replaces a required
+   * attribute or if it might change the "schemas" attribute of the resource by patching an extension
+   */
+  @ParameterizedTest
+  @CsvSource(delimiter = ';', value = {"/Groups;REMOVE;displayName;", "/Groups;REPLACE;displayName;goldfish",
+                                       "/Groups;REPLACE;members[value eq \"123\"].value;456",
+                                       "/Users;ADD;urn:ietf:params:scim:schemas:extension:enterprise:2.0:User:"
+                                                  + "employeeNumber;123",
+                                       "/Users;REMOVE;urn:ietf:params:scim:schemas:extension:enterprise:2.0:User:"
+                                                     + "employeeNumber;"})
+  public void testPatchResourceWithoutDeltas(String endpoint, PatchOp patchOp, String path, String value)
+  {
+    resourceEndpointHandler.getServiceProvider().getPatchConfig().setSupported(true);
+    final String id = UUID.randomUUID().toString();
+    ResourceHandler resourceHandler = EndpointPaths.GROUPS.equals(endpoint) ? groupHandler : userHandler;
+    Mockito.doReturn(true).when(resourceHandler).isPatchDeltaSupported();
+
+    PatchRequestOperation operation = PatchRequestOperation.builder()
+                                                           .op(patchOp)
+                                                           .path(path)
+                                                           .values(value == null ? null
+                                                             : Collections.singletonList(value))
+                                                           .build();
+    PatchOpRequest patchOpRequest = PatchOpRequest.builder().operations(Arrays.asList(operation)).build();
+    ScimResponse scimResponse = resourceEndpointHandler.patchResource(endpoint,
+                                                                      id,
+                                                                      patchOpRequest.toString(),
+                                                                      new HashMap<>(),
+                                                                      getBaseUrlSupplier());
+    MatcherAssert.assertThat(scimResponse.getClass(), Matchers.typeCompatibleWith(ErrorResponse.class));
+    Assertions.assertEquals(HttpStatus.NOT_FOUND, ((ErrorResponse)scimResponse).getHttpStatus());
+    Mockito.verify(resourceHandler, Mockito.never())
+           .patchResource(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    Mockito.verify(resourceHandler, Mockito.times(1))
+           .getResource(Mockito.eq(id), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  /**
+   * verifies that a streamed list response produces the same document as the materialized list response
+   */
+  @Test
+  public void testStreamListResponses() throws IOException
+  {
+    createUsers(1);
+    ScimResponse materializedResponse = resourceEndpointHandler.listResources(EndpointPaths.USERS,
+                                                                              null,
+                                                                              null,
+                                                                              null,
+                                                                              null,
+                                                                              null,
+                                                                              null,
+                                                                              null,
+                                                                              getBaseUrlSupplier(),
+                                                                              null, null);
+    resourceEndpointHandler.setStreamListResponses(true);
+    ScimResponse streamedResponse = resourceEndpointHandler.listResources(EndpointPaths.USERS,
+                                                                          null,
+                                                                          null,
+                                                                          null,
+                                                                          null,
+                                                                          null,
+                                                                          null,
+                                                                          null,
+                                                                          getBaseUrlSupplier(),
+                                                                          null, null);
+    MatcherAssert.assertThat(streamedResponse.getClass(), Matchers.typeCompatibleWith(StreamingListResponse.class));
+    ListResponse<User> expectedResponse = (ListResponse<User>)materializedResponse;
+    StreamingListResponse<User> listResponse = (StreamingListResponse<User>)streamedResponse;
+    Assertions.assertEquals(expectedResponse.getTotalResults(), listResponse.getTotalResults());
+    Assertions.assertEquals(expectedResponse.getItemsPerPage(), listResponse.getItemsPerPage());
+    Assertions.assertEquals(expectedResponse.getListedResources(), listResponse.getListedResources());
+
+    JsonNode expectedDocument = JsonHelper.readJsonDocument(materializedResponse.toString());
+    Assertions.assertEquals(expectedDocument, JsonHelper.readJsonDocument(streamedResponse.toString()));
+    Assertions.assertEquals(expectedDocument, JsonHelper.readJsonDocument(streamedResponse.toPrettyString()));
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    streamedResponse.writeTo(outputStream);
+    Assertions.assertEquals(expectedDocument,
+                            JsonHelper.readJsonDocument(new String(outputStream.toByteArray(),
+                                                                   StandardCharsets.UTF_8)));
+  }
+
   /**
    * the base uri supplier that is given to the endpoint implementations
    */
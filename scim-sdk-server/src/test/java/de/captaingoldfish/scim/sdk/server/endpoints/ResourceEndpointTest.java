@@ -1,5 +1,8 @@
 package de.captaingoldfish.scim.sdk.server.endpoints;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -897,6 +900,109 @@ public class ResourceEndpointTest extends AbstractBulkTest implements FileRefere
     }
   }
 
+  /**
+   * verifies that a user is created, replaced and found from request bodies that are given as encoded bytes
+   */
+  @Test
+  public void testHandleRequestWithByteArrayBody()
+  {
+    serviceProvider.getFilterConfig().setSupported(true);
+    final String url = BASE_URI + EndpointPaths.USERS;
+    User user = User.builder().userName("grüner_fisch").build();
+    ScimResponse scimResponse = resourceEndpoint.handleRequestBytes(url,
+                                                                    HttpMethod.POST,
+                                                                    user.toString().getBytes(StandardCharsets.UTF_8),
+                                                                    httpHeaders,
+                                                                    null,
+                                                                    null,
+                                                                    null);
+    MatcherAssert.assertThat(scimResponse.getClass(), Matchers.typeCompatibleWith(CreateResponse.class));
+    User createdUser = JsonHelper.copyResourceToObject(scimResponse, User.class);
+    Assertions.assertEquals("grüner_fisch", createdUser.getUserName().get());
+
+    createdUser.setNickName("fischi");
+    scimResponse = resourceEndpoint.handleRequestBytes(url + "/" + createdUser.getId().get(),
+                                                       HttpMethod.PUT,
+                                                       createdUser.toString().getBytes(StandardCharsets.UTF_8),
+                                                       httpHeaders,
+                                                       null,
+                                                       null,
+                                                       null);
+    MatcherAssert.assertThat(scimResponse.getClass(), Matchers.typeCompatibleWith(UpdateResponse.class));
+    Assertions.assertEquals("fischi", JsonHelper.copyResourceToObject(scimResponse, User.class).getNickName().get());
+
+    SearchRequest searchRequest = SearchRequest.builder().filter("userName eq \"grüner_fisch\"").build();
+    scimResponse = resourceEndpoint.handleRequestBytes(url + EndpointPaths.SEARCH,
+                                                       HttpMethod.POST,
+                                                       searchRequest.toString().getBytes(StandardCharsets.UTF_8),
+                                                       httpHeaders,
+                                                       null,
+                                                       null,
+                                                       null);
+    MatcherAssert.assertThat(scimResponse.getClass(), Matchers.typeCompatibleWith(ListResponse.class));
+    Assertions.assertEquals(1, ((ListResponse)scimResponse).getTotalResults());
+  }
+
+  /**
+   * verifies that empty request bodies that are given as encoded bytes or as null are rejected
+   */
+  @Test
+  public void testHandleRequestWithBlankByteArrayBody()
+  {
+    final String url = BASE_URI + EndpointPaths.USERS;
+    ScimResponse scimResponse = resourceEndpoint.handleRequestBytes(url,
+                                                                    HttpMethod.POST,
+                                                                    " \r\n".getBytes(StandardCharsets.UTF_8),
+                                                                    httpHeaders,
+                                                                    null,
+                                                                    null,
+                                                                    null);
+    MatcherAssert.assertThat(scimResponse.getClass(), Matchers.typeCompatibleWith(ErrorResponse.class));
+    Assertions.assertEquals(HttpStatus.BAD_REQUEST, scimResponse.getHttpStatus());
+
+    scimResponse = resourceEndpoint.handleRequest(url, HttpMethod.POST, null, httpHeaders, null, null, null);
+    MatcherAssert.assertThat(scimResponse.getClass(), Matchers.typeCompatibleWith(ErrorResponse.class));
+    Assertions.assertEquals(HttpStatus.BAD_REQUEST, scimResponse.getHttpStatus());
+  }
+
+  /**
+   * verifies that a resource and a bulk request are handled from request bodies that are given as input streams
+   */
+  @Test
+  public void testHandleRequestWithInputStreamBody()
+  {
+    User user = User.builder().userName("grüner_fisch").build();
+    InputStream userRequest = new ByteArrayInputStream(user.toString().getBytes(StandardCharsets.UTF_8));
+    ScimResponse scimResponse = resourceEndpoint.handleRequestStream(BASE_URI + EndpointPaths.USERS,
+                                                                     HttpMethod.POST,
+                                                                     userRequest,
+                                                                     httpHeaders,
+                                                                     null,
+                                                                     null,
+                                                                     null);
+    MatcherAssert.assertThat(scimResponse.getClass(), Matchers.typeCompatibleWith(CreateResponse.class));
+    Assertions.assertEquals(1, userHandler.getInMemoryMap().size());
+
+    final int maxOperations = 5;
+    serviceProvider.getBulkConfig().setSupported(true);
+    serviceProvider.getBulkConfig().setMaxOperations(maxOperations);
+    serviceProvider.getBulkConfig().setMaxPayloadSize(Long.MAX_VALUE);
+    BulkRequest bulkRequest = BulkRequest.builder()
+                                         .bulkRequestOperation(getCreateUserBulkOperations(maxOperations))
+                                         .build();
+    InputStream bulkRequestBody = new ByteArrayInputStream(bulkRequest.toString().getBytes(StandardCharsets.UTF_8));
+    scimResponse = resourceEndpoint.handleRequestStream(BASE_URI + EndpointPaths.BULK,
+                                                        HttpMethod.POST,
+                                                        bulkRequestBody,
+                                                        httpHeaders,
+                                                        null,
+                                                        null,
+                                                        null);
+    MatcherAssert.assertThat(scimResponse.getClass(), Matchers.typeCompatibleWith(BulkResponse.class));
+    Assertions.assertEquals(HttpStatus.OK, scimResponse.getHttpStatus());
+    Assertions.assertEquals(maxOperations + 1, userHandler.getInMemoryMap().size());
+  }
+
   /**
    * shows that the request is validated and an exception is thrown if the bulk request is not conform to its
    * definition
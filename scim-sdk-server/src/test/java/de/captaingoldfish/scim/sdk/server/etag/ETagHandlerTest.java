@@ -21,6 +21,7 @@ import de.captaingoldfish.scim.sdk.common.constants.ClassPathReferences;
 import de.captaingoldfish.scim.sdk.common.constants.HttpHeader;
 import de.captaingoldfish.scim.sdk.common.constants.HttpStatus;
 import de.captaingoldfish.scim.sdk.common.etag.ETag;
+import de.captaingoldfish.scim.sdk.common.exceptions.InternalServerException;
 import de.captaingoldfish.scim.sdk.common.exceptions.NotModifiedException;
 import de.captaingoldfish.scim.sdk.common.exceptions.PreconditionFailedException;
 import de.captaingoldfish.scim.sdk.common.exceptions.ScimException;
@@ -31,6 +32,7 @@ import de.captaingoldfish.scim.sdk.common.resources.complex.Meta;
 import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
 import de.captaingoldfish.scim.sdk.server.schemas.ResourceType;
 import de.captaingoldfish.scim.sdk.server.schemas.ResourceTypeFactory;
+import de.captaingoldfish.scim.sdk.server.schemas.custom.ETagFeature;
 
 
 /**
@@ -402,4 +404,85 @@ public class ETagHandlerTest
     User user = User.builder().id(UUID.randomUUID().toString()).userName("goldfish").meta(meta).build();
     Assertions.assertFalse(ETagHandler.getResourceVersion(serviceProvider, userResourceType, user).isPresent());
   }
+
+  /**
+   * verifies that the MURMUR3-128 hash algorithm can be selected on the resource type and that it creates a
+   * stable version that changes if the resource changes
+   */
+  @Test
+  public void testCreateNewResourceVersionWithMurmur3()
+  {
+    ServiceProvider serviceProvider = ServiceProvider.builder()
+                                                     .eTagConfig(ETagConfig.builder().supported(true).build())
+                                                     .build();
+    userResourceType.getFeatures().getETagFeature().setHashAlgorithm(ETagFeature.MURMUR3_128);
+    User user = User.builder().id(UUID.randomUUID().toString()).userName("goldfish").build();
+    ETag eTag = ETagHandler.getResourceVersion(serviceProvider, userResourceType, user).get();
+    Assertions.assertTrue(eTag.isWeak(), "such an etag must definitely be a weak entity tag");
+    Assertions.assertEquals(16, Base64.getDecoder().decode(eTag.getTag()).length);
+    Assertions.assertEquals(eTag, ETagHandler.getResourceVersion(serviceProvider, userResourceType, user).get());
+
+    user.setUserName("captain");
+    Assertions.assertNotEquals(eTag, ETagHandler.getResourceVersion(serviceProvider, userResourceType, user).get());
+  }
+
+  /**
+   * verifies that an unknown hash algorithm results in an internal server error
+   */
+  @Test
+  public void testCreateNewResourceVersionWithUnknownAlgorithm()
+  {
+    ServiceProvider serviceProvider = ServiceProvider.builder()
+                                                     .eTagConfig(ETagConfig.builder().supported(true).build())
+                                                     .build();
+    userResourceType.getFeatures().getETagFeature().setHashAlgorithm("unknown");
+    User user = User.builder().id(UUID.randomUUID().toString()).userName("goldfish").build();
+    Assertions.assertThrows(InternalServerException.class,
+                            () -> ETagHandler.getResourceVersion(serviceProvider, userResourceType, user));
+  }
+
+  /**
+   * verifies that the entity tags of the request are validated against a given version without accessing the
+   * resource and that the validation must be done on the resource if no version is known
+   */
+  @Test
+  public void testValidateCurrentVersion()
+  {
+    ServiceProvider serviceProvider = ServiceProvider.builder()
+                                                     .eTagConfig(ETagConfig.builder().supported(true).build())
+                                                     .build();
+    ETag eTag = ETag.builder().tag(UUID.randomUUID().toString()).build();
+    Map<String, String> httpHeaders = new HashMap<>();
+    Assertions.assertTrue(ETagHandler.validateCurrentVersion(serviceProvider, userResourceType, () -> {
+      throw new IllegalStateException("version must not be accessed without entity tag headers");
+    }, httpHeaders));
+
+    httpHeaders.put(HttpHeader.IF_NONE_MATCH_HEADER, eTag.toString());
+    Assertions.assertFalse(ETagHandler.validateCurrentVersion(serviceProvider,
+                                                              userResourceType,
+                                                              () -> null,
+                                                              httpHeaders));
+    Assertions.assertThrows(NotModifiedException.class,
+                            () -> ETagHandler.validateCurrentVersion(serviceProvider,
+                                                                     userResourceType,
+                                                                     () -> eTag,
+                                                                     httpHeaders));
+    ETag otherETag = ETag.builder().tag(UUID.randomUUID().toString()).build();
+    Assertions.assertTrue(ETagHandler.validateCurrentVersion(serviceProvider,
+                                                             userResourceType,
+                                                             () -> otherETag,
+                                                             httpHeaders));
+
+    httpHeaders.clear();
+    httpHeaders.put(HttpHeader.IF_MATCH_HEADER, eTag.toString());
+    Assertions.assertTrue(ETagHandler.validateCurrentVersion(serviceProvider,
+                                                             userResourceType,
+                                                             () -> eTag,
+                                                             httpHeaders));
+    Assertions.assertThrows(PreconditionFailedException.class,
+                            () -> ETagHandler.validateCurrentVersion(serviceProvider,
+                                                                     userResourceType,
+                                                                     () -> otherETag,
+                                                                     httpHeaders));
+  }
 }
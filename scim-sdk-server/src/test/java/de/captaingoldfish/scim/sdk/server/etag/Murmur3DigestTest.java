@@ -0,0 +1,64 @@
+package de.captaingoldfish.scim.sdk.server.etag;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+
+/**
+ * author Pascal Knueppel <br>
+ * created at: 17.10.2026 <br>
+ * <br>
+ */
+public class Murmur3DigestTest
+{
+
+  /**
+   * verifies that the hash matches the reference values of the MurmurHash3 x64 128-bit variant with seed 0
+   */
+  @ParameterizedTest
+  @CsvSource({"'',00000000000000000000000000000000", "hello,029bbd41b3a7d8cb191dae486a901e5b",
+              "The quick brown fox jumps over the lazy dog,6c1b07bc7bbc4be347939ac4a93c437a"})
+  public void testReferenceValues(String value, String expectedHash)
+  {
+    Murmur3Digest digest = new Murmur3Digest();
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    digest.write(bytes, 0, bytes.length);
+    Assertions.assertEquals(expectedHash, toHex(digest.digest()));
+  }
+
+  /**
+   * verifies that the hash does not depend on the chunks in which the bytes are written
+   */
+  @Test
+  public void testChunkedWriteMatchesSingleWrite()
+  {
+    byte[] bytes = "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8);
+    Murmur3Digest singleWrite = new Murmur3Digest();
+    singleWrite.write(bytes, 0, bytes.length);
+    byte[] expectedHash = singleWrite.digest();
+
+    for ( int chunkSize = 1 ; chunkSize <= bytes.length ; chunkSize++ )
+    {
+      Murmur3Digest chunkedWrite = new Murmur3Digest();
+      for ( int offset = 0 ; offset < bytes.length ; offset += chunkSize )
+      {
+        chunkedWrite.write(bytes, offset, Math.min(chunkSize, bytes.length - offset));
+      }
+      Assertions.assertArrayEquals(expectedHash, chunkedWrite.digest(), "chunk size: " + chunkSize);
+    }
+  }
+
+  private static String toHex(byte[] bytes)
+  {
+    StringBuilder hex = new StringBuilder();
+    for ( byte b : bytes )
+    {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+}
@@ -0,0 +1,194 @@
+package de.captaingoldfish.scim.sdk.server.filter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import de.captaingoldfish.scim.sdk.common.constants.ClassPathReferences;
+import de.captaingoldfish.scim.sdk.common.exceptions.InvalidFilterException;
+import de.captaingoldfish.scim.sdk.common.schemas.SchemaAttribute;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
+import de.captaingoldfish.scim.sdk.server.schemas.ResourceType;
+import de.captaingoldfish.scim.sdk.server.schemas.ResourceTypeFactory;
+import de.captaingoldfish.scim.sdk.server.utils.RequestUtils;
+
+
+/**
+ * author Pascal Knueppel <br>
+ * created at: 17.10.2026 <br>
+ * <br>
+ */
+public class FilterNodeCacheTest
+{
+
+  /**
+   * the factory that holds the schemas of the user resource type
+   */
+  private ResourceTypeFactory resourceTypeFactory;
+
+  /**
+   * the user resource type
+   */
+  private ResourceType userResourceType;
+
+  /**
+   * initializes a new {@link ResourceTypeFactory} for the following tests
+   */
+  @BeforeEach
+  public void initialize()
+  {
+    this.resourceTypeFactory = new ResourceTypeFactory();
+    JsonNode userResourceTypeJson = JsonHelper.loadJsonDocument(ClassPathReferences.USER_RESOURCE_TYPE_JSON);
+    JsonNode userSchema = JsonHelper.loadJsonDocument(ClassPathReferences.USER_SCHEMA_JSON);
+    JsonNode enterpriseUser = JsonHelper.loadJsonDocument(ClassPathReferences.ENTERPRISE_USER_SCHEMA_JSON);
+    this.userResourceType = resourceTypeFactory.registerResourceType(null,
+                                                                     userResourceTypeJson,
+                                                                     userSchema,
+                                                                     enterpriseUser);
+  }
+
+  /**
+   * verifies that the same filter expression is parsed only once and that the same tree is returned on
+   * subsequent calls
+   */
+  @Test
+  public void testFilterIsParsedOnlyOnce()
+  {
+    final String filter = "userName eq \"chuck\" and name.givenName sw \"No\"";
+    FilterNodeCache cache = userResourceType.getFilterNodeCache();
+    FilterNode filterNode = RequestUtils.parseFilter(userResourceType, filter);
+    Assertions.assertEquals(1, cache.getMisses());
+    Assertions.assertEquals(0, cache.getHits());
+
+    FilterNode cachedFilterNode = RequestUtils.parseFilter(userResourceType, "  userName   eq \"chuck\" and "
+                                                                             + "name.givenName sw \"No\" ");
+    Assertions.assertSame(filterNode, cachedFilterNode);
+    Assertions.assertEquals(1, cache.getMisses());
+    Assertions.assertEquals(1, cache.getHits());
+    Assertions.assertEquals(1, cache.getSize());
+  }
+
+  /**
+   * verifies that whitespaces within string literals are not normalized because they are relevant for the
+   * comparison
+   */
+  @ParameterizedTest
+  @CsvSource(delimiter = ';', value = {"userName eq \"a  b\";userName eq \"a  b\"",
+                                       "  userName  eq   \"a b\"  ;userName eq \"a b\"",
+                                       "userName eq \"a \\\"  b\"   and  nickName pr;userName eq \"a \\\"  b\" and nickName pr"})
+  public void testNormalize(String expression, String expected)
+  {
+    Assertions.assertEquals(expected, FilterNodeCache.normalize(expression));
+  }
+
+  /**
+   * verifies that filter expressions and patch path expressions do not share the same entries
+   */
+  @Test
+  public void testFilterAndPatchPathAreCachedSeparately()
+  {
+    final String expression = "emails[type eq \"work\"]";
+    FilterNode filterNode = RequestUtils.parseFilter(userResourceType, expression);
+    AttributePathRoot patchPath = RequestUtils.parsePatchPath(userResourceType, expression);
+    Assertions.assertNotSame(filterNode, patchPath);
+    Assertions.assertSame(patchPath, RequestUtils.parsePatchPath(userResourceType, expression));
+    Assertions.assertEquals(expression, patchPath.toString());
+    Assertions.assertEquals(2, userResourceType.getFilterNodeCache().getSize());
+  }
+
+  /**
+   * verifies that the least recently used entries are evicted if the maximum size is exceeded
+   */
+  @Test
+  public void testEviction()
+  {
+    FilterNodeCache cache = userResourceType.getFilterNodeCache();
+    cache.setMaxSize(2);
+    FilterNode first = RequestUtils.parseFilter(userResourceType, "userName eq \"1\"");
+    RequestUtils.parseFilter(userResourceType, "userName eq \"2\"");
+    // access the first entry so that the second one becomes the least recently used one
+    Assertions.assertSame(first, RequestUtils.parseFilter(userResourceType, "userName eq \"1\""));
+    RequestUtils.parseFilter(userResourceType, "userName eq \"3\"");
+    Assertions.assertEquals(2, cache.getSize());
+    Assertions.assertEquals(1, cache.getEvictions());
+    Assertions.assertSame(first, RequestUtils.parseFilter(userResourceType, "userName eq \"1\""));
+
+    // the second entry was evicted and must be parsed again
+    RequestUtils.parseFilter(userResourceType, "userName eq \"2\"");
+    Assertions.assertEquals(4, cache.getMisses());
+    Assertions.assertEquals(2, cache.getHits());
+  }
+
+  /**
+   * verifies that the cache can be disabled
+   */
+  @Test
+  public void testDisabledCache()
+  {
+    FilterNodeCache cache = userResourceType.getFilterNodeCache();
+    cache.setMaxSize(0);
+    FilterNode filterNode = RequestUtils.parseFilter(userResourceType, "userName eq \"1\"");
+    Assertions.assertNotSame(filterNode, RequestUtils.parseFilter(userResourceType, "userName eq \"1\""));
+    Assertions.assertEquals(0, cache.getSize());
+    Assertions.assertEquals(2, cache.getMisses());
+  }
+
+  /**
+   * verifies that invalid expressions are not cached
+   */
+  @Test
+  public void testInvalidFilterIsNotCached()
+  {
+    FilterNodeCache cache = userResourceType.getFilterNodeCache();
+    Assertions.assertThrows(InvalidFilterException.class,
+                            () -> RequestUtils.parseFilter(userResourceType, "unknownAttribute eq \"1\""));
+    Assertions.assertEquals(0, cache.getSize());
+  }
+
+  /**
+   * verifies that the cached trees are discarded if a schema of the resource type is registered again so that
+   * the expressions are resolved against the new attribute definitions
+   */
+  @Test
+  public void testCacheIsClearedOnSchemaRegistration()
+  {
+    FilterNodeCache cache = userResourceType.getFilterNodeCache();
+    final String filter = "name.givenName eq \"chuck\"";
+    AttributeExpressionLeaf oldLeaf = (AttributeExpressionLeaf)RequestUtils.parseFilter(userResourceType, filter);
+    Assertions.assertSame(oldLeaf, RequestUtils.parseFilter(userResourceType, filter));
+
+    JsonNode userSchema = JsonHelper.loadJsonDocument(ClassPathReferences.USER_SCHEMA_JSON);
+    resourceTypeFactory.getSchemaFactory().registerResourceSchema(userSchema);
+
+    AttributeExpressionLeaf newLeaf = (AttributeExpressionLeaf)RequestUtils.parseFilter(userResourceType, filter);
+    Assertions.assertNotSame(oldLeaf, newLeaf);
+    Assertions.assertNotSame(oldLeaf.getSchemaAttribute(), newLeaf.getSchemaAttribute());
+    Assertions.assertSame(userResourceType.getMainSchema().getSchemaAttribute("name.givenName"),
+                          newLeaf.getSchemaAttribute());
+    Assertions.assertEquals(1, cache.getSize());
+    Assertions.assertEquals(2, cache.getMisses());
+  }
+
+  /**
+   * verifies that the cached patch paths are discarded if the attributes of a schema of the resource type are
+   * changed
+   */
+  @Test
+  public void testCacheIsClearedOnAttributeChange()
+  {
+    FilterNodeCache cache = userResourceType.getFilterNodeCache();
+    AttributePathRoot patchPath = RequestUtils.parsePatchPath(userResourceType, "emails[type eq \"work\"]");
+    Assertions.assertEquals(1, cache.getSize());
+
+    SchemaAttribute title = userResourceType.getMainSchema().getSchemaAttribute("title");
+    userResourceType.getMainSchema().removeAttribute(title);
+
+    Assertions.assertNotSame(patchPath, RequestUtils.parsePatchPath(userResourceType, "emails[type eq \"work\"]"));
+    Assertions.assertEquals(1, cache.getSize());
+    Assertions.assertEquals(2, cache.getMisses());
+  }
+}
@@ -0,0 +1,149 @@
+package de.captaingoldfish.scim.sdk.server.filter.resources;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import de.captaingoldfish.scim.sdk.common.constants.ClassPathReferences;
+import de.captaingoldfish.scim.sdk.common.resources.EnterpriseUser;
+import de.captaingoldfish.scim.sdk.common.resources.ResourceNode;
+import de.captaingoldfish.scim.sdk.common.resources.User;
+import de.captaingoldfish.scim.sdk.common.resources.multicomplex.Email;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
+import de.captaingoldfish.scim.sdk.server.filter.AttributeExpressionLeaf;
+import de.captaingoldfish.scim.sdk.server.filter.FilterNode;
+import de.captaingoldfish.scim.sdk.server.resources.AllTypes;
+import de.captaingoldfish.scim.sdk.server.schemas.ResourceType;
+import de.captaingoldfish.scim.sdk.server.schemas.ResourceTypeFactory;
+import de.captaingoldfish.scim.sdk.server.utils.FileReferences;
+import de.captaingoldfish.scim.sdk.server.utils.RequestUtils;
+
+
+/**
+ * author Pascal Knueppel <br>
+ * created at: 17.10.2026 <br>
+ * <br>
+ */
+public class FilterPredicateCompilerTest implements FileReferences
+{
+
+  /**
+   * the user resource type
+   */
+  private ResourceType userResourceType;
+
+  /**
+   * the resource type for all types definition. Contains data types of any possible scim representation
+   */
+  private ResourceType allTypesResourceType;
+
+  /**
+   * initializes a new {@link ResourceTypeFactory} for the following tests
+   */
+  @BeforeEach
+  public void initialize()
+  {
+    ResourceTypeFactory resourceTypeFactory = new ResourceTypeFactory();
+    JsonNode userResourceTypeJson = JsonHelper.loadJsonDocument(ClassPathReferences.USER_RESOURCE_TYPE_JSON);
+    JsonNode userSchema = JsonHelper.loadJsonDocument(ClassPathReferences.USER_SCHEMA_JSON);
+    JsonNode enterpriseUser = JsonHelper.loadJsonDocument(ClassPathReferences.ENTERPRISE_USER_SCHEMA_JSON);
+    this.userResourceType = resourceTypeFactory.registerResourceType(null,
+                                                                     userResourceTypeJson,
+                                                                     userSchema,
+                                                                     enterpriseUser);
+    JsonNode allTypesResourceType = JsonHelper.loadJsonDocument(ALL_TYPES_RESOURCE_TYPE);
+    JsonNode allTypesSchema = JsonHelper.loadJsonDocument(ALL_TYPES_JSON_SCHEMA);
+    this.allTypesResourceType = resourceTypeFactory.registerResourceType(null,
+                                                                         allTypesResourceType,
+                                                                         allTypesSchema,
+                                                                         enterpriseUser);
+  }
+
+  /**
+   * verifies that a compiled filter can be reused on several resources
+   */
+  @Test
+  public void testCompiledFilterIsReusable()
+  {
+    FilterNode filterNode = RequestUtils.parseFilter(userResourceType,
+                                                     "userName sw \"CH\" and emails[type eq \"work\"]");
+    Predicate<ResourceNode> predicate = FilterPredicateCompiler.compile(filterNode);
+    User chuck = User.builder()
+                     .userName("chuck")
+                     .emails(Arrays.asList(Email.builder().type("work").value("chuck@norris.com").build()))
+                     .build();
+    User chuckWithoutWorkMail = User.builder()
+                                    .userName("chuck")
+                                    .emails(Arrays.asList(Email.builder().type("home").value("c@n.com").build()))
+                                    .build();
+    User bruce = User.builder()
+                     .userName("bruce")
+                     .emails(Arrays.asList(Email.builder().type("work").value("bruce@lee.com").build()))
+                     .build();
+    Assertions.assertTrue(predicate.test(chuck));
+    Assertions.assertFalse(predicate.test(chuckWithoutWorkMail));
+    Assertions.assertFalse(predicate.test(bruce));
+  }
+
+  /**
+   * verifies that the value matcher of an expression is compiled only once and reused for every checked node
+   */
+  @Test
+  public void testValueMatcherIsCompiledOnce()
+  {
+    FilterNode filterNode = RequestUtils.parseFilter(userResourceType, "userName eq \"chuck\"");
+    MatcherAssert.assertThat(filterNode, Matchers.instanceOf(AttributeExpressionLeaf.class));
+    AttributeExpressionLeaf attributeExpressionLeaf = (AttributeExpressionLeaf)filterNode;
+    Predicate<JsonNode> valueMatcher = attributeExpressionLeaf.getValueMatcher();
+    Assertions.assertSame(valueMatcher, attributeExpressionLeaf.getValueMatcher());
+    Assertions.assertTrue(valueMatcher.test(new TextNode("chuck")));
+    Assertions.assertFalse(valueMatcher.test(new TextNode("bruce")));
+    Assertions.assertTrue(FilterResourceResolver.checkValueEquality(new TextNode("chuck"), attributeExpressionLeaf));
+  }
+
+  /**
+   * verifies that filtering on extension attributes does not fail on resources that do not have the extension
+   */
+  @Test
+  public void testFilterOnMissingExtension()
+  {
+    final String filter = "urn:ietf:params:scim:schemas:extension:enterprise:2.0:User:costCenter eq \"1\"";
+    Predicate<ResourceNode> predicate = FilterPredicateCompiler.compile(RequestUtils.parseFilter(userResourceType,
+                                                                                                 filter));
+    User withoutExtension = User.builder().userName("chuck").build();
+    User withExtension = User.builder()
+                             .userName("chuck")
+                             .enterpriseUser(EnterpriseUser.builder().costCenter("1").build())
+                             .build();
+    Assertions.assertFalse(predicate.test(withoutExtension));
+    Assertions.assertTrue(predicate.test(withExtension));
+  }
+
+  /**
+   * verifies the number comparisons of the compiled predicate
+   */
+  @ParameterizedTest
+  @CsvSource({"number eq 5,true", "number ne 5,false", "number ne 6,true", "number gt 4,true", "number ge 5,true",
+              "number lt 5,false", "number le 5,true", "number sw 5,true", "number co 6,false",
+              "numberArray eq 3,true", "numberArray ne 3,false", "numberArray gt 3,true", "numberArray lt 1,false",
+              "decimal eq null,true"})
+  public void testNumberComparison(String filter, boolean expectedMatch)
+  {
+    AllTypes allTypes = new AllTypes(true);
+    allTypes.setNumber(5L);
+    allTypes.setNumberArray(Arrays.asList(1L, 3L, 7L));
+    Predicate<ResourceNode> predicate = FilterPredicateCompiler.compile(RequestUtils.parseFilter(allTypesResourceType,
+                                                                                                 filter));
+    Assertions.assertEquals(expectedMatch, predicate.test(allTypes));
+  }
+}
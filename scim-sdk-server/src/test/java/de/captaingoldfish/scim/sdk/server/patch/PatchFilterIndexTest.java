@@ -0,0 +1,78 @@
+package de.captaingoldfish.scim.sdk.server.patch;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import de.captaingoldfish.scim.sdk.common.constants.ClassPathReferences;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
+import de.captaingoldfish.scim.sdk.server.filter.AttributePathRoot;
+import de.captaingoldfish.scim.sdk.server.schemas.ResourceType;
+import de.captaingoldfish.scim.sdk.server.schemas.ResourceTypeFactory;
+import de.captaingoldfish.scim.sdk.server.utils.FileReferences;
+import de.captaingoldfish.scim.sdk.server.utils.RequestUtils;
+
+
+/**
+ * author Pascal Knueppel <br>
+ * created at: 17.10.2026 <br>
+ * <br>
+ */
+public class PatchFilterIndexTest implements FileReferences
+{
+
+  /**
+   * the resource type for all types definition. Contains data types of any possible scim representation
+   */
+  private ResourceType allTypesResourceType;
+
+  /**
+   * initializes a new {@link ResourceTypeFactory} for the following tests
+   */
+  @BeforeEach
+  public void initialize()
+  {
+    ResourceTypeFactory resourceTypeFactory = new ResourceTypeFactory();
+    JsonNode allTypesResourceType = JsonHelper.loadJsonDocument(ALL_TYPES_RESOURCE_TYPE);
+    JsonNode allTypesSchema = JsonHelper.loadJsonDocument(ALL_TYPES_JSON_SCHEMA);
+    JsonNode enterpriseUserSchema = JsonHelper.loadJsonDocument(ClassPathReferences.ENTERPRISE_USER_SCHEMA_JSON);
+    this.allTypesResourceType = resourceTypeFactory.registerResourceType(null,
+                                                                         allTypesResourceType,
+                                                                         allTypesSchema,
+                                                                         enterpriseUserSchema);
+  }
+
+  /**
+   * verifies that only equality filters on a single string attribute are resolved by the index
+   */
+  @ParameterizedTest
+  @CsvSource(delimiter = ';', value = {"multiComplex[string eq \"hello\"];true",
+                                       "multiComplex[stringArray eq \"hello\"];true",
+                                       "multiComplex[string ne \"hello\"];false",
+                                       "multiComplex[string sw \"hello\"];false",
+                                       "multiComplex[number eq 5];false",
+                                       "multiComplex[string eq \"hello\" or number eq 5];false",
+                                       "multiComplex[string eq \"hello\"].number;false",
+                                       "multiComplex;false"})
+  public void testIsIndexable(String path, boolean indexable)
+  {
+    AttributePathRoot attributePathRoot = RequestUtils.parsePatchPath(allTypesResourceType, path);
+    Assertions.assertEquals(indexable, PatchFilterIndex.isIndexable(attributePathRoot));
+  }
+
+  /**
+   * verifies that two values get the same key if and only if they are equal ignoring their case
+   */
+  @ParameterizedTest
+  @CsvSource({"hello,HeLLo", "straße,STRAßE", "İstanbul,istanbul", "ſ,s", "Σ,ς"})
+  public void testKeysOfValues(String value, String otherValue)
+  {
+    Assertions.assertEquals(value.equalsIgnoreCase(otherValue),
+                            PatchFilterIndex.toKey(value, false).equals(PatchFilterIndex.toKey(otherValue, false)));
+    Assertions.assertEquals(value.equals(otherValue),
+                            PatchFilterIndex.toKey(value, true).equals(PatchFilterIndex.toKey(otherValue, true)));
+  }
+}
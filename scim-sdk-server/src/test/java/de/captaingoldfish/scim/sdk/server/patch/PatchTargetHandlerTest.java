@@ -1,5 +1,6 @@
 package de.captaingoldfish.scim.sdk.server.patch;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -18,6 +19,7 @@ import org.junit.jupiter.params.provider.ValueSource;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
 
 import de.captaingoldfish.scim.sdk.common.constants.AttributeNames;
 import de.captaingoldfish.scim.sdk.common.constants.ClassPathReferences;
@@ -3237,4 +3239,350 @@ public class PatchTargetHandlerTest implements FileReferences
                               ex.getDetail());
     }
   }
+
+  /**
+   * verifies that the operations of a patch request are resolved into validated deltas without a resource
+   */
+  @Test
+  public void testResolvePatchDeltas()
+  {
+    List<String> addValues = Arrays.asList("{\"string\": \"hello\"}", "{\"number\": 5}");
+    final String removePath = "multiComplex[string eq \"world\"]";
+    List<PatchRequestOperation> operations = Arrays.asList(PatchRequestOperation.builder()
+                                                                                .op(PatchOp.ADD)
+                                                                                .path("multiComplex")
+                                                                                .values(addValues)
+                                                                                .build(),
+                                                           PatchRequestOperation.builder()
+                                                                                .op(PatchOp.REPLACE)
+                                                                                .path("complex.number")
+                                                                                .value("5")
+                                                                                .build(),
+                                                           PatchRequestOperation.builder()
+                                                                                .op(PatchOp.REMOVE)
+                                                                                .path(removePath)
+                                                                                .build());
+    PatchOpRequest patchOpRequest = PatchOpRequest.builder().operations(operations).build();
+    PatchHandler patchHandler = new PatchHandler(allTypesResourceType);
+    List<PatchDelta> patchDeltas = patchHandler.getPatchDeltas(patchOpRequest).get();
+    Assertions.assertEquals(3, patchDeltas.size());
+
+    PatchDelta addDelta = patchDeltas.get(0);
+    Assertions.assertEquals(PatchOp.ADD, addDelta.getOp());
+    Assertions.assertEquals("multiComplex", addDelta.getSchemaAttribute().getName());
+    Assertions.assertNull(addDelta.getFilter());
+    Assertions.assertEquals(2, addDelta.getValues().size());
+    Assertions.assertEquals("hello", addDelta.getValues().get(0).get("string").textValue());
+    Assertions.assertEquals(5, addDelta.getValues().get(1).get("number").intValue());
+
+    PatchDelta replaceDelta = patchDeltas.get(1);
+    Assertions.assertEquals(PatchOp.REPLACE, replaceDelta.getOp());
+    Assertions.assertEquals("complex.number", replaceDelta.getSchemaAttribute().getScimNodeName());
+    Assertions.assertEquals(1, replaceDelta.getValues().size());
+    Assertions.assertEquals(5, replaceDelta.getValues().get(0).intValue());
+
+    PatchDelta removeDelta = patchDeltas.get(2);
+    Assertions.assertEquals(PatchOp.REMOVE, removeDelta.getOp());
+    Assertions.assertEquals("multiComplex", removeDelta.getSchemaAttribute().getName());
+    Assertions.assertNotNull(removeDelta.getFilter());
+    Assertions.assertEquals(0, removeDelta.getValues().size());
+  }
+
+  /**
+   * verifies that the values of a patch delta are validated against the schema
+   */
+  @Test
+  public void testResolvePatchDeltaWithInvalidValue()
+  {
+    List<PatchRequestOperation> operations = Arrays.asList(PatchRequestOperation.builder()
+                                                                                .op(PatchOp.ADD)
+                                                                                .path("multiComplex")
+                                                                                .value("{\"number\": \"hello\"}")
+                                                                                .build());
+    PatchOpRequest patchOpRequest = PatchOpRequest.builder().operations(operations).build();
+    PatchHandler patchHandler = new PatchHandler(allTypesResourceType);
+    ScimException ex = Assertions.assertThrows(ScimException.class,
+                                               () -> patchHandler.getPatchDeltas(patchOpRequest));
+    Assertions.assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+  }
+
+  /**
+   * verifies that no deltas are resolved if an operation has no path
+   */
+  @Test
+  public void testResolvePatchDeltasWithoutPath()
+  {
+    List<PatchRequestOperation> operations = Arrays.asList(PatchRequestOperation.builder()
+                                                                                .op(PatchOp.ADD)
+                                                                                .value("{\"string\": \"hello\"}")
+                                                                                .build());
+    PatchOpRequest patchOpRequest = PatchOpRequest.builder().operations(operations).build();
+    PatchHandler patchHandler = new PatchHandler(allTypesResourceType);
+    Assertions.assertFalse(patchHandler.getPatchDeltas(patchOpRequest).isPresent());
+  }
+
+  /**
+   * verifies that remove and replace operations on required attributes and on required sub-attributes are not
+   * resolved into deltas because the result could not be validated without the current resource
+   */
+  @ParameterizedTest
+  @CsvSource(delimiter = ';', value = {"ADD;displayName;goldfish;true", "REPLACE;displayName;goldfish;false",
+                                       "REMOVE;displayName;;false", "ADD;members;{\"value\": \"1\"};true",
+                                       "REMOVE;members[value eq \"1\"];;true",
+                                       "REPLACE;members[value eq \"1\"].value;2;false",
+                                       "REMOVE;members[value eq \"1\"].value;;false"})
+  public void testResolvePatchDeltasOnRequiredAttributes(PatchOp patchOp, String path, String value, boolean resolved)
+  {
+    JsonNode groupResourceTypeDocument = JsonHelper.loadJsonDocument(ClassPathReferences.GROUP_RESOURCE_TYPE_JSON);
+    JsonNode groupSchema = JsonHelper.loadJsonDocument(ClassPathReferences.GROUP_SCHEMA_JSON);
+    ResourceType groupResourceType = resourceTypeFactory.registerResourceType(null,
+                                                                              groupResourceTypeDocument,
+                                                                              groupSchema);
+    PatchRequestOperation operation = PatchRequestOperation.builder()
+                                                           .op(patchOp)
+                                                           .path(path)
+                                                           .values(value == null ? null
+                                                             : Collections.singletonList(value))
+                                                           .build();
+    PatchOpRequest patchOpRequest = PatchOpRequest.builder().operations(Arrays.asList(operation)).build();
+    PatchHandler patchHandler = new PatchHandler(groupResourceType);
+    Assertions.assertEquals(resolved, patchHandler.getPatchDeltas(patchOpRequest).isPresent());
+  }
+
+  /**
+   * verifies that operations on an extension are not resolved into deltas if they might add the extension to
+   * the "schemas" attribute of the resource or remove it from there
+   */
+  @ParameterizedTest
+  @CsvSource({"ADD,false,false", "REPLACE,false,false", "REMOVE,false,false", "ADD,true,true", "REPLACE,true,true",
+              "REMOVE,true,false"})
+  public void testResolvePatchDeltasOnExtension(PatchOp patchOp, boolean extensionRequired, boolean resolved)
+  {
+    JsonNode resourceTypeDocument = JsonHelper.loadJsonDocument(ALL_TYPES_RESOURCE_TYPE);
+    JsonHelper.getArrayAttribute(resourceTypeDocument, AttributeNames.RFC7643.SCHEMA_EXTENSIONS)
+              .ifPresent(extensions -> extensions.forEach(extension -> {
+                JsonHelper.replaceNode(extension,
+                                       AttributeNames.RFC7643.REQUIRED,
+                                       BooleanNode.valueOf(extensionRequired));
+              }));
+    JsonNode allTypesSchema = JsonHelper.loadJsonDocument(ALL_TYPES_JSON_SCHEMA);
+    JsonNode enterpriseUserSchema = JsonHelper.loadJsonDocument(ClassPathReferences.ENTERPRISE_USER_SCHEMA_JSON);
+    ResourceType resourceType = new ResourceTypeFactory().registerResourceType(null,
+                                                                               resourceTypeDocument,
+                                                                               allTypesSchema,
+                                                                               enterpriseUserSchema);
+    PatchRequestOperation operation = PatchRequestOperation.builder()
+                                                           .op(patchOp)
+                                                           .path(SchemaUris.ENTERPRISE_USER_URI + ":employeeNumber")
+                                                           .values(PatchOp.REMOVE.equals(patchOp) ? null
+                                                             : Collections.singletonList("123456"))
+                                                           .build();
+    PatchOpRequest patchOpRequest = PatchOpRequest.builder().operations(Arrays.asList(operation)).build();
+    PatchHandler patchHandler = new PatchHandler(resourceType);
+    Assertions.assertEquals(resolved, patchHandler.getPatchDeltas(patchOpRequest).isPresent());
+  }
+
+  /**
+   * verifies that many remove operations with equality filters on the same multivalued complex attribute
+   * remove exactly the matching nodes and keep the order of the remaining nodes. The values are compared case
+   * insensitive because the attribute is not caseExact and nodes with the same value are all removed
+   */
+  @Test
+  public void testRemoveManyMulticomplexByEqualityFilter()
+  {
+    AllTypes allTypes = new AllTypes(true);
+    List<AllTypes> multiComplex = new ArrayList<>();
+    for ( int i = 0 ; i < 50 ; i++ )
+    {
+      AllTypes complex = new AllTypes(false);
+      complex.setString("value-" + (i % 40));
+      complex.setNumber((long)i);
+      multiComplex.add(complex);
+    }
+    allTypes.setMultiComplex(multiComplex);
+
+    List<PatchRequestOperation> operations = new ArrayList<>();
+    for ( int i = 39 ; i >= 0 ; i -= 3 )
+    {
+      operations.add(PatchRequestOperation.builder()
+                                          .op(PatchOp.REMOVE)
+                                          .path("multiComplex[string eq \"VALUE-" + i + "\"]")
+                                          .build());
+    }
+    operations.add(PatchRequestOperation.builder()
+                                        .op(PatchOp.REMOVE)
+                                        .path("multiComplex[string eq \"unknown\"]")
+                                        .build());
+    PatchOpRequest patchOpRequest = PatchOpRequest.builder().operations(operations).build();
+    PatchHandler patchHandler = new PatchHandler(allTypesResourceType);
+    allTypes = patchHandler.patchResource(allTypes, patchOpRequest);
+
+    List<Long> expectedNumbers = new ArrayList<>();
+    for ( long i = 0 ; i < 50 ; i++ )
+    {
+      if ((i % 40) % 3 != 0)
+      {
+        expectedNumbers.add(i);
+      }
+    }
+    List<Long> numbers = allTypes.getMultiComplex()
+                                 .stream()
+                                 .map(complex -> complex.getNumber().get())
+                                 .collect(Collectors.toList());
+    Assertions.assertEquals(expectedNumbers, numbers);
+    Assertions.assertTrue(patchHandler.isChangedResource());
+  }
+
+  /**
+   * verifies that values that were added by another operation are found by subsequent remove operations with
+   * equality filters
+   */
+  @Test
+  public void testRemoveMulticomplexByEqualityFilterAfterAdd()
+  {
+    AllTypes allTypes = new AllTypes(true);
+    AllTypes complex = new AllTypes(false);
+    complex.setString("hello world");
+    AllTypes complex2 = new AllTypes(false);
+    complex2.setString("goodbye world");
+    allTypes.setMultiComplex(Arrays.asList(complex, complex2));
+
+    AllTypes newComplex = new AllTypes(false);
+    newComplex.setString("hello world");
+    newComplex.setNumber(5L);
+    List<String> addValues = Collections.singletonList(newComplex.toString());
+    final String removePath = "multiComplex[string eq \"hello world\"]";
+    List<PatchRequestOperation> operations = Arrays.asList(PatchRequestOperation.builder()
+                                                                                .op(PatchOp.REMOVE)
+                                                                                .path(removePath)
+                                                                                .build(),
+                                                           PatchRequestOperation.builder()
+                                                                                .op(PatchOp.ADD)
+                                                                                .path("multiComplex")
+                                                                                .values(addValues)
+                                                                                .build(),
+                                                           PatchRequestOperation.builder()
+                                                                                .op(PatchOp.REMOVE)
+                                                                                .path(removePath)
+                                                                                .build());
+    PatchOpRequest patchOpRequest = PatchOpRequest.builder().operations(operations).build();
+    PatchHandler patchHandler = new PatchHandler(allTypesResourceType);
+    allTypes = patchHandler.patchResource(allTypes, patchOpRequest);
+
+    Assertions.assertEquals(1, allTypes.getMultiComplex().size(), allTypes.toPrettyString());
+    Assertions.assertEquals("goodbye world", allTypes.getMultiComplex().get(0).getString().get());
+  }
+
+  /**
+   * verifies that a multivalued complex attribute is removed from the resource if its last node was removed by
+   * an equality filter
+   */
+  @Test
+  public void testRemoveLastMulticomplexByEqualityFilter()
+  {
+    AllTypes allTypes = new AllTypes(true);
+    AllTypes complex = new AllTypes(false);
+    complex.setString("hello world");
+    AllTypes complex2 = new AllTypes(false);
+    complex2.setString("goodbye world");
+    allTypes.setMultiComplex(Arrays.asList(complex, complex2));
+
+    List<PatchRequestOperation> operations = Arrays.asList(PatchRequestOperation.builder()
+                                                                                .op(PatchOp.REMOVE)
+                                                                                .path("multiComplex[string eq "
+                                                                                      + "\"hello world\"]")
+                                                                                .build(),
+                                                           PatchRequestOperation.builder()
+                                                                                .op(PatchOp.REMOVE)
+                                                                                .path("multiComplex[string eq "
+                                                                                      + "\"goodbye world\"]")
+                                                                                .build());
+    PatchOpRequest patchOpRequest = PatchOpRequest.builder().operations(operations).build();
+    PatchHandler patchHandler = new PatchHandler(allTypesResourceType);
+    allTypes = patchHandler.patchResource(allTypes, patchOpRequest);
+
+    Assertions.assertFalse(allTypes.has("multiComplex"), allTypes.toPrettyString());
+    Assertions.assertTrue(patchHandler.isChangedResource());
+  }
+
+  /**
+   * verifies that consecutive add operations on the same multivalued attributes lead to the same resource as
+   * executing each operation within its own request
+   */
+  @Test
+  public void testConsecutiveAddOperationsOnMultivaluedAttributes()
+  {
+    List<PatchRequestOperation> operations = new ArrayList<>();
+    for ( int i = 0 ; i < 10 ; i++ )
+    {
+      AllTypes complex = new AllTypes(false);
+      complex.setString("value-" + i);
+      if (i % 4 == 0)
+      {
+        complex.set(AttributeNames.RFC7643.PRIMARY, BooleanNode.valueOf(true));
+      }
+      operations.add(PatchRequestOperation.builder()
+                                          .op(PatchOp.ADD)
+                                          .path("multiComplex")
+                                          .values(Collections.singletonList(complex.toString()))
+                                          .build());
+    }
+    operations.add(PatchRequestOperation.builder()
+                                        .op(PatchOp.ADD)
+                                        .path("stringArray")
+                                        .values(Arrays.asList("a", "b"))
+                                        .build());
+    operations.add(PatchRequestOperation.builder().op(PatchOp.ADD).path("stringArray").value("c").build());
+    operations.add(PatchRequestOperation.builder().op(PatchOp.REPLACE).path("string").value("hello").build());
+    operations.add(PatchRequestOperation.builder().op(PatchOp.ADD).path("stringArray").value("d").build());
+
+    AllTypes expectedResource = new AllTypes(true);
+    AllTypes existingComplex = new AllTypes(false);
+    existingComplex.setString("existing");
+    expectedResource.setMultiComplex(Collections.singletonList(existingComplex));
+    AllTypes allTypes = JsonHelper.copyResourceToObject(expectedResource.deepCopy(), AllTypes.class);
+
+    for ( PatchRequestOperation operation : operations )
+    {
+      PatchOpRequest singleOperationRequest = PatchOpRequest.builder()
+                                                            .operations(Collections.singletonList(operation))
+                                                            .build();
+      expectedResource = new PatchHandler(allTypesResourceType).patchResource(expectedResource,
+                                                                              singleOperationRequest);
+    }
+    PatchOpRequest patchOpRequest = PatchOpRequest.builder().operations(operations).build();
+    PatchHandler patchHandler = new PatchHandler(allTypesResourceType);
+    allTypes = patchHandler.patchResource(allTypes, patchOpRequest);
+
+    Assertions.assertTrue(patchHandler.isChangedResource());
+    Assertions.assertEquals(11, allTypes.getMultiComplex().size(), allTypes.toPrettyString());
+    Assertions.assertEquals(Arrays.asList("a", "b", "c", "d"), allTypes.getStringArray());
+    expectedResource.getMeta().ifPresent(meta -> meta.remove(AttributeNames.RFC7643.LAST_MODIFIED));
+    allTypes.getMeta().ifPresent(meta -> meta.remove(AttributeNames.RFC7643.LAST_MODIFIED));
+    Assertions.assertEquals(expectedResource, allTypes, allTypes.toPrettyString());
+  }
+
+  /**
+   * verifies that an add operation without values is still rejected if it follows other add operations on
+   * the same path
+   */
+  @Test
+  public void testConsecutiveAddOperationsWithMissingValues()
+  {
+    List<PatchRequestOperation> operations = Arrays.asList(PatchRequestOperation.builder()
+                                                                                .op(PatchOp.ADD)
+                                                                                .path("stringArray")
+                                                                                .value("a")
+                                                                                .build(),
+                                                           PatchRequestOperation.builder()
+                                                                                .op(PatchOp.ADD)
+                                                                                .path("stringArray")
+                                                                                .build());
+    PatchOpRequest patchOpRequest = PatchOpRequest.builder().operations(operations).build();
+    PatchHandler patchHandler = new PatchHandler(allTypesResourceType);
+    AllTypes allTypes = new AllTypes(true);
+    ScimException ex = Assertions.assertThrows(ScimException.class,
+                                               () -> patchHandler.patchResource(allTypes, patchOpRequest));
+    Assertions.assertEquals(ScimType.RFC7644.INVALID_VALUE, ex.getScimType());
+  }
 }
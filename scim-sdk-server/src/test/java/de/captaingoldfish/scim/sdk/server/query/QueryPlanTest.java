@@ -0,0 +1,151 @@
+package de.captaingoldfish.scim.sdk.server.query;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import de.captaingoldfish.scim.sdk.common.constants.ClassPathReferences;
+import de.captaingoldfish.scim.sdk.common.constants.enums.SortOrder;
+import de.captaingoldfish.scim.sdk.common.exceptions.InternalServerException;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
+import de.captaingoldfish.scim.sdk.server.filter.AttributeExpressionLeaf;
+import de.captaingoldfish.scim.sdk.server.filter.FilterNode;
+import de.captaingoldfish.scim.sdk.server.filter.NotExpressionNode;
+import de.captaingoldfish.scim.sdk.server.filter.OrExpressionNode;
+import de.captaingoldfish.scim.sdk.server.schemas.ResourceType;
+import de.captaingoldfish.scim.sdk.server.schemas.ResourceTypeFactory;
+import de.captaingoldfish.scim.sdk.server.utils.RequestUtils;
+
+
+/**
+ * author Pascal Knueppel <br>
+ * created at: 17.10.2026 <br>
+ * <br>
+ */
+public class QueryPlanTest
+{
+
+  /**
+   * the user resource type
+   */
+  private ResourceType userResourceType;
+
+  /**
+   * initializes a new {@link ResourceTypeFactory} for the following tests
+   */
+  @BeforeEach
+  public void initialize()
+  {
+    ResourceTypeFactory resourceTypeFactory = new ResourceTypeFactory();
+    JsonNode userResourceTypeJson = JsonHelper.loadJsonDocument(ClassPathReferences.USER_RESOURCE_TYPE_JSON);
+    JsonNode userSchema = JsonHelper.loadJsonDocument(ClassPathReferences.USER_SCHEMA_JSON);
+    JsonNode enterpriseUser = JsonHelper.loadJsonDocument(ClassPathReferences.ENTERPRISE_USER_SCHEMA_JSON);
+    this.userResourceType = resourceTypeFactory.registerResourceType(null,
+                                                                     userResourceTypeJson,
+                                                                     userSchema,
+                                                                     enterpriseUser);
+  }
+
+  /**
+   * creates a query plan for the given filter
+   */
+  private QueryPlan getQueryPlan(String filter)
+  {
+    return QueryPlan.builder()
+                    .resourceType(userResourceType)
+                    .startIndex(1)
+                    .count(10)
+                    .filter(filter == null ? null : RequestUtils.parseFilter(userResourceType, filter))
+                    .build();
+  }
+
+  /**
+   * verifies that the filter is split at its top level and-expressions only
+   */
+  @Test
+  public void testSplitIntoConjuncts()
+  {
+    QueryPlan queryPlan = getQueryPlan("userName eq \"chuck\" and (nickName pr or title pr) "
+                                       + "and not (active eq true)");
+    List<FilterNode> conjuncts = queryPlan.getConjuncts();
+    Assertions.assertEquals(3, conjuncts.size());
+    Assertions.assertTrue(conjuncts.get(0) instanceof AttributeExpressionLeaf);
+    Assertions.assertTrue(conjuncts.get(1) instanceof OrExpressionNode);
+    Assertions.assertTrue(conjuncts.get(2) instanceof NotExpressionNode);
+    Assertions.assertEquals(conjuncts, queryPlan.getResidualFilters());
+    Assertions.assertFalse(queryPlan.isFilterHandled());
+  }
+
+  /**
+   * verifies that conjuncts marked as handled are no longer part of the residual filter
+   */
+  @Test
+  public void testResidualFilter()
+  {
+    QueryPlan queryPlan = getQueryPlan("userName eq \"chuck\" and nickName pr");
+    FilterNode userNameConjunct = queryPlan.getConjuncts().get(0);
+    FilterNode nickNameConjunct = queryPlan.getConjuncts().get(1);
+    queryPlan.markHandled(userNameConjunct);
+    Assertions.assertEquals(1, queryPlan.getResidualFilters().size());
+    Assertions.assertSame(nickNameConjunct, queryPlan.getResidualFilters().get(0));
+    Assertions.assertFalse(queryPlan.isPagingAllowed());
+
+    queryPlan.markHandled(nickNameConjunct);
+    Assertions.assertTrue(queryPlan.getResidualFilters().isEmpty());
+    Assertions.assertTrue(queryPlan.isFilterHandled());
+    Assertions.assertTrue(queryPlan.isPagingAllowed());
+  }
+
+  /**
+   * verifies that only top level conjuncts can be marked as handled because a partially evaluated
+   * or-expression would lead to wrong results
+   */
+  @Test
+  public void testMarkNestedNodeAsHandled()
+  {
+    QueryPlan queryPlan = getQueryPlan("userName eq \"chuck\" or nickName pr");
+    OrExpressionNode orExpressionNode = (OrExpressionNode)queryPlan.getConjuncts().get(0);
+    Assertions.assertThrows(InternalServerException.class,
+                            () -> queryPlan.markHandled(orExpressionNode.getLeftNode()));
+  }
+
+  /**
+   * verifies that paging is only allowed for the backend if the sorting has also been done by the backend
+   */
+  @Test
+  public void testPagingRequiresSorting()
+  {
+    QueryPlan queryPlan = QueryPlan.builder()
+                                   .resourceType(userResourceType)
+                                   .startIndex(1)
+                                   .count(10)
+                                   .sortBy(RequestUtils.getSchemaAttributeByAttributeName(userResourceType,
+                                                                                          "userName"))
+                                   .sortOrder(SortOrder.ASCENDING)
+                                   .build();
+    Assertions.assertTrue(queryPlan.getConjuncts().isEmpty());
+    Assertions.assertTrue(queryPlan.isFilterHandled());
+    Assertions.assertFalse(queryPlan.isPagingAllowed());
+    queryPlan.markSortingHandled();
+    Assertions.assertTrue(queryPlan.isPagingAllowed());
+  }
+
+  /**
+   * verifies that the backend can only mark the paging as handled if it is allowed to apply the paging
+   */
+  @Test
+  public void testMarkPagingHandled()
+  {
+    QueryPlan queryPlan = getQueryPlan("userName eq \"chuck\"");
+    Assertions.assertThrows(InternalServerException.class, queryPlan::markPagingHandled);
+    Assertions.assertFalse(queryPlan.isPagingHandled());
+
+    queryPlan.markFilterHandled();
+    queryPlan.markPagingHandled();
+    Assertions.assertTrue(queryPlan.isPagingHandled());
+  }
+}
@@ -0,0 +1,98 @@
+package de.captaingoldfish.scim.sdk.server.response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import de.captaingoldfish.scim.sdk.common.resources.ResourceNode;
+import de.captaingoldfish.scim.sdk.common.resources.User;
+import de.captaingoldfish.scim.sdk.common.resources.base.ScimObjectNode;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
+
+
+/**
+ * author Pascal Knueppel <br>
+ * created at: 17.10.2026 <br>
+ * <br>
+ */
+public class StreamingListResponseTest
+{
+
+  /**
+   * counts how often a resource was validated
+   */
+  private AtomicInteger validations;
+
+  /**
+   * the validator that is given to the streaming list response
+   */
+  private Function<ResourceNode, JsonNode> responseValidator;
+
+  /**
+   * the resources that are listed
+   */
+  private List<User> users;
+
+  /**
+   * initializes the resources and the counting validator for the following tests
+   */
+  @BeforeEach
+  public void initialize()
+  {
+    validations = new AtomicInteger(0);
+    responseValidator = resource -> {
+      validations.incrementAndGet();
+      return resource;
+    };
+    users = new ArrayList<>();
+    for ( int i = 0 ; i < 3 ; i++ )
+    {
+      users.add(User.builder().id(String.valueOf(i)).userName("user-" + i).build());
+    }
+  }
+
+  /**
+   * verifies that each resource is validated only once if the listed resources are retrieved several times
+   * and that the response is written from the already validated resources afterwards
+   */
+  @Test
+  public void testListedResourcesAreValidatedOnlyOnce() throws IOException
+  {
+    StreamingListResponse<ScimObjectNode> listResponse = new StreamingListResponse<>(users, responseValidator,
+                                                                                     (long)users.size(), 1L);
+    List<ScimObjectNode> listedResources = listResponse.getListedResources();
+    Assertions.assertEquals(users.size(), listedResources.size());
+    Assertions.assertEquals(listedResources, listResponse.getListedResources());
+    Assertions.assertEquals(listedResources, listResponse.getListedResourcesView());
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    listResponse.writeTo(outputStream);
+    JsonNode document = JsonHelper.readJsonDocument(new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    Assertions.assertEquals(users.size(), document.get("Resources").size());
+    Assertions.assertEquals(users.size(), validations.get());
+  }
+
+  /**
+   * verifies that the resources are validated each time the response is written as long as the listed
+   * resources were not retrieved so that the validated resources are never held in memory at the same time
+   */
+  @Test
+  public void testStreamedResourcesAreNotCached() throws IOException
+  {
+    StreamingListResponse<ScimObjectNode> listResponse = new StreamingListResponse<>(users, responseValidator,
+                                                                                     (long)users.size(), 1L);
+    listResponse.writeTo(new ByteArrayOutputStream());
+    listResponse.writeTo(new ByteArrayOutputStream());
+    Assertions.assertEquals(2 * users.size(), validations.get());
+  }
+}
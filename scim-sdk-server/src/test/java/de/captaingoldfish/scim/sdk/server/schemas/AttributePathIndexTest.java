@@ -0,0 +1,154 @@
+package de.captaingoldfish.scim.sdk.server.schemas;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import de.captaingoldfish.scim.sdk.common.constants.ClassPathReferences;
+import de.captaingoldfish.scim.sdk.common.constants.SchemaUris;
+import de.captaingoldfish.scim.sdk.common.exceptions.BadRequestException;
+import de.captaingoldfish.scim.sdk.common.exceptions.InvalidFilterException;
+import de.captaingoldfish.scim.sdk.common.schemas.SchemaAttribute;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
+import de.captaingoldfish.scim.sdk.server.filter.antlr.FilterAttributeName;
+import de.captaingoldfish.scim.sdk.server.utils.RequestUtils;
+
+
+/**
+ * author Pascal Knueppel <br>
+ * created at: 17.10.2026 <br>
+ * <br>
+ */
+public class AttributePathIndexTest
+{
+
+  /**
+   * the factory that holds the schemas of the user resource type
+   */
+  private ResourceTypeFactory resourceTypeFactory;
+
+  /**
+   * the user resource type
+   */
+  private ResourceType userResourceType;
+
+  /**
+   * initializes a new {@link ResourceTypeFactory} for the following tests
+   */
+  @BeforeEach
+  public void initialize()
+  {
+    resourceTypeFactory = new ResourceTypeFactory();
+    JsonNode userResourceTypeJson = JsonHelper.loadJsonDocument(ClassPathReferences.USER_RESOURCE_TYPE_JSON);
+    JsonNode userSchema = JsonHelper.loadJsonDocument(ClassPathReferences.USER_SCHEMA_JSON);
+    JsonNode enterpriseUser = JsonHelper.loadJsonDocument(ClassPathReferences.ENTERPRISE_USER_SCHEMA_JSON);
+    userResourceType = resourceTypeFactory.registerResourceType(null, userResourceTypeJson, userSchema, enterpriseUser);
+  }
+
+  /**
+   * verifies that an attribute path is resolved only once and that the indexed definition is returned on
+   * subsequent calls
+   */
+  @Test
+  public void testAttributePathIsResolvedOnlyOnce()
+  {
+    AttributePathIndex attributePathIndex = userResourceType.getAttributePathIndex();
+    AtomicInteger resolverCalls = new AtomicInteger(0);
+    SchemaAttribute givenName = userResourceType.getMainSchema().getSchemaAttribute("name.givenName");
+
+    for ( int i = 0 ; i < 3 ; i++ )
+    {
+      SchemaAttribute schemaAttribute = attributePathIndex.getSchemaAttribute("name.givenName", path -> {
+        resolverCalls.incrementAndGet();
+        return givenName;
+      });
+      Assertions.assertSame(givenName, schemaAttribute);
+    }
+    Assertions.assertEquals(1, resolverCalls.get());
+    Assertions.assertEquals(1, attributePathIndex.size());
+  }
+
+  /**
+   * verifies that the indexed definitions are identical to the definitions of the schemas for simple names,
+   * sub-attribute names and fully qualified names and that filter attribute names share the same entries
+   */
+  @Test
+  public void testIndexedAttributesMatchSchemaDefinitions()
+  {
+    SchemaAttribute userName = userResourceType.getMainSchema().getSchemaAttribute("userName");
+    SchemaAttribute givenName = userResourceType.getMainSchema().getSchemaAttribute("name.givenName");
+    final String employeeNumberPath = SchemaUris.ENTERPRISE_USER_URI + ":employeeNumber";
+
+    for ( int i = 0 ; i < 2 ; i++ )
+    {
+      Assertions.assertSame(userName, RequestUtils.getSchemaAttributeByAttributeName(userResourceType, "userName"));
+      Assertions.assertSame(givenName,
+                            RequestUtils.getSchemaAttributeByAttributeName(userResourceType, "NAME.givenName"));
+      SchemaAttribute employeeNumber = RequestUtils.getSchemaAttributeByAttributeName(userResourceType,
+                                                                                      employeeNumberPath);
+      Assertions.assertEquals("employeeNumber", employeeNumber.getName());
+      Assertions.assertSame(employeeNumber,
+                            RequestUtils.getSchemaAttributeForFilter(userResourceType,
+                                                                     new FilterAttributeName(employeeNumberPath)));
+    }
+    Assertions.assertEquals(3, userResourceType.getAttributePathIndex().size());
+  }
+
+  /**
+   * verifies that unknown attribute paths are not indexed and still lead to the same errors
+   */
+  @Test
+  public void testUnknownAttributesAreNotIndexed()
+  {
+    for ( int i = 0 ; i < 2 ; i++ )
+    {
+      Assertions.assertThrows(BadRequestException.class,
+                              () -> RequestUtils.getSchemaAttributeByAttributeName(userResourceType, "unknown"));
+      Assertions.assertThrows(InvalidFilterException.class,
+                              () -> RequestUtils.getSchemaAttributeForFilter(userResourceType,
+                                                                             new FilterAttributeName("unknown")));
+    }
+    Assertions.assertEquals(0, userResourceType.getAttributePathIndex().size());
+  }
+
+  /**
+   * verifies that the index is discarded if a schema of the resource type is registered again
+   */
+  @Test
+  public void testIndexIsDiscardedOnSchemaRegistration()
+  {
+    SchemaAttribute oldGivenName = RequestUtils.getSchemaAttributeByAttributeName(userResourceType,
+                                                                                  "name.givenName");
+    Assertions.assertEquals(1, userResourceType.getAttributePathIndex().size());
+
+    JsonNode userSchema = JsonHelper.loadJsonDocument(ClassPathReferences.USER_SCHEMA_JSON);
+    resourceTypeFactory.getSchemaFactory().registerResourceSchema(userSchema);
+
+    SchemaAttribute newGivenName = RequestUtils.getSchemaAttributeByAttributeName(userResourceType,
+                                                                                  "name.givenName");
+    Assertions.assertNotSame(oldGivenName, newGivenName);
+    Assertions.assertSame(userResourceType.getMainSchema().getSchemaAttribute("name.givenName"), newGivenName);
+    Assertions.assertEquals(1, userResourceType.getAttributePathIndex().size());
+  }
+
+  /**
+   * verifies that the index is discarded if an attribute is removed from a schema of the resource type
+   */
+  @Test
+  public void testIndexIsDiscardedOnAttributeChange()
+  {
+    SchemaAttribute userName = RequestUtils.getSchemaAttributeByAttributeName(userResourceType, "userName");
+    Assertions.assertEquals(1, userResourceType.getAttributePathIndex().size());
+
+    SchemaAttribute title = userResourceType.getMainSchema().getSchemaAttribute("title");
+    userResourceType.getMainSchema().removeAttribute(title);
+
+    Assertions.assertEquals(0, userResourceType.getAttributePathIndex().size());
+    Assertions.assertSame(userName, RequestUtils.getSchemaAttributeByAttributeName(userResourceType, "userName"));
+    Assertions.assertEquals(1, userResourceType.getAttributePathIndex().size());
+  }
+}
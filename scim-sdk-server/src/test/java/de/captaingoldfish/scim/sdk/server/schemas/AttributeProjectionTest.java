@@ -0,0 +1,106 @@
+package de.captaingoldfish.scim.sdk.server.schemas;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.captaingoldfish.scim.sdk.common.constants.ClassPathReferences;
+import de.captaingoldfish.scim.sdk.common.constants.SchemaUris;
+import de.captaingoldfish.scim.sdk.common.schemas.AttributeValidationPlan;
+import de.captaingoldfish.scim.sdk.common.schemas.Schema;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
+
+
+/**
+ * author Pascal Knueppel <br>
+ * created at: 17.10.2026 <br>
+ * <br>
+ */
+public class AttributeProjectionTest
+{
+
+  /**
+   * the user schema that is used to get the attribute definitions
+   */
+  private Schema userSchema;
+
+  /**
+   * initializes the user schema
+   */
+  @BeforeEach
+  public void initialize()
+  {
+    userSchema = new Schema(JsonHelper.loadJsonDocument(ClassPathReferences.USER_SCHEMA_JSON));
+  }
+
+  /**
+   * gets the validation plan of the attribute with the given scim node name
+   */
+  private AttributeValidationPlan getPlan(String scimNodeName)
+  {
+    String[] nameParts = scimNodeName.split("\\.");
+    AttributeValidationPlan plan = userSchema.getValidationPlan()
+                                             .stream()
+                                             .filter(attributePlan -> attributePlan.getName().equals(nameParts[0]))
+                                             .findAny()
+                                             .get();
+    if (nameParts.length == 1)
+    {
+      return plan;
+    }
+    return plan.getSubAttributePlans()
+               .stream()
+               .filter(attributePlan -> attributePlan.getName().equals(nameParts[1]))
+               .findAny()
+               .get();
+  }
+
+  /**
+   * verifies that attributes are only missing if neither they nor their parent or children are requested
+   */
+  @Test
+  public void testIsMissingInAttributes()
+  {
+    AttributeProjection projection = new AttributeProjection("username,name.givenName,"
+                                                             + SchemaUris.USER_URI + ":emails",
+                                                             null);
+    Assertions.assertFalse(projection.isMissingInAttributes(getPlan("userName")));
+    Assertions.assertFalse(projection.isMissingInAttributes(getPlan("name")));
+    Assertions.assertFalse(projection.isMissingInAttributes(getPlan("name.givenName")));
+    Assertions.assertTrue(projection.isMissingInAttributes(getPlan("name.familyName")));
+    Assertions.assertFalse(projection.isMissingInAttributes(getPlan("emails")));
+    Assertions.assertFalse(projection.isMissingInAttributes(getPlan("emails.value")));
+    Assertions.assertTrue(projection.isMissingInAttributes(getPlan("nickName")));
+    Assertions.assertFalse(projection.isExcluded(getPlan("nickName")));
+  }
+
+  /**
+   * verifies that excluded attributes are detected by their short and their full name
+   */
+  @Test
+  public void testIsExcluded()
+  {
+    AttributeProjection projection = new AttributeProjection(null, "nickName," + SchemaUris.USER_URI + ":title");
+    Assertions.assertTrue(projection.isExcluded(getPlan("nickName")));
+    Assertions.assertTrue(projection.isExcluded(getPlan("title")));
+    Assertions.assertFalse(projection.isExcluded(getPlan("userName")));
+    Assertions.assertTrue(projection.getAttributes().isEmpty());
+  }
+
+  /**
+   * verifies that the result for an attribute is computed once and reused for further resources
+   */
+  @Test
+  public void testResultsAreReused()
+  {
+    AttributeProjection projection = new AttributeProjection("userName", "nickName");
+    AttributeValidationPlan userName = getPlan("userName");
+    AttributeValidationPlan nickName = getPlan("nickName");
+    for ( int i = 0 ; i < 3 ; i++ )
+    {
+      Assertions.assertFalse(projection.isMissingInAttributes(userName));
+      Assertions.assertTrue(projection.isMissingInAttributes(nickName));
+      Assertions.assertTrue(projection.isExcluded(nickName));
+    }
+  }
+}
@@ -0,0 +1,194 @@
+package de.captaingoldfish.scim.sdk.server.schemas;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import de.captaingoldfish.scim.sdk.common.constants.AttributeNames;
+import de.captaingoldfish.scim.sdk.common.constants.ClassPathReferences;
+import de.captaingoldfish.scim.sdk.common.constants.SchemaUris;
+import de.captaingoldfish.scim.sdk.common.constants.ScimType;
+import de.captaingoldfish.scim.sdk.common.constants.enums.HttpMethod;
+import de.captaingoldfish.scim.sdk.common.constants.enums.Mutability;
+import de.captaingoldfish.scim.sdk.common.exceptions.BadRequestException;
+import de.captaingoldfish.scim.sdk.common.exceptions.DocumentValidationException;
+import de.captaingoldfish.scim.sdk.common.resources.Group;
+import de.captaingoldfish.scim.sdk.common.resources.User;
+import de.captaingoldfish.scim.sdk.common.resources.base.ScimNode;
+import de.captaingoldfish.scim.sdk.common.schemas.SchemaAttribute;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
+import de.captaingoldfish.scim.sdk.server.endpoints.handler.GroupHandlerImpl;
+import de.captaingoldfish.scim.sdk.server.endpoints.handler.UserHandlerImpl;
+import de.captaingoldfish.scim.sdk.server.utils.FileReferences;
+
+
+/**
+ * author Pascal Knueppel <br>
+ * created at: 17.10.2026 <br>
+ * <br>
+ */
+public class RequestDocumentReaderTest implements FileReferences
+{
+
+  /**
+   * holds the user and group resource types
+   */
+  private ResourceTypeFactory resourceTypeFactory;
+
+  /**
+   * the user resource type with the enterprise user extension
+   */
+  private ResourceType userResourceType;
+
+  /**
+   * the group resource type
+   */
+  private ResourceType groupResourceType;
+
+  /**
+   * registers the user and group resource types
+   */
+  @BeforeEach
+  public void initialize()
+  {
+    resourceTypeFactory = new ResourceTypeFactory();
+    userResourceType = resourceTypeFactory.registerResourceType(new UserHandlerImpl(true),
+                                                                JsonHelper.loadJsonDocument(ClassPathReferences.USER_RESOURCE_TYPE_JSON),
+                                                                JsonHelper.loadJsonDocument(ClassPathReferences.USER_SCHEMA_JSON),
+                                                                JsonHelper.loadJsonDocument(ClassPathReferences.ENTERPRISE_USER_SCHEMA_JSON));
+    groupResourceType = resourceTypeFactory.registerResourceType(new GroupHandlerImpl(),
+                                                                 JsonHelper.loadJsonDocument(ClassPathReferences.GROUP_RESOURCE_TYPE_JSON),
+                                                                 JsonHelper.loadJsonDocument(ClassPathReferences.GROUP_SCHEMA_JSON));
+  }
+
+  /**
+   * verifies that the read resource is equal to the resource that is validated from a parsed json document
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {USER_RESOURCE, USER_RESOURCE_ENTERPRISE})
+  public void testReadUserMatchesValidatedDocument(String resourcePath)
+  {
+    String resourceDocument = readResourceFile(resourcePath);
+    for ( HttpMethod httpMethod : new HttpMethod[]{HttpMethod.POST, HttpMethod.PUT} )
+    {
+      JsonNode validatedDocument = SchemaValidator.validateDocumentForRequest(userResourceType,
+                                                                              JsonHelper.readJsonDocument(resourceDocument),
+                                                                              httpMethod);
+      User user = RequestDocumentReader.readResource(userResourceType, resourceDocument, httpMethod, User.class);
+      Assertions.assertEquals(validatedDocument, user);
+      Assertions.assertFalse(user.has(AttributeNames.RFC7643.ID), "read only attributes must be removed");
+    }
+  }
+
+  /**
+   * verifies that a group with members is read into a group instance
+   */
+  @Test
+  public void testReadGroup()
+  {
+    String resourceDocument = readResourceFile(GROUP_RESOURCE_TWO_MEMBERS,
+                                               s -> s.replace("${userId}", "1").replace("${groupId}", "2"));
+    JsonNode validatedDocument = SchemaValidator.validateDocumentForRequest(groupResourceType,
+                                                                            JsonHelper.readJsonDocument(resourceDocument),
+                                                                            HttpMethod.POST);
+    Group group = RequestDocumentReader.readResource(groupResourceType, resourceDocument, HttpMethod.POST, Group.class);
+    Assertions.assertEquals(validatedDocument, group);
+    Assertions.assertEquals(2, group.getMembers().size());
+  }
+
+  /**
+   * verifies that unknown attributes are not added to the read resource and that the values of known attributes
+   * are bound to their attribute definitions
+   */
+  @Test
+  public void testUnknownAttributesAreSkipped()
+  {
+    String resourceDocument = "{\"schemas\": [\"" + SchemaUris.USER_URI + "\"], \"userName\": \"goldfish\", "
+                              + "\"unknown\": {\"a\": [1, 2, {\"b\": null}]}, "
+                              + "\"name\": {\"givenName\": \"captain\", \"unknown\": true}, \"active\": false}";
+    User user = RequestDocumentReader.readResource(userResourceType, resourceDocument, HttpMethod.POST, User.class);
+    Assertions.assertFalse(user.has("unknown"));
+    Assertions.assertFalse(user.get(AttributeNames.RFC7643.NAME).has("unknown"));
+    Assertions.assertEquals("goldfish", user.getUserName().get());
+    Assertions.assertEquals("captain", user.getName().get().getGivenName().get());
+    Assertions.assertFalse(user.isActive().get());
+    SchemaAttribute userNameAttribute = ((ScimNode)user.get(AttributeNames.RFC7643.USER_NAME)).getSchemaAttribute();
+    Assertions.assertEquals(AttributeNames.RFC7643.USER_NAME, userNameAttribute.getName());
+  }
+
+  /**
+   * verifies that values that do not match their attribute definitions are rejected by the validation
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"\"active\": \"true\"", "\"active\": 1", "\"name\": \"captain\"", "\"emails\": \"a@b.de\"",
+                          "\"emails\": [{\"value\": 1}]"})
+  public void testInvalidValuesAreRejected(String attribute)
+  {
+    String resourceDocument = "{\"schemas\": [\"" + SchemaUris.USER_URI + "\"], \"userName\": \"goldfish\", "
+                              + attribute + "}";
+    Assertions.assertThrows(DocumentValidationException.class,
+                            () -> SchemaValidator.validateDocumentForRequest(userResourceType,
+                                                                             JsonHelper.readJsonDocument(resourceDocument),
+                                                                             HttpMethod.POST));
+    Assertions.assertThrows(DocumentValidationException.class,
+                            () -> RequestDocumentReader.readResource(userResourceType,
+                                                                     resourceDocument,
+                                                                     HttpMethod.POST,
+                                                                     User.class));
+  }
+
+  /**
+   * verifies that read only attributes are removed from the request without running the custom validations of
+   * the attribute on the ignored value
+   */
+  @Test
+  public void testReadOnlyAttributeIsRemovedWithoutValidation()
+  {
+    SchemaAttribute idAttribute = userResourceType.getMainSchema().getSchemaAttribute(AttributeNames.RFC7643.ID);
+    Assertions.assertEquals(Mutability.READ_ONLY, idAttribute.getMutability());
+    idAttribute.setMinLength(10L);
+    String resourceDocument = "{\"schemas\": [\"" + SchemaUris.USER_URI + "\"], \"id\": \"1\", "
+                              + "\"userName\": \"goldfish\"}";
+    User user = RequestDocumentReader.readResource(userResourceType, resourceDocument, HttpMethod.POST, User.class);
+    Assertions.assertFalse(user.has(AttributeNames.RFC7643.ID));
+    Assertions.assertEquals("goldfish", user.getUserName().get());
+  }
+
+  /**
+   * verifies that documents that are not parseable are rejected with a bad request that tells the client what
+   * is wrong with the document
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"{\"userName\": ", "{\"userName\": \"goldfish\", \"name\": {\"givenName\": }}", "[1, 2"})
+  public void testUnparseableDocument(String resourceDocument)
+  {
+    BadRequestException ex = Assertions.assertThrows(BadRequestException.class,
+                                                     () -> RequestDocumentReader.readResource(userResourceType,
+                                                                                              resourceDocument,
+                                                                                              HttpMethod.POST,
+                                                                                              User.class));
+    Assertions.assertEquals(ScimType.Custom.UNPARSEABLE_REQUEST, ex.getScimType());
+    Assertions.assertEquals(ex.getCause().getMessage(), ex.getMessage());
+    Assertions.assertTrue(ex.getMessage().contains("line: 1"), ex.getMessage());
+  }
+
+  /**
+   * verifies that a document without the schemas attribute is rejected even if the resource type sets the
+   * schemas attribute within its constructor
+   */
+  @ParameterizedTest
+  @EnumSource(value = HttpMethod.class, names = {"POST", "PUT"})
+  public void testMissingSchemasAttribute(HttpMethod httpMethod)
+  {
+    Assertions.assertThrows(BadRequestException.class,
+                            () -> RequestDocumentReader.readResource(userResourceType,
+                                                                     "{\"userName\": \"goldfish\"}",
+                                                                     httpMethod,
+                                                                     User.class));
+  }
+}
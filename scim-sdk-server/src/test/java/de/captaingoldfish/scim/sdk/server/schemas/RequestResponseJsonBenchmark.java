@@ -0,0 +1,148 @@
+package de.captaingoldfish.scim.sdk.server.schemas;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.captaingoldfish.scim.sdk.common.constants.ClassPathReferences;
+import de.captaingoldfish.scim.sdk.common.constants.enums.HttpMethod;
+import de.captaingoldfish.scim.sdk.common.resources.User;
+import de.captaingoldfish.scim.sdk.common.resources.base.ScimObjectNode;
+import de.captaingoldfish.scim.sdk.common.response.ListResponse;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
+import de.captaingoldfish.scim.sdk.server.endpoints.handler.UserHandlerImpl;
+import de.captaingoldfish.scim.sdk.server.response.StreamingListResponse;
+import de.captaingoldfish.scim.sdk.server.utils.FileReferences;
+
+
+/**
+ * compares reading a request body and writing a list response with a new {@link ObjectMapper} per call against
+ * the shared mapper of the {@link JsonHelper} that is used by the {@link RequestDocumentReader} and the
+ * {@link StreamingListResponse}. This benchmark is not executed during the build. Run it with the main method
+ * from the test classpath<br>
+ * <br>
+ * author Pascal Knueppel <br>
+ * created at: 17.10.2026 <br>
+ * <br>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestResponseJsonBenchmark implements FileReferences
+{
+
+  /**
+   * the number of users within the list response
+   */
+  private static final int NUMBER_OF_LISTED_USERS = 50;
+
+  /**
+   * the user resource type with the enterprise user extension
+   */
+  private ResourceType userResourceType;
+
+  /**
+   * the request body of a user that is read
+   */
+  private String requestBody;
+
+  /**
+   * the users that are written as list response
+   */
+  private List<User> users;
+
+  public static void main(String[] args) throws RunnerException
+  {
+    new Runner(new OptionsBuilder().include(RequestResponseJsonBenchmark.class.getSimpleName()).build()).run();
+  }
+
+  /**
+   * registers the user resource type and creates the request body and the listed users
+   */
+  @Setup
+  public void initialize()
+  {
+    ResourceTypeFactory resourceTypeFactory = new ResourceTypeFactory();
+    userResourceType = resourceTypeFactory.registerResourceType(new UserHandlerImpl(true),
+                                                                JsonHelper.loadJsonDocument(ClassPathReferences.USER_RESOURCE_TYPE_JSON),
+                                                                JsonHelper.loadJsonDocument(ClassPathReferences.USER_SCHEMA_JSON),
+                                                                JsonHelper.loadJsonDocument(ClassPathReferences.ENTERPRISE_USER_SCHEMA_JSON));
+    requestBody = readResourceFile(USER_RESOURCE_ENTERPRISE);
+    User user = JsonHelper.readJsonDocument(requestBody, User.class);
+    users = new ArrayList<>();
+    for ( int i = 0 ; i < NUMBER_OF_LISTED_USERS ; i++ )
+    {
+      User listedUser = JsonHelper.copyResourceToObject(user.deepCopy(), User.class);
+      listedUser.setId(String.valueOf(i));
+      users.add(listedUser);
+    }
+  }
+
+  /**
+   * the previous approach that parses the request body with a new mapper and validates a copy of it
+   */
+  @Benchmark
+  public User readRequestWithNewObjectMapper() throws IOException
+  {
+    JsonNode document = new ObjectMapper().readTree(requestBody);
+    JsonNode validatedDocument = SchemaValidator.validateDocumentForRequest(userResourceType,
+                                                                            document,
+                                                                            HttpMethod.POST);
+    return JsonHelper.copyResourceToObject(validatedDocument, User.class);
+  }
+
+  /**
+   * reads the request body with a parser of the shared mapper
+   */
+  @Benchmark
+  public User readRequestWithSharedObjectMapper()
+  {
+    return RequestDocumentReader.readResource(userResourceType, requestBody, HttpMethod.POST, User.class);
+  }
+
+  /**
+   * the previous approach that builds the list response and writes it with a new mapper
+   */
+  @Benchmark
+  public byte[] writeListResponseWithNewObjectMapper() throws IOException
+  {
+    ListResponse<User> listResponse = new ListResponse<>(new ArrayList<>(users), (long)users.size(), users.size(),
+                                                         1L);
+    return new ObjectMapper().writeValueAsBytes(listResponse);
+  }
+
+  /**
+   * streams the list response with a generator of the shared mapper
+   */
+  @Benchmark
+  public byte[] writeListResponseWithSharedObjectMapper() throws IOException
+  {
+    StreamingListResponse<ScimObjectNode> listResponse = new StreamingListResponse<>(users, resource -> resource,
+                                                                                     (long)users.size(), 1L);
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    listResponse.writeTo(outputStream);
+    return outputStream.toByteArray();
+  }
+}
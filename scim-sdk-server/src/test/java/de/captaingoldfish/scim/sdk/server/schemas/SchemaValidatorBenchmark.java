@@ -0,0 +1,110 @@
+package de.captaingoldfish.scim.sdk.server.schemas;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import de.captaingoldfish.scim.sdk.common.constants.AttributeNames;
+import de.captaingoldfish.scim.sdk.common.constants.ClassPathReferences;
+import de.captaingoldfish.scim.sdk.common.constants.ResourceTypeNames;
+import de.captaingoldfish.scim.sdk.common.constants.enums.HttpMethod;
+import de.captaingoldfish.scim.sdk.common.constants.enums.Uniqueness;
+import de.captaingoldfish.scim.sdk.common.resources.Group;
+import de.captaingoldfish.scim.sdk.common.resources.multicomplex.Member;
+import de.captaingoldfish.scim.sdk.common.schemas.Schema;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
+import de.captaingoldfish.scim.sdk.server.utils.TestHelper;
+
+
+/**
+ * measures the validation of a group whose members attribute has a uniqueness other than none so that each
+ * member is checked for duplicates. This benchmark is not executed during the build. Run it with the main method
+ * from the test classpath<br>
+ * <br>
+ * author Pascal Knueppel <br>
+ * created at: 17.10.2026 <br>
+ * <br>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchemaValidatorBenchmark
+{
+
+  /**
+   * the number of members of the group
+   */
+  @Param({"1000", "10000", "100000"})
+  private int numberOfMembers;
+
+  /**
+   * the group schema with a unique members attribute
+   */
+  private Schema groupSchema;
+
+  /**
+   * the group that is validated
+   */
+  private Group group;
+
+  public static void main(String[] args) throws RunnerException
+  {
+    new Runner(new OptionsBuilder().include(SchemaValidatorBenchmark.class.getSimpleName()).build()).run();
+  }
+
+  /**
+   * creates the group schema and the group with its members
+   */
+  @Setup
+  public void createGroup()
+  {
+    JsonNode groupSchemaNode = JsonHelper.loadJsonDocument(ClassPathReferences.GROUP_SCHEMA_JSON);
+    TestHelper.modifyAttributeMetaData(groupSchemaNode,
+                                       AttributeNames.RFC7643.MEMBERS,
+                                       null,
+                                       null,
+                                       null,
+                                       Uniqueness.SERVER,
+                                       null,
+                                       null,
+                                       null,
+                                       null);
+    groupSchema = new Schema(groupSchemaNode);
+    List<Member> members = new ArrayList<>(numberOfMembers);
+    for ( int i = 0 ; i < numberOfMembers ; i++ )
+    {
+      members.add(Member.builder().value(UUID.randomUUID().toString()).type(ResourceTypeNames.USER).build());
+    }
+    group = Group.builder().displayName("goldfish").members(members).build();
+  }
+
+  /**
+   * validates the group
+   */
+  @Benchmark
+  public JsonNode validateGroup()
+  {
+    return SchemaValidator.validateDocumentForRequest(groupSchema, group, HttpMethod.POST);
+  }
+}
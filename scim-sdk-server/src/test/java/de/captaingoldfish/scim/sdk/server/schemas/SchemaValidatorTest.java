@@ -750,6 +750,58 @@ public class SchemaValidatorTest implements FileReferences
                             () -> SchemaValidator.validateDocumentForRequest(metaSchema, userSchema, HttpMethod.POST));
   }
 
+  /**
+   * verifies that duplicates within a large unique complex array are found even if the attributes of the
+   * duplicate are in a different order and that an array without duplicates is accepted
+   */
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  public void testDuplicateValueInLargeUniqueComplexMultivaluedAttribute(boolean addDuplicate)
+  {
+    JsonNode metaSchemaNode = JsonHelper.loadJsonDocument(ClassPathReferences.USER_SCHEMA_JSON);
+    TestHelper.modifyAttributeMetaData(metaSchemaNode,
+                                       AttributeNames.RFC7643.EMAILS,
+                                       null,
+                                       null,
+                                       null,
+                                       Uniqueness.SERVER,
+                                       null,
+                                       null,
+                                       null,
+                                       null);
+    JsonNode userSchema = JsonHelper.loadJsonDocument(USER_RESOURCE);
+    ArrayNode emailArray = JsonHelper.getArrayAttribute(userSchema, AttributeNames.RFC7643.EMAILS).get();
+    emailArray.removeAll();
+    for ( int i = 0 ; i < 5000 ; i++ )
+    {
+      emailArray.add(JsonHelper.readJsonDocument("{\"value\": \"goldfish" + i + "@germany.de\", \"type\": \"work\"}"));
+    }
+    if (addDuplicate)
+    {
+      emailArray.add(JsonHelper.readJsonDocument("{\"type\": \"work\", \"value\": \"goldfish1234@germany.de\"}"));
+    }
+    Schema metaSchema = new Schema(metaSchemaNode);
+    if (addDuplicate)
+    {
+      try
+      {
+        SchemaValidator.validateDocumentForRequest(metaSchema, userSchema, HttpMethod.POST);
+        Assertions.fail("this point must not be reached");
+      }
+      catch (DocumentValidationException ex)
+      {
+        MatcherAssert.assertThat(ex.getMessage(), Matchers.containsString("goldfish1234@germany.de"));
+      }
+    }
+    else
+    {
+      JsonNode validatedDocument = SchemaValidator.validateDocumentForRequest(metaSchema,
+                                                                              userSchema,
+                                                                              HttpMethod.POST);
+      Assertions.assertEquals(5000, validatedDocument.get(AttributeNames.RFC7643.EMAILS).size());
+    }
+  }
+
   /**
    * This test will make sure that an exception is thrown if a multivalued complex type contains several primary
    * attributes
@@ -0,0 +1,192 @@
+package de.captaingoldfish.scim.sdk.server.schemas;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import de.captaingoldfish.scim.sdk.common.constants.AttributeNames;
+import de.captaingoldfish.scim.sdk.common.constants.ClassPathReferences;
+import de.captaingoldfish.scim.sdk.common.constants.ResourceTypeNames;
+import de.captaingoldfish.scim.sdk.common.constants.SchemaUris;
+import de.captaingoldfish.scim.sdk.common.resources.EnterpriseUser;
+import de.captaingoldfish.scim.sdk.common.resources.Group;
+import de.captaingoldfish.scim.sdk.common.resources.User;
+import de.captaingoldfish.scim.sdk.common.resources.complex.Meta;
+import de.captaingoldfish.scim.sdk.common.resources.complex.Name;
+import de.captaingoldfish.scim.sdk.common.resources.multicomplex.Email;
+import de.captaingoldfish.scim.sdk.common.resources.multicomplex.Member;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
+import de.captaingoldfish.scim.sdk.server.endpoints.handler.GroupHandlerImpl;
+import de.captaingoldfish.scim.sdk.server.endpoints.handler.UserHandlerImpl;
+
+
+/**
+ * author Pascal Knueppel <br>
+ * created at: 17.10.2026 <br>
+ * <br>
+ */
+public class TrustedResponseProjectorTest
+{
+
+  /**
+   * the base url that is used to build resource references
+   */
+  private final Supplier<String> baseUrlSupplier = () -> "http://localhost:8080/scim/v2";
+
+  /**
+   * holds the user and group resource types
+   */
+  private ResourceTypeFactory resourceTypeFactory;
+
+  /**
+   * the user resource type with the enterprise user extension
+   */
+  private ResourceType userResourceType;
+
+  /**
+   * the group resource type
+   */
+  private ResourceType groupResourceType;
+
+  /**
+   * registers the user and group resource types
+   */
+  @BeforeEach
+  public void initialize()
+  {
+    resourceTypeFactory = new ResourceTypeFactory();
+    userResourceType = resourceTypeFactory.registerResourceType(new UserHandlerImpl(true),
+                                                                JsonHelper.loadJsonDocument(ClassPathReferences.USER_RESOURCE_TYPE_JSON),
+                                                                JsonHelper.loadJsonDocument(ClassPathReferences.USER_SCHEMA_JSON),
+                                                                JsonHelper.loadJsonDocument(ClassPathReferences.ENTERPRISE_USER_SCHEMA_JSON));
+    groupResourceType = resourceTypeFactory.registerResourceType(new GroupHandlerImpl(),
+                                                                 JsonHelper.loadJsonDocument(ClassPathReferences.GROUP_RESOURCE_TYPE_JSON),
+                                                                 JsonHelper.loadJsonDocument(ClassPathReferences.GROUP_SCHEMA_JSON));
+  }
+
+  /**
+   * creates a user with attributes of all returned types
+   */
+  private User createUser()
+  {
+    Instant now = Instant.now();
+    Meta meta = Meta.builder()
+                    .created(now)
+                    .lastModified(now)
+                    .location(baseUrlSupplier.get() + "/Users/123")
+                    .build();
+    meta.setResourceType(ResourceTypeNames.USER);
+    User user = User.builder()
+                    .id(UUID.randomUUID().toString())
+                    .userName("goldfish")
+                    .nickName("captain")
+                    .password("secret")
+                    .name(Name.builder().givenName("captain").familyName("goldfish").build())
+                    .emails(Arrays.asList(Email.builder().value("goldfish@localhost").primary(true).build()))
+                    .enterpriseUser(EnterpriseUser.builder().costCenter("costCenter").build())
+                    .meta(meta)
+                    .build();
+    user.set("unknownAttribute", new TextNode("abc"));
+    return user;
+  }
+
+  /**
+   * verifies that the projection returns the same attributes as the response validation
+   */
+  @ParameterizedTest
+  @CsvSource(value = {"null,null", "userName,null", "name.givenName,null", "null,nickName", "emails,name",
+                      "urn:ietf:params:scim:schemas:extension:enterprise:2.0:User:costCenter,null",
+                      "null,urn:ietf:params:scim:schemas:extension:enterprise:2.0:User:costCenter"},
+              nullValues = "null")
+  public void testProjectionMatchesResponseValidation(String attributes, String excludedAttributes)
+  {
+    User user = createUser();
+    AttributeProjection projection = new AttributeProjection(attributes, excludedAttributes);
+    JsonNode validatedUser = SchemaValidator.validateDocumentForResponse(resourceTypeFactory,
+                                                                         userResourceType,
+                                                                         user,
+                                                                         null,
+                                                                         projection,
+                                                                         baseUrlSupplier);
+    TrustedResponseProjector projector = new TrustedResponseProjector(resourceTypeFactory,
+                                                                      projection,
+                                                                      baseUrlSupplier);
+    JsonNode projectedUser = projector.projectDocument(userResourceType, user);
+    Assertions.assertEquals(validatedUser, projectedUser);
+    Assertions.assertFalse(projectedUser.has(AttributeNames.RFC7643.PASSWORD));
+    Assertions.assertFalse(projectedUser.has("unknownAttribute"));
+  }
+
+  /**
+   * verifies that the original resource is not modified and that nodes that are not changed by the projection
+   * are shared with the original resource
+   */
+  @Test
+  public void testOriginalResourceIsNotModified()
+  {
+    User user = createUser();
+    String originalUser = user.toString();
+    TrustedResponseProjector projector = new TrustedResponseProjector(resourceTypeFactory,
+                                                                      new AttributeProjection(null,
+                                                                                              "name.familyName"),
+                                                                      baseUrlSupplier);
+    JsonNode projectedUser = projector.projectDocument(userResourceType, user);
+    Assertions.assertEquals(originalUser, user.toString());
+    Assertions.assertSame(user.get(AttributeNames.RFC7643.EMAILS), projectedUser.get(AttributeNames.RFC7643.EMAILS));
+    Assertions.assertSame(user.get(SchemaUris.ENTERPRISE_USER_URI), projectedUser.get(SchemaUris.ENTERPRISE_USER_URI));
+    Assertions.assertNotSame(user.get(AttributeNames.RFC7643.NAME), projectedUser.get(AttributeNames.RFC7643.NAME));
+    Assertions.assertFalse(projectedUser.get(AttributeNames.RFC7643.NAME).has(AttributeNames.RFC7643.FAMILY_NAME));
+    Assertions.assertTrue(user.get(AttributeNames.RFC7643.NAME).has(AttributeNames.RFC7643.FAMILY_NAME));
+  }
+
+  /**
+   * verifies that an extension that is excluded completely is also removed from the schemas attribute
+   */
+  @Test
+  public void testExcludedExtensionIsRemovedFromSchemas()
+  {
+    User user = createUser();
+    TrustedResponseProjector projector = new TrustedResponseProjector(resourceTypeFactory,
+                                                                      new AttributeProjection(null,
+                                                                                              SchemaUris.ENTERPRISE_USER_URI),
+                                                                      baseUrlSupplier);
+    JsonNode projectedUser = projector.projectDocument(userResourceType, user);
+    Assertions.assertFalse(projectedUser.has(SchemaUris.ENTERPRISE_USER_URI));
+    Assertions.assertEquals(1, projectedUser.get(AttributeNames.RFC7643.SCHEMAS).size());
+    Assertions.assertEquals(2, user.getSchemas().size());
+  }
+
+  /**
+   * verifies that missing resource references of group members are added from their value and type
+   */
+  @Test
+  public void testMissingResourceReferenceIsAdded()
+  {
+    String userId = UUID.randomUUID().toString();
+    Member member = Member.builder().value(userId).type(ResourceTypeNames.USER).build();
+    Group group = Group.builder()
+                       .id(UUID.randomUUID().toString())
+                       .displayName("admin")
+                       .members(Collections.singletonList(member))
+                       .build();
+    TrustedResponseProjector projector = new TrustedResponseProjector(resourceTypeFactory,
+                                                                      new AttributeProjection(null, null),
+                                                                      baseUrlSupplier);
+    JsonNode projectedGroup = projector.projectDocument(groupResourceType, group);
+    JsonNode projectedMember = projectedGroup.get(AttributeNames.RFC7643.MEMBERS).get(0);
+    Assertions.assertEquals(baseUrlSupplier.get() + "/Users/" + userId,
+                            projectedMember.get(AttributeNames.RFC7643.REF).textValue());
+    Assertions.assertFalse(member.has(AttributeNames.RFC7643.REF));
+  }
+}
@@ -8,8 +8,11 @@ import java.util.stream.Collectors;
 
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
@@ -247,6 +250,27 @@ public class ResourceNodeComparatorTest implements FileReferences
     return dynamicTests;
   }
 
+  /**
+   * verifies that the precomputed sort keys of case insensitive strings are ordered exactly like
+   * {@link String#compareToIgnoreCase(String)} would order the strings
+   */
+  @ParameterizedTest
+  @CsvSource({"abc,ABD", "Zeta,alpha", "\u00df,SS", "_under,Upper", "\u0130stanbul,istanbul", "ab,ABC"})
+  public void testCaseInsensitiveSortKeys(String value1, String value2)
+  {
+    JsonNode userSchemaNode = JsonHelper.loadJsonDocument(ClassPathReferences.USER_SCHEMA_JSON);
+    Schema userSchema = new Schema(userSchemaNode, null);
+    SchemaAttribute userName = userSchema.getSchemaAttribute("userName");
+    ResourceNodeComparator comparator = new ResourceNodeComparator(userName, SortOrder.ASCENDING);
+    User user1 = User.builder().userName(value1).build();
+    User user2 = User.builder().userName(value2).build();
+    int expected = Integer.signum(value1.compareToIgnoreCase(value2));
+    Assertions.assertEquals(expected,
+                            Integer.signum(comparator.compareSortKeys(comparator.getSortKey(user1),
+                                                                      comparator.getSortKey(user2))));
+    Assertions.assertEquals(expected, Integer.signum(comparator.compare(user1, user2)));
+  }
+
   private DynamicTest getDynamicStringComparisonTest(SchemaAttribute schemaAttribute,
                                                      SortOrder sortOrder,
                                                      List<ResourceNode> resources,
@@ -0,0 +1,122 @@
+package de.captaingoldfish.scim.sdk.server.sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import de.captaingoldfish.scim.sdk.common.constants.ClassPathReferences;
+import de.captaingoldfish.scim.sdk.common.constants.enums.SortOrder;
+import de.captaingoldfish.scim.sdk.common.resources.User;
+import de.captaingoldfish.scim.sdk.common.schemas.Schema;
+import de.captaingoldfish.scim.sdk.common.schemas.SchemaAttribute;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
+
+
+/**
+ * compares the sorting of a complete list with the selection of the first page by the
+ * {@link ResourceNodeSorter}. This benchmark is not executed during the build. Run it with the main method
+ * from the test classpath<br>
+ * <br>
+ * author Pascal Knueppel <br>
+ * created at: 17.10.2026 <br>
+ * <br>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourceNodeSorterBenchmark
+{
+
+  /**
+   * the number of users to sort
+   */
+  @Param({"10000", "200000"})
+  private int numberOfUsers;
+
+  /**
+   * the number of users on the requested page
+   */
+  @Param({"50"})
+  private int count;
+
+  /**
+   * the userName attribute that is used for sorting
+   */
+  private SchemaAttribute userName;
+
+  /**
+   * the users to sort
+   */
+  private List<User> users;
+
+  public static void main(String[] args) throws RunnerException
+  {
+    new Runner(new OptionsBuilder().include(ResourceNodeSorterBenchmark.class.getSimpleName()).build()).run();
+  }
+
+  /**
+   * creates the users with random userNames
+   */
+  @Setup
+  public void createUsers()
+  {
+    Schema userSchema = new Schema(JsonHelper.loadJsonDocument(ClassPathReferences.USER_SCHEMA_JSON), null);
+    userName = userSchema.getSchemaAttribute("userName");
+    Random random = new Random(numberOfUsers);
+    users = new ArrayList<>(numberOfUsers);
+    for ( int i = 0 ; i < numberOfUsers ; i++ )
+    {
+      users.add(User.builder().id(String.valueOf(i)).userName("user" + random.nextInt()).build());
+    }
+  }
+
+  /**
+   * the previous approach that sorts the complete list and extracts the first page afterwards
+   */
+  @Benchmark
+  public List<User> sortCompleteList()
+  {
+    return users.parallelStream()
+                .sorted(new ResourceNodeComparator(userName, SortOrder.ASCENDING))
+                .collect(Collectors.toList())
+                .subList(0, count);
+  }
+
+  /**
+   * selects the first page with a bounded heap
+   */
+  @Benchmark
+  public List<User> selectFirstPage()
+  {
+    return ResourceNodeSorter.sort(users, userName, SortOrder.ASCENDING, count);
+  }
+
+  /**
+   * selects a page at the end of the list which falls back to a full sort
+   */
+  @Benchmark
+  public List<User> selectLastPage()
+  {
+    return ResourceNodeSorter.sort(users, userName, SortOrder.ASCENDING, numberOfUsers);
+  }
+}
@@ -0,0 +1,117 @@
+package de.captaingoldfish.scim.sdk.server.sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import de.captaingoldfish.scim.sdk.common.constants.ClassPathReferences;
+import de.captaingoldfish.scim.sdk.common.constants.enums.SortOrder;
+import de.captaingoldfish.scim.sdk.common.resources.User;
+import de.captaingoldfish.scim.sdk.common.schemas.Schema;
+import de.captaingoldfish.scim.sdk.common.schemas.SchemaAttribute;
+import de.captaingoldfish.scim.sdk.common.utils.JsonHelper;
+
+
+/**
+ * author Pascal Knueppel <br>
+ * created at: 17.10.2026 <br>
+ * <br>
+ */
+public class ResourceNodeSorterTest
+{
+
+  /**
+   * the userName attribute of the user schema
+   */
+  private static final SchemaAttribute USER_NAME = getUserNameAttribute();
+
+  /**
+   * reads the userName attribute from the user schema
+   */
+  private static SchemaAttribute getUserNameAttribute()
+  {
+    Schema userSchema = new Schema(JsonHelper.loadJsonDocument(ClassPathReferences.USER_SCHEMA_JSON), null);
+    return userSchema.getSchemaAttribute("userName");
+  }
+
+  /**
+   * creates users with random userNames. Some users do not have a userName and some have the same userName
+   */
+  private static List<User> createUsers(int numberOfUsers)
+  {
+    Random random = new Random(numberOfUsers);
+    List<User> users = new ArrayList<>();
+    for ( int i = 0 ; i < numberOfUsers ; i++ )
+    {
+      int value = random.nextInt(numberOfUsers);
+      String userName = value % 10 == 0 ? null : (value % 2 == 0 ? "User" : "user") + value;
+      users.add(User.builder().id(String.valueOf(i)).userName(userName).build());
+    }
+    return users;
+  }
+
+  /**
+   * sorts the users with the comparator only
+   */
+  private static List<User> sortWithComparator(List<User> users, SortOrder sortOrder)
+  {
+    return users.stream().sorted(new ResourceNodeComparator(USER_NAME, sortOrder)).collect(Collectors.toList());
+  }
+
+  /**
+   * verifies that the bounded heap and the full sort return the same elements in the same order as a stable
+   * sort of the whole list
+   */
+  @ParameterizedTest
+  @CsvSource({"ASCENDING,1", "ASCENDING,10", "ASCENDING,100", "ASCENDING,500", "ASCENDING,1000",
+              "DESCENDING,1", "DESCENDING,10", "DESCENDING,300", "DESCENDING,2000"})
+  public void testSortFirstElements(SortOrder sortOrder, int maxResults)
+  {
+    List<User> users = createUsers(1000);
+    List<User> expectedUsers = sortWithComparator(users, sortOrder);
+    expectedUsers = expectedUsers.subList(0, Math.min(maxResults, expectedUsers.size()));
+
+    List<User> sortedUsers = ResourceNodeSorter.sort(users, USER_NAME, sortOrder, maxResults);
+    Assertions.assertEquals(expectedUsers.size(), sortedUsers.size());
+    for ( int i = 0 ; i < expectedUsers.size() ; i++ )
+    {
+      Assertions.assertSame(expectedUsers.get(i), sortedUsers.get(i), "position " + i);
+    }
+  }
+
+  /**
+   * verifies that users with equal values keep their original order
+   */
+  @Test
+  public void testSortingIsStable()
+  {
+    List<User> users = new ArrayList<>();
+    for ( int i = 0 ; i < 100 ; i++ )
+    {
+      users.add(User.builder().id(String.valueOf(i)).userName(i % 3 == 0 ? "a" : "b").build());
+    }
+    List<User> sortedUsers = ResourceNodeSorter.sort(users, USER_NAME, SortOrder.DESCENDING, 10);
+    Assertions.assertEquals(10, sortedUsers.size());
+    List<Integer> ids = sortedUsers.stream()
+                                   .map(user -> Integer.parseInt(user.getId().get()))
+                                   .collect(Collectors.toList());
+    Assertions.assertEquals(ids.stream().sorted().collect(Collectors.toList()), ids);
+    sortedUsers.forEach(user -> Assertions.assertEquals("b", user.getUserName().get()));
+  }
+
+  /**
+   * verifies that an empty list is returned if no elements are requested
+   */
+  @Test
+  public void testSortWithoutResults()
+  {
+    Assertions.assertTrue(ResourceNodeSorter.sort(createUsers(10), USER_NAME, SortOrder.ASCENDING, 0).isEmpty());
+    Assertions.assertTrue(ResourceNodeSorter.sort(new ArrayList<User>(), USER_NAME, SortOrder.ASCENDING).isEmpty());
+  }
+}